@@ -46,6 +46,7 @@ import java.net.URL;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Consumer;
 
 /**
@@ -59,10 +60,22 @@ public class BpmBuildScheduler implements BuildScheduler {
     private static final Logger logger = LoggerFactory.getLogger(BpmBuildScheduler.class);
     private final int AUTHENTICATION_TIMEOUT_S = 20;
 
+    /** Remote session is re-created periodically, so a session which stopped working without failing is not kept forever */
+    private static final long SESSION_MAX_AGE_MILLIS = TimeUnit.MINUTES.toMillis(30);
+
     private BpmCompleteListener bpmCompleteListener;
 
     private Configuration configuration;
 
+    private volatile BpmModuleConfig bpmConfig;
+
+    /** Process parameters derived from the configuration, they are the same for all the builds */
+    private volatile String processConfig;
+
+    private final Object sessionLock = new Object();
+    private volatile KieSession session;
+    private volatile long sessionCreated;
+
     @Override
     public String getId() {
         return "bpm-build-scheduler";
@@ -96,8 +109,15 @@ public class BpmBuildScheduler implements BuildScheduler {
 
     private ProcessInstance startProcess(BuildTask buildTask) throws CoreException {
         try {
-            KieSession kieSession = createSession(buildTask);
-            ProcessInstance processInstance = kieSession.startProcess(getProcessId(buildTask), createParameters(buildTask));
+            KieSession kieSession = getSession(buildTask);
+            ProcessInstance processInstance;
+            try {
+                processInstance = kieSession.startProcess(getProcessId(buildTask), createParameters(buildTask));
+            } catch (RuntimeException e) {
+                //not retried as the process might have been started, the next build gets a new session
+                invalidateSession(kieSession);
+                throw new CoreException("Could not start BPM process", e);
+            }
             if (processInstance == null) {
                 logger.warn("Failed to create new process instance.");
             } else {
@@ -125,7 +145,16 @@ public class BpmBuildScheduler implements BuildScheduler {
     String getProcessConfig()
             throws JsonProcessingException, ConfigurationParseException {
 
-        BpmModuleConfig moduleConfig = configuration.getModuleConfig(new PncConfigProvider<>(BpmModuleConfig.class));
+        String config = processConfig;
+        if (config == null) {
+            config = createProcessConfig();
+            processConfig = config;
+        }
+        return config;
+    }
+
+    private String createProcessConfig() throws JsonProcessingException, ConfigurationParseException {
+        BpmModuleConfig moduleConfig = getBpmConfig();
         Map<String, Object> params = new HashMap<>();
 
         params.put("pncBaseUrl", moduleConfig.getPncBaseUrl());
@@ -163,9 +192,41 @@ public class BpmBuildScheduler implements BuildScheduler {
         return buildExecutionConfigurationREST.toString();
     }
 
+    /**
+     * Remote session only holds the connection parameters and executes each command as a separate request,
+     * so a single session is shared by all the builds. It is re-created when starting a process fails
+     * or when it gets older than {@link #SESSION_MAX_AGE_MILLIS}.
+     */
+    KieSession getSession(BuildTask buildTask) throws ConfigurationParseException, MalformedURLException {
+        KieSession kieSession = session;
+        if (kieSession != null && !isSessionExpired()) {
+            return kieSession;
+        }
+        synchronized (sessionLock) {
+            if (session == null || isSessionExpired()) {
+                session = createSession(buildTask);
+                sessionCreated = System.currentTimeMillis();
+            }
+            return session;
+        }
+    }
+
+    private boolean isSessionExpired() {
+        return System.currentTimeMillis() - sessionCreated > SESSION_MAX_AGE_MILLIS;
+    }
+
+    private void invalidateSession(KieSession failedSession) {
+        synchronized (sessionLock) {
+            if (session == failedSession) {
+                logger.warn("Discarding KIE session after a failure.");
+                session = null;
+            }
+        }
+    }
+
     protected KieSession createSession(BuildTask buildTask) throws ConfigurationParseException, MalformedURLException {
         logger.debug("[{}] creating KIE session", buildTask.getId());
-        BpmModuleConfig config = configuration.getModuleConfig(new PncConfigProvider<>(BpmModuleConfig.class));
+        BpmModuleConfig config = getBpmConfig();
         String instanceUrl = config.getBpmInstanceUrl();
         String deploymentId = config.getDeploymentId();
         String bpmEndpointUser = config.getUsername();
@@ -186,9 +247,18 @@ public class BpmBuildScheduler implements BuildScheduler {
     }
 
     String getProcessId(BuildTask buildTask) throws ConfigurationParseException {
-        BpmModuleConfig config = configuration.getModuleConfig(new PncConfigProvider<>(BpmModuleConfig.class));
+        BpmModuleConfig config = getBpmConfig();
         String processId = config.getProcessId();
         logger.debug("[{}] Getting processId: {} ", buildTask.getId(), processId);
         return processId;
     }
+
+    private BpmModuleConfig getBpmConfig() throws ConfigurationParseException {
+        BpmModuleConfig config = bpmConfig;
+        if (config == null) {
+            config = configuration.getModuleConfig(new PncConfigProvider<>(BpmModuleConfig.class));
+            bpmConfig = config;
+        }
+        return config;
+    }
 }
@@ -18,15 +18,34 @@
 
 package org.jboss.pnc.coordinator.builder.bpm;
 
+import org.jboss.pnc.common.Configuration;
+import org.jboss.pnc.common.json.ConfigurationParseException;
+import org.jboss.pnc.common.json.moduleconfig.BpmModuleConfig;
+import org.jboss.pnc.common.json.moduleprovider.PncConfigProvider;
+import org.jboss.pnc.common.monitor.TimerWheel;
+import org.jboss.pnc.spi.BuildExecutionStatus;
 import org.jboss.pnc.spi.BuildResult;
+import org.jboss.pnc.spi.executor.exceptions.ExecutorException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import javax.annotation.PreDestroy;
 import javax.enterprise.context.ApplicationScoped;
-import java.util.HashMap;
-import java.util.Map;
+import javax.inject.Inject;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
 
 /**
+ * Listeners which do not receive the completion from the BPM server in the configured time-out are evicted
+ * and completed with a system error, so the build task does not stay in progress forever.
+ * The time-out completion is handed from the timer wheel thread to an executor, so a slow listener
+ * does not delay the other time-outs.
+ *
  * @author <a href="mailto:matejonnet@gmail.com">Matej Lazar</a>
  */
 @ApplicationScoped
@@ -34,20 +53,105 @@ public class BpmCompleteListener {
 
     private static final Logger logger = LoggerFactory.getLogger(BpmCompleteListener.class);
 
-    private final Map<Long, BpmListener> listeners = new HashMap<>(); //TODO timeout: evict from map and notify completion error if there is no response from BPM server in specified time-out
+    private static final long TIMER_TICK_SECONDS = 1;
+    private static final int TIMER_WHEEL_SIZE = 512;
+    private static final int TIMEOUT_THREADS = 2;
+
+    private final ConcurrentMap<Long, Registration> listeners = new ConcurrentHashMap<>();
+
+    private TimerWheel timerWheel;
+    private ExecutorService executorService;
+    private long timeoutMillis;
+
+    @Deprecated
+    public BpmCompleteListener() { //CDI workaround
+    }
+
+    @Inject
+    public BpmCompleteListener(Configuration configuration) throws ConfigurationParseException {
+        this(new TimerWheel(TIMER_TICK_SECONDS, TimeUnit.SECONDS, TIMER_WHEEL_SIZE, "bpm-complete-listener-timeout"),
+                Executors.newFixedThreadPool(TIMEOUT_THREADS),
+                TimeUnit.MINUTES.toMillis(configuration.getModuleConfig(new PncConfigProvider<>(BpmModuleConfig.class))
+                        .getBuildCompletionTimeoutMinutes()));
+    }
+
+    BpmCompleteListener(TimerWheel timerWheel, ExecutorService executorService, long timeoutMillis) {
+        this.timerWheel = timerWheel;
+        this.executorService = executorService;
+        this.timeoutMillis = timeoutMillis;
+    }
 
     public void subscribe(BpmListener bpmListener) {
         logger.debug("Subscribing listener for coordinating task id [{}].", bpmListener.getTaskId());
-        listeners.put(bpmListener.getTaskId(), bpmListener);
+        Registration registration = new Registration(bpmListener);
+        Registration replaced = listeners.put(bpmListener.getTaskId(), registration);
+        if (replaced != null) {
+            logger.warn("Replaced complete listener for task id [{}].", bpmListener.getTaskId());
+            replaced.cancelTimeout();
+        }
+        registration.timeout = timerWheel.newTimeout(() -> submitTimeout(registration), timeoutMillis, TimeUnit.MILLISECONDS);
     }
 
     public void notifyCompleted(long taskId, BuildResult buildExecutionResult) {
         logger.debug("Coordinating task id [{}] completed.", taskId);
-        BpmListener bpmListener = listeners.remove(taskId);
-        if (bpmListener != null) {
-            bpmListener.onComplete(buildExecutionResult);
+        Registration registration = listeners.remove(taskId);
+        if (registration != null) {
+            registration.cancelTimeout();
+            registration.bpmListener.onComplete(buildExecutionResult);
         } else {
             logger.warn("Missing complete listener for task id [{}].", taskId);
         }
     }
+
+    private void submitTimeout(Registration registration) {
+        try {
+            executorService.execute(() -> onTimeout(registration)); //do not block the timer thread
+        } catch (RejectedExecutionException e) {
+            logger.warn("Cannot complete timed out task id [{}], the listener is stopped.", registration.bpmListener.getTaskId());
+        }
+    }
+
+    private void onTimeout(Registration registration) {
+        long taskId = registration.bpmListener.getTaskId();
+        if (!listeners.remove(taskId, registration)) {
+            return; //completed or replaced meanwhile
+        }
+        logger.error("No response from BPM server for task id [{}] in {} ms, completing it with a system error.", taskId, timeoutMillis);
+        ExecutorException exception = new ExecutorException("BPM server did not report completion of the build in " + timeoutMillis + " ms.");
+        BuildResult buildResult = new BuildResult(
+                Optional.empty(),
+                Optional.empty(),
+                Optional.empty(),
+                Optional.of(exception),
+                Optional.of(BuildExecutionStatus.SYSTEM_ERROR));
+        registration.bpmListener.onComplete(buildResult);
+    }
+
+    int getListenersCount() {
+        return listeners.size();
+    }
+
+    @PreDestroy
+    public void destroy() {
+        if (timerWheel != null) {
+            timerWheel.stop();
+            executorService.shutdownNow();
+        }
+    }
+
+    private static class Registration {
+        private final BpmListener bpmListener;
+        private volatile TimerWheel.Timeout timeout;
+
+        private Registration(BpmListener bpmListener) {
+            this.bpmListener = bpmListener;
+        }
+
+        private void cancelTimeout() {
+            TimerWheel.Timeout timeout = this.timeout;
+            if (timeout != null) { //null if completed before the timeout was scheduled, the timeout is then ignored when it expires
+                timeout.cancel();
+            }
+        }
+    }
 }
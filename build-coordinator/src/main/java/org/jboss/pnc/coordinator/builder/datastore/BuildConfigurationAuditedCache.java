@@ -0,0 +1,168 @@
+/**
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.pnc.coordinator.builder.datastore;
+
+import org.jboss.pnc.model.BuildConfigurationAudited;
+import org.jboss.pnc.model.BuildEnvironment;
+import org.jboss.pnc.model.IdRev;
+import org.jboss.pnc.model.License;
+import org.jboss.pnc.model.Project;
+
+import javax.enterprise.context.ApplicationScoped;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Keeps the latest {@link BuildConfigurationAudited} of each build configuration, so triggering a build doesn't have to
+ * load it from the audit tables.
+ *
+ * <p>
+ *     A cached entry is used only while its revision is still the latest committed revision of the build
+ *     configuration and the version of the referenced entities (project, build environment), which aren't covered by
+ *     the audit revision, is unchanged. Both checks are cheap queries, and unlike invalidating on changes, they also
+ *     see changes committed by other transactions and other nodes of the cluster. Nothing is cached while the
+ *     version of the referenced entities isn't known.
+ * </p>
+ * <p>
+ *     Every caller gets its own copy of the revision, its project (with its license) and its build environment. The
+ *     set of the project's build configurations is copied, the detached configurations in it are shared. Build
+ *     records of the revision are not copied, callers have to query them from the datastore.
+ * </p>
+ */
+@ApplicationScoped
+public class BuildConfigurationAuditedCache {
+
+    private final ConcurrentMap<Integer, CachedRevision> latestRevisions = new ConcurrentHashMap<>();
+
+    /**
+     * Gets the latest revision of the build configuration.
+     *
+     * @param buildConfigurationId Id of the build configuration
+     * @param latestRevisionLoader Loads the number of the latest revision from the datastore
+     * @param associationsVersionLoader Loads the version of the entities referenced by the revisions, may return null
+     * @param loader Loads the latest revision from the datastore, used when the cached one is missing or outdated
+     * @return The latest revision of the given build configuration, callers get their own copy of the cached value
+     */
+    public BuildConfigurationAudited getLatest(Integer buildConfigurationId, Function<Integer, Integer> latestRevisionLoader,
+            Supplier<String> associationsVersionLoader, Function<Integer, BuildConfigurationAudited> loader) {
+        Integer latestRevision = latestRevisionLoader.apply(buildConfigurationId);
+        if (latestRevision == null) {
+            return loader.apply(buildConfigurationId);
+        }
+        //read before loading, so a change committed during the load makes the entry outdated rather than stale
+        String associationsVersion = associationsVersionLoader.get();
+        if (associationsVersion == null) {
+            latestRevisions.remove(buildConfigurationId);
+            return loader.apply(buildConfigurationId);
+        }
+        CachedRevision cached = latestRevisions.get(buildConfigurationId);
+        if (cached != null && cached.isValid(latestRevision, associationsVersion)) {
+            return copy(cached.revision);
+        }
+
+        BuildConfigurationAudited loaded = loader.apply(buildConfigurationId);
+        if (loaded != null) {
+            //a concurrent load may have cached a newer revision meanwhile
+            latestRevisions.merge(buildConfigurationId, new CachedRevision(copy(loaded), associationsVersion),
+                    (current, candidate) -> candidate.revision.getRev() >= current.revision.getRev() ? candidate : current);
+        }
+        return loaded;
+    }
+
+    private static BuildConfigurationAudited copy(BuildConfigurationAudited source) {
+        BuildConfigurationAudited copy = new BuildConfigurationAudited();
+        copy.setIdRev(new IdRev(source.getIdRev().getId(), source.getIdRev().getRev()));
+        copy.setBuildRecordId(source.getIdRev().getId());
+        copy.setRev(source.getRev());
+        copy.setName(source.getName());
+        copy.setBuildScript(source.getBuildScript());
+        copy.setScmRepoURL(source.getScmRepoURL());
+        copy.setScmRevision(source.getScmRevision());
+        copy.setScmMirrorRepoURL(source.getScmMirrorRepoURL());
+        copy.setScmMirrorRevision(source.getScmMirrorRevision());
+        copy.setDescription(source.getDescription());
+        copy.setProject(copy(source.getProject()));
+        copy.setBuildEnvironment(copy(source.getBuildEnvironment()));
+        return copy;
+    }
+
+    private static Project copy(Project source) {
+        if (source == null) {
+            return null;
+        }
+        Project copy = new Project();
+        copy.setId(source.getId());
+        copy.setName(source.getName());
+        copy.setDescription(source.getDescription());
+        copy.setIssueTrackerUrl(source.getIssueTrackerUrl());
+        copy.setProjectUrl(source.getProjectUrl());
+        copy.setLicense(copy(source.getLicense()));
+        if (source.getBuildConfigurations() != null) {
+            copy.setBuildConfigurations(new HashSet<>(source.getBuildConfigurations()));
+        }
+        return copy;
+    }
+
+    private static License copy(License source) {
+        if (source == null) {
+            return null;
+        }
+        License copy = new License();
+        copy.setId(source.getId());
+        copy.setFullName(source.getFullName());
+        copy.setFullContent(source.getFullContent());
+        copy.setRefUrl(source.getRefUrl());
+        copy.setShortName(source.getShortName());
+        return copy;
+    }
+
+    private static BuildEnvironment copy(BuildEnvironment source) {
+        if (source == null) {
+            return null;
+        }
+        return BuildEnvironment.Builder.newBuilder()
+                .id(source.getId())
+                .name(source.getName())
+                .description(source.getDescription())
+                .systemImageRepositoryUrl(source.getSystemImageRepositoryUrl())
+                .systemImageId(source.getSystemImageId())
+                .attributes(source.getAttributes() == null ? null : new HashMap<>(source.getAttributes()))
+                .systemImageType(source.getSystemImageType())
+                .build();
+    }
+
+    private static class CachedRevision {
+
+        private final BuildConfigurationAudited revision;
+
+        private final String associationsVersion;
+
+        private CachedRevision(BuildConfigurationAudited revision, String associationsVersion) {
+            this.revision = revision;
+            this.associationsVersion = associationsVersion;
+        }
+
+        private boolean isValid(Integer latestRevision, String latestAssociationsVersion) {
+            return latestRevision.equals(revision.getRev()) && latestAssociationsVersion.equals(associationsVersion);
+        }
+    }
+}
@@ -37,8 +37,10 @@ import javax.inject.Inject;
 import java.io.PrintWriter;
 import java.io.StringWriter;
 import java.time.Instant;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Date;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 
@@ -52,6 +54,8 @@ public class DatastoreAdapter {
 
     private Datastore datastore;
 
+    private BuildConfigurationAuditedCache buildConfigurationAuditedCache;
+
     private static final Logger log = Logger.getLogger(DatastoreAdapter.class);
 
     // needed for EJB/CDI
@@ -60,8 +64,9 @@ public class DatastoreAdapter {
     }
 
     @Inject
-    public DatastoreAdapter(Datastore datastore) {
+    public DatastoreAdapter(Datastore datastore, BuildConfigurationAuditedCache buildConfigurationAuditedCache) {
         this.datastore = datastore;
+        this.buildConfigurationAuditedCache = buildConfigurationAuditedCache;
     }
 
     public BuildConfigSetRecord saveBuildConfigSetRecord(BuildConfigSetRecord buildConfigSetRecord) throws DatastoreException {
@@ -69,15 +74,21 @@ public class DatastoreAdapter {
     }
 
     /**
-     * Get the latest audited revision for the given build configuration ID
+     * Get the latest audited revision for the given build configuration ID.
+     * Revisions are cached while they are the latest ones.
      *
      * @param buildConfigurationId
      * @return The latest revision of the given build configuration
      */
     public BuildConfigurationAudited getLatestBuildConfigurationAudited(Integer buildConfigurationId) {
-        BuildConfigurationAudited buildConfigAudited = datastore.getLatestBuildConfigurationAudited(buildConfigurationId);
-        loadBuildConfigurations(buildConfigAudited);
-        return buildConfigAudited;
+        return buildConfigurationAuditedCache.getLatest(buildConfigurationId, datastore::getLatestBuildConfigurationAuditedRevision,
+                datastore::getBuildConfigurationAuditedAssociationsVersion, id -> {
+            BuildConfigurationAudited buildConfigAudited = datastore.getLatestBuildConfigurationAudited(id);
+            if (buildConfigAudited != null) {
+                loadBuildConfigurations(buildConfigAudited);
+            }
+            return buildConfigAudited;
+        });
     }
 
     /**
@@ -105,21 +116,20 @@ public class DatastoreAdapter {
                 RepositoryManagerResult repositoryManagerResult = buildResult.getRepositoryManagerResult().get();
                 buildRecordBuilder.buildContentId(repositoryManagerResult.getBuildContentId());
 
-                Collection<Artifact> builtArtifacts = repositoryManagerResult.getBuiltArtifacts();
-                Map<Artifact, String> builtConflicts = datastore.checkForConflictingArtifacts(builtArtifacts);
-                if (builtConflicts.size() > 0) {
-                    storeResult(buildTask, Optional.of(buildResult), new BuildCoordinationException("Trying to store success build with invalid repository manager result. Conflicting artifact data found: " + builtConflicts.toString()));
-                    return;
-                }
-                buildRecordBuilder.builtArtifacts(repositoryManagerResult.getBuiltArtifacts());
+                List<Artifact> builtArtifacts = repositoryManagerResult.getBuiltArtifacts();
+                List<Artifact> dependencyArtifacts = repositoryManagerResult.getDependencies();
 
-                Collection<Artifact> dependencyArtifacts = repositoryManagerResult.getDependencies();
-                Map<Artifact, String> depConflicts = datastore.checkForConflictingArtifacts(builtArtifacts);
-                if (depConflicts.size() > 0) {
-                    storeResult(buildTask, Optional.of(buildResult), new BuildCoordinationException("Trying to store success build with invalid repository manager result. Conflicting artifact data found: " + depConflicts.toString()));
+                // Check all the artifacts of the build at once
+                Collection<Artifact> allArtifacts = new ArrayList<>(builtArtifacts.size() + dependencyArtifacts.size());
+                allArtifacts.addAll(builtArtifacts);
+                allArtifacts.addAll(dependencyArtifacts);
+                Map<Artifact, String> conflicts = datastore.checkForConflictingArtifacts(allArtifacts);
+                if (conflicts.size() > 0) {
+                    storeResult(buildTask, Optional.of(buildResult), new BuildCoordinationException("Trying to store success build with invalid repository manager result. Conflicting artifact data found: " + conflicts.toString()));
                     return;
                 }
-                buildRecordBuilder.dependencies(repositoryManagerResult.getDependencies());
+                buildRecordBuilder.builtArtifacts(builtArtifacts);
+                buildRecordBuilder.dependencies(dependencyArtifacts);
             } else if (!buildResult.hasFailed()) {
                 storeResult(buildTask, Optional.of(buildResult), new BuildCoordinationException("Trying to store success build with incomplete result. Missing RepositoryManagerResult."));
                 return;
@@ -0,0 +1,138 @@
+/**
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.pnc.coordinator.notifications;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+import java.util.stream.Collectors;
+
+/**
+ * Thread-safe registry of callbacks indexed by task id.
+ *
+ * Callbacks are removed by the caller once the task completes. Callbacks of tasks which never report completion
+ * (eg. the task was lost) expire after {@link #DEFAULT_EXPIRY_MILLIS}; expired callbacks are purged while
+ * registering new ones, at most once per {@link #PURGE_INTERVAL_MILLIS}.
+ *
+ * @param <C> callback type
+ */
+public class CallbackRegistry<C> {
+
+    private static final Logger log = LoggerFactory.getLogger(CallbackRegistry.class);
+
+    public static final long DEFAULT_EXPIRY_MILLIS = TimeUnit.DAYS.toMillis(1);
+
+    static final long PURGE_INTERVAL_MILLIS = TimeUnit.MINUTES.toMillis(10);
+
+    private final ConcurrentMap<Integer, List<Registration<C>>> registrations = new ConcurrentHashMap<>();
+
+    private final long expiryMillis;
+
+    private final LongSupplier clock;
+
+    private final AtomicLong nextPurge;
+
+    public CallbackRegistry() {
+        this(DEFAULT_EXPIRY_MILLIS, System::currentTimeMillis);
+    }
+
+    public CallbackRegistry(long expiryMillis, LongSupplier clock) {
+        this.expiryMillis = expiryMillis;
+        this.clock = clock;
+        this.nextPurge = new AtomicLong(clock.getAsLong() + PURGE_INTERVAL_MILLIS);
+    }
+
+    public void register(Integer taskId, C callback) {
+        Registration<C> registration = new Registration<>(callback, clock.getAsLong());
+        registrations.compute(taskId, (id, current) -> {
+            List<Registration<C>> updated = current == null ? new ArrayList<>(1) : new ArrayList<>(current);
+            updated.add(registration);
+            return Collections.unmodifiableList(updated);
+        });
+        purgeExpiredIfDue();
+    }
+
+    /**
+     * @return Callbacks registered for the task, in registration order
+     */
+    public List<C> get(Integer taskId) {
+        return callbacks(registrations.get(taskId));
+    }
+
+    /**
+     * Atomically removes the callbacks of the task, each callback is returned to exactly one caller.
+     */
+    public List<C> remove(Integer taskId) {
+        return callbacks(registrations.remove(taskId));
+    }
+
+    /**
+     * @return Number of registered callbacks
+     */
+    public int size() {
+        return registrations.values().stream().mapToInt(List::size).sum();
+    }
+
+    void purgeExpiredIfDue() {
+        long now = clock.getAsLong();
+        long scheduled = nextPurge.get();
+        if (now >= scheduled && nextPurge.compareAndSet(scheduled, now + PURGE_INTERVAL_MILLIS)) {
+            purgeExpired(now);
+        }
+    }
+
+    private void purgeExpired(long now) {
+        long registeredBefore = now - expiryMillis;
+        for (Integer taskId : registrations.keySet()) {
+            registrations.computeIfPresent(taskId, (id, current) -> {
+                List<Registration<C>> retained = current.stream()
+                        .filter(registration -> registration.registeredAt >= registeredBefore)
+                        .collect(Collectors.toList());
+                if (retained.size() < current.size()) {
+                    log.debug("Removing {} expired callbacks of task {}.", current.size() - retained.size(), id);
+                }
+                return retained.isEmpty() ? null : Collections.unmodifiableList(retained);
+            });
+        }
+    }
+
+    private List<C> callbacks(List<Registration<C>> registered) {
+        if (registered == null) {
+            return Collections.emptyList();
+        }
+        return registered.stream().map(registration -> registration.callback).collect(Collectors.toList());
+    }
+
+    private static final class Registration<C> {
+        private final C callback;
+        private final long registeredAt;
+
+        private Registration(C callback, long registeredAt) {
+            this.callback = callback;
+            this.registeredAt = registeredAt;
+        }
+    }
+}
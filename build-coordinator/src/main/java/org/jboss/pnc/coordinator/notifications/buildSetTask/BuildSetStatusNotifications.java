@@ -21,23 +21,29 @@ package org.jboss.pnc.coordinator.notifications.buildSetTask;
  * @author <a href="mailto:matejonnet@gmail.com">Matej Lazar</a>
  */
 
+import org.jboss.pnc.coordinator.notifications.CallbackRegistry;
 import org.jboss.pnc.spi.events.BuildSetStatusChangedEvent;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import javax.enterprise.context.ApplicationScoped;
 import javax.enterprise.event.Observes;
-import java.util.HashSet;
-import java.util.Set;
-import java.util.function.Predicate;
-import java.util.stream.Collectors;
+import java.util.List;
 
 @ApplicationScoped
 public class BuildSetStatusNotifications {
 
     private static final Logger log = LoggerFactory.getLogger(BuildSetStatusNotifications.class);
 
-    private final Set<BuildSetCallBack> subscribers = new HashSet<>();
+    private final CallbackRegistry<BuildSetCallBack> subscribers;
+
+    public BuildSetStatusNotifications() {
+        this(new CallbackRegistry<>());
+    }
+
+    BuildSetStatusNotifications(CallbackRegistry<BuildSetCallBack> subscribers) {
+        this.subscribers = subscribers;
+    }
 
     /**
      * Subscriber is automatically removed once task reaches completed state.
@@ -46,31 +52,30 @@ public class BuildSetStatusNotifications {
      */
     public void subscribe(BuildSetCallBack buildSetCallBack) {
         log.debug("Registering new subscriber for buildSetConfigurationId {}.", buildSetCallBack.getBuildSetConfigurationId());
-        subscribers.add(buildSetCallBack);
+        subscribers.register(buildSetCallBack.getBuildSetConfigurationId(), buildSetCallBack);
     }
 
     public void observeEvent(@Observes BuildSetStatusChangedEvent event) {
         log.debug("Observed BuildSetStatusChangedEvent {}.", event);
         BuildSetStatusChangedEvent buildSetStatusChangedEvent = event; // Avoid CDI runtime issue NCL-1505
-        Predicate<BuildSetCallBack> filterSubscribersMatchingTaskId =
-                (callBackUrl) -> callBackUrl.getBuildSetConfigurationId().equals(buildSetStatusChangedEvent.getBuildSetConfigurationId());
 
-        Set<BuildSetCallBack> matchingTask = subscribers.stream().filter(filterSubscribersMatchingTaskId).collect(Collectors.toSet());
+        List<BuildSetCallBack> matchingTask;
+        if (buildSetStatusChangedEvent.getNewStatus().isCompleted()) {
+            matchingTask = subscribers.remove(buildSetStatusChangedEvent.getBuildSetConfigurationId());
+            log.debug("Removing {} subscribers for buildSetConfigurationId {}.", matchingTask.size(), buildSetStatusChangedEvent.getBuildSetConfigurationId());
+        } else {
+            matchingTask = subscribers.get(buildSetStatusChangedEvent.getBuildSetConfigurationId());
+        }
 
-        log.debug("Notifying {} of {} total subscribers with event {}.", matchingTask.size(), subscribers.size(), buildSetStatusChangedEvent);
+        log.debug("Notifying {} subscribers with event {}.", matchingTask.size(), buildSetStatusChangedEvent);
 
         matchingTask.forEach((buildSetCallBack) -> {
             log.trace("Executing buildSetCallBack for buildSetConfigurationId {} with {}.", buildSetCallBack.getBuildSetConfigurationId(), buildSetStatusChangedEvent);
             buildSetCallBack.callback(buildSetStatusChangedEvent);
         });
-
-        matchingTask.forEach((buildSetCallBack) -> removeListenersOfCompletedTasks(buildSetCallBack, buildSetStatusChangedEvent));
     }
 
-    private void removeListenersOfCompletedTasks(BuildSetCallBack buildSetCallBack, BuildSetStatusChangedEvent buildSetStatusChangedEvent) {
-        if (buildSetStatusChangedEvent.getNewStatus().isCompleted()) {
-            log.debug("Removing subscriber for buildSetConfigurationId {}.", buildSetCallBack.getBuildSetConfigurationId());
-            subscribers.remove(buildSetCallBack);
-        }
+    int getSubscribersCount() {
+        return subscribers.size();
     }
 }
@@ -21,23 +21,29 @@ package org.jboss.pnc.coordinator.notifications.buildTask;
  * @author <a href="mailto:matejonnet@gmail.com">Matej Lazar</a>
  */
 
+import org.jboss.pnc.coordinator.notifications.CallbackRegistry;
 import org.jboss.pnc.spi.events.BuildCoordinationStatusChangedEvent;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import javax.enterprise.context.ApplicationScoped;
 import javax.enterprise.event.Observes;
-import java.util.HashSet;
-import java.util.Set;
-import java.util.function.Predicate;
-import java.util.stream.Collectors;
+import java.util.List;
 
 @ApplicationScoped
 public class BuildStatusNotifications {
 
     private Logger log = LoggerFactory.getLogger(BuildStatusNotifications.class);
 
-    private final Set<BuildCallBack> subscribers = new HashSet<>();
+    private final CallbackRegistry<BuildCallBack> subscribers;
+
+    public BuildStatusNotifications() {
+        this(new CallbackRegistry<>());
+    }
+
+    BuildStatusNotifications(CallbackRegistry<BuildCallBack> subscribers) {
+        this.subscribers = subscribers;
+    }
 
     /**
      * Subscriber is automatically removed once task reaches completed state.
@@ -46,26 +52,26 @@ public class BuildStatusNotifications {
      */
     public void subscribe(BuildCallBack buildCallBack) {
         log.debug("Subscribing new status update listener {}.", buildCallBack);
-        subscribers.add(buildCallBack);
+        subscribers.register(buildCallBack.getBuildTaskId(), buildCallBack);
     }
 
     public void observeEvent(@Observes BuildCoordinationStatusChangedEvent event) {
         log.debug("Observed new status changed event {}.", event);
         BuildCoordinationStatusChangedEvent buildStatusChangedEvent = event; // Avoid CDI runtime issue issue NCL-1505
-        Predicate<BuildCallBack> filterSubscribersMatchingTaskId =
-                (callBackUrl) -> callBackUrl.getBuildTaskId().equals(buildStatusChangedEvent.getBuildTaskId());
 
-        Set<BuildCallBack> matchingTasks = subscribers.stream().filter(filterSubscribersMatchingTaskId).collect(Collectors.toSet());
+        List<BuildCallBack> matchingTasks;
+        if (buildStatusChangedEvent.getNewStatus().isCompleted()) {
+            matchingTasks = subscribers.remove(buildStatusChangedEvent.getBuildTaskId());
+            log.debug("Removed {} status update listeners of completed task {}.", matchingTasks.size(), buildStatusChangedEvent.getBuildTaskId());
+        } else {
+            matchingTasks = subscribers.get(buildStatusChangedEvent.getBuildTaskId());
+        }
 
-        matchingTasks.forEach((buildCallBack) -> removeListenersOfCompletedTasks(buildCallBack, buildStatusChangedEvent));
         matchingTasks.forEach((buildCallBack) -> buildCallBack.callback(buildStatusChangedEvent));
         log.debug("Status changed event processed {}.", event);
     }
 
-    private void removeListenersOfCompletedTasks(BuildCallBack buildCallBack, BuildCoordinationStatusChangedEvent buildStatusChangedEvent) {
-        if (buildStatusChangedEvent.getNewStatus().isCompleted()) {
-            log.debug("Subscribing new status update listener {}.", buildCallBack);
-            subscribers.remove(buildCallBack);
-        }
+    int getSubscribersCount() {
+        return subscribers.size();
     }
 }
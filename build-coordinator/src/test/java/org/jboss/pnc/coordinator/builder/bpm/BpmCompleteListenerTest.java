@@ -0,0 +1,119 @@
+/**
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.pnc.coordinator.builder.bpm;
+
+import org.jboss.pnc.common.monitor.TimerWheel;
+import org.jboss.pnc.spi.BuildExecutionStatus;
+import org.jboss.pnc.spi.BuildResult;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+public class BpmCompleteListenerTest {
+
+    private final TimerWheel timerWheel = new TimerWheel(10, TimeUnit.MILLISECONDS, 16, "bpm-complete-listener-test");
+    private final ExecutorService executorService = Executors.newSingleThreadExecutor(r -> new Thread(r, "bpm-complete-listener-test-timeout"));
+
+    @After
+    public void destroy() {
+        timerWheel.stop();
+        executorService.shutdownNow();
+    }
+
+    @Test
+    public void shouldCompleteWithSystemErrorWhenTimedOut() throws InterruptedException {
+        BpmCompleteListener bpmCompleteListener = new BpmCompleteListener(timerWheel, executorService, 50);
+        CountDownLatch latch = new CountDownLatch(1);
+        List<BuildResult> results = new CopyOnWriteArrayList<>();
+
+        bpmCompleteListener.subscribe(new BpmListener(1, result -> {
+            results.add(result);
+            latch.countDown();
+        }));
+
+        Assert.assertTrue("Listener was not notified on timeout.", latch.await(5, TimeUnit.SECONDS));
+        Assert.assertEquals(1, results.size());
+        BuildResult result = results.get(0);
+        Assert.assertTrue(result.hasFailed());
+        Assert.assertTrue(result.getException().isPresent());
+        Assert.assertEquals(Optional.of(BuildExecutionStatus.SYSTEM_ERROR), result.getFailedReasonStatus());
+        Assert.assertEquals(0, bpmCompleteListener.getListenersCount());
+
+        //late completion from the BPM server is ignored
+        bpmCompleteListener.notifyCompleted(1, successfulResult());
+        Assert.assertEquals(1, results.size());
+    }
+
+    @Test
+    public void completedListenerShouldNotTimeOut() throws InterruptedException {
+        BpmCompleteListener bpmCompleteListener = new BpmCompleteListener(timerWheel, executorService, 50);
+        List<BuildResult> results = new CopyOnWriteArrayList<>();
+        bpmCompleteListener.subscribe(new BpmListener(1, results::add));
+
+        BuildResult buildResult = successfulResult();
+        bpmCompleteListener.notifyCompleted(1, buildResult);
+        Thread.sleep(200);
+
+        Assert.assertEquals(1, results.size());
+        Assert.assertSame(buildResult, results.get(0));
+        Assert.assertEquals(0, timerWheel.getPendingCount());
+        Assert.assertEquals(0, bpmCompleteListener.getListenersCount());
+    }
+
+    @Test
+    public void replacedListenerShouldNotTimeOut() throws InterruptedException {
+        BpmCompleteListener bpmCompleteListener = new BpmCompleteListener(timerWheel, executorService, 100);
+        List<BuildResult> replacedResults = new CopyOnWriteArrayList<>();
+        CountDownLatch latch = new CountDownLatch(1);
+
+        bpmCompleteListener.subscribe(new BpmListener(1, replacedResults::add));
+        bpmCompleteListener.subscribe(new BpmListener(1, result -> latch.countDown()));
+
+        Assert.assertTrue("Listener was not notified on timeout.", latch.await(5, TimeUnit.SECONDS));
+        Assert.assertTrue(replacedResults.isEmpty());
+        Assert.assertEquals(0, timerWheel.getPendingCount());
+    }
+
+    @Test
+    public void shouldCompleteTimedOutListenerOnExecutor() throws InterruptedException {
+        BpmCompleteListener bpmCompleteListener = new BpmCompleteListener(timerWheel, executorService, 50);
+        CountDownLatch latch = new CountDownLatch(1);
+        AtomicReference<String> completingThread = new AtomicReference<>();
+
+        bpmCompleteListener.subscribe(new BpmListener(1, result -> {
+            completingThread.set(Thread.currentThread().getName());
+            latch.countDown();
+        }));
+
+        Assert.assertTrue("Listener was not notified on timeout.", latch.await(5, TimeUnit.SECONDS));
+        Assert.assertEquals("bpm-complete-listener-test-timeout", completingThread.get());
+    }
+
+    private BuildResult successfulResult() {
+        return new BuildResult(Optional.empty(), Optional.empty(), Optional.empty(), Optional.empty(), Optional.empty());
+    }
+}
@@ -0,0 +1,179 @@
+/**
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.pnc.coordinator.builder.datastore;
+
+import org.jboss.pnc.model.BuildConfigurationAudited;
+import org.jboss.pnc.model.BuildEnvironment;
+import org.jboss.pnc.model.IdRev;
+import org.jboss.pnc.model.Project;
+import org.jboss.pnc.model.SystemImageType;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.HashSet;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+import java.util.function.IntSupplier;
+
+public class BuildConfigurationAuditedCacheTest {
+
+    private static final Integer CONFIGURATION_ID = 7;
+
+    private final BuildConfigurationAuditedCache cache = new BuildConfigurationAuditedCache();
+
+    /** Latest committed revision as seen by the revision query */
+    private final AtomicInteger committedRevision = new AtomicInteger(1);
+    /** Version of the referenced projects and environments as seen by the change counters */
+    private final AtomicReference<String> associationsVersion = new AtomicReference<>("1");
+    /** Name of the project as stored in the datastore */
+    private final AtomicReference<String> projectName = new AtomicReference<>("project");
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @Test
+    public void shouldLoadOnlyOnceWhileRevisionIsLatest() {
+        Function<Integer, BuildConfigurationAudited> loader = loaderOf(() -> committedRevision.get());
+
+        Assert.assertEquals(Integer.valueOf(1), get(loader).getRev());
+        Assert.assertEquals(Integer.valueOf(1), get(loader).getRev());
+
+        Assert.assertEquals(1, loads.get());
+    }
+
+    @Test
+    public void shouldReloadWhenNewRevisionIsCommitted() {
+        Function<Integer, BuildConfigurationAudited> loader = loaderOf(() -> committedRevision.get());
+        get(loader);
+
+        committedRevision.set(2); //committed by another transaction or another node
+
+        Assert.assertEquals(Integer.valueOf(2), get(loader).getRev());
+        Assert.assertEquals(2, loads.get());
+    }
+
+    @Test
+    public void shouldNotKeepRevisionLoadedBeforeNewOneWasCommitted() {
+        //the revision number is read after the new revision is committed, but the entity was read before
+        committedRevision.set(2);
+        Function<Integer, BuildConfigurationAudited> staleLoader = loaderOf(() -> 1);
+        Assert.assertEquals(Integer.valueOf(1), get(staleLoader).getRev());
+
+        Function<Integer, BuildConfigurationAudited> loader = loaderOf(() -> committedRevision.get());
+        Assert.assertEquals("Outdated revision was cached.", Integer.valueOf(2), get(loader).getRev());
+        Assert.assertEquals(Integer.valueOf(2), get(loader).getRev());
+        Assert.assertEquals(2, loads.get());
+    }
+
+    @Test
+    public void shouldNotReplaceNewerRevisionWithOlderConcurrentLoad() {
+        committedRevision.set(2);
+        get(loaderOf(() -> 2));
+
+        //slower concurrent load which started when revision 1 was the latest one
+        committedRevision.set(1);
+        get(loaderOf(() -> 1));
+
+        committedRevision.set(2);
+        int loadsBefore = loads.get();
+        Assert.assertEquals(Integer.valueOf(2), get(loaderOf(() -> 2)).getRev());
+        Assert.assertEquals(loadsBefore, loads.get());
+    }
+
+    @Test
+    public void shouldReturnOwnCopyToEachCaller() {
+        Function<Integer, BuildConfigurationAudited> loader = loaderOf(() -> committedRevision.get());
+        BuildConfigurationAudited first = get(loader);
+        first.setName("modified");
+
+        BuildConfigurationAudited second = get(loader);
+        BuildConfigurationAudited third = get(loader);
+
+        Assert.assertEquals("configuration", second.getName());
+        Assert.assertNotSame(second, third);
+    }
+
+    @Test
+    public void shouldReloadWhenReferencedEntityIsChanged() {
+        Function<Integer, BuildConfigurationAudited> loader = loaderOf(() -> committedRevision.get());
+        get(loader);
+
+        //the project is not audited, so the revision stays the same
+        projectName.set("renamed project");
+        associationsVersion.set("2");
+
+        Assert.assertEquals("renamed project", get(loader).getProject().getName());
+        Assert.assertEquals(2, loads.get());
+    }
+
+    @Test
+    public void shouldNotCacheWhileReferencedEntitiesAreNotVersioned() {
+        Function<Integer, BuildConfigurationAudited> loader = loaderOf(() -> committedRevision.get());
+        associationsVersion.set(null);
+
+        get(loader);
+        get(loader);
+
+        Assert.assertEquals(2, loads.get());
+    }
+
+    @Test
+    public void shouldReturnOwnCopyOfReferencedEntitiesToEachCaller() {
+        Function<Integer, BuildConfigurationAudited> loader = loaderOf(() -> committedRevision.get());
+        BuildConfigurationAudited first = get(loader);
+        first.getProject().setName("modified");
+        first.getBuildEnvironment().putAttribute("modified", "true");
+
+        BuildConfigurationAudited second = get(loader);
+        BuildConfigurationAudited third = get(loader);
+
+        Assert.assertEquals("project", second.getProject().getName());
+        Assert.assertNull(second.getBuildEnvironment().getAttribute("modified"));
+        Assert.assertNotSame(second.getProject(), third.getProject());
+        Assert.assertNotSame(second.getProject().getBuildConfigurations(), third.getProject().getBuildConfigurations());
+        Assert.assertNotSame(second.getBuildEnvironment(), third.getBuildEnvironment());
+        Assert.assertEquals(1, loads.get());
+    }
+
+    private BuildConfigurationAudited get(Function<Integer, BuildConfigurationAudited> loader) {
+        return cache.getLatest(CONFIGURATION_ID, id -> committedRevision.get(), associationsVersion::get, loader);
+    }
+
+    private Function<Integer, BuildConfigurationAudited> loaderOf(IntSupplier revision) {
+        return id -> {
+            loads.incrementAndGet();
+            int rev = revision.getAsInt();
+            BuildConfigurationAudited audited = new BuildConfigurationAudited();
+            audited.setIdRev(new IdRev(id, rev));
+            audited.setBuildRecordId(id);
+            audited.setRev(rev);
+            audited.setName("configuration");
+            Project project = new Project();
+            project.setId(3);
+            project.setName(projectName.get());
+            project.setBuildConfigurations(new HashSet<>());
+            audited.setProject(project);
+            audited.setBuildEnvironment(BuildEnvironment.Builder.newBuilder()
+                    .id(5)
+                    .name("environment")
+                    .systemImageId("image")
+                    .systemImageType(SystemImageType.DOCKER_IMAGE)
+                    .build());
+            return audited;
+        };
+    }
+}
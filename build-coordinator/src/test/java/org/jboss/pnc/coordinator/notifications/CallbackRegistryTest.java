@@ -0,0 +1,115 @@
+/**
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.pnc.coordinator.notifications;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class CallbackRegistryTest {
+
+    @Test
+    public void shouldReturnCallbacksOfTaskOnly() {
+        CallbackRegistry<String> registry = new CallbackRegistry<>();
+        registry.register(1, "a");
+        registry.register(2, "b");
+        registry.register(1, "c");
+
+        Assert.assertEquals(Arrays.asList("a", "c"), registry.get(1));
+        Assert.assertEquals(Arrays.asList("a", "c"), registry.remove(1));
+        Assert.assertEquals(Collections.emptyList(), registry.get(1));
+        Assert.assertEquals(Collections.emptyList(), registry.remove(1));
+        Assert.assertEquals(1, registry.size());
+    }
+
+    @Test
+    public void shouldExpireOrphanedCallbacks() {
+        AtomicLong now = new AtomicLong(0);
+        CallbackRegistry<String> registry = new CallbackRegistry<>(TimeUnit.HOURS.toMillis(1), now::get);
+        registry.register(1, "orphaned");
+
+        now.set(TimeUnit.MINUTES.toMillis(50));
+        registry.register(2, "recent");
+        Assert.assertEquals("Callbacks must be kept until they expire.", 2, registry.size());
+
+        now.set(TimeUnit.MINUTES.toMillis(65));
+        registry.register(3, "new");
+
+        Assert.assertEquals(Collections.emptyList(), registry.get(1));
+        Assert.assertEquals(Collections.singletonList("recent"), registry.get(2));
+        Assert.assertEquals(Collections.singletonList("new"), registry.get(3));
+    }
+
+    @Test
+    public void shouldDeliverEveryCallbackExactlyOnceUnderConcurrentAccess() throws Exception {
+        int threads = 8;
+        int tasksPerThread = 5_000;
+        CallbackRegistry<Integer> registry = new CallbackRegistry<>();
+        List<Integer> removed = Collections.synchronizedList(new ArrayList<>());
+        ExecutorService executor = Executors.newFixedThreadPool(threads * 2);
+        CountDownLatch start = new CountDownLatch(1);
+        CountDownLatch registered = new CountDownLatch(threads);
+        CountDownLatch done = new CountDownLatch(threads * 2);
+
+        for (int t = 0; t < threads; t++) {
+            int offset = t * tasksPerThread;
+            executor.execute(() -> {
+                await(start);
+                for (int i = 0; i < tasksPerThread; i++) {
+                    registry.register(i % 100, offset + i);
+                }
+                registered.countDown();
+                done.countDown();
+            });
+            executor.execute(() -> {
+                await(start);
+                while (registered.getCount() > 0) {
+                    removed.addAll(registry.remove((int) (Math.random() * 100)));
+                }
+                done.countDown();
+            });
+        }
+        start.countDown();
+        Assert.assertTrue(done.await(1, TimeUnit.MINUTES));
+        executor.shutdown();
+        for (int taskId = 0; taskId < 100; taskId++) {
+            removed.addAll(registry.remove(taskId));
+        }
+
+        Assert.assertEquals(threads * tasksPerThread, removed.size());
+        Assert.assertEquals(threads * tasksPerThread, removed.stream().distinct().count());
+        Assert.assertEquals(0, registry.size());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,67 @@
+/**
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.pnc.coordinator.notifications.buildSetTask;
+
+import org.jboss.pnc.spi.BuildSetStatus;
+import org.jboss.pnc.spi.coordinator.events.DefaultBuildSetStatusChangedEvent;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class BuildSetStatusNotificationsTest {
+
+    @Test
+    public void shouldNotifySubscribersConcurrently() throws Exception {
+        int buildSets = 2_000;
+        BuildSetStatusNotifications notifications = new BuildSetStatusNotifications();
+        AtomicInteger completedNotifications = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        CountDownLatch completed = new CountDownLatch(buildSets);
+
+        for (int i = 0; i < buildSets; i++) {
+            int buildSetConfigurationId = i;
+            executor.execute(() -> {
+                notifications.subscribe(new BuildSetCallBack(buildSetConfigurationId, event -> {
+                    Assert.assertEquals(Integer.valueOf(buildSetConfigurationId), event.getBuildSetConfigurationId());
+                    if (event.getNewStatus().isCompleted()) {
+                        completedNotifications.incrementAndGet();
+                    }
+                }));
+                notifications.observeEvent(event(buildSetConfigurationId, BuildSetStatus.NEW));
+                notifications.observeEvent(event(buildSetConfigurationId, BuildSetStatus.DONE));
+                notifications.observeEvent(event(buildSetConfigurationId, BuildSetStatus.DONE));
+                completed.countDown();
+            });
+        }
+        Assert.assertTrue(completed.await(1, TimeUnit.MINUTES));
+        executor.shutdown();
+
+        Assert.assertEquals(buildSets, completedNotifications.get());
+        Assert.assertEquals(0, notifications.getSubscribersCount());
+    }
+
+    private DefaultBuildSetStatusChangedEvent event(int buildSetConfigurationId, BuildSetStatus newStatus) {
+        return new DefaultBuildSetStatusChangedEvent(BuildSetStatus.NEW, newStatus, 1, buildSetConfigurationId,
+                "set", null, null, 1);
+    }
+}
@@ -0,0 +1,96 @@
+/**
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.pnc.coordinator.notifications.buildTask;
+
+import org.jboss.pnc.spi.BuildCoordinationStatus;
+import org.jboss.pnc.spi.coordinator.events.DefaultBuildStatusChangedEvent;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class BuildStatusNotificationsTest {
+
+    @Test
+    public void shouldNotifyOnlySubscribersOfTheTask() {
+        BuildStatusNotifications notifications = new BuildStatusNotifications();
+        AtomicInteger task1Updates = new AtomicInteger();
+        AtomicInteger task2Updates = new AtomicInteger();
+        notifications.subscribe(new BuildCallBack(1, event -> task1Updates.incrementAndGet()));
+        notifications.subscribe(new BuildCallBack(2, event -> task2Updates.incrementAndGet()));
+
+        notifications.observeEvent(event(1, BuildCoordinationStatus.BUILDING));
+        notifications.observeEvent(event(1, BuildCoordinationStatus.DONE));
+        notifications.observeEvent(event(1, BuildCoordinationStatus.DONE));
+
+        Assert.assertEquals(2, task1Updates.get());
+        Assert.assertEquals(0, task2Updates.get());
+        Assert.assertEquals("Subscriber of the completed task must be removed.", 1, notifications.getSubscribersCount());
+    }
+
+    @Test
+    public void shouldHandleConcurrentSubscriptionsAndEvents() throws Exception {
+        int tasks = 2_000;
+        int threads = 8;
+        BuildStatusNotifications notifications = new BuildStatusNotifications();
+        ConcurrentMap<Integer, AtomicInteger> completedNotifications = new ConcurrentHashMap<>();
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        CountDownLatch completed = new CountDownLatch(tasks);
+
+        for (int i = 0; i < tasks; i++) {
+            int taskId = i;
+            executor.execute(() -> {
+                awaitQuietly(start);
+                notifications.subscribe(new BuildCallBack(taskId, event -> {
+                    if (event.getNewStatus().isCompleted()) {
+                        completedNotifications.computeIfAbsent(event.getBuildTaskId(), id -> new AtomicInteger()).incrementAndGet();
+                    }
+                }));
+                notifications.observeEvent(event(taskId, BuildCoordinationStatus.BUILDING));
+                notifications.observeEvent(event(taskId, BuildCoordinationStatus.DONE));
+                completed.countDown();
+            });
+        }
+        start.countDown();
+        Assert.assertTrue(completed.await(1, TimeUnit.MINUTES));
+        executor.shutdown();
+
+        Assert.assertEquals(tasks, completedNotifications.size());
+        completedNotifications.values().forEach(count -> Assert.assertEquals(1, count.get()));
+        Assert.assertEquals(0, notifications.getSubscribersCount());
+    }
+
+    private DefaultBuildStatusChangedEvent event(int taskId, BuildCoordinationStatus newStatus) {
+        return new DefaultBuildStatusChangedEvent(BuildCoordinationStatus.NEW, newStatus, taskId, 1, "config", null, null, 1);
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
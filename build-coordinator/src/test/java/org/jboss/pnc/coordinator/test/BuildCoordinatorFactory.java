@@ -25,6 +25,7 @@ import org.jboss.pnc.common.json.moduleprovider.PncConfigProvider;
 import org.jboss.pnc.coordinator.builder.BuildQueue;
 import org.jboss.pnc.coordinator.builder.BuildSchedulerFactory;
 import org.jboss.pnc.coordinator.builder.DefaultBuildCoordinator;
+import org.jboss.pnc.coordinator.builder.datastore.BuildConfigurationAuditedCache;
 import org.jboss.pnc.coordinator.builder.datastore.DatastoreAdapter;
 import org.jboss.pnc.mock.datastore.DatastoreMock;
 import org.jboss.pnc.spi.coordinator.BuildCoordinator;
@@ -53,7 +54,7 @@ public class BuildCoordinatorFactory {
     BuildSchedulerFactory buildSchedulerFactory;
 
     public BuildCoordinatorBeans createBuildCoordinator(DatastoreMock datastore) {
-        DatastoreAdapter datastoreAdapter = new DatastoreAdapter(datastore);
+        DatastoreAdapter datastoreAdapter = new DatastoreAdapter(datastore, new BuildConfigurationAuditedCache());
 
         Configuration configuration = createConfiguration();
         BuildQueue queue = new BuildQueue(configuration);
@@ -67,7 +68,7 @@ public class BuildCoordinatorFactory {
     private Configuration createConfiguration() {
         try {
             Configuration configuration = mock(Configuration.class);
-            doReturn(new SystemConfig("ProperDriver", "local-build-scheduler", "10", "10", "10", "10")).when(configuration)
+            doReturn(new SystemConfig("ProperDriver", "local-build-scheduler", "10", "10", "10", "10", "4", "100")).when(configuration)
                     .getModuleConfig(any(PncConfigProvider.class));
             return configuration;
         } catch (ConfigurationParseException e) {
@@ -22,6 +22,7 @@ import org.jboss.pnc.common.Configuration;
 import org.jboss.pnc.common.json.ConfigurationParseException;
 import org.jboss.pnc.common.json.moduleconfig.BpmModuleConfig;
 import org.jboss.pnc.coordinator.builder.bpm.BpmBuildScheduler;
+import org.jboss.pnc.coordinator.builder.bpm.BpmCompleteListener;
 import org.jboss.pnc.model.BuildConfiguration;
 import org.jboss.pnc.model.BuildConfigurationAudited;
 import org.jboss.pnc.model.BuildEnvironment;
@@ -30,19 +31,28 @@ import org.jboss.pnc.model.Project;
 import org.jboss.pnc.model.User;
 import org.jboss.pnc.spi.coordinator.BuildSetTask;
 import org.jboss.pnc.spi.coordinator.BuildTask;
+import org.jboss.pnc.spi.exception.CoreException;
 import org.junit.Ignore;
 import org.junit.Test;
 import org.kie.api.runtime.KieSession;
+import org.kie.api.runtime.process.ProcessInstance;
 import org.mockito.ArgumentCaptor;
 
 import java.net.MalformedURLException;
+import java.util.Arrays;
 import java.util.Date;
+import java.util.Iterator;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
 import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.eq;
 import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 
 public class BpmBuildSchedulerTest {
@@ -51,37 +61,7 @@ public class BpmBuildSchedulerTest {
     @Test
     public void shouldInvokeBpmEngineWithCorrectParameters() throws Exception {
         //given
-        BuildConfiguration buildConfiguration = BuildConfiguration.Builder.newBuilder()
-                .name("name")
-                .buildScript("mvn clean install")
-                .buildEnvironment(BuildEnvironment.Builder.newBuilder().id(1).build())
-                .project(Project.Builder.newBuilder().name("test").id(1).build())
-                .id(1)
-                .scmRepoURL("http://github.com/test/me")
-                .scmRevision("master")
-                .description("test")
-                .build();
-
-        BuildConfigurationAudited buildConfigurationAudited = new BuildConfigurationAudited() {
-            private IdRev idRev;
-
-            @Override
-            public void setId(IdRev idRev) {
-                this.idRev = idRev;
-            }
-
-            @Override
-            public IdRev getIdRev() {
-                return idRev;
-            }
-        };
-        buildConfigurationAudited.setId(new IdRev(1, 1));
-
-        User user = User.Builder.newBuilder().username("demo").id(1).build();
-        user.setLoginToken("no-token");
-
-        BuildTask buildTask = BuildTask.build(buildConfiguration, buildConfigurationAudited, false, user,
-                1, mock(BuildSetTask.class), new Date(), null);
+        BuildTask buildTask = createBuildTask();
 
         BpmModuleConfig bpmConfiguration = mock(BpmModuleConfig.class);
         doReturn("http://localhost/aprox").when(bpmConfiguration).getAproxBaseUrl();
@@ -127,4 +107,103 @@ public class BpmBuildSchedulerTest {
 
     }
 
+    @Test
+    public void shouldReuseSessionAndProcessConfig() throws Exception {
+        //given
+        Configuration configuration = mockConfiguration();
+        KieSession session = mockSession();
+        AtomicInteger sessionsCreated = new AtomicInteger();
+        BpmBuildScheduler scheduler = new BpmBuildScheduler(configuration, mock(BpmCompleteListener.class)) {
+            @Override
+            protected KieSession createSession(BuildTask buildTask) {
+                sessionsCreated.incrementAndGet();
+                return session;
+            }
+        };
+
+        //when
+        scheduler.startBuilding(createBuildTask(), (br) -> {});
+        scheduler.startBuilding(createBuildTask(), (br) -> {});
+
+        //then
+        verify(session, times(2)).startProcess(eq("processId"), any());
+        assertEquals(1, sessionsCreated.get());
+        verify(configuration, times(1)).getModuleConfig(any());
+    }
+
+    @Test
+    public void shouldRecreateSessionAfterFailure() throws Exception {
+        //given
+        KieSession failingSession = mock(KieSession.class);
+        doThrow(new RuntimeException("Expected test exception.")).when(failingSession).startProcess(any(), any());
+        KieSession session = mockSession();
+        Iterator<KieSession> sessions = Arrays.asList(failingSession, session).iterator();
+        BpmBuildScheduler scheduler = new BpmBuildScheduler(mockConfiguration(), mock(BpmCompleteListener.class)) {
+            @Override
+            protected KieSession createSession(BuildTask buildTask) {
+                return sessions.next();
+            }
+        };
+
+        //when
+        try {
+            scheduler.startBuilding(createBuildTask(), (br) -> {});
+            fail("Failed process start should be reported.");
+        } catch (CoreException expected) {
+        }
+        scheduler.startBuilding(createBuildTask(), (br) -> {});
+
+        //then
+        verify(failingSession, times(1)).startProcess(eq("processId"), any());
+        verify(session, times(1)).startProcess(eq("processId"), any());
+    }
+
+    private Configuration mockConfiguration() throws ConfigurationParseException {
+        BpmModuleConfig bpmConfiguration = mock(BpmModuleConfig.class);
+        doReturn("processId").when(bpmConfiguration).getProcessId();
+        doReturn("http://localhost/pnc").when(bpmConfiguration).getPncBaseUrl();
+        Configuration configuration = mock(Configuration.class);
+        doReturn(bpmConfiguration).when(configuration).getModuleConfig(any());
+        return configuration;
+    }
+
+    private KieSession mockSession() {
+        KieSession session = mock(KieSession.class);
+        doReturn(mock(ProcessInstance.class)).when(session).startProcess(any(), any());
+        return session;
+    }
+
+    private BuildTask createBuildTask() {
+        BuildConfiguration buildConfiguration = BuildConfiguration.Builder.newBuilder()
+                .name("name")
+                .buildScript("mvn clean install")
+                .buildEnvironment(BuildEnvironment.Builder.newBuilder().id(1).build())
+                .project(Project.Builder.newBuilder().name("test").id(1).build())
+                .id(1)
+                .scmRepoURL("http://github.com/test/me")
+                .scmRevision("master")
+                .description("test")
+                .build();
+
+        BuildConfigurationAudited buildConfigurationAudited = new BuildConfigurationAudited() {
+            private IdRev idRev;
+
+            @Override
+            public void setId(IdRev idRev) {
+                this.idRev = idRev;
+            }
+
+            @Override
+            public IdRev getIdRev() {
+                return idRev;
+            }
+        };
+        buildConfigurationAudited.setId(new IdRev(1, 1));
+
+        User user = User.Builder.newBuilder().username("demo").id(1).build();
+        user.setLoginToken("no-token");
+
+        return BuildTask.build(buildConfiguration, buildConfigurationAudited, false, user,
+                1, mock(BuildSetTask.class), new Date(), null);
+    }
 }
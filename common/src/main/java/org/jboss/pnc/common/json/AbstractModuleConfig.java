@@ -19,6 +19,28 @@ package org.jboss.pnc.common.json;
 
 import com.fasterxml.jackson.annotation.JsonTypeInfo;
 import com.fasterxml.jackson.annotation.JsonTypeInfo.As;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
  
 @JsonTypeInfo(use = JsonTypeInfo.Id.NAME, include = As.PROPERTY, property = "@module-config")
-public abstract class AbstractModuleConfig {}
\ No newline at end of file
+public abstract class AbstractModuleConfig {
+
+    private final static Logger log = LoggerFactory.getLogger(AbstractModuleConfig.class);
+
+    /**
+     * Parses a numeric config value, falling back to the default if the value is not set or is not an integer.
+     */
+    protected static int toIntWithDefault(String fieldName, String numberAsString, int defaultValue) {
+        int result = defaultValue;
+        if (numberAsString == null) {
+            log.warn("Value in field: " + fieldName + " not set. Will use default value: {}", defaultValue);
+        } else {
+            try {
+                result = Integer.parseInt(numberAsString);
+            } catch (NumberFormatException nfe) {
+                log.warn("Invalid value in field: " + fieldName + ". Expected an integer, got: {}. Will use default value: {}", numberAsString, defaultValue, nfe);
+            }
+        }
+        return result;
+    }
+}
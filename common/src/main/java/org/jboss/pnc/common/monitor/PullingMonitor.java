@@ -15,24 +15,29 @@
  * See the License for the specific language governing permissions and
  * limitations under the License.
  */
-
 package org.jboss.pnc.common.monitor;
 
-import org.jboss.pnc.common.util.ObjectWrapper;
-import org.jboss.pnc.common.util.TimeUtils;
-import org.jboss.util.collection.ConcurrentSet;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import javax.annotation.PreDestroy;
 import javax.enterprise.context.ApplicationScoped;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
-import java.util.concurrent.ScheduledExecutorService;
-import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.function.Consumer;
 import java.util.function.Supplier;
 
 /**
+ * Periodically checks conditions until they are satisfied or timed out.
+ *
+ * Checks and timeouts of all the monitors are scheduled on a single timer wheel, the conditions are evaluated
+ * by a bounded pool of workers. Interval between two checks of a condition grows after every unsatisfied check,
+ * so long waits do not keep the workers busy.
  *
  * @author <a href="mailto:matejonnet@gmail.com">Matej Lazar</a>
  * @author Jakub Bartecek &lt;jbartece@redhat.com&gt;
@@ -40,6 +45,8 @@ import java.util.function.Supplier;
 @ApplicationScoped
 public class PullingMonitor {
 
+    private static final Logger log = LoggerFactory.getLogger(PullingMonitor.class);
+
     /** Time how long to wait until all services are fully up and running (in seconds) */
     private static final int DEFAULT_TIMEOUT = 30;
 
@@ -49,15 +56,40 @@ public class PullingMonitor {
     /** */
     private static final TimeUnit DEFAULT_TIME_UNIT = TimeUnit.SECONDS;
 
-    private ScheduledExecutorService executorService;
-    private ScheduledExecutorService timeOutVerifierService;
+    /** Number of threads evaluating the conditions */
+    private static final int DEFAULT_WORKER_THREADS = 4;
+
+    /** Precision of scheduled checks and timeouts (in milliseconds) */
+    private static final int DEFAULT_TICK_MILLIS = 10;
+
+    private static final int WHEEL_SIZE = 1024;
 
-    private ConcurrentSet<RunningTask> runningTasks;
+    /** Factor the check interval grows by after every unsatisfied check */
+    private static final double BACKOFF_MULTIPLIER = 1.5;
+
+    /** Longest check interval as a multiple of the requested check interval */
+    private static final int MAX_BACKOFF = 4;
+
+    private final ExecutorService executorService;
+    private final TimerWheel timerWheel;
+
+    private final AtomicInteger activeMonitors = new AtomicInteger();
+    private final LongAdder checks = new LongAdder();
+    private final LongAdder totalCheckDelayNanos = new LongAdder();
+    private final LongAccumulator maxCheckDelayNanos = new LongAccumulator(Math::max, 0);
 
     public PullingMonitor() {
-        runningTasks = new ConcurrentSet<>();
-        startTimeOutVerifierService();
-        executorService = Executors.newScheduledThreadPool(4); //TODO configurable, keep global ScheduledThreadPool and inject it
+        this(DEFAULT_WORKER_THREADS, DEFAULT_TICK_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * @param workerThreads number of threads evaluating the conditions
+     * @param tickDuration precision of scheduled checks and timeouts
+     * @param tickUnit unit of tickDuration
+     */
+    public PullingMonitor(int workerThreads, long tickDuration, TimeUnit tickUnit) {
+        executorService = Executors.newFixedThreadPool(workerThreads);
+        timerWheel = new TimerWheel(tickDuration, tickUnit, WHEEL_SIZE, "pulling-monitor-timer");
     }
 
     public void monitor(Runnable onMonitorComplete, Consumer<Exception> onMonitorError, Supplier<Boolean> condition) {
@@ -67,6 +99,8 @@ public class PullingMonitor {
     /**
      * Periodically checks the condition and calls onMonitorComplete when it returns true.
      * If timeout is reached onMonitorError is called.
+     * The first check runs immediately, the interval between the next checks grows from checkInterval
+     * up to {@value #MAX_BACKOFF} times checkInterval.
 
      * @param onMonitorComplete
      * @param onMonitorError
@@ -76,48 +110,100 @@ public class PullingMonitor {
      * @param timeUnit Unit used for checkInterval and timeout
      */
     public void monitor(Runnable onMonitorComplete, Consumer<Exception> onMonitorError, Supplier<Boolean> condition, int checkInterval, int timeout, TimeUnit timeUnit) {
-        AtomicInteger timeWaiting = new AtomicInteger(0);
-
-        ObjectWrapper<RunningTask> runningTaskReference = new ObjectWrapper<>();
-        Runnable monitor = () -> {
-            RunningTask runningTask = runningTaskReference.get();
-            try {
-                int waiting = timeWaiting.addAndGet(checkInterval);
-
-                // Check if given condition is satisfied
-                if (condition.get()) {
-                    runningTasks.remove(runningTask);
-                    runningTask.cancel();
-                    onMonitorComplete.run();
+        long checkIntervalNanos = timeUnit.toNanos(checkInterval);
+        RunningTask runningTask = new RunningTask(onMonitorComplete, onMonitorError, condition,
+                checkIntervalNanos, checkIntervalNanos * MAX_BACKOFF);
+        activeMonitors.incrementAndGet();
+
+        Runnable onTimeout = () -> {
+            if (runningTask.finish(true)) {
+                activeMonitors.decrementAndGet();
+                MonitorException exception = new MonitorException("Service was not ready in: " + timeout + " " + timeUnit.toString());
+                try {
+                    executorService.execute(() -> onMonitorError.accept(exception)); //do not block the timer thread
+                } catch (RejectedExecutionException e) {
+                    onMonitorError.accept(exception);
                 }
-            } catch (Exception e) {
-                runningTasks.remove(runningTask);
-                runningTask.cancel();
-                onMonitorError.accept(e);
             }
         };
-        ScheduledFuture<?> future = executorService.scheduleWithFixedDelay(monitor, 0L, checkInterval, timeUnit);
-        Consumer<RunningTask> onTimeout = (runningTask) -> {
-            runningTasks.remove(runningTask);
-            onMonitorError.accept(new MonitorException( "Service was not ready in: " + timeout + " " + timeUnit.toString()));
-        };
-        RunningTask runningTask = new RunningTask(future, timeout, TimeUtils.chronoUnit(timeUnit), onTimeout);
-        runningTasks.add(runningTask);
-        runningTaskReference.set(runningTask);
+        runningTask.timeout = timerWheel.newTimeout(onTimeout, timeout, timeUnit);
+        submitCheck(runningTask, System.nanoTime());
     }
 
-    private void startTimeOutVerifierService() {
-        Runnable terminateTimedOutTasks = () -> {
-            runningTasks.parallelStream()
-                    .forEach(runningTask -> runningTask.terminateIfTimedOut());
-        };
-        timeOutVerifierService = Executors.newScheduledThreadPool(1);
-        timeOutVerifierService.scheduleWithFixedDelay(terminateTimedOutTasks, 0L, 250, TimeUnit.MILLISECONDS);
+    /**
+     * @return Number of monitors neither satisfied nor timed out yet
+     */
+    public int getActiveMonitorsCount() {
+        return activeMonitors.get();
+    }
+
+    public long getChecksCount() {
+        return checks.sum();
+    }
+
+    /**
+     * @return Average time between the moment a check was due and when a worker started it
+     */
+    public long getAverageCheckDelayMillis() {
+        long count = checks.sum();
+        if (count == 0) {
+            return 0;
+        }
+        return TimeUnit.NANOSECONDS.toMillis(totalCheckDelayNanos.sum() / count);
+    }
+
+    public long getMaxCheckDelayMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(maxCheckDelayNanos.get());
+    }
+
+    private void submitCheck(RunningTask runningTask, long dueTime) {
+        try {
+            runningTask.runningCheck = executorService.submit(() -> check(runningTask, dueTime));
+        } catch (RejectedExecutionException e) {
+            log.debug("Monitor is stopped, check was not submitted.");
+        }
+    }
+
+    private void check(RunningTask runningTask, long dueTime) {
+        if (runningTask.isDone()) {
+            return;
+        }
+        long delay = Math.max(System.nanoTime() - dueTime, 0);
+        checks.increment();
+        totalCheckDelayNanos.add(delay);
+        maxCheckDelayNanos.accumulate(delay);
+
+        boolean satisfied;
+        try {
+            // Check if given condition is satisfied
+            satisfied = runningTask.condition.get();
+        } catch (Exception e) {
+            if (runningTask.finish(false)) {
+                activeMonitors.decrementAndGet();
+                runningTask.onMonitorError.accept(e);
+            }
+            return;
+        }
+
+        if (satisfied) {
+            if (runningTask.finish(false)) {
+                activeMonitors.decrementAndGet();
+                runningTask.onMonitorComplete.run();
+            }
+        } else if (!runningTask.isDone()) {
+            long nextCheckDelay = runningTask.nextCheckDelayNanos(BACKOFF_MULTIPLIER);
+            long nextDueTime = System.nanoTime() + nextCheckDelay;
+            try {
+                runningTask.nextCheck = timerWheel.newTimeout(() -> submitCheck(runningTask, nextDueTime), nextCheckDelay, TimeUnit.NANOSECONDS);
+            } catch (IllegalStateException e) {
+                log.debug("Monitor is stopped, next check was not scheduled.");
+            }
+        }
     }
 
     @PreDestroy
     public void destroy() {
+        timerWheel.stop();
         executorService.shutdownNow();
-        timeOutVerifierService.shutdownNow();
     }
 }
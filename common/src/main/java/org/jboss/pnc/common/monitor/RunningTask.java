@@ -15,40 +15,78 @@
  * See the License for the specific language governing permissions and
  * limitations under the License.
  */
-
 package org.jboss.pnc.common.monitor;
 
-import java.time.Duration;
-import java.time.Instant;
-import java.time.temporal.ChronoUnit;
-import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.Consumer;
+import java.util.function.Supplier;
 
 /**
+ * State of one monitored condition. Checks of the same task never run concurrently,
+ * the next check is scheduled only after the previous one finished.
+ *
  * @author <a href="mailto:matejonnet@gmail.com">Matej Lazar</a>
  */
 class RunningTask {
 
-    private ScheduledFuture<?> future;
-    Instant deadline;
-    Consumer<RunningTask> onTimeout;
+    final Runnable onMonitorComplete;
+    final Consumer<Exception> onMonitorError;
+    final Supplier<Boolean> condition;
+
+    private final long maxCheckIntervalNanos;
+    /** Accessed only by the check in progress */
+    private long checkIntervalNanos;
 
-    public RunningTask(ScheduledFuture<?> future, int timeout, ChronoUnit timeoutUnit, Consumer<RunningTask> onTimeout) {
-        this.future = future;
-        this.onTimeout = onTimeout;
-        deadline = Instant.now().plus(Duration.of(timeout, timeoutUnit));
+    private final AtomicBoolean done = new AtomicBoolean();
+    volatile TimerWheel.Timeout timeout;
+    volatile TimerWheel.Timeout nextCheck;
+    volatile Future<?> runningCheck;
+
+    RunningTask(Runnable onMonitorComplete, Consumer<Exception> onMonitorError, Supplier<Boolean> condition,
+            long checkIntervalNanos, long maxCheckIntervalNanos) {
+        this.onMonitorComplete = onMonitorComplete;
+        this.onMonitorError = onMonitorError;
+        this.condition = condition;
+        this.checkIntervalNanos = checkIntervalNanos;
+        this.maxCheckIntervalNanos = maxCheckIntervalNanos;
     }
 
-    public void terminateIfTimedOut() {
-        if (Instant.now().isAfter(deadline)) {
-            cancel();
-            onTimeout.accept(this);
+    /**
+     * @return delay before the next check, it grows after every unsatisfied check up to the max interval
+     */
+    long nextCheckDelayNanos(double backoffMultiplier) {
+        long delay = checkIntervalNanos;
+        checkIntervalNanos = Math.min((long) (checkIntervalNanos * backoffMultiplier), maxCheckIntervalNanos);
+        return delay;
+    }
+
+    /**
+     * Marks the task as done and cancels its pending check and timeout.
+     *
+     * @param interruptCheck interrupt the check in progress
+     * @return false if the task was already done
+     */
+    boolean finish(boolean interruptCheck) {
+        if (!done.compareAndSet(false, true)) {
+            return false;
+        }
+        cancel(timeout);
+        cancel(nextCheck);
+        Future<?> check = runningCheck;
+        if (interruptCheck && check != null) {
+            check.cancel(true);
         }
+        return true;
+    }
+
+    boolean isDone() {
+        return done.get();
     }
 
-    public synchronized void cancel() { //must be synchronized as it can be canceled from timeoutVerifier thread and monitor thread
-        if (!future.isDone()) {
-            future.cancel(true);
+    private void cancel(TimerWheel.Timeout scheduled) {
+        if (scheduled != null) {
+            scheduled.cancel();
         }
     }
 }
@@ -0,0 +1,195 @@
+/**
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.pnc.common.monitor;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Hashed timer wheel for large numbers of timeouts which are usually cancelled before they expire.
+ * Scheduling and cancelling a timeout are O(1), a single thread advances the wheel every tick
+ * and runs the expired tasks, so the tasks should be short or hand the work off to another executor.
+ *
+ * Timeouts expire with the precision of one tick.
+ */
+public class TimerWheel {
+
+    private static final Logger log = LoggerFactory.getLogger(TimerWheel.class);
+
+    private final long tickNanos;
+    private final List<Timeout>[] wheel;
+    private final Queue<Timeout> newTimeouts = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pendingTimeouts = new AtomicInteger();
+    private final ScheduledExecutorService ticker;
+    private final long startTime;
+
+    /** Index of the next tick to process, accessed only by the ticker thread */
+    private long tick;
+
+    /**
+     * @param tickDuration precision of the timeouts
+     * @param unit unit of tickDuration
+     * @param wheelSize number of buckets, timeouts further than wheelSize ticks in the future take several rounds
+     * @param threadName name of the thread advancing the wheel
+     */
+    @SuppressWarnings("unchecked")
+    public TimerWheel(long tickDuration, TimeUnit unit, int wheelSize, String threadName) {
+        if (tickDuration <= 0 || wheelSize <= 0) {
+            throw new IllegalArgumentException("Tick duration and wheel size must be positive.");
+        }
+        this.tickNanos = unit.toNanos(tickDuration);
+        this.wheel = new List[wheelSize];
+        for (int i = 0; i < wheelSize; i++) {
+            wheel[i] = new ArrayList<>();
+        }
+        startTime = System.nanoTime();
+        ticker = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, threadName);
+            thread.setDaemon(true);
+            return thread;
+        });
+        ticker.scheduleAtFixedRate(this::advance, tickNanos, tickNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Schedules the task to run once the delay elapses, unless the returned timeout is cancelled before.
+     */
+    public Timeout newTimeout(Runnable task, long delay, TimeUnit unit) {
+        if (ticker.isShutdown()) {
+            throw new IllegalStateException("Timer wheel is stopped.");
+        }
+        Timeout timeout = new Timeout(task, System.nanoTime() + unit.toNanos(delay));
+        pendingTimeouts.incrementAndGet();
+        newTimeouts.add(timeout);
+        return timeout;
+    }
+
+    /**
+     * @return Number of timeouts neither expired nor cancelled yet
+     */
+    public int getPendingCount() {
+        return pendingTimeouts.get();
+    }
+
+    /**
+     * Stops the wheel, pending timeouts never expire.
+     */
+    public void stop() {
+        ticker.shutdownNow();
+    }
+
+    private void advance() {
+        try {
+            long lastTick = (System.nanoTime() - startTime) / tickNanos;
+            while (tick <= lastTick) {
+                transferNewTimeouts();
+                expireTimeouts(wheel[(int) (tick % wheel.length)]);
+                tick++;
+            }
+        } catch (Throwable e) {
+            log.error("Error advancing timer wheel.", e); //do not let the exception cancel the periodic advancing
+        }
+    }
+
+    private void transferNewTimeouts() {
+        Timeout timeout;
+        while ((timeout = newTimeouts.poll()) != null) {
+            if (timeout.isCancelled()) {
+                continue;
+            }
+            long deadlineTick = Math.max((timeout.deadline - startTime + tickNanos - 1) / tickNanos, tick);
+            timeout.remainingRounds = (deadlineTick - tick) / wheel.length;
+            wheel[(int) (deadlineTick % wheel.length)].add(timeout);
+        }
+    }
+
+    private void expireTimeouts(List<Timeout> bucket) {
+        Iterator<Timeout> iterator = bucket.iterator();
+        while (iterator.hasNext()) {
+            Timeout timeout = iterator.next();
+            if (timeout.isCancelled()) {
+                iterator.remove();
+            } else if (timeout.remainingRounds <= 0) {
+                iterator.remove();
+                timeout.expire();
+            } else {
+                timeout.remainingRounds--;
+            }
+        }
+    }
+
+    public class Timeout {
+
+        private static final int INIT = 0;
+        private static final int CANCELLED = 1;
+        private static final int EXPIRED = 2;
+
+        private final Runnable task;
+        private final long deadline;
+        private final AtomicInteger state = new AtomicInteger(INIT);
+
+        /** Accessed only by the ticker thread */
+        private long remainingRounds;
+
+        private Timeout(Runnable task, long deadline) {
+            this.task = task;
+            this.deadline = deadline;
+        }
+
+        /**
+         * @return true if the timeout was cancelled before it expired
+         */
+        public boolean cancel() {
+            if (state.compareAndSet(INIT, CANCELLED)) {
+                pendingTimeouts.decrementAndGet();
+                return true;
+            }
+            return false;
+        }
+
+        public boolean isCancelled() {
+            return state.get() == CANCELLED;
+        }
+
+        public boolean isExpired() {
+            return state.get() == EXPIRED;
+        }
+
+        private void expire() {
+            if (!state.compareAndSet(INIT, EXPIRED)) {
+                return;
+            }
+            pendingTimeouts.decrementAndGet();
+            try {
+                task.run();
+            } catch (Throwable e) {
+                log.error("Error running expired timeout task.", e);
+            }
+        }
+    }
+}
@@ -17,6 +17,11 @@
  */
 package org.jboss.pnc.common.util;
 
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.config.Registry;
+import org.apache.http.config.RegistryBuilder;
+import org.apache.http.conn.socket.ConnectionSocketFactory;
+import org.apache.http.conn.socket.PlainConnectionSocketFactory;
 import org.apache.http.conn.ssl.AllowAllHostnameVerifier;
 import org.apache.http.conn.ssl.SSLConnectionSocketFactory;
 import org.apache.http.conn.ssl.SSLContextBuilder;
@@ -24,6 +29,7 @@ import org.apache.http.conn.ssl.TrustStrategy;
 import org.apache.http.impl.client.CloseableHttpClient;
 import org.apache.http.impl.client.DefaultHttpRequestRetryHandler;
 import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
 
 import javax.ws.rs.core.MediaType;
 
@@ -46,6 +52,11 @@ public class HttpUtils {
 
     private static final Logger LOG = LoggerFactory.getLogger(HttpUtils.class);
 
+    /**
+     * Pooled connections idle for longer are checked before reuse, as the server might have closed them meanwhile
+     */
+    private static final int VALIDATE_POOLED_CONNECTION_AFTER_MILLIS = 2000;
+
     private HttpUtils() {
     }
 
@@ -98,6 +109,48 @@ public class HttpUtils {
      * @return Closeable "permissive" HttpClient instance, ignoring invalid SSL certificates.
      */
     public static CloseableHttpClient getPermissiveHttpClient(int retries) {
+        CloseableHttpClient httpclient = HttpClients.custom()
+                .setRetryHandler(new DefaultHttpRequestRetryHandler(retries, false))
+                .setSSLSocketFactory(getPermissiveSslSocketFactory())
+                .setHostnameVerifier(new AllowAllHostnameVerifier()).build();
+
+        return httpclient;
+    }
+
+    /**
+     * Creates a long lived "permissive" HttpClient which keeps connections (and their TLS sessions) open
+     * in a pool, so it can be shared by concurrent callers instead of creating a client per request.
+     *
+     * NOTE: The client must be closed once it is no longer needed to release the pooled connections.
+     * @param maxConnections - int maximum number of open connections, also used as the limit per route
+     * @param timeoutMillis - int timeout to establish a connection, to wait for data and to lease a pooled connection
+     * @return Closeable "permissive" pooling HttpClient instance, ignoring invalid SSL certificates.
+     */
+    public static CloseableHttpClient getPermissivePoolingHttpClient(int maxConnections, int timeoutMillis) {
+        Registry<ConnectionSocketFactory> socketFactoryRegistry = RegistryBuilder.<ConnectionSocketFactory>create()
+                .register("http", PlainConnectionSocketFactory.getSocketFactory())
+                .register("https", getPermissiveSslSocketFactory())
+                .build();
+
+        PoolingHttpClientConnectionManager connectionManager = new PoolingHttpClientConnectionManager(socketFactoryRegistry);
+        connectionManager.setMaxTotal(maxConnections);
+        connectionManager.setDefaultMaxPerRoute(maxConnections);
+        connectionManager.setValidateAfterInactivity(VALIDATE_POOLED_CONNECTION_AFTER_MILLIS);
+
+        RequestConfig requestConfig = RequestConfig.custom()
+                .setConnectTimeout(timeoutMillis)
+                .setSocketTimeout(timeoutMillis)
+                .setConnectionRequestTimeout(timeoutMillis)
+                .build();
+
+        return HttpClients.custom()
+                .setConnectionManager(connectionManager)
+                .setDefaultRequestConfig(requestConfig)
+                .setRetryHandler(new DefaultHttpRequestRetryHandler(0, false))
+                .build();
+    }
+
+    private static SSLConnectionSocketFactory getPermissiveSslSocketFactory() {
         SSLContextBuilder builder = new SSLContextBuilder();
         try {
             builder.loadTrustMaterial(null, new TrustStrategy() {
@@ -116,13 +169,7 @@ public class HttpUtils {
         } catch (KeyManagementException | NoSuchAlgorithmException e1) {
             LOG.error("Error creating SSL Connection Factory.", e1);
         }
-
-        CloseableHttpClient httpclient = HttpClients.custom()
-                .setRetryHandler(new DefaultHttpRequestRetryHandler(retries, false))
-                .setSSLSocketFactory(sslSF)
-                .setHostnameVerifier(new AllowAllHostnameVerifier()).build();
-
-        return httpclient;
+        return sslSF;
     }
 
     /**
@@ -0,0 +1,99 @@
+/**
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.pnc.common.test.monitor;
+
+import org.jboss.pnc.common.monitor.PullingMonitor;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Measures how long it takes to get a monitored condition satisfied while the given number of other monitors
+ * keep waiting for their conditions, and what the scheduling delay of the checks is meanwhile.
+ *
+ * <p>
+ *     Run with <code>mvn test-compile exec:java -Dexec.classpathScope=test
+ *     -Dexec.mainClass=org.jboss.pnc.common.test.monitor.PullingMonitorBenchmark</code> from the common module.
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class PullingMonitorBenchmark {
+
+    private static final Logger log = LoggerFactory.getLogger(PullingMonitorBenchmark.class);
+
+    @Param({ "0", "10000" })
+    private int waitingMonitors;
+
+    private PullingMonitor pullingMonitor;
+
+    @Setup
+    public void setUp() {
+        pullingMonitor = new PullingMonitor();
+        for (int i = 0; i < waitingMonitors; i++) {
+            pullingMonitor.monitor(() -> {}, e -> {}, () -> false, 100, 3600_000, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        log.info("Waiting monitors: {}, checks: {}, average check delay: {} ms, max check delay: {} ms.",
+                waitingMonitors,
+                pullingMonitor.getChecksCount(),
+                pullingMonitor.getAverageCheckDelayMillis(),
+                pullingMonitor.getMaxCheckDelayMillis());
+        pullingMonitor.destroy();
+    }
+
+    /**
+     * Condition is satisfied on the third check.
+     */
+    @Benchmark
+    public void monitorUntilSatisfied() throws InterruptedException {
+        CountDownLatch latch = new CountDownLatch(1);
+        AtomicInteger checks = new AtomicInteger();
+        pullingMonitor.monitor(latch::countDown, e -> latch.countDown(), () -> checks.incrementAndGet() > 2, 10, 10_000, TimeUnit.MILLISECONDS);
+        latch.await();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(PullingMonitorBenchmark.class.getSimpleName()).build()).run();
+    }
+}
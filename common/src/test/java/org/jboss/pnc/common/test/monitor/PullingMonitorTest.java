@@ -25,8 +25,12 @@ import org.junit.Assert;
 import org.junit.BeforeClass;
 import org.junit.Test;
 
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Consumer;
 import java.util.function.Supplier;
 
@@ -105,6 +109,70 @@ public class PullingMonitorTest {
         failingMonitor(condition);
     }
 
+    @Test
+    public void monitorShouldBackOffWhileConditionIsUnsatisfied() throws InterruptedException {
+        List<Long> checkTimes = new CopyOnWriteArrayList<>();
+        CountDownLatch latch = new CountDownLatch(1);
+        Supplier<Boolean> condition = () -> {
+            checkTimes.add(System.nanoTime());
+            return checkTimes.size() > 5;
+        };
+
+        pullingMonitor.monitor(latch::countDown, e -> Assert.fail("Monitoring failed: " + e.getMessage()), condition, 20, 5000, TimeUnit.MILLISECONDS);
+
+        Assert.assertTrue("Did not received complete notification.", latch.await(5, TimeUnit.SECONDS));
+        //intervals are 20, 30, 45, 67 ms and then capped at 80 ms
+        long firstInterval = checkTimes.get(1) - checkTimes.get(0);
+        long lastInterval = checkTimes.get(5) - checkTimes.get(4);
+        Assert.assertTrue("Check interval did not grow.", lastInterval > firstInterval);
+        Assert.assertTrue("Check interval was not capped.", lastInterval < TimeUnit.MILLISECONDS.toNanos(200));
+    }
+
+    @Test
+    public void monitorShouldHandleManyConcurrentMonitors() throws InterruptedException {
+        int monitors = 10_000;
+        PullingMonitor pullingMonitor = new PullingMonitor();
+        try {
+            CountDownLatch completed = new CountDownLatch(monitors);
+            CountDownLatch timedOut = new CountDownLatch(monitors);
+            AtomicInteger unexpected = new AtomicInteger();
+
+            for (int i = 0; i < monitors; i++) {
+                AtomicInteger checks = new AtomicInteger();
+                pullingMonitor.monitor(completed::countDown, e -> unexpected.incrementAndGet(),
+                        () -> checks.incrementAndGet() > 3, 10, 30_000, TimeUnit.MILLISECONDS);
+                pullingMonitor.monitor(unexpected::incrementAndGet, e -> timedOut.countDown(),
+                        () -> false, 10, 500, TimeUnit.MILLISECONDS);
+            }
+
+            Assert.assertTrue("Not all monitors completed.", completed.await(30, TimeUnit.SECONDS));
+            Assert.assertTrue("Not all monitors timed out.", timedOut.await(30, TimeUnit.SECONDS));
+            Assert.assertEquals(0, unexpected.get());
+            Assert.assertEquals(0, pullingMonitor.getActiveMonitorsCount());
+            Assert.assertTrue(pullingMonitor.getChecksCount() >= monitors * 4);
+        } finally {
+            pullingMonitor.destroy();
+        }
+    }
+
+    @Test
+    public void monitorShouldCountActiveMonitors() throws InterruptedException {
+        PullingMonitor pullingMonitor = new PullingMonitor();
+        try {
+            CountDownLatch latch = new CountDownLatch(1);
+            AtomicBoolean satisfied = new AtomicBoolean();
+            pullingMonitor.monitor(latch::countDown, e -> Assert.fail("Monitoring failed: " + e.getMessage()), satisfied::get, 10, 5000, TimeUnit.MILLISECONDS);
+            Assert.assertEquals(1, pullingMonitor.getActiveMonitorsCount());
+
+            satisfied.set(true);
+            Assert.assertTrue("Did not received complete notification.", latch.await(5, TimeUnit.SECONDS));
+            Assert.assertEquals(0, pullingMonitor.getActiveMonitorsCount());
+            Assert.assertTrue(pullingMonitor.getChecksCount() > 0);
+        } finally {
+            pullingMonitor.destroy();
+        }
+    }
+
     private void failingMonitor(Supplier<Boolean> condition) throws InterruptedException {
         PullingMonitor pullingMonitor = new PullingMonitor();
 
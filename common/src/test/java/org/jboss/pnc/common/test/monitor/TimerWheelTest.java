@@ -0,0 +1,114 @@
+/**
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.pnc.common.test.monitor;
+
+import org.jboss.pnc.common.monitor.TimerWheel;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class TimerWheelTest {
+
+    private TimerWheel timerWheel;
+
+    @Before
+    public void init() {
+        timerWheel = new TimerWheel(10, TimeUnit.MILLISECONDS, 8, "timer-wheel-test");
+    }
+
+    @After
+    public void destroy() {
+        timerWheel.stop();
+    }
+
+    @Test
+    public void shouldExpireTimeoutsInDeadlineOrder() throws InterruptedException {
+        CountDownLatch latch = new CountDownLatch(3);
+        List<Integer> expired = new CopyOnWriteArrayList<>();
+
+        //delays longer than the wheel (8 * 10ms) take more rounds
+        timerWheel.newTimeout(() -> { expired.add(300); latch.countDown(); }, 300, TimeUnit.MILLISECONDS);
+        timerWheel.newTimeout(() -> { expired.add(20); latch.countDown(); }, 20, TimeUnit.MILLISECONDS);
+        timerWheel.newTimeout(() -> { expired.add(100); latch.countDown(); }, 100, TimeUnit.MILLISECONDS);
+
+        Assert.assertTrue("Timeouts did not expire.", latch.await(5, TimeUnit.SECONDS));
+        Assert.assertEquals(3, expired.size());
+        Assert.assertEquals(20, (int) expired.get(0));
+        Assert.assertEquals(100, (int) expired.get(1));
+        Assert.assertEquals(300, (int) expired.get(2));
+        Assert.assertEquals(0, timerWheel.getPendingCount());
+    }
+
+    @Test
+    public void shouldNotExpireBeforeDeadline() throws InterruptedException {
+        CountDownLatch latch = new CountDownLatch(1);
+        long start = System.nanoTime();
+        AtomicInteger elapsedMillis = new AtomicInteger();
+
+        timerWheel.newTimeout(() -> {
+            elapsedMillis.set((int) TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+            latch.countDown();
+        }, 150, TimeUnit.MILLISECONDS);
+
+        Assert.assertTrue("Timeout did not expire.", latch.await(5, TimeUnit.SECONDS));
+        Assert.assertTrue("Timeout expired too early: " + elapsedMillis.get() + "ms.", elapsedMillis.get() >= 150);
+    }
+
+    @Test
+    public void cancelledTimeoutShouldNotExpire() throws InterruptedException {
+        AtomicInteger expired = new AtomicInteger();
+        TimerWheel.Timeout timeout = timerWheel.newTimeout(expired::incrementAndGet, 50, TimeUnit.MILLISECONDS);
+        CountDownLatch latch = new CountDownLatch(1);
+        timerWheel.newTimeout(latch::countDown, 100, TimeUnit.MILLISECONDS);
+
+        Assert.assertTrue(timeout.cancel());
+        Assert.assertFalse("Timeout can be cancelled only once.", timeout.cancel());
+
+        Assert.assertTrue("Timeout did not expire.", latch.await(5, TimeUnit.SECONDS));
+        Assert.assertEquals(0, expired.get());
+        Assert.assertTrue(timeout.isCancelled());
+        Assert.assertFalse(timeout.isExpired());
+        Assert.assertEquals(0, timerWheel.getPendingCount());
+    }
+
+    @Test
+    public void expiredTimeoutCannotBeCancelled() throws InterruptedException {
+        CountDownLatch latch = new CountDownLatch(1);
+        TimerWheel.Timeout timeout = timerWheel.newTimeout(latch::countDown, 10, TimeUnit.MILLISECONDS);
+
+        Assert.assertTrue("Timeout did not expire.", latch.await(5, TimeUnit.SECONDS));
+        Assert.assertFalse(timeout.cancel());
+        Assert.assertTrue(timeout.isExpired());
+    }
+
+    @Test
+    public void failingTaskShouldNotStopTheWheel() throws InterruptedException {
+        CountDownLatch latch = new CountDownLatch(1);
+        timerWheel.newTimeout(() -> { throw new RuntimeException("Expected test exception."); }, 10, TimeUnit.MILLISECONDS);
+        timerWheel.newTimeout(latch::countDown, 50, TimeUnit.MILLISECONDS);
+
+        Assert.assertTrue("Timeout did not expire after a failing task.", latch.await(5, TimeUnit.SECONDS));
+    }
+}
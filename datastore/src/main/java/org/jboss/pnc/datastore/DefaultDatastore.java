@@ -22,10 +22,14 @@ import org.jboss.pnc.model.Artifact;
 import org.jboss.pnc.model.BuildConfigSetRecord;
 import org.jboss.pnc.model.BuildConfiguration;
 import org.jboss.pnc.model.BuildConfigurationAudited;
+import org.jboss.pnc.model.BuildEnvironment;
 import org.jboss.pnc.model.BuildRecord;
 import org.jboss.pnc.model.BuildStatus;
+import org.jboss.pnc.model.License;
+import org.jboss.pnc.model.Project;
 import org.jboss.pnc.model.User;
 import org.jboss.pnc.spi.datastore.Datastore;
+import org.jboss.pnc.spi.datastore.EntityChangeCounters;
 import org.jboss.pnc.spi.datastore.predicates.UserPredicates;
 import org.jboss.pnc.spi.datastore.repositories.ArtifactRepository;
 import org.jboss.pnc.spi.datastore.repositories.BuildConfigSetRecordRepository;
@@ -47,9 +51,10 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.stream.Collectors;
 
 import static org.jboss.pnc.spi.datastore.predicates.ArtifactPredicates.withIdentifierAndChecksum;
-import static org.jboss.pnc.spi.datastore.predicates.ArtifactPredicates.withOriginUrl;
+import static org.jboss.pnc.spi.datastore.predicates.ArtifactPredicates.withOriginUrlIn;
 
 @Stateless
 public class DefaultDatastore implements Datastore {
@@ -77,20 +82,41 @@ public class DefaultDatastore implements Datastore {
     @Inject
     SequenceHandlerRepository sequenceHandlerRepository;
 
+    @Inject
+    EntityChangeCounters entityChangeCounters;
+
     private static final String ARITFACT_ORIGIN_URL_IDENTIFIER_CONFLICT_MESSAGE = "Another artifact with the same originUrl but a different identifier already exists";
     private static final String ARITFACT_ORIGIN_URL_CHECKSUM_CONFLICT_MESSAGE = "Another artifact with the same originUrl but a different checksum already exists";
 
+    /**
+     * Maximum number of origin URLs bound into a single IN clause. Keeps the statement below the
+     * parameter limits of the supported databases.
+     */
+    private static final int ORIGIN_URL_QUERY_CHUNK_SIZE = 500;
+
+    /**
+     * Checks the given artifacts against the db using a set based comparison. The origin URLs of all
+     * incoming artifacts are looked up with a (chunked) IN query backed by the originUrl index and the
+     * matching db records are compared against the incoming identifier and checksum.
+     */
     @Override
     public Map<Artifact, String> checkForConflictingArtifacts(Collection<Artifact> artifacts) {
         Map<Artifact, String> conflicts = new HashMap<>();
+        Map<String, Artifact> artifactsFromDbByOriginUrl = findArtifactsByOriginUrl(artifacts);
+        if (artifactsFromDbByOriginUrl.isEmpty()) {
+            return conflicts;
+        }
+
         for (Artifact artifact : artifacts) {
             // Check for matching URL with different identifier or checksum
             if (artifact.getOriginUrl() != null) {
-                Artifact artifactFromDb = artifactRepository.queryByPredicates(withOriginUrl(artifact.getOriginUrl()));
-                if (artifactFromDb.getIdentifier().equals(artifact.getIdentifier())) {
-                    conflicts.put(artifact, ARITFACT_ORIGIN_URL_IDENTIFIER_CONFLICT_MESSAGE);
+                Artifact artifactFromDb = artifactsFromDbByOriginUrl.get(artifact.getOriginUrl());
+                if (artifactFromDb == null) {
+                    continue;
                 }
-                if (artifactFromDb.getChecksum().equals(artifact.getChecksum())) {
+                if (!artifactFromDb.getIdentifier().equals(artifact.getIdentifier())) {
+                    conflicts.put(artifact, ARITFACT_ORIGIN_URL_IDENTIFIER_CONFLICT_MESSAGE);
+                } else if (!artifactFromDb.getChecksum().equals(artifact.getChecksum())) {
                     conflicts.put(artifact, ARITFACT_ORIGIN_URL_CHECKSUM_CONFLICT_MESSAGE);
                 }
             }
@@ -98,6 +124,22 @@ public class DefaultDatastore implements Datastore {
         return conflicts;
     }
 
+    private Map<String, Artifact> findArtifactsByOriginUrl(Collection<Artifact> artifacts) {
+        List<String> originUrls = artifacts.stream()
+                .map(Artifact::getOriginUrl)
+                .filter(originUrl -> originUrl != null)
+                .distinct()
+                .collect(Collectors.toList());
+
+        Map<String, Artifact> artifactsByOriginUrl = new HashMap<>();
+        for (int from = 0; from < originUrls.size(); from += ORIGIN_URL_QUERY_CHUNK_SIZE) {
+            List<String> chunk = originUrls.subList(from, Math.min(from + ORIGIN_URL_QUERY_CHUNK_SIZE, originUrls.size()));
+            artifactRepository.queryWithPredicates(withOriginUrlIn(chunk))
+                    .forEach(artifact -> artifactsByOriginUrl.put(artifact.getOriginUrl(), artifact));
+        }
+        return artifactsByOriginUrl;
+    }
+
     @Override
     @TransactionAttribute(TransactionAttributeType.REQUIRED)
     public BuildRecord storeCompletedBuild(BuildRecord.Builder buildRecordBuilder) {
@@ -177,12 +219,19 @@ public class DefaultDatastore implements Datastore {
      */
     @Override
     public BuildConfigurationAudited getLatestBuildConfigurationAudited(Integer buildConfigurationId) {
-        List<BuildConfigurationAudited> buildConfigRevs = buildConfigurationAuditedRepository.findAllByIdOrderByRevDesc(buildConfigurationId);
-        if ( buildConfigRevs.isEmpty() ) {
-            // TODO should we throw an exception?  In theory, this should never happen.
-            return null;
-        }
-        return buildConfigRevs.get(0);
+        // TODO should we throw an exception if there is no revision?  In theory, this should never happen.
+        return buildConfigurationAuditedRepository.findLatestById(buildConfigurationId);
+    }
+
+    @Override
+    public Integer getLatestBuildConfigurationAuditedRevision(Integer buildConfigurationId) {
+        return buildConfigurationAuditedRepository.getLatestRevision(buildConfigurationId);
+    }
+
+    @Override
+    public String getBuildConfigurationAuditedAssociationsVersion() {
+        return entityChangeCounters.getVersion(Project.class, BuildConfiguration.class, License.class,
+                BuildEnvironment.class);
     }
 
     @Override
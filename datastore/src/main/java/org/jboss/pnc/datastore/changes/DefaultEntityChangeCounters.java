@@ -0,0 +1,69 @@
+/**
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.pnc.datastore.changes;
+
+import org.jboss.pnc.datastore.repositories.internal.EntityChangeCounterSpringRepository;
+import org.jboss.pnc.model.EntityChangeCounter;
+import org.jboss.pnc.spi.datastore.EntityChangeCounters;
+
+import javax.ejb.Stateless;
+import javax.inject.Inject;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Versions of entity types based on the {@link EntityChangeCounter}s maintained by {@link EntityChangeListener}.
+ * The counters of all the nodes are stored in the database and summed up, so all the nodes compute the same versions.
+ */
+@Stateless
+public class DefaultEntityChangeCounters implements EntityChangeCounters {
+
+    private EntityChangeCounterSpringRepository repository;
+
+    /**
+     * @deprecated Created for CDI.
+     */
+    @Deprecated
+    public DefaultEntityChangeCounters() {
+    }
+
+    @Inject
+    public DefaultEntityChangeCounters(EntityChangeCounterSpringRepository repository) {
+        this.repository = repository;
+    }
+
+    /**
+     * @return Version or null when some of the entity types aren't counted yet
+     */
+    @Override
+    public String getVersion(Class<?>... entityClasses) {
+        List<String> entityNames = new ArrayList<>(entityClasses.length);
+        for (Class<?> entityClass : entityClasses) {
+            entityNames.add(entityClass.getName());
+        }
+        List<Object[]> sums = repository.sumChanges(entityNames);
+        if (sums.size() < entityNames.size()) {
+            return null;
+        }
+        long changes = 0;
+        for (Object[] sum : sums) {
+            changes += ((Number) sum[1]).longValue();
+        }
+        return Long.toString(changes);
+    }
+}
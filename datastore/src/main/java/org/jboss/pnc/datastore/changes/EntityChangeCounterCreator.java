@@ -0,0 +1,59 @@
+/**
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.pnc.datastore.changes;
+
+import org.jboss.pnc.model.EntityChangeCounter;
+
+import javax.ejb.Stateless;
+import javax.ejb.TransactionAttribute;
+import javax.ejb.TransactionAttributeType;
+import javax.inject.Inject;
+import javax.persistence.EntityManager;
+
+/**
+ * Creates {@link EntityChangeCounter}s, each in its own transaction, so a counter created concurrently by another node
+ * of the same name fails just its own creation.
+ */
+@Stateless
+public class EntityChangeCounterCreator {
+
+    private EntityManager entityManager;
+
+    /**
+     * @deprecated Created for CDI.
+     */
+    @Deprecated
+    public EntityChangeCounterCreator() {
+    }
+
+    @Inject
+    public EntityChangeCounterCreator(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    /**
+     * The counter is persisted rather than merged, so an existing counter is never reset.
+     *
+     * @throws javax.ejb.EJBException if the counter already exists
+     */
+    @TransactionAttribute(TransactionAttributeType.REQUIRES_NEW)
+    public void create(String entityName, String node) {
+        entityManager.persist(new EntityChangeCounter(entityName, node));
+        entityManager.flush();
+    }
+}
@@ -0,0 +1,154 @@
+/**
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.pnc.datastore.changes;
+
+import org.hibernate.Session;
+import org.hibernate.action.spi.AfterTransactionCompletionProcess;
+import org.hibernate.action.spi.BeforeTransactionCompletionProcess;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.hibernate.event.spi.AbstractCollectionEvent;
+import org.hibernate.event.spi.EventSource;
+import org.hibernate.event.spi.PostCollectionRecreateEvent;
+import org.hibernate.event.spi.PostCollectionRecreateEventListener;
+import org.hibernate.event.spi.PostCollectionRemoveEvent;
+import org.hibernate.event.spi.PostCollectionRemoveEventListener;
+import org.hibernate.event.spi.PostCollectionUpdateEvent;
+import org.hibernate.event.spi.PostCollectionUpdateEventListener;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostDeleteEventListener;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostInsertEventListener;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.event.spi.PostUpdateEventListener;
+import org.hibernate.persister.entity.EntityPersister;
+import org.jboss.pnc.model.EntityChangeCounter;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.WeakHashMap;
+
+/**
+ * Counts changes of entities and their collections in the {@link EntityChangeCounter}s of this node. The counters of
+ * the entity types changed by a transaction are incremented right before it is committed, in the same transaction, so
+ * a reader never sees a new count together with the old data. The row locks of the counters are held only for the
+ * commit itself and every node increments its own counters, so only the commits of the transactions of one node
+ * changing the same entity type wait for each other.
+ *
+ * Entity types without a counter of this node (see
+ * {@link org.jboss.pnc.datastore.configuration.EntityChangeCountersConfiguration}) and bulk (HQL/native) updates
+ * aren't counted.
+ */
+public class EntityChangeListener implements PostInsertEventListener, PostUpdateEventListener, PostDeleteEventListener,
+        PostCollectionRecreateEventListener, PostCollectionUpdateEventListener, PostCollectionRemoveEventListener {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Name of this node, which WildFly sets to the host name unless it's configured. Nodes sharing a name share the
+     * counters too, which is still correct, they only wait for each other's locks.
+     */
+    public static final String NODE_NAME = System.getProperty("jboss.node.name", "localhost");
+
+    /**
+     * Names of the entities changed in the current transaction of the session. Guarded by itself.
+     */
+    private final Map<SessionImplementor, Set<String>> changedEntities = new WeakHashMap<>();
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        countBeforeCommit(event.getSession(), event.getPersister());
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        countBeforeCommit(event.getSession(), event.getPersister());
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        countBeforeCommit(event.getSession(), event.getPersister());
+    }
+
+    @Override
+    public void onPostRecreateCollection(PostCollectionRecreateEvent event) {
+        countCollectionBeforeCommit(event);
+    }
+
+    @Override
+    public void onPostUpdateCollection(PostCollectionUpdateEvent event) {
+        countCollectionBeforeCommit(event);
+    }
+
+    @Override
+    public void onPostRemoveCollection(PostCollectionRemoveEvent event) {
+        countCollectionBeforeCommit(event);
+    }
+
+    /**
+     * Changes are counted before commit, no post commit handling is needed from Hibernate.
+     */
+    public boolean requiresPostCommitHanding(EntityPersister persister) {
+        return false;
+    }
+
+    private void countCollectionBeforeCommit(AbstractCollectionEvent event) {
+        EntityPersister ownerPersister = event.getSession().getFactory()
+                .getEntityPersister(event.getAffectedOwnerEntityName());
+        countBeforeCommit(event.getSession(), ownerPersister);
+    }
+
+    private void countBeforeCommit(EventSource session, EntityPersister persister) {
+        String entityName = persister.getEntityName();
+        if (EntityChangeCounter.class.getName().equals(entityName)) {
+            return;
+        }
+        synchronized (changedEntities) {
+            Set<String> changed = changedEntities.get(session);
+            if (changed == null) {
+                changed = new TreeSet<>();
+                changedEntities.put(session, changed);
+                session.getActionQueue().registerProcess((BeforeTransactionCompletionProcess) this::incrementCounters);
+                session.getActionQueue().registerProcess(
+                        (AfterTransactionCompletionProcess) (success, completedSession) -> removeChanged(completedSession));
+            }
+            changed.add(entityName);
+        }
+    }
+
+    /**
+     * The counters are updated in the order of the entity names to avoid deadlocks between the transactions.
+     */
+    private void incrementCounters(SessionImplementor session) {
+        Set<String> changed = removeChanged(session);
+        for (String entityName : changed) {
+            ((Session) session).createQuery("update EntityChangeCounter counter set counter.changes = counter.changes + 1 "
+                    + "where counter.id = :id")
+                    .setParameter("id", EntityChangeCounter.getId(entityName, NODE_NAME))
+                    .executeUpdate();
+        }
+    }
+
+    private Set<String> removeChanged(SessionImplementor session) {
+        synchronized (changedEntities) {
+            Set<String> changed = changedEntities.remove(session);
+            return changed == null ? Collections.emptySet() : changed;
+        }
+    }
+}
@@ -0,0 +1,86 @@
+/**
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.pnc.datastore.configuration;
+
+import java.lang.invoke.MethodHandles;
+import java.util.HashSet;
+import java.util.Set;
+
+import javax.annotation.PostConstruct;
+import javax.ejb.EJBException;
+import javax.ejb.Singleton;
+import javax.ejb.Startup;
+import javax.inject.Inject;
+import javax.persistence.EntityManager;
+import javax.persistence.metamodel.EntityType;
+
+import org.jboss.pnc.datastore.changes.EntityChangeCounterCreator;
+import org.jboss.pnc.datastore.changes.EntityChangeListener;
+import org.jboss.pnc.datastore.repositories.internal.EntityChangeCounterSpringRepository;
+import org.jboss.pnc.model.EntityChangeCounter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Creates the missing {@link EntityChangeCounter}s of this node for all the entity types, the counters are only
+ * incremented while the entities are changed. Nodes create only their own counters, a counter created concurrently
+ * by a node of the same name is left as it is.
+ */
+@Singleton
+@Startup
+public class EntityChangeCountersConfiguration {
+
+    public static final Logger logger = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
+
+    @Inject
+    private EntityManager entityManager;
+
+    @Inject
+    private EntityChangeCounterSpringRepository entityChangeCounterRepository;
+
+    @Inject
+    private EntityChangeCounterCreator entityChangeCounterCreator;
+
+    @PostConstruct
+    public void initialize() {
+        String node = EntityChangeListener.NODE_NAME;
+        Set<String> missing = new HashSet<>();
+        for (EntityType<?> entityType : entityManager.getMetamodel().getEntities()) {
+            missing.add(entityType.getJavaType().getName());
+        }
+        missing.remove(EntityChangeCounter.class.getName());
+        missing.removeAll(entityChangeCounterRepository.findCountedEntityNames(node));
+
+        for (String entityName : missing) {
+            logger.info("Creating change counter of {} for node {} ...", entityName, node);
+            try {
+                entityChangeCounterCreator.create(entityName, node);
+            } catch (EJBException e) {
+                logger.debug("Change counter of {} for node {} wasn't created, checking if it exists.", entityName,
+                        node, e);
+            }
+        }
+
+        missing.removeAll(entityChangeCounterRepository.findCountedEntityNames(node));
+        for (String entityName : missing) {
+            logger.warn("Change counter of {} for node {} is missing, REST views of the entity won't have a version.",
+                    entityName, node);
+        }
+    }
+
+}
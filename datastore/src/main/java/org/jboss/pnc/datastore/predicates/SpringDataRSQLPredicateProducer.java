@@ -17,6 +17,8 @@
  */
 package org.jboss.pnc.datastore.predicates;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import org.jboss.pnc.datastore.predicates.rsql.EmptyRSQLPredicate;
 import org.jboss.pnc.datastore.predicates.rsql.RSQLNodeTravellerPredicate;
 import org.jboss.pnc.model.GenericEntity;
@@ -24,20 +26,33 @@ import org.jboss.pnc.spi.datastore.repositories.api.Predicate;
 import org.jboss.pnc.spi.datastore.repositories.api.RSQLPredicateProducer;
 
 import javax.ejb.Stateless;
+import java.util.Objects;
+import java.util.concurrent.ExecutionException;
 
 /**
  * Entry point for converting RSQL to Criteria.
+ *
+ * <p>
+ *     Parsed queries are kept in a bounded cache keyed by the selecting class and the query string, since the same
+ *     queries are sent over and over again by the UI.
+ * </p>
  */
 @Stateless
 public class SpringDataRSQLPredicateProducer implements RSQLPredicateProducer {
 
+    public static final int MAX_CACHED_QUERIES = 1000;
+
+    private static final Cache<CompiledQueryKey, RSQLNodeTravellerPredicate<?>> compiledQueries = CacheBuilder.newBuilder()
+            .maximumSize(MAX_CACHED_QUERIES)
+            .build();
+
     @Override
     public <T extends GenericEntity<? extends Number>> Predicate<T> getPredicate(Class<T> selectingClass, String rsql) {
         try {
             if(rsql == null || rsql.isEmpty()) {
                 return new EmptyRSQLPredicate();
             }
-            return new RSQLNodeTravellerPredicate<>(selectingClass, rsql).getEntityPredicate();
+            return getCompiledQuery(selectingClass, rsql).getEntityPredicate();
         } catch (Exception e) {
             throw new IllegalArgumentException("Could not parse query: " + rsql, e);
         }
@@ -50,10 +65,44 @@ public class SpringDataRSQLPredicateProducer implements RSQLPredicateProducer {
             if(rsql == null || rsql.isEmpty()) {
                 return x -> true;
             }
-            return new RSQLNodeTravellerPredicate<>(selectingClass, rsql).getStreamPredicate();
+            return getCompiledQuery(selectingClass, rsql).getStreamPredicate();
         } catch (Exception e) {
             throw new IllegalArgumentException("Could not parse query: " + rsql, e);
         }
     }
 
+    @SuppressWarnings("unchecked")
+    private <T> RSQLNodeTravellerPredicate<T> getCompiledQuery(Class<T> selectingClass, String rsql) throws ExecutionException {
+        return (RSQLNodeTravellerPredicate<T>) compiledQueries.get(new CompiledQueryKey(selectingClass, rsql),
+                () -> new RSQLNodeTravellerPredicate<>(selectingClass, rsql));
+    }
+
+    private static final class CompiledQueryKey {
+
+        private final Class<?> selectingClass;
+        private final String rsql;
+
+        CompiledQueryKey(Class<?> selectingClass, String rsql) {
+            this.selectingClass = selectingClass;
+            this.rsql = rsql;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof CompiledQueryKey)) {
+                return false;
+            }
+            CompiledQueryKey that = (CompiledQueryKey) o;
+            return selectingClass.equals(that.selectingClass) && rsql.equals(that.rsql);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(selectingClass, rsql);
+        }
+    }
+
 }
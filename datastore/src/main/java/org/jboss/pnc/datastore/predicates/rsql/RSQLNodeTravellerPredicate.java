@@ -33,8 +33,7 @@ import cz.jirutka.rsql.parser.ast.Node;
 import cz.jirutka.rsql.parser.ast.NotEqualNode;
 import cz.jirutka.rsql.parser.ast.NotInNode;
 import cz.jirutka.rsql.parser.ast.OrNode;
-import org.apache.commons.beanutils.BeanUtils;
-import org.apache.commons.beanutils.NestedNullException;
+import org.jboss.pnc.spi.datastore.repositories.api.impl.PropertyAccessor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -43,13 +42,13 @@ import javax.persistence.criteria.Path;
 import javax.persistence.criteria.Predicate;
 import javax.persistence.criteria.Root;
 import java.lang.invoke.MethodHandles;
-import java.lang.reflect.InvocationTargetException;
-import java.text.NumberFormat;
-import java.text.ParseException;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -63,22 +62,33 @@ public class RSQLNodeTravellerPredicate<Entity> {
 
     private final Class<Entity> selectingClass;
 
-    private final Map<Class<? extends ComparisonNode>, Transformer<Entity>> operations = new HashMap<>();
+    /**
+     * Transformers don't hold any per-query state, so they are shared by all the compiled queries.
+     */
+    private static final Map<Class<? extends ComparisonNode>, Transformer<Object>> operations = createOperations();
+
+    private volatile java.util.function.Predicate<Entity> streamPredicate;
 
     private final static Pattern likePattern = Pattern.compile("(\\%[a-zA-Z0-9\\s]+\\%)");
     private String UNKNOWN_PART_PLACEHOLDER = "_";
 
     public RSQLNodeTravellerPredicate(Class<Entity> entityClass, String rsql) throws RSQLParserException {
-        operations.put(EqualNode.class, new AbstractTransformer<Entity>() {
+        rootNode = new RSQLParser(new ExtendedRSQLNodesFactory()).parse(preprocessRSQL(rsql));
+        selectingClass = entityClass;
+    }
+
+    private static Map<Class<? extends ComparisonNode>, Transformer<Object>> createOperations() {
+        Map<Class<? extends ComparisonNode>, Transformer<Object>> operations = new HashMap<>();
+        operations.put(EqualNode.class, new AbstractTransformer<Object>() {
             @Override
-            Predicate transform(Root<Entity> r, Path<?> selectedPath, CriteriaBuilder cb, String operand, List<Object> convertedArguments) {
+            Predicate transform(Root<Object> r, Path<?> selectedPath, CriteriaBuilder cb, String operand, List<Object> convertedArguments) {
                 return cb.equal(selectedPath, convertedArguments.get(0));
             }
         });
 
-        operations.put(NotEqualNode.class, new AbstractTransformer<Entity>() {
+        operations.put(NotEqualNode.class, new AbstractTransformer<Object>() {
             @Override
-            Predicate transform(Root<Entity> r, Path<?> selectedPath, CriteriaBuilder cb, String operand, List<Object> convertedArguments) {
+            Predicate transform(Root<Object> r, Path<?> selectedPath, CriteriaBuilder cb, String operand, List<Object> convertedArguments) {
                 return cb.notEqual(selectedPath, convertedArguments.get(0));
             }
         });
@@ -90,9 +100,7 @@ public class RSQLNodeTravellerPredicate<Entity> {
         operations.put(InNode.class, (r, cb, clazz, operand, arguments) -> ((Path) selectWithOperand(r, operand, clazz)).in(arguments));
         operations.put(NotInNode.class, (r, cb, clazz, operand, arguments) -> cb.not((Path) selectWithOperand(r, operand, clazz)).in(arguments));
         operations.put(LikeNode.class, (r, cb, clazz, operand, arguments) -> cb.like(cb.lower((Path) selectWithOperand(r, operand, clazz)), arguments.get(0).toLowerCase()));
-
-        rootNode = new RSQLParser(new ExtendedRSQLNodesFactory()).parse(preprocessRSQL(rsql));
-        selectingClass = entityClass;
+        return Collections.unmodifiableMap(operations);
     }
 
     public org.jboss.pnc.spi.datastore.repositories.api.Predicate<Entity> getEntityPredicate() {
@@ -100,19 +108,19 @@ public class RSQLNodeTravellerPredicate<Entity> {
             RSQLNodeTraveller<Predicate> visitor = new RSQLNodeTraveller<Predicate>() {
 
                 public Predicate visit(LogicalNode node) {
-                    logger.info("Parsing LogicalNode {}", node);
+                    logger.trace("Parsing LogicalNode {}", node);
                     return proceedEmbeddedNodes(node);
                 }
 
                 public Predicate visit(ComparisonNode node) {
-                    logger.info("Parsing ComparisonNode {}", node);
+                    logger.trace("Parsing ComparisonNode {}", node);
                     return proceedSelection(node);
                 }
 
                 private Predicate proceedSelection(ComparisonNode node) {
-                    Transformer<Entity> transformation = operations.get(node.getClass());
+                    Transformer<Object> transformation = operations.get(node.getClass());
                     Preconditions.checkArgument(transformation != null, "Operation not supported");
-                    return transformation.transform(root, cb, selectingClass, node.getSelector(), node.getArguments());
+                    return transformation.transform((Root<Object>) (Root<?>) root, cb, selectingClass, node.getSelector(), node.getArguments());
                 }
 
                 private Predicate proceedEmbeddedNodes(LogicalNode node) {
@@ -131,102 +139,126 @@ public class RSQLNodeTravellerPredicate<Entity> {
         };
     }
 
+    /**
+     * Gets predicate evaluating the query on java objects. The query tree is compiled only once, the compiled
+     * predicate doesn't parse arguments nor look up getters for the evaluated instances anymore.
+     */
     public java.util.function.Predicate<Entity> getStreamPredicate() {
-        return instance -> {
-            RSQLNodeTraveller<Boolean> visitor = new RSQLNodeTraveller<Boolean>() {
+        java.util.function.Predicate<Entity> predicate = streamPredicate;
+        if (predicate == null) {
+            predicate = compileStreamPredicate();
+            streamPredicate = predicate;
+        }
+        return predicate;
+    }
 
-                public Boolean visit(LogicalNode node) {
-                    logger.info("Parsing LogicalNode {}", node);
-                    Iterator<Node> iterator = node.iterator();
-                    if (node instanceof AndNode) {
-                        boolean result = true;
-                        while (iterator.hasNext()) {
-                            Node next = iterator.next();
-                            result &= visit(next);
-                        }
-                        return result;
+    private java.util.function.Predicate<Entity> compileStreamPredicate() {
+        RSQLNodeTraveller<java.util.function.Predicate<Entity>> visitor = new RSQLNodeTraveller<java.util.function.Predicate<Entity>>() {
+
+            public java.util.function.Predicate<Entity> visit(LogicalNode node) {
+                logger.trace("Compiling LogicalNode {}", node);
+                java.util.function.Predicate<Entity> result = null;
+                for (Node child : node) {
+                    java.util.function.Predicate<Entity> compiledChild = visit(child);
+                    if (result == null) {
+                        result = compiledChild;
+                    } else if (node instanceof AndNode) {
+                        result = result.and(compiledChild);
                     } else if (node instanceof OrNode) {
-                        boolean result = false;
-                        while (iterator.hasNext()) {
-                            Node next = iterator.next();
-                            result |= visit(next);
-                        }
-                        return result;
+                        result = result.or(compiledChild);
                     } else {
                         throw new UnsupportedOperationException("Logical operation not supported");
                     }
                 }
+                return result;
+            }
 
-                public Boolean visit(ComparisonNode node) {
-                    logger.info("Parsing ComparisonNode {}", node);
-
-                    String fieldName = node.getSelector();
-                    String argument = node.getArguments().get(0);
+            public java.util.function.Predicate<Entity> visit(ComparisonNode node) {
+                logger.trace("Compiling ComparisonNode {}", node);
+                java.util.function.Predicate<Object> valuePredicate = compileValuePredicate(node);
+                String fieldName = node.getSelector();
+                return new java.util.function.Predicate<Entity>() {
 
-                    try {
-                        String propertyValue = BeanUtils.getProperty(instance, fieldName);
-                        if (propertyValue == null) {
-                            // Null values are considered not equal
-                            return false;
-                        }
+                    private volatile PropertyAccessor lastAccessor;
 
-                        switch (node.getOperator()) {
-                            case "==": {
-                                return propertyValue.equals(argument);
-                            }
-                            case "!=": {
-                                return !propertyValue.equals(argument);
-                            }
-                            case ">":
-                            case "=gt=": {
-                                NumberFormat numberFormat = NumberFormat.getInstance();
-                                Number argumentNumber = numberFormat.parse(argument);
-                                return numberFormat.parse(propertyValue).intValue() < argumentNumber.intValue();
-                            }
-
-                            case ">=":
-                            case "=ge=": {
-                                NumberFormat numberFormat = NumberFormat.getInstance();
-                                Number argumentNumber = numberFormat.parse(argument);
-                                return numberFormat.parse(propertyValue).intValue() <= argumentNumber.intValue();
-                            }
-
-                            case "<":
-                            case "=lt=": {
-                                NumberFormat numberFormat = NumberFormat.getInstance();
-                                Number argumentNumber = numberFormat.parse(argument);
-                                return numberFormat.parse(propertyValue).intValue() > argumentNumber.intValue();
-                            }
-
-                            case "<=":
-                            case "=le=": {
-                                NumberFormat numberFormat = NumberFormat.getInstance();
-                                Number argumentNumber = numberFormat.parse(argument);
-                                return numberFormat.parse(propertyValue).intValue() >= argumentNumber.intValue();
-                            }
-
-                            case "=like=": {
-                                argument = argument.replaceAll(UNKNOWN_PART_PLACEHOLDER, ".*").replaceAll("%", ".*");
-                                return propertyValue.matches(argument);
-                            }
-
-                            default: {
-                                throw new UnsupportedOperationException("Not Implemented yet!");
-                            }
+                    @Override
+                    public boolean test(Entity instance) {
+                        PropertyAccessor accessor = lastAccessor;
+                        if (accessor == null || accessor.getDeclaringType() != instance.getClass()) {
+                            accessor = PropertyAccessor.forProperty(instance.getClass(), fieldName);
+                            lastAccessor = accessor;
                         }
-                    } catch (NestedNullException e) {
-                        // If a nested property is null (i.e. idRev.id is null), it is considered a false equality
-                        return false;
-                    } catch (NoSuchMethodException | InvocationTargetException | IllegalAccessException e) {
-                        throw new IllegalStateException("Reflections exception", e);
-                    } catch (ParseException e) {
-                        throw new IllegalStateException("RSQL parse exception", e);
+                        Object propertyValue = accessor.get(instance);
+                        // Null values (including null nested properties, i.e. idRev.id is null) are considered not equal
+                        return propertyValue != null && valuePredicate.test(propertyValue);
                     }
-                }
-            };
-
-            return rootNode.accept(visitor);
+                };
+            }
         };
+        return rootNode.accept(visitor);
+    }
+
+    private java.util.function.Predicate<Object> compileValuePredicate(ComparisonNode node) {
+        List<String> arguments = node.getArguments();
+        String argument = arguments.get(0);
+        switch (node.getOperator()) {
+            case "==": {
+                return propertyValue -> propertyValue.toString().equals(argument);
+            }
+            case "!=": {
+                return propertyValue -> !propertyValue.toString().equals(argument);
+            }
+            case ">":
+            case "=gt=": {
+                double argumentNumber = parseNumber(argument);
+                return propertyValue -> toNumber(propertyValue) > argumentNumber;
+            }
+            case ">=":
+            case "=ge=": {
+                double argumentNumber = parseNumber(argument);
+                return propertyValue -> toNumber(propertyValue) >= argumentNumber;
+            }
+            case "<":
+            case "=lt=": {
+                double argumentNumber = parseNumber(argument);
+                return propertyValue -> toNumber(propertyValue) < argumentNumber;
+            }
+            case "<=":
+            case "=le=": {
+                double argumentNumber = parseNumber(argument);
+                return propertyValue -> toNumber(propertyValue) <= argumentNumber;
+            }
+            case "=in=": {
+                Set<String> argumentSet = new HashSet<>(arguments);
+                return propertyValue -> argumentSet.contains(propertyValue.toString());
+            }
+            case "=out=": {
+                Set<String> argumentSet = new HashSet<>(arguments);
+                return propertyValue -> !argumentSet.contains(propertyValue.toString());
+            }
+            case "=like=": {
+                Pattern pattern = Pattern.compile(argument.replaceAll(UNKNOWN_PART_PLACEHOLDER, ".*").replaceAll("%", ".*"));
+                return propertyValue -> pattern.matcher(propertyValue.toString()).matches();
+            }
+            default: {
+                throw new UnsupportedOperationException("Not Implemented yet!");
+            }
+        }
+    }
+
+    private static double toNumber(Object propertyValue) {
+        if (propertyValue instanceof Number) {
+            return ((Number) propertyValue).doubleValue();
+        }
+        return parseNumber(propertyValue.toString());
+    }
+
+    private static double parseNumber(String value) {
+        try {
+            return Double.parseDouble(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalStateException("RSQL parse exception", e);
+        }
     }
 
     private String preprocessRSQL(String rsql) {
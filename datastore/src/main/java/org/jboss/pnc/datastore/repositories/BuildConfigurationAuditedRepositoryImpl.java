@@ -51,4 +51,14 @@ public class BuildConfigurationAuditedRepositoryImpl extends AbstractRepository<
     public List<BuildConfigurationAudited> findAllByIdOrderByRevDesc(Integer id) {
         return repository.findAllByIdOrderByRevDesc(id);
     }
+
+    @Override
+    public BuildConfigurationAudited findLatestById(Integer id) {
+        return repository.findLatestById(id);
+    }
+
+    @Override
+    public Integer getLatestRevision(Integer id) {
+        return repository.getLatestRevision(id);
+    }
 }
@@ -18,17 +18,24 @@
 package org.jboss.pnc.datastore.repositories;
 
 import org.jboss.pnc.datastore.repositories.internal.AbstractRepository;
+import org.jboss.pnc.datastore.repositories.internal.IdProjectionMapper;
 import org.jboss.pnc.datastore.repositories.internal.BuildConfigurationSpringRepository;
 import org.jboss.pnc.model.BuildConfiguration;
 import org.jboss.pnc.spi.datastore.repositories.BuildConfigurationRepository;
 
 import javax.ejb.Stateless;
 import javax.inject.Inject;
+import java.util.Collection;
+import java.util.Date;
+import java.util.Map;
+import java.util.Set;
 
 @Stateless
 public class BuildConfigurationRepositoryImpl extends AbstractRepository<BuildConfiguration, Integer> implements
         BuildConfigurationRepository {
 
+    private BuildConfigurationSpringRepository repository;
+
     /**
      * @deprecated Created for CDI.
      */
@@ -40,7 +47,16 @@ public class BuildConfigurationRepositoryImpl extends AbstractRepository<BuildCo
     @Inject
     public BuildConfigurationRepositoryImpl(BuildConfigurationSpringRepository buildConfigurationSpringRepository) {
         super(buildConfigurationSpringRepository, buildConfigurationSpringRepository);
+        this.repository = buildConfigurationSpringRepository;
     }
 
+    @Override
+    public Map<Integer, Set<Integer>> queryDependencyIds(Collection<Integer> buildConfigurationIds) {
+        return IdProjectionMapper.queryGroupedByOwnerId(buildConfigurationIds, repository::findDependencyIds);
+    }
 
+    @Override
+    public Date getLastModificationTime(Integer id) {
+        return repository.getLastModificationTime(id);
+    }
 }
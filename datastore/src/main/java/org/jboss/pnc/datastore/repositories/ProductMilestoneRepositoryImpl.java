@@ -18,16 +18,22 @@
 package org.jboss.pnc.datastore.repositories;
 
 import org.jboss.pnc.datastore.repositories.internal.AbstractRepository;
+import org.jboss.pnc.datastore.repositories.internal.IdProjectionMapper;
 import org.jboss.pnc.datastore.repositories.internal.ProductMilestoneSpringRepository;
 import org.jboss.pnc.model.ProductMilestone;
 import org.jboss.pnc.spi.datastore.repositories.ProductMilestoneRepository;
 
 import javax.ejb.Stateless;
 import javax.inject.Inject;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
 
 @Stateless
 public class ProductMilestoneRepositoryImpl extends AbstractRepository<ProductMilestone, Integer> implements ProductMilestoneRepository {
 
+    private ProductMilestoneSpringRepository repository;
+
     /**
      * @deprecated Created for CDI.
      */
@@ -39,5 +45,16 @@ public class ProductMilestoneRepositoryImpl extends AbstractRepository<ProductMi
     @Inject
     public ProductMilestoneRepositoryImpl(ProductMilestoneSpringRepository productMilestoneSpringRepository) {
         super(productMilestoneSpringRepository, productMilestoneSpringRepository);
+        this.repository = productMilestoneSpringRepository;
+    }
+
+    @Override
+    public Map<Integer, Set<Integer>> queryPerformedBuildIds(Collection<Integer> milestoneIds) {
+        return IdProjectionMapper.queryGroupedByOwnerId(milestoneIds, repository::findPerformedBuildIds);
+    }
+
+    @Override
+    public Map<Integer, Set<Integer>> queryDistributedArtifactIds(Collection<Integer> milestoneIds) {
+        return IdProjectionMapper.queryGroupedByOwnerId(milestoneIds, repository::findDistributedArtifactIds);
     }
 }
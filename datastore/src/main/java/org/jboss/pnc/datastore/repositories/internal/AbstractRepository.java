@@ -18,6 +18,7 @@
 package org.jboss.pnc.datastore.repositories.internal;
 
 import org.jboss.pnc.model.GenericEntity;
+import org.jboss.pnc.spi.datastore.repositories.api.FetchPlan;
 import org.jboss.pnc.spi.datastore.repositories.api.PageInfo;
 import org.jboss.pnc.spi.datastore.repositories.api.Predicate;
 import org.jboss.pnc.spi.datastore.repositories.api.Repository;
@@ -25,14 +26,36 @@ import org.jboss.pnc.spi.datastore.repositories.api.SortInfo;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 
+import javax.inject.Inject;
+import javax.persistence.EntityManager;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.From;
+import javax.persistence.criteria.JoinType;
+import javax.persistence.criteria.Root;
+import javax.persistence.criteria.Selection;
 import java.io.Serializable;
+import java.lang.reflect.ParameterizedType;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 
 public class AbstractRepository<T extends GenericEntity<ID>, ID extends Serializable> implements Repository<T, ID> {
 
+    /**
+     * Maximal number of ids bound to a single <code>IN</code> restriction.
+     */
+    public static final int IN_CHUNK_SIZE = 500;
+
     protected JpaRepository<T, ID> springRepository;
     protected JpaSpecificationExecutor<T> springSpecificationsExecutor;
 
+    @Inject
+    protected EntityManager entityManager;
+
     public AbstractRepository() {
     }
 
@@ -66,6 +89,21 @@ public class AbstractRepository<T extends GenericEntity<ID>, ID extends Serializ
         return springRepository.findOne(id);
     }
 
+    @Override
+    public List<T> queryByIds(Collection<ID> ids, FetchPlan<T> fetchPlan) {
+        List<ID> distinctIds = new ArrayList<>(new LinkedHashSet<>(ids));
+        List<T> entities = new ArrayList<>(distinctIds.size());
+        for (int from = 0; from < distinctIds.size(); from += IN_CHUNK_SIZE) {
+            List<ID> chunk = distinctIds.subList(from, Math.min(from + IN_CHUNK_SIZE, distinctIds.size()));
+            Class<T> entityClass = getEntityClass();
+            CriteriaQuery<T> query = entityManager.getCriteriaBuilder().createQuery(entityClass);
+            Root<T> root = query.from(entityClass);
+            FetchPlanMapper.apply(root, query, fetchPlan);
+            entities.addAll(entityManager.createQuery(query.select(root).where(root.get("id").in(chunk))).getResultList());
+        }
+        return entities;
+    }
+
     @Override
     public T queryByPredicates(Predicate<T>... predicates) {
         return springSpecificationsExecutor.findOne(SpecificationsMapper.map(predicates));
@@ -73,7 +111,7 @@ public class AbstractRepository<T extends GenericEntity<ID>, ID extends Serializ
 
     @Override
     public int count(Predicate<T>... predicates) {
-        return queryWithPredicates(predicates).size();
+        return (int) springSpecificationsExecutor.count(SpecificationsMapper.map(predicates));
     }
 
     @Override
@@ -86,5 +124,108 @@ public class AbstractRepository<T extends GenericEntity<ID>, ID extends Serializ
         return springSpecificationsExecutor.findAll(SpecificationsMapper.map(predicates), PageableMapper.map(pageInfo, sortInfo)).getContent();
     }
 
+    @Override
+    public List<T> queryWithPredicates(PageInfo pageInfo, SortInfo sortInfo, FetchPlan<T> fetchPlan, Predicate<T>... predicates) {
+        return springSpecificationsExecutor.findAll(SpecificationsMapper.map(fetchPlan, predicates), PageableMapper.map(pageInfo, sortInfo)).getContent();
+    }
+
+    @Override
+    public List<T> queryWithPredicatesAfter(ID lastId, int pageSize, SortInfo sortInfo, Predicate<T>... predicates) {
+        return queryWithPredicatesAfter(lastId, pageSize, sortInfo, null, predicates);
+    }
+
+    @Override
+    public List<T> queryWithPredicatesAfter(ID lastId, int pageSize, SortInfo sortInfo, FetchPlan<T> fetchPlan, Predicate<T>... predicates) {
+        CriteriaQuery<T> query = createSortedQuery(lastId, sortInfo, fetchPlan, predicates);
+        return entityManager.createQuery(query).setMaxResults(pageSize).getResultList();
+    }
+
+    @Override
+    public List<T> queryWithPredicatesFrom(int firstResult, int maxResults, SortInfo sortInfo, FetchPlan<T> fetchPlan,
+            Predicate<T>... predicates) {
+        CriteriaQuery<T> query = createSortedQuery(null, sortInfo, fetchPlan, predicates);
+        return entityManager.createQuery(query).setFirstResult(firstResult).setMaxResults(maxResults).getResultList();
+    }
+
+    @Override
+    public List<Object[]> queryProjectionFrom(int firstResult, int maxResults, SortInfo sortInfo, List<String> attributePaths,
+            Predicate<T>... predicates) {
+        CriteriaQuery<Object[]> query = createProjectionQuery(null, sortInfo, attributePaths, predicates);
+        return entityManager.createQuery(query).setFirstResult(firstResult).setMaxResults(maxResults).getResultList();
+    }
+
+    @Override
+    public List<Object[]> queryProjectionAfter(ID lastId, int maxResults, SortInfo sortInfo, List<String> attributePaths,
+            Predicate<T>... predicates) {
+        CriteriaQuery<Object[]> query = createProjectionQuery(lastId, sortInfo, attributePaths, predicates);
+        return entityManager.createQuery(query).setMaxResults(maxResults).getResultList();
+    }
+
+    /**
+     * Creates query selecting entities matching the predicates, sorted by the sort fields and then by id. When
+     * <code>lastId</code> is set, only entities sorted after the entity with that id are selected.
+     */
+    private CriteriaQuery<T> createSortedQuery(ID lastId, SortInfo sortInfo, FetchPlan<T> fetchPlan, Predicate<T>[] predicates) {
+        Class<T> entityClass = getEntityClass();
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<T> query = cb.createQuery(entityClass);
+        Root<T> root = query.from(entityClass);
+        FetchPlanMapper.apply(root, query, fetchPlan);
+        return query.select(root).where(getRestrictions(root, query, cb, lastId, sortInfo, predicates))
+                .orderBy(KeysetMapper.getOrders(root, cb, sortInfo));
+    }
+
+    /**
+     * Same as {@link #createSortedQuery(Serializable, SortInfo, FetchPlan, Predicate[])}, but selecting only the
+     * attributes. Associations on the paths are left joined, so rows with missing associations are kept.
+     */
+    private CriteriaQuery<Object[]> createProjectionQuery(ID lastId, SortInfo sortInfo, List<String> attributePaths,
+            Predicate<T>[] predicates) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Object[]> query = cb.createQuery(Object[].class);
+        Root<T> root = query.from(getEntityClass());
+
+        Map<String, From<?, ?>> joins = new HashMap<>();
+        List<Selection<?>> selections = new ArrayList<>(attributePaths.size());
+        for (String attributePath : attributePaths) {
+            From<?, ?> from = root;
+            String[] attributes = attributePath.split("\\.");
+            String joinPath = "";
+            for (int i = 0; i < attributes.length - 1; i++) {
+                From<?, ?> parent = from;
+                String attribute = attributes[i];
+                joinPath += "." + attribute;
+                from = joins.computeIfAbsent(joinPath, path -> parent.join(attribute, JoinType.LEFT));
+            }
+            selections.add(from.get(attributes[attributes.length - 1]));
+        }
+
+        return query.multiselect(selections).where(getRestrictions(root, query, cb, lastId, sortInfo, predicates))
+                .orderBy(KeysetMapper.getOrders(root, cb, sortInfo));
+    }
+
+    private javax.persistence.criteria.Predicate[] getRestrictions(Root<T> root, CriteriaQuery<?> query, CriteriaBuilder cb,
+            ID lastId, SortInfo sortInfo, Predicate<T>[] predicates) {
+        List<javax.persistence.criteria.Predicate> jpaPredicates = new ArrayList<>();
+        if (predicates != null) {
+            for (Predicate<T> predicate : predicates) {
+                jpaPredicates.add(predicate.apply(root, query, cb));
+            }
+        }
+        if (lastId != null) {
+            jpaPredicates.add(KeysetMapper.seekAfter(root, query, cb, getEntityClass(), lastId, sortInfo));
+        }
+        return jpaPredicates.toArray(new javax.persistence.criteria.Predicate[jpaPredicates.size()]);
+    }
+
+    @SuppressWarnings("unchecked")
+    protected Class<T> getEntityClass() {
+        Class<?> repositoryClass = getClass();
+        while (repositoryClass.getSuperclass() != AbstractRepository.class) {
+            repositoryClass = repositoryClass.getSuperclass();
+        }
+        ParameterizedType superclass = (ParameterizedType) repositoryClass.getGenericSuperclass();
+        return (Class<T>) superclass.getActualTypeArguments()[0];
+    }
 
 }
@@ -21,6 +21,7 @@ import org.jboss.pnc.model.BuildConfigurationAudited;
 import org.jboss.pnc.model.IdRev;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
 
 import java.util.List;
 
@@ -35,4 +36,23 @@ public interface BuildConfigurationAuditedSpringRepository extends JpaRepository
      */
     List<BuildConfigurationAudited> findAllByIdOrderByRevDesc(Integer id);
 
+    /**
+     * Get the latest revision of a specific build configuration.
+     *
+     * @param id of the build configuration
+     * @return The revision with the highest revision number or null if there is none.
+     */
+    @Query("select bca from BuildConfigurationAudited bca where bca.id = ?1 and bca.rev = "
+            + "(select max(latest.rev) from BuildConfigurationAudited latest where latest.id = ?1)")
+    BuildConfigurationAudited findLatestById(Integer id);
+
+    /**
+     * Get the latest revision number of a specific build configuration.
+     *
+     * @param id of the build configuration
+     * @return The highest revision number or null if there is none.
+     */
+    @Query("select max(bca.rev) from BuildConfigurationAudited bca where bca.id = ?1")
+    Integer getLatestRevision(Integer id);
+
 }
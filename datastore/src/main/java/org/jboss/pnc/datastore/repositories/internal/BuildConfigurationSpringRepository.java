@@ -20,8 +20,22 @@ package org.jboss.pnc.datastore.repositories.internal;
 import org.jboss.pnc.model.BuildConfiguration;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
 
 public interface BuildConfigurationSpringRepository extends JpaRepository<BuildConfiguration, Integer>,
         JpaSpecificationExecutor<BuildConfiguration> {
 
+    /**
+     * @return Pairs of build configuration id and id of its dependency.
+     */
+    @Query("select bc.id, dependency.id from BuildConfiguration bc join bc.dependencies dependency where bc.id in ?1")
+    List<Object[]> findDependencyIds(Collection<Integer> buildConfigurationIds);
+
+    @Query("select bc.lastModificationTime from BuildConfiguration bc where bc.id = ?1")
+    Date getLastModificationTime(Integer id);
+
 }
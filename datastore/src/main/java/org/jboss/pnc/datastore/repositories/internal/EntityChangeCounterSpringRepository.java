@@ -0,0 +1,38 @@
+/**
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.pnc.datastore.repositories.internal;
+
+import org.jboss.pnc.model.EntityChangeCounter;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface EntityChangeCounterSpringRepository extends JpaRepository<EntityChangeCounter, String> {
+
+    /**
+     * @return Entity name and the sum of the changes counted by all the nodes, for each of the counted entities
+     */
+    @Query("select counter.entityName, sum(counter.changes) from EntityChangeCounter counter "
+            + "where counter.entityName in ?1 group by counter.entityName")
+    List<Object[]> sumChanges(Collection<String> entityNames);
+
+    @Query("select counter.entityName from EntityChangeCounter counter where counter.node = ?1")
+    List<String> findCountedEntityNames(String node);
+}
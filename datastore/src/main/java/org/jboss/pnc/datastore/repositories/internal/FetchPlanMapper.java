@@ -0,0 +1,61 @@
+/**
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.pnc.datastore.repositories.internal;
+
+import org.jboss.pnc.spi.datastore.repositories.api.FetchPlan;
+
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Fetch;
+import javax.persistence.criteria.FetchParent;
+import javax.persistence.criteria.JoinType;
+import javax.persistence.criteria.Root;
+
+/**
+ * Applies {@link FetchPlan}s to criteria queries as left join fetches.
+ */
+public class FetchPlanMapper {
+
+    /**
+     * Adds fetches of the plan to the query root. Count queries are left intact, since fetching is not allowed when
+     * the entity itself is not selected.
+     */
+    public static void apply(Root<?> root, CriteriaQuery<?> query, FetchPlan<?> fetchPlan) {
+        if (fetchPlan == null || isCountQuery(query)) {
+            return;
+        }
+        for (String attributePath : fetchPlan.getAttributePaths()) {
+            FetchParent<?, ?> parent = root;
+            for (String attribute : attributePath.split("\\.")) {
+                parent = getOrCreateFetch(parent, attribute);
+            }
+        }
+    }
+
+    private static FetchParent<?, ?> getOrCreateFetch(FetchParent<?, ?> parent, String attribute) {
+        for (Fetch<?, ?> fetch : parent.getFetches()) {
+            if (fetch.getAttribute().getName().equals(attribute)) {
+                return (FetchParent<?, ?>) fetch;
+            }
+        }
+        return (FetchParent<?, ?>) parent.fetch(attribute, JoinType.LEFT);
+    }
+
+    private static boolean isCountQuery(CriteriaQuery<?> query) {
+        return Long.class.equals(query.getResultType()) || long.class.equals(query.getResultType());
+    }
+}
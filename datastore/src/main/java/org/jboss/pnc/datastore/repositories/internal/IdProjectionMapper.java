@@ -0,0 +1,67 @@
+/**
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.pnc.datastore.repositories.internal;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Groups results of id projection queries, which select pairs of owner id and associated entity id.
+ */
+public class IdProjectionMapper {
+
+    /**
+     * Runs the projection query for chunks of at most {@link AbstractRepository#IN_CHUNK_SIZE} owner ids and groups
+     * the results.
+     *
+     * @param query Selects the pairs of owner id and associated entity id of the given owners
+     * @return Associated ids by owner id. Owners without associated entities are not included.
+     */
+    public static Map<Integer, Set<Integer>> queryGroupedByOwnerId(Collection<Integer> ownerIds,
+            Function<Collection<Integer>, List<Object[]>> query) {
+        if (ownerIds.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        List<Integer> distinctIds = new ArrayList<>(new LinkedHashSet<>(ownerIds));
+        Map<Integer, Set<Integer>> associatedIdsByOwnerId = new HashMap<>();
+        for (int from = 0; from < distinctIds.size(); from += AbstractRepository.IN_CHUNK_SIZE) {
+            List<Integer> chunk = distinctIds.subList(from,
+                    Math.min(from + AbstractRepository.IN_CHUNK_SIZE, distinctIds.size()));
+            groupByOwnerId(query.apply(chunk), associatedIdsByOwnerId);
+        }
+        return associatedIdsByOwnerId;
+    }
+
+    private static void groupByOwnerId(List<Object[]> ownerAndAssociatedIds,
+            Map<Integer, Set<Integer>> associatedIdsByOwnerId) {
+        if (ownerAndAssociatedIds == null) {
+            return;
+        }
+        for (Object[] row : ownerAndAssociatedIds) {
+            associatedIdsByOwnerId.computeIfAbsent((Integer) row[0], ownerId -> new HashSet<>()).add((Integer) row[1]);
+        }
+    }
+}
@@ -0,0 +1,174 @@
+/**
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.pnc.datastore.repositories.internal;
+
+import org.jboss.pnc.spi.datastore.repositories.api.SortInfo;
+import org.jboss.pnc.spi.datastore.repositories.api.impl.DefaultSortInfo;
+
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Expression;
+import javax.persistence.criteria.Order;
+import javax.persistence.criteria.Path;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+import javax.persistence.criteria.Subquery;
+import javax.persistence.metamodel.Bindable;
+import javax.persistence.metamodel.SingularAttribute;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Maps sorting information into keyset ("seek after") restrictions.
+ *
+ * <p>
+ *     Instead of skipping <code>pageIndex * pageSize</code> rows, the restriction selects only the rows which are
+ *     sorted after the last seen entity. The sort key of the last seen entity is resolved with a primary key
+ *     subquery, so the caller needs to provide just its id. The id is always appended as the last sort field to
+ *     make the ordering total.
+ * </p>
+ * <p>
+ *     Values of optional sort fields are ordered after a null flag, so null values are sorted last in ascending
+ *     and first in descending order on every database, and the restriction can select them explicitly. In-memory
+ *     elements merged with the query results are sorted by
+ *     {@link org.jboss.pnc.spi.datastore.repositories.api.impl.PropertyComparator}, which places nulls the same way.
+ * </p>
+ */
+public class KeysetMapper {
+
+    private static final String ID_FIELD = "id";
+
+    private static List<String> getSortFields(SortInfo sortInfo) {
+        List<String> fields = new ArrayList<>(getSortInfo(sortInfo).getFields());
+        if (!fields.contains(ID_FIELD)) {
+            fields.add(ID_FIELD);
+        }
+        return fields;
+    }
+
+    public static List<Order> getOrders(Root<?> root, CriteriaBuilder cb, SortInfo sortInfo) {
+        boolean ascending = getSortInfo(sortInfo).getDirection() == SortInfo.SortingDirection.ASC;
+        List<Order> orders = new ArrayList<>();
+        for (String field : getSortFields(sortInfo)) {
+            Path<?> path = getPath(root, field);
+            if (isOptional(path)) {
+                Expression<Integer> isNull = nullFlag(cb, path);
+                orders.add(ascending ? cb.asc(isNull) : cb.desc(isNull));
+            }
+            orders.add(ascending ? cb.asc(path) : cb.desc(path));
+        }
+        return orders;
+    }
+
+    /**
+     * Creates restriction selecting all entities sorted after the entity with the given id.
+     *
+     * <p>
+     *     For sort fields <code>f1, ..., fn</code> the restriction is
+     *     <code>(f1 &gt; s1) or (f1 = s1 and f2 &gt; s2) or ... or (f1 = s1 and ... and fn &gt; sn)</code>
+     *     where <code>si</code> is the value of <code>fi</code> of the last seen entity. For optional fields
+     *     <code>fi &gt; si</code> and <code>fi = si</code> also handle null values, see {@link #getOrders}.
+     * </p>
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> Predicate seekAfter(Root<T> root, CriteriaQuery<?> query, CriteriaBuilder cb, Class<T> entityClass,
+            Serializable lastId, SortInfo sortInfo) {
+        boolean ascending = getSortInfo(sortInfo).getDirection() == SortInfo.SortingDirection.ASC;
+        List<String> fields = getSortFields(sortInfo);
+
+        List<Predicate> alternatives = new ArrayList<>();
+        List<Predicate> equalPrefix = new ArrayList<>();
+        for (String field : fields) {
+            Path<?> path = getPath(root, field);
+            Expression<Comparable> value = (Expression<Comparable>) path;
+            Expression<Comparable> lastValue = lastValue(query, cb, entityClass, lastId, field);
+            boolean optional = isOptional(path);
+
+            List<Predicate> alternative = new ArrayList<>(equalPrefix);
+            alternative.add(sortedAfter(cb, value, lastValue, ascending, optional));
+            alternatives.add(cb.and(alternative.toArray(new Predicate[alternative.size()])));
+
+            equalPrefix.add(optional ? equalOrBothNull(cb, value, lastValue) : cb.equal(value, lastValue));
+        }
+        return cb.or(alternatives.toArray(new Predicate[alternatives.size()]));
+    }
+
+    /**
+     * Nulls are sorted last in ascending order, so they are after every non null value, and first in descending
+     * order, so every non null value is after them.
+     */
+    private static Predicate sortedAfter(CriteriaBuilder cb, Expression<Comparable> value, Expression<Comparable> lastValue,
+            boolean ascending, boolean optional) {
+        if (ascending) {
+            Predicate greater = cb.greaterThan(value, lastValue);
+            if (!optional) {
+                return greater;
+            }
+            return cb.and(cb.isNotNull(lastValue), cb.or(greater, cb.isNull(value)));
+        } else {
+            Predicate less = cb.lessThan(value, lastValue);
+            if (!optional) {
+                return less;
+            }
+            return cb.or(less, cb.and(cb.isNull(lastValue), cb.isNotNull(value)));
+        }
+    }
+
+    private static Predicate equalOrBothNull(CriteriaBuilder cb, Expression<Comparable> value, Expression<Comparable> lastValue) {
+        return cb.or(cb.equal(value, lastValue), cb.and(cb.isNull(value), cb.isNull(lastValue)));
+    }
+
+    /**
+     * @return 1 for null values, 0 otherwise
+     */
+    private static Expression<Integer> nullFlag(CriteriaBuilder cb, Expression<?> value) {
+        return cb.<Integer>selectCase().when(cb.isNull(value), 1).otherwise(0);
+    }
+
+    private static boolean isOptional(Path<?> path) {
+        Bindable<?> model = path.getModel();
+        return model instanceof SingularAttribute && ((SingularAttribute<?, ?>) model).isOptional()
+                && !((SingularAttribute<?, ?>) model).isId();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> Expression<Comparable> lastValue(CriteriaQuery<?> query, CriteriaBuilder cb, Class<T> entityClass,
+            Serializable lastId, String field) {
+        Subquery<Comparable> subquery = query.subquery(Comparable.class);
+        Root<T> lastEntity = subquery.from(entityClass);
+        subquery.select((Expression<Comparable>) getPath(lastEntity, field))
+                .where(cb.equal(lastEntity.get(ID_FIELD), lastId));
+        return subquery;
+    }
+
+    private static Path<?> getPath(Root<?> root, String field) {
+        Path<?> path = root;
+        for (String part : field.split("\\.")) {
+            path = path.get(part);
+        }
+        return path;
+    }
+
+    private static SortInfo getSortInfo(SortInfo sortInfo) {
+        if (sortInfo == null) {
+            return new DefaultSortInfo();
+        }
+        return sortInfo;
+    }
+}
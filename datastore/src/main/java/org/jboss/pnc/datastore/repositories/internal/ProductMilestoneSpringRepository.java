@@ -20,8 +20,24 @@ package org.jboss.pnc.datastore.repositories.internal;
 import org.jboss.pnc.model.ProductMilestone;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+
+import java.util.Collection;
+import java.util.List;
 
 public interface ProductMilestoneSpringRepository extends JpaRepository<ProductMilestone, Integer>,
         JpaSpecificationExecutor<ProductMilestone> {
 
+    /**
+     * @return Pairs of milestone id and id of a build performed in the milestone.
+     */
+    @Query("select br.productMilestone.id, br.id from BuildRecord br where br.productMilestone.id in ?1")
+    List<Object[]> findPerformedBuildIds(Collection<Integer> milestoneIds);
+
+    /**
+     * @return Pairs of milestone id and id of an artifact distributed in the milestone.
+     */
+    @Query("select pm.id, artifact.id from ProductMilestone pm join pm.distributedArtifacts artifact where pm.id in ?1")
+    List<Object[]> findDistributedArtifactIds(Collection<Integer> milestoneIds);
+
 }
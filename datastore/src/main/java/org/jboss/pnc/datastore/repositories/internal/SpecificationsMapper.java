@@ -18,6 +18,7 @@
 package org.jboss.pnc.datastore.repositories.internal;
 
 import org.jboss.pnc.model.GenericEntity;
+import org.jboss.pnc.spi.datastore.repositories.api.FetchPlan;
 import org.jboss.pnc.spi.datastore.repositories.api.Predicate;
 import org.springframework.data.jpa.domain.Specification;
 
@@ -36,4 +37,12 @@ public class SpecificationsMapper {
         };
     }
 
+    public static <T extends GenericEntity<? extends Serializable>> Specification<T> map(FetchPlan<T> fetchPlan, Predicate<T>... predicates) {
+        Specification<T> specification = map(predicates);
+        return (root, query, cb) -> {
+            FetchPlanMapper.apply(root, query, fetchPlan);
+            return specification.toPredicate(root, query, cb);
+        };
+    }
+
 }
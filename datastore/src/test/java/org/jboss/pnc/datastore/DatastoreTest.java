@@ -18,11 +18,17 @@
 package org.jboss.pnc.datastore;
 
 import java.time.Instant;
+import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
+import java.util.Map;
 
 import javax.inject.Inject;
+import javax.persistence.EntityManager;
 
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.jboss.arquillian.container.test.api.Deployment;
 import org.jboss.arquillian.junit.Arquillian;
 import org.jboss.arquillian.junit.InSequence;
@@ -68,6 +74,10 @@ public class DatastoreTest {
 
     private static String ARTIFACT_3_CHECKSUM = "3";
 
+    private static int BULK_ARTIFACT_COUNT = 5000;
+
+    private static String BULK_ARTIFACT_CHECKSUM = "bulk";
+
     @Inject
     ArtifactRepository artifactRepository;
 
@@ -95,6 +105,9 @@ public class DatastoreTest {
     @Inject
     Datastore datastore;
 
+    @Inject
+    EntityManager entityManager;
+
     @Deployment
     public static Archive<?> getDeployment() {
         return DeploymentFactory.createDatastoreDeployment();
@@ -199,4 +212,76 @@ public class DatastoreTest {
 
     }
 
+    /**
+     * Store a large amount of imported artifacts and check the conflict detection against all of them at once.
+     */
+    @Test
+    @InSequence(4)
+    @Transactional
+    public void initBulkImportedArtifacts() throws Exception {
+        for (int i = 0; i < BULK_ARTIFACT_COUNT; i++) {
+            artifactRepository.save(createBulkArtifact(i, BULK_ARTIFACT_CHECKSUM));
+        }
+        Assert.assertEquals(BULK_ARTIFACT_COUNT + 3, artifactRepository.queryAll().size());
+    }
+
+    @Test
+    @InSequence(5)
+    @Transactional
+    public void testBulkConflictingArtifacts() throws Exception {
+        List<Artifact> artifacts = new ArrayList<>(BULK_ARTIFACT_COUNT);
+        for (int i = 0; i < BULK_ARTIFACT_COUNT; i++) {
+            // every 10th artifact comes with a different checksum
+            String checksum = i % 10 == 0 ? "changed-" + BULK_ARTIFACT_CHECKSUM : BULK_ARTIFACT_CHECKSUM;
+            artifacts.add(createBulkArtifact(i, checksum));
+        }
+        Artifact changedIdentifier = Artifact.Builder.newBuilder().identifier("org.jboss.test:changed-bulk-artifact").checksum(BULK_ARTIFACT_CHECKSUM)
+                .originUrl(bulkArtifactOriginUrl(1)).importDate(Date.from(Instant.now())).repoType(ArtifactRepo.Type.MAVEN).build();
+        artifacts.add(changedIdentifier);
+        Artifact notImported = Artifact.Builder.newBuilder().identifier("org.jboss.test:not-imported").checksum(BULK_ARTIFACT_CHECKSUM)
+                .originUrl("http://test/bulk/not-imported.jar").importDate(Date.from(Instant.now())).repoType(ArtifactRepo.Type.MAVEN).build();
+        artifacts.add(notImported);
+
+        Map<Artifact, String> conflicts = datastore.checkForConflictingArtifacts(artifacts);
+
+        Assert.assertEquals(BULK_ARTIFACT_COUNT / 10 + 1, conflicts.size());
+        Assert.assertTrue(conflicts.containsKey(changedIdentifier));
+        Assert.assertFalse(conflicts.containsKey(notImported));
+        Assert.assertTrue(datastore.checkForConflictingArtifacts(artifacts.subList(1, 10)).isEmpty());
+    }
+
+    /**
+     * Not transactional, so each query runs in its own persistence context and only the second-level cache is shared.
+     */
+    @Test
+    @InSequence(6)
+    public void testSecondLevelCacheReducesStatements() throws Exception {
+        SessionFactory sessionFactory = entityManager.unwrap(Session.class).getSessionFactory();
+        Statistics statistics = sessionFactory.getStatistics();
+        sessionFactory.getCache().evictEntityRegions();
+
+        long statementsBefore = statistics.getPrepareStatementCount();
+        int coldResults = buildConfigurationRepository.queryAll().size();
+        long coldStatements = statistics.getPrepareStatementCount() - statementsBefore;
+
+        long hitsBefore = statistics.getSecondLevelCacheHitCount();
+        statementsBefore = statistics.getPrepareStatementCount();
+        int warmResults = buildConfigurationRepository.queryAll().size();
+        long warmStatements = statistics.getPrepareStatementCount() - statementsBefore;
+
+        Assert.assertEquals(coldResults, warmResults);
+        Assert.assertTrue("Expected fewer statements with a warm cache, cold: " + coldStatements + ", warm: " + warmStatements,
+                warmStatements < coldStatements);
+        Assert.assertTrue(statistics.getSecondLevelCacheHitCount() > hitsBefore);
+    }
+
+    private Artifact createBulkArtifact(int index, String checksum) {
+        return Artifact.Builder.newBuilder().identifier("org.jboss.test:bulk-artifact-" + index).checksum(checksum)
+                .originUrl(bulkArtifactOriginUrl(index)).importDate(Date.from(Instant.now())).repoType(ArtifactRepo.Type.MAVEN).build();
+    }
+
+    private String bulkArtifactOriginUrl(int index) {
+        return "http://test/bulk/artifact-" + index + ".jar";
+    }
+
 }
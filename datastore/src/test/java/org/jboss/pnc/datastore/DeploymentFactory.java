@@ -19,6 +19,8 @@ package org.jboss.pnc.datastore;
 
 import java.io.File;
 
+import org.hibernate.integrator.spi.Integrator;
+import org.jboss.pnc.datastore.changes.EntityChangeIntegrator;
 import org.jboss.shrinkwrap.api.Archive;
 import org.jboss.shrinkwrap.api.ShrinkWrap;
 import org.jboss.shrinkwrap.api.asset.EmptyAsset;
@@ -31,7 +33,8 @@ public class DeploymentFactory {
     public static Archive<?> createDatastoreDeployment() {
         JavaArchive datastoreJar = ShrinkWrap.create(JavaArchive.class, "datastore.jar")
                 .addPackages(true, "org.jboss.pnc.datastore").addAsManifestResource("test-persistence.xml", "persistence.xml")
-                .addAsManifestResource(EmptyAsset.INSTANCE, "beans.xml");
+                .addAsManifestResource(EmptyAsset.INSTANCE, "beans.xml")
+                .addAsServiceProvider(Integrator.class, EntityChangeIntegrator.class);
 
         File[] dependencies = Maven.resolver().loadPomFromFile("pom.xml").importRuntimeAndTestDependencies().resolve()
                 .withTransitivity().asFile();
@@ -0,0 +1,130 @@
+/**
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.pnc.datastore.changes;
+
+import javax.ejb.EJBException;
+import javax.inject.Inject;
+
+import org.jboss.arquillian.container.test.api.Deployment;
+import org.jboss.arquillian.junit.Arquillian;
+import org.jboss.arquillian.junit.InSequence;
+import org.jboss.arquillian.transaction.api.annotation.Transactional;
+import org.jboss.pnc.datastore.DeploymentFactory;
+import org.jboss.pnc.datastore.configuration.EntityChangeCountersConfiguration;
+import org.jboss.pnc.model.BuildConfiguration;
+import org.jboss.pnc.model.BuildEnvironment;
+import org.jboss.pnc.model.License;
+import org.jboss.pnc.model.Project;
+import org.jboss.pnc.model.SystemImageType;
+import org.jboss.pnc.spi.datastore.EntityChangeCounters;
+import org.jboss.pnc.spi.datastore.repositories.BuildConfigurationRepository;
+import org.jboss.pnc.spi.datastore.repositories.BuildEnvironmentRepository;
+import org.jboss.pnc.spi.datastore.repositories.LicenseRepository;
+import org.jboss.pnc.spi.datastore.repositories.ProjectRepository;
+import org.jboss.pnc.test.category.ContainerTest;
+import org.jboss.shrinkwrap.api.Archive;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+/**
+ * Each test method runs in its own transaction, the counters are incremented when the transaction is committed.
+ */
+@RunWith(Arquillian.class)
+@Category(ContainerTest.class)
+public class EntityChangeCountersTest {
+
+    private static String buildConfigurationVersion;
+
+    private static String projectVersion;
+
+    @Inject
+    EntityChangeCounters entityChangeCounters;
+
+    @Inject
+    EntityChangeCounterCreator entityChangeCounterCreator;
+
+    @Inject
+    EntityChangeCountersConfiguration entityChangeCountersConfiguration;
+
+    @Inject
+    BuildConfigurationRepository buildConfigurationRepository;
+
+    @Inject
+    BuildEnvironmentRepository buildEnvironmentRepository;
+
+    @Inject
+    LicenseRepository licenseRepository;
+
+    @Inject
+    ProjectRepository projectRepository;
+
+    @Deployment
+    public static Archive<?> getDeployment() {
+        return DeploymentFactory.createDatastoreDeployment();
+    }
+
+    @Test
+    @InSequence(1)
+    public void shouldCreateCountersAtStartup() {
+        buildConfigurationVersion = entityChangeCounters.getVersion(BuildConfiguration.class);
+        projectVersion = entityChangeCounters.getVersion(Project.class);
+
+        Assert.assertNotNull(buildConfigurationVersion);
+        Assert.assertNotNull(projectVersion);
+    }
+
+    @Test
+    @InSequence(2)
+    @Transactional
+    public void initBuildConfiguration() {
+        License license = licenseRepository.save(License.Builder.newBuilder().fullName("counted license")
+                .fullContent("counted license").build());
+        Project project = projectRepository.save(Project.Builder.newBuilder().name("Counted Project")
+                .description("Test").license(license).build());
+        BuildEnvironment buildEnvironment = buildEnvironmentRepository.save(BuildEnvironment.Builder.newBuilder()
+                .name("counted build env").systemImageId("12345").systemImageType(SystemImageType.DOCKER_IMAGE).build());
+        buildConfigurationRepository.save(BuildConfiguration.Builder.newBuilder().name("counted build config")
+                .buildScript("mvn deploy").project(project).buildEnvironment(buildEnvironment).build());
+    }
+
+    @Test
+    @InSequence(3)
+    public void shouldBumpCountersOfChangedEntities() {
+        String newBuildConfigurationVersion = entityChangeCounters.getVersion(BuildConfiguration.class);
+
+        Assert.assertNotEquals(buildConfigurationVersion, newBuildConfigurationVersion);
+        Assert.assertNotEquals(projectVersion, entityChangeCounters.getVersion(Project.class));
+        buildConfigurationVersion = newBuildConfigurationVersion;
+    }
+
+    @Test
+    @InSequence(4)
+    public void shouldNotResetExistingCounter() {
+        try {
+            entityChangeCounterCreator.create(BuildConfiguration.class.getName(), EntityChangeListener.NODE_NAME);
+            Assert.fail("Expected the existing counter not to be created again.");
+        } catch (EJBException e) {
+            // expected
+        }
+        entityChangeCountersConfiguration.initialize();
+
+        Assert.assertEquals(buildConfigurationVersion, entityChangeCounters.getVersion(BuildConfiguration.class));
+    }
+}
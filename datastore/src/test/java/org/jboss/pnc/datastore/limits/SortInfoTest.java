@@ -164,6 +164,48 @@ public class SortInfoTest {
         assertThat(sorted).containsExactly("b", "a");
     }
 
+    @Test
+    public void shouldSortNullValuesLastInAscendingOrder() throws Exception {
+        //given
+        String sorting = "=asc=(field1)";
+
+        List<SortTester> tester = new ArrayList<>();
+        tester.add(new SortTester(null, "a"));
+        tester.add(new SortTester("b", "b"));
+        tester.add(new SortTester("a", "c"));
+
+        //when
+        SortInfo testedSorting = defaultSortInfoProducer.getSortInfo(sorting);
+        List<String> sorted = tester.stream()
+                .sorted(testedSorting.getComparator())
+                .map(value -> value.getField2())
+                .collect(Collectors.toList());
+
+        //then
+        assertThat(sorted).containsExactly("c", "b", "a");
+    }
+
+    @Test
+    public void shouldSortNullValuesFirstInDescendingOrder() throws Exception {
+        //given
+        String sorting = "=desc=(field1)";
+
+        List<SortTester> tester = new ArrayList<>();
+        tester.add(new SortTester(null, "a"));
+        tester.add(new SortTester("a", "b"));
+        tester.add(new SortTester("b", "c"));
+
+        //when
+        SortInfo testedSorting = defaultSortInfoProducer.getSortInfo(sorting);
+        List<String> sorted = tester.stream()
+                .sorted(testedSorting.getComparator())
+                .map(value -> value.getField2())
+                .collect(Collectors.toList());
+
+        //then
+        assertThat(sorted).containsExactly("a", "c", "b");
+    }
+
     public static class SortTester {
         String field1;
         String field2;
@@ -0,0 +1,77 @@
+/**
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.pnc.datastore.predicates;
+
+import org.jboss.pnc.datastore.predicates.rsql.RSQLNodeTravellerPredicate;
+import org.jboss.pnc.model.BuildConfiguration;
+import org.jboss.pnc.spi.datastore.repositories.api.Predicate;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares parsing and predicate construction of RSQL queries with and without the compiled query cache.
+ *
+ * <p>
+ *     Run with <code>mvn test-compile exec:java -Dexec.classpathScope=test
+ *     -Dexec.mainClass=org.jboss.pnc.datastore.predicates.RSQLPredicateProducerBenchmark</code> from the datastore module.
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class RSQLPredicateProducerBenchmark {
+
+    @Param({
+            "name==test",
+            "name=like=%test%;description=like=%build%",
+            "id=gt=10;id=lt=1000,name==first,name==second,name==third"
+    })
+    public String rsql;
+
+    private SpringDataRSQLPredicateProducer producer = new SpringDataRSQLPredicateProducer();
+
+    @Benchmark
+    public Predicate<BuildConfiguration> uncachedPredicate() throws Exception {
+        return new RSQLNodeTravellerPredicate<>(BuildConfiguration.class, rsql).getEntityPredicate();
+    }
+
+    @Benchmark
+    public Predicate<BuildConfiguration> cachedPredicate() {
+        return producer.getPredicate(BuildConfiguration.class, rsql);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(RSQLPredicateProducerBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,63 @@
+/**
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.pnc.datastore.predicates;
+
+import org.jboss.pnc.datastore.predicates.rsql.JavaUtilPredicateTest.TestClass;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class SpringDataRSQLPredicateProducerTest {
+
+    private SpringDataRSQLPredicateProducer producer = new SpringDataRSQLPredicateProducer();
+
+    @Test
+    public void shouldReuseCompiledQuery() throws Exception {
+        //given
+        List<TestClass> testedList = Arrays.asList(new TestClass("a"), new TestClass("b"), new TestClass("c"));
+        String rsql = "field==a,field==c";
+
+        //when
+        long firstCount = testedList.stream().filter(producer.getStreamPredicate(TestClass.class, rsql)).count();
+        long secondCount = testedList.stream().filter(producer.getStreamPredicate(TestClass.class, rsql)).count();
+
+        //then
+        assertThat(firstCount).isEqualTo(2);
+        assertThat(secondCount).isEqualTo(2);
+    }
+
+    @Test
+    public void shouldNotCacheIncorrectQuery() throws Exception {
+        //given
+        String rsql = "error";
+
+        //when //then
+        for (int i = 0; i < 2; i++) {
+            try {
+                producer.getStreamPredicate(TestClass.class, rsql);
+                throw new AssertionError("Incorrect query should not be accepted");
+            } catch (IllegalArgumentException e) {
+                assertThat(e.getMessage()).contains(rsql);
+            }
+        }
+    }
+
+}
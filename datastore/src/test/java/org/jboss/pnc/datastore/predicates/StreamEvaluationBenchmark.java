@@ -0,0 +1,140 @@
+/**
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.pnc.datastore.predicates;
+
+import org.apache.commons.beanutils.BeanUtils;
+import org.jboss.pnc.datastore.predicates.rsql.RSQLNodeTravellerPredicate;
+import org.jboss.pnc.spi.datastore.repositories.api.SortInfo;
+import org.jboss.pnc.spi.datastore.repositories.api.impl.PropertyComparator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Compares in-memory filtering and sorting of 100k elements using compiled property accessors with the reflective
+ * evaluation (BeanUtils and a getter lookup per comparison) which was used before.
+ *
+ * <p>
+ *     Run with <code>mvn test-compile exec:java -Dexec.classpathScope=test
+ *     -Dexec.mainClass=org.jboss.pnc.datastore.predicates.StreamEvaluationBenchmark</code> from the datastore module.
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class StreamEvaluationBenchmark {
+
+    private static final int ELEMENTS = 100_000;
+    private static final String RSQL = "id>1000;name=like=%build%";
+
+    private List<Element> elements;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        elements = new ArrayList<>(ELEMENTS);
+        for (int i = 0; i < ELEMENTS; i++) {
+            elements.add(new Element(random.nextInt(ELEMENTS), (i % 3 == 0 ? "build-" : "other-") + random.nextInt(100)));
+        }
+    }
+
+    @Benchmark
+    public List<Element> compiledFilter() throws Exception {
+        RSQLNodeTravellerPredicate<Element> predicate = new RSQLNodeTravellerPredicate<>(Element.class, RSQL);
+        return elements.stream().filter(predicate.getStreamPredicate()).collect(Collectors.toList());
+    }
+
+    @Benchmark
+    public List<Element> reflectiveFilter() {
+        return elements.stream().filter(element -> {
+            try {
+                return Integer.parseInt(BeanUtils.getProperty(element, "id")) > 1000
+                        && BeanUtils.getProperty(element, "name").matches(".*build.*");
+            } catch (ReflectiveOperationException e) {
+                throw new IllegalStateException(e);
+            }
+        }).collect(Collectors.toList());
+    }
+
+    @Benchmark
+    public List<Element> compiledSort() {
+        List<Element> sorted = new ArrayList<>(elements);
+        Collections.sort(sorted, new PropertyComparator<>(Collections.singletonList("id"), SortInfo.SortingDirection.ASC));
+        return sorted;
+    }
+
+    @Benchmark
+    public List<Element> reflectiveSort() {
+        List<Element> sorted = new ArrayList<>(elements);
+        Comparator<Element> comparator = (x, y) -> {
+            try {
+                Method getter = x.getClass().getDeclaredMethod("getId");
+                return ((Integer) getter.invoke(x)).compareTo((Integer) getter.invoke(y));
+            } catch (ReflectiveOperationException e) {
+                throw new IllegalStateException(e);
+            }
+        };
+        Collections.sort(sorted, comparator);
+        return sorted;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(StreamEvaluationBenchmark.class.getSimpleName()).build()).run();
+    }
+
+    public static class Element {
+
+        private final Integer id;
+        private final String name;
+
+        public Element(Integer id, String name) {
+            this.id = id;
+            this.name = name;
+        }
+
+        public Integer getId() {
+            return id;
+        }
+
+        public String getName() {
+            return name;
+        }
+    }
+}
@@ -104,6 +104,44 @@ public class JavaUtilPredicateTest {
         Assertions.assertThat(numberOfInstances).isEqualTo(1);
     }
 
+    @Test
+    public void shouldCompareValuesInBothDirections() throws Exception {
+        //given
+        List<TestClass> testedList = new ArrayList<>();
+        testedList.add(new TestClass("test", 1));
+        testedList.add(new TestClass("test1", 2));
+        testedList.add(new TestClass("test2", 3));
+        testedList.add(new TestClass("test3", null));
+
+        //when //then
+        Assertions.assertThat(countMatching(testedList, "id>2")).isEqualTo(1);
+        Assertions.assertThat(countMatching(testedList, "id>=2")).isEqualTo(2);
+        Assertions.assertThat(countMatching(testedList, "id<2")).isEqualTo(1);
+        Assertions.assertThat(countMatching(testedList, "id<=2")).isEqualTo(2);
+    }
+
+    @Test
+    public void shouldSelectInstancesFromArgumentList() throws Exception {
+        //given
+        List<TestClass> testedList = new ArrayList<>();
+        testedList.add(new TestClass("a"));
+        testedList.add(new TestClass("b"));
+        testedList.add(new TestClass("c"));
+
+        //when //then
+        Assertions.assertThat(countMatching(testedList, "field=in=(a,c)")).isEqualTo(2);
+        Assertions.assertThat(countMatching(testedList, "field=out=(a,c)")).isEqualTo(1);
+    }
+
+    @Test
+    public void shouldReuseCompiledPredicate() throws Exception {
+        //given
+        RSQLNodeTravellerPredicate rsqlNodeTravellerPredicate = new RSQLNodeTravellerPredicate(TestClass.class, "field==test");
+
+        //when //then
+        Assertions.assertThat(rsqlNodeTravellerPredicate.getStreamPredicate()).isSameAs(rsqlNodeTravellerPredicate.getStreamPredicate());
+    }
+
     @Test(expected = RSQLParserException.class)
     public void shouldThrowExceptionOnIncorrectSyntax() throws Exception {
         //given
@@ -113,6 +151,11 @@ public class JavaUtilPredicateTest {
         new RSQLNodeTravellerPredicate(TestClass.class, rsql);
     }
 
+    private long countMatching(List<TestClass> testedList, String rsql) {
+        RSQLNodeTravellerPredicate rsqlNodeTravellerPredicate = new RSQLNodeTravellerPredicate(TestClass.class, rsql);
+        return testedList.stream().filter(rsqlNodeTravellerPredicate.getStreamPredicate()).count();
+    }
+
     public static class TestClass implements GenericEntity<Integer> {
 
         private String field;
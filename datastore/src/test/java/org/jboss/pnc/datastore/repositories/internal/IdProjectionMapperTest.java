@@ -0,0 +1,77 @@
+/**
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.pnc.datastore.repositories.internal;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class IdProjectionMapperTest {
+
+    @Test
+    public void shouldQueryInChunksAndGroupByOwnerId() throws Exception {
+        //given
+        List<Integer> ownerIds = new ArrayList<>();
+        for (int id = 1; id <= AbstractRepository.IN_CHUNK_SIZE * 2 + 1; id++) {
+            ownerIds.add(id);
+        }
+        ownerIds.add(1);
+        List<Integer> chunkSizes = new ArrayList<>();
+
+        //when
+        Map<Integer, Set<Integer>> associatedIds = IdProjectionMapper.queryGroupedByOwnerId(ownerIds, chunk -> {
+            chunkSizes.add(chunk.size());
+            List<Object[]> rows = new ArrayList<>();
+            for (Integer ownerId : chunk) {
+                if (ownerId % 2 == 1) {
+                    rows.add(new Object[] { ownerId, ownerId * 10 });
+                    rows.add(new Object[] { ownerId, ownerId * 10 + 1 });
+                }
+            }
+            return rows;
+        });
+
+        //then
+        assertThat(chunkSizes).containsExactly(AbstractRepository.IN_CHUNK_SIZE, AbstractRepository.IN_CHUNK_SIZE, 1);
+        assertThat(associatedIds).hasSize(AbstractRepository.IN_CHUNK_SIZE + 1);
+        assertThat(associatedIds.get(1)).containsOnly(10, 11);
+        assertThat(associatedIds.get(AbstractRepository.IN_CHUNK_SIZE * 2 + 1)).hasSize(2);
+        assertThat(associatedIds).doesNotContainKey(2);
+    }
+
+    @Test
+    public void shouldNotQueryWithoutOwnerIds() throws Exception {
+        //given
+        Collection<Integer> ownerIds = Collections.emptyList();
+
+        //when
+        Map<Integer, Set<Integer>> associatedIds = IdProjectionMapper.queryGroupedByOwnerId(ownerIds, chunk -> {
+            throw new AssertionError("Queried " + chunk);
+        });
+
+        //then
+        assertThat(associatedIds).isEmpty();
+    }
+}
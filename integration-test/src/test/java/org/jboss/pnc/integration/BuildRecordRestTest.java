@@ -44,6 +44,7 @@ import org.slf4j.LoggerFactory;
 import java.lang.invoke.MethodHandles;
 
 import static com.jayway.restassured.RestAssured.given;
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.jboss.pnc.integration.env.IntegrationTestEnv.getHttpPort;
 
 @RunWith(Arquillian.class)
@@ -57,6 +58,10 @@ public class BuildRecordRestTest extends AbstractTest {
     private static final String BUILD_RECORD_PROJECT_REST_ENDPOINT = "/pnc-rest/rest/build-records/projects/%d";
     private static final String BUILD_RECORD_PROJECT_BR_NAME_REST_ENDPOINT = "/pnc-rest/rest/build-records/projects/%d?q=latestBuildConfiguration.name==%s";
 
+    private static final String BUILD_RECORD_FIELDS = "id,status,endTime";
+    private static final String CONFIGURATION_FIELDS = "id,name,lastModificationTime";
+    private static final int BENCHMARK_ITERATIONS = 20;
+
     private static int buildRecordId;
     private static int configurationId;
     private static String buildConfigurationName;
@@ -175,4 +180,52 @@ public class BuildRecordRestTest extends AbstractTest {
         ResponseAssertion.assertThat(response2).hasJsonValueEqual(FIRST_CONTENT_ID, buildRecordId);
     }
 
+    @Test
+    public void shouldGetSelectedFieldsOfBuildRecords() {
+        Response response = given().headers(testHeaders)
+                    .contentType(ContentType.JSON).port(getHttpPort()).when()
+                .get(BuildRecordRestClient.BUILD_RECORD_REST_ENDPOINT + "?fields=" + BUILD_RECORD_FIELDS);
+
+        ResponseAssertion.assertThat(response).hasStatus(200);
+        ResponseAssertion.assertThat(response).hasJsonValueEqual(FIRST_CONTENT_ID, buildRecordId);
+        assertThat(response.body().jsonPath().getMap("content[0]").keySet()).containsExactly("id", "status", "endTime");
+    }
+
+    @Test
+    public void shouldReturnSmallerPayloadForSelectedFields() {
+        benchmark(BuildRecordRestClient.BUILD_RECORD_REST_ENDPOINT, BUILD_RECORD_FIELDS);
+        benchmark(CONFIGURATION_REST_ENDPOINT, CONFIGURATION_FIELDS);
+    }
+
+    private void benchmark(String endpoint, String fields) {
+        String projectionEndpoint = endpoint + "?fields=" + fields;
+        get(endpoint);
+        get(projectionEndpoint);
+
+        long fullNanos = 0;
+        long projectionNanos = 0;
+        int fullBytes = 0;
+        int projectionBytes = 0;
+        for (int i = 0; i < BENCHMARK_ITERATIONS; i++) {
+            long start = System.nanoTime();
+            fullBytes = get(endpoint).asByteArray().length;
+            fullNanos += System.nanoTime() - start;
+
+            start = System.nanoTime();
+            projectionBytes = get(projectionEndpoint).asByteArray().length;
+            projectionNanos += System.nanoTime() - start;
+        }
+
+        logger.info("{}: full page {} bytes in {} us, fields {} {} bytes in {} us", endpoint, fullBytes,
+                fullNanos / BENCHMARK_ITERATIONS / 1000, fields, projectionBytes, projectionNanos / BENCHMARK_ITERATIONS / 1000);
+        assertThat(projectionBytes).isLessThan(fullBytes);
+    }
+
+    private Response get(String endpoint) {
+        Response response = given().headers(testHeaders)
+                    .contentType(ContentType.JSON).port(getHttpPort()).when().get(endpoint);
+        ResponseAssertion.assertThat(response).hasStatus(200);
+        return response;
+    }
+
 }
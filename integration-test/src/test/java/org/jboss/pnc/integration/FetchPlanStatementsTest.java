@@ -0,0 +1,140 @@
+/**
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.pnc.integration;
+
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.jboss.arquillian.container.test.api.Deployment;
+import org.jboss.arquillian.junit.Arquillian;
+import org.jboss.pnc.AbstractTest;
+import org.jboss.pnc.integration.deployments.Deployments;
+import org.jboss.pnc.rest.provider.BuildConfigurationProvider;
+import org.jboss.pnc.rest.provider.BuildRecordProvider;
+import org.jboss.pnc.rest.provider.collection.CollectionInfo;
+import org.jboss.pnc.test.category.ContainerTest;
+import org.jboss.shrinkwrap.api.spec.EnterpriseArchive;
+import org.jboss.shrinkwrap.api.spec.WebArchive;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.inject.Inject;
+import javax.persistence.EntityManager;
+import java.lang.invoke.MethodHandles;
+import java.util.function.IntFunction;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Checks that listing entities runs a fixed number of statements, regardless of how many entities are on the page.
+ * A page of a single entity has to run as many statements as a page of several entities. The second-level cache is
+ * evicted before each call, so it can't hide lazily loaded associations.
+ */
+@RunWith(Arquillian.class)
+@Category(ContainerTest.class)
+public class FetchPlanStatementsTest {
+
+    public static final Logger logger = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
+
+    /**
+     * Page query, count query, batch loaded collections and eager associations of the fetched entities.
+     */
+    private static final int BUILD_RECORDS_STATEMENT_BUDGET = 12;
+
+    private static final int BUILD_CONFIGURATIONS_STATEMENT_BUDGET = 8;
+
+    private static final int PAGE_SIZE = 100;
+
+    @Inject
+    private BuildRecordProvider buildRecordProvider;
+
+    @Inject
+    private BuildConfigurationProvider buildConfigurationProvider;
+
+    @Inject
+    private EntityManager entityManager;
+
+    private SessionFactory sessionFactory;
+
+    @Deployment
+    public static EnterpriseArchive deploy() {
+        EnterpriseArchive enterpriseArchive = Deployments.baseEarWithTestDependencies();
+        WebArchive war = enterpriseArchive.getAsType(WebArchive.class, AbstractTest.REST_WAR_PATH);
+        war.addClass(FetchPlanStatementsTest.class);
+
+        logger.info(enterpriseArchive.toString(true));
+        return enterpriseArchive;
+    }
+
+    @Before
+    public void before() {
+        sessionFactory = entityManager.unwrap(Session.class).getSessionFactory();
+    }
+
+    @Test
+    public void shouldListBuildRecordsWithinStatementBudget() {
+        long statements = countStatements(() -> buildRecordProvider.getAll(0, PAGE_SIZE, null, null), 1);
+
+        assertThat(statements).isLessThanOrEqualTo(BUILD_RECORDS_STATEMENT_BUDGET);
+    }
+
+    @Test
+    public void shouldListBuildRecordsWithSameStatementsForAnyPageSize() {
+        assertSameStatementsForAnyPageSize(pageSize -> buildRecordProvider.getAll(0, pageSize, null, null));
+    }
+
+    @Test
+    public void shouldListBuildConfigurationsWithinStatementBudget() {
+        long statements = countStatements(() -> buildConfigurationProvider.getAll(0, PAGE_SIZE, null, null), 1);
+
+        assertThat(statements).isLessThanOrEqualTo(BUILD_CONFIGURATIONS_STATEMENT_BUDGET);
+    }
+
+    @Test
+    public void shouldListBuildConfigurationsWithSameStatementsForAnyPageSize() {
+        assertSameStatementsForAnyPageSize(pageSize -> buildConfigurationProvider.getAll(0, pageSize, null, null));
+    }
+
+    private void assertSameStatementsForAnyPageSize(IntFunction<CollectionInfo<?>> listCall) {
+        long singleEntityStatements = countStatements(() -> listCall.apply(1), 1);
+        long fullPageStatements = countStatements(() -> listCall.apply(PAGE_SIZE), 2);
+
+        assertThat(fullPageStatements).isEqualTo(singleEntityStatements);
+    }
+
+    /**
+     * @param minEntities Entities the call has to list, so the statements are counted for a page of that size
+     */
+    private long countStatements(Supplier<CollectionInfo<?>> listCall, int minEntities) {
+        Statistics statistics = sessionFactory.getStatistics();
+        sessionFactory.getCache().evictEntityRegions();
+
+        long statementsBefore = statistics.getPrepareStatementCount();
+        CollectionInfo<?> collection = listCall.get();
+        long statements = statistics.getPrepareStatementCount() - statementsBefore;
+
+        logger.info("Listing {} entities took {} statements.", collection.getContent().size(), statements);
+        assertThat(collection.getContent().size()).isGreaterThanOrEqualTo(minEntities);
+        return statements;
+    }
+}
@@ -0,0 +1,148 @@
+/**
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.pnc.integration;
+
+import org.hibernate.Session;
+import org.hibernate.stat.Statistics;
+import org.jboss.arquillian.container.test.api.Deployment;
+import org.jboss.arquillian.junit.Arquillian;
+import org.jboss.arquillian.junit.InSequence;
+import org.jboss.arquillian.transaction.api.annotation.Transactional;
+import org.jboss.pnc.AbstractTest;
+import org.jboss.pnc.integration.deployments.Deployments;
+import org.jboss.pnc.model.Artifact;
+import org.jboss.pnc.model.ArtifactRepo;
+import org.jboss.pnc.model.ProductMilestone;
+import org.jboss.pnc.rest.provider.ProductMilestoneProvider;
+import org.jboss.pnc.rest.restmodel.ProductMilestoneRest;
+import org.jboss.pnc.spi.datastore.repositories.ProductMilestoneRepository;
+import org.jboss.pnc.test.category.ContainerTest;
+import org.jboss.shrinkwrap.api.spec.EnterpriseArchive;
+import org.jboss.shrinkwrap.api.spec.WebArchive;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.inject.Inject;
+import javax.persistence.EntityManager;
+import java.lang.invoke.MethodHandles;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Compares mapping of a milestone with {@value #DISTRIBUTED_ARTIFACTS} distributed artifacts from id projections
+ * with mapping from the loaded collection. Loaded entities stand for the memory cost, elapsed times are only logged.
+ */
+@RunWith(Arquillian.class)
+@Category(ContainerTest.class)
+public class ProductMilestoneIdViewTest {
+
+    public static final Logger logger = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
+
+    private static final int DISTRIBUTED_ARTIFACTS = 100_000;
+
+    private static final int FLUSH_SIZE = 1000;
+
+    private static final String IDENTIFIER_PREFIX = "integration-test:milestone-id-view-";
+
+    private static Integer milestoneId;
+
+    private long loadedEntities;
+
+    @Inject
+    private ProductMilestoneRepository productMilestoneRepository;
+
+    @Inject
+    private ProductMilestoneProvider productMilestoneProvider;
+
+    @Inject
+    private EntityManager entityManager;
+
+    @Deployment
+    public static EnterpriseArchive deploy() {
+        EnterpriseArchive enterpriseArchive = Deployments.baseEarWithTestDependencies();
+        WebArchive war = enterpriseArchive.getAsType(WebArchive.class, AbstractTest.REST_WAR_PATH);
+        war.addClass(ProductMilestoneIdViewTest.class);
+
+        logger.info(enterpriseArchive.toString(true));
+        return enterpriseArchive;
+    }
+
+    @Test
+    @InSequence(0)
+    @Transactional
+    public void shouldInsertMilestoneWithDistributedArtifacts() {
+        milestoneId = productMilestoneRepository.queryAll().iterator().next().getId();
+
+        for (int i = 0; i < DISTRIBUTED_ARTIFACTS; i++) {
+            entityManager.persist(Artifact.Builder.newBuilder()
+                    .filename("artifact" + i + ".jar")
+                    .identifier(IDENTIFIER_PREFIX + i + ":jar:1.0")
+                    .repoType(ArtifactRepo.Type.MAVEN)
+                    .checksum("abcd1234")
+                    .build());
+            if (i % FLUSH_SIZE == 0) {
+                entityManager.flush();
+                entityManager.clear();
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        int distributed = entityManager.createNativeQuery("insert into product_milestone_distributed_artifacts_map "
+                + "(product_milestone_id, artifact_id) select ?1, id from artifact where identifier like ?2")
+                .setParameter(1, milestoneId)
+                .setParameter(2, IDENTIFIER_PREFIX + "%")
+                .executeUpdate();
+        assertThat(distributed).isEqualTo(DISTRIBUTED_ARTIFACTS);
+    }
+
+    @Test
+    @InSequence(1)
+    @Transactional
+    public void shouldMapMilestoneWithoutLoadingDistributedArtifacts() {
+        ProductMilestoneRest fromProjection = measure("id projections",
+                () -> productMilestoneProvider.getSpecific(milestoneId));
+        assertThat(loadedEntities).isLessThan(DISTRIBUTED_ARTIFACTS);
+
+        ProductMilestoneRest fromCollection = measure("loaded collections",
+                () -> new ProductMilestoneRest(entityManager.find(ProductMilestone.class, milestoneId)));
+        assertThat(loadedEntities).isGreaterThanOrEqualTo(DISTRIBUTED_ARTIFACTS);
+
+        assertThat(fromProjection.getDistributedArtifactIds()).hasSize(fromCollection.getDistributedArtifactIds().size());
+        assertThat(fromProjection.getDistributedArtifactIds()).hasSize(DISTRIBUTED_ARTIFACTS);
+        assertThat(fromProjection.getPerformedBuilds()).isEqualTo(fromCollection.getPerformedBuilds());
+    }
+
+    private ProductMilestoneRest measure(String mapping, Supplier<ProductMilestoneRest> mapper) {
+        entityManager.clear();
+        Statistics statistics = entityManager.unwrap(Session.class).getSessionFactory().getStatistics();
+        long entitiesBefore = statistics.getEntityLoadCount();
+        long start = System.nanoTime();
+
+        ProductMilestoneRest milestone = mapper.get();
+
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+        loadedEntities = statistics.getEntityLoadCount() - entitiesBefore;
+        logger.info("Mapping milestone from {} took {} ms and loaded {} entities.", mapping, elapsedMillis, loadedEntities);
+        return milestone;
+    }
+}
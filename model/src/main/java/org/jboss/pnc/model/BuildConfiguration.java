@@ -17,6 +17,7 @@
  */
 package org.jboss.pnc.model;
 
+import org.hibernate.annotations.BatchSize;
 import org.hibernate.annotations.ForeignKey;
 import org.hibernate.annotations.Index;
 import org.hibernate.annotations.Type;
@@ -179,6 +180,7 @@ public class BuildConfiguration implements GenericEntity<Integer>, Cloneable {
                     @JoinColumn(name = "dependant_id", referencedColumnName = "id") })
     @ForeignKey(name = "fk_build_configuration_dep_map_dependency", inverseName = "fk_build_configuration_dep_map_dependant")
     @Index(name="idx_build_configuration_dep_map_dependency", columnNames={"dependency_id", "dependant_id"} )
+    @BatchSize(size = 100)
     private Set<BuildConfiguration> dependencies;
 
     /**
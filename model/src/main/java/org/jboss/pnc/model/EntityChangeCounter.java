@@ -0,0 +1,136 @@
+/**
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.pnc.model;
+
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.validation.constraints.NotNull;
+import javax.validation.constraints.Size;
+import java.io.Serializable;
+
+/**
+ * Number of committed changes of an entity type made by one node. Every node increments only its own counters, so
+ * nodes never wait for each other's locks, and the sum of the counters of all the nodes is shared by all of them.
+ * The counters are used to build cheap validators (e.g. HTTP ETags) of data derived from the entities.
+ */
+@Entity
+public class EntityChangeCounter implements Serializable {
+
+    private static final long serialVersionUID = 2931565317437412081L;
+
+    /**
+     * Name of the counted entity and of the node, see {@link #getId(String, String)}
+     */
+    @Id
+    @Size(max=255)
+    private String id;
+
+    /**
+     * Name of the counted entity
+     */
+    @NotNull
+    @Size(max=255)
+    private String entityName;
+
+    /**
+     * Name of the node counting the changes
+     */
+    @NotNull
+    @Size(max=255)
+    private String node;
+
+    @NotNull
+    private long changes;
+
+    public EntityChangeCounter() {
+    }
+
+    public EntityChangeCounter(String entityName, String node) {
+        this.id = getId(entityName, node);
+        this.entityName = entityName;
+        this.node = node;
+    }
+
+    /**
+     * @return Id of the counter of the given entity changed by the given node
+     */
+    public static String getId(String entityName, String node) {
+        return entityName + "@" + node;
+    }
+
+    /**
+     * @return the id of the counter
+     */
+    public String getId() {
+        return id;
+    }
+
+    /**
+     * @param id the id of the counter
+     */
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    /**
+     * @return the name of the counted entity
+     */
+    public String getEntityName() {
+        return entityName;
+    }
+
+    /**
+     * @param entityName the name of the counted entity
+     */
+    public void setEntityName(String entityName) {
+        this.entityName = entityName;
+    }
+
+    /**
+     * @return the name of the node counting the changes
+     */
+    public String getNode() {
+        return node;
+    }
+
+    /**
+     * @param node the name of the node counting the changes
+     */
+    public void setNode(String node) {
+        this.node = node;
+    }
+
+    /**
+     * @return the number of committed changes
+     */
+    public long getChanges() {
+        return changes;
+    }
+
+    /**
+     * @param changes the number of committed changes
+     */
+    public void setChanges(long changes) {
+        this.changes = changes;
+    }
+
+    @Override
+    public String toString() {
+        return "EntityChangeCounter [entityName=" + entityName + ", node=" + node + ", changes=" + changes + "]";
+    }
+}
@@ -105,7 +105,7 @@ public class ProductMilestone implements GenericEntity<Integer> {
      * failed builds consumed machine and human resources even though they were not delivered with
      * the product distribution.
      */
-    @OneToMany(mappedBy = "productMilestone", fetch = FetchType.EAGER)
+    @OneToMany(mappedBy = "productMilestone")
     private Set<BuildRecord> performedBuilds;
 
     /**
@@ -45,6 +45,24 @@ public class BpmModuleConfig extends AbstractModuleConfig {
     private String communityBuild;
     private String versionAdjust;
 
+    /**
+     * Number of build signal callbacks sent to the BPM server concurrently,
+     * also the size of the callback connection pool
+     */
+    private int callbackThreadPoolSize;
+
+    /**
+     * Number of attempts to deliver a build signal callback before it is dropped,
+     * failed attempts are retried with exponential backoff
+     */
+    private int callbackMaxAttempts;
+
+    /**
+     * Time in minutes to wait for the BPM server to report a started build as completed,
+     * the build is completed with a system error once it elapses
+     */
+    private int buildCompletionTimeoutMinutes;
+
     public BpmModuleConfig(@JsonProperty("username") String username,
             @JsonProperty("password") String password,
             @JsonProperty("bpmInstanceUrl") String bpmInstanceUrl,
@@ -56,7 +74,10 @@ public class BpmModuleConfig extends AbstractModuleConfig {
             @JsonProperty("repourBaseUrl") String repourBaseUrl,
             @JsonProperty("daBaseUrl") String daBaseUrl,
             @JsonProperty("communityBuild") String communityBuild,
-            @JsonProperty("versionAdjust") String versionAdjust)
+            @JsonProperty("versionAdjust") String versionAdjust,
+            @JsonProperty("callbackThreadPoolSize") String callbackThreadPoolSize,
+            @JsonProperty("callbackMaxAttempts") String callbackMaxAttempts,
+            @JsonProperty("buildCompletionTimeoutMinutes") String buildCompletionTimeoutMinutes)
             throws MalformedURLException {
         this.username = username;
         this.password = password;
@@ -70,6 +91,9 @@ public class BpmModuleConfig extends AbstractModuleConfig {
         this.daBaseUrl = daBaseUrl;
         this.communityBuild = communityBuild;
         this.versionAdjust = versionAdjust;
+        this.callbackThreadPoolSize = toIntWithDefault("callbackThreadPoolSize", callbackThreadPoolSize, 4);
+        this.callbackMaxAttempts = toIntWithDefault("callbackMaxAttempts", callbackMaxAttempts, 5);
+        this.buildCompletionTimeoutMinutes = toIntWithDefault("buildCompletionTimeoutMinutes", buildCompletionTimeoutMinutes, 720);
     }
 
     public String getUsername() {
@@ -128,6 +152,18 @@ public class BpmModuleConfig extends AbstractModuleConfig {
         return versionAdjust;
     }
 
+    public int getCallbackThreadPoolSize() {
+        return callbackThreadPoolSize;
+    }
+
+    public int getCallbackMaxAttempts() {
+        return callbackMaxAttempts;
+    }
+
+    public int getBuildCompletionTimeoutMinutes() {
+        return buildCompletionTimeoutMinutes;
+    }
+
     @Override
     public String toString() {
         return "BpmModuleConfig{" +
@@ -142,6 +178,9 @@ public class BpmModuleConfig extends AbstractModuleConfig {
                 ", processId='" + processId + '\'' +
                 ", communityBuild='" + communityBuild + '\'' +
                 ", versionAdjust='" + versionAdjust + '\'' +
+                ", callbackThreadPoolSize=" + callbackThreadPoolSize +
+                ", callbackMaxAttempts=" + callbackMaxAttempts +
+                ", buildCompletionTimeoutMinutes=" + buildCompletionTimeoutMinutes +
                 '}';
     }
 
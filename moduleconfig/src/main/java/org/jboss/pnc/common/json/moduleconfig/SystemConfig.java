@@ -19,13 +19,9 @@ package org.jboss.pnc.common.json.moduleconfig;
 
 import com.fasterxml.jackson.annotation.JsonProperty;
 import org.jboss.pnc.common.json.AbstractModuleConfig;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
 
 public class SystemConfig extends AbstractModuleConfig {
 
-    private final static Logger log = LoggerFactory.getLogger(SystemConfig.class);
-
     private String buildDriverId;
 
     private String buildSchedulerId;
@@ -53,19 +49,34 @@ public class SystemConfig extends AbstractModuleConfig {
      */
     private int coordinatorMaxConcurrentBuilds;
 
+    /**
+     * number of threads that are initializing builds triggered through the asynchronous trigger API
+     */
+    private int triggerThreadPoolSize;
+
+    /**
+     * maximum number of asynchronous build triggers waiting for a free thread,
+     * further triggers are rejected until the queue drains
+     */
+    private int triggerQueueCapacity;
+
     public SystemConfig(
             @JsonProperty("buildDriverId") String buildDriverId,
             @JsonProperty("buildSchedulerId") String buildSchedulerId,
             @JsonProperty("executorThreadPoolSize") String executorThreadPoolSize,
             @JsonProperty("builderThreadPoolSize") String builderThreadPoolSize,
             @JsonProperty("coordinatorThreadPoolSize") String coordinatorThreadPoolSize,
-            @JsonProperty("coordinatorMaxConcurrentBuilds") String coordinatorMaxConcurrentBuilds) {
+            @JsonProperty("coordinatorMaxConcurrentBuilds") String coordinatorMaxConcurrentBuilds,
+            @JsonProperty("triggerThreadPoolSize") String triggerThreadPoolSize,
+            @JsonProperty("triggerQueueCapacity") String triggerQueueCapacity) {
         this.buildDriverId = buildDriverId;
         this.buildSchedulerId = buildSchedulerId;
         this.executorThreadPoolSize = executorThreadPoolSize;
         this.builderThreadPoolSize = builderThreadPoolSize;
         this.coordinatorThreadPoolSize = toIntWithDefault("coordinatorThreadPoolSize", coordinatorThreadPoolSize, 1);
         this.coordinatorMaxConcurrentBuilds = toIntWithDefault("coordinatorMaxConcurrentBuilds", coordinatorMaxConcurrentBuilds, 10);
+        this.triggerThreadPoolSize = toIntWithDefault("triggerThreadPoolSize", triggerThreadPoolSize, 4);
+        this.triggerQueueCapacity = toIntWithDefault("triggerQueueCapacity", triggerQueueCapacity, 100);
     }
 
     public String getBuildDriverId() {
@@ -96,18 +107,12 @@ public class SystemConfig extends AbstractModuleConfig {
         return coordinatorMaxConcurrentBuilds;
     }
 
-    private int toIntWithDefault(String fieldName, String numberAsString, int defaultValue) {
-        int result = defaultValue;
-        if (numberAsString == null) {
-            log.warn("Value in field: " + fieldName + " not set. Will use default value: {}", defaultValue);
-        } else {
-            try {
-                result = Integer.parseInt(numberAsString);
-            } catch (NumberFormatException nfe) {
-                log.warn("Invalid value in field: " + fieldName + ". Expected an integer, got: {}. Will use default value: {}", numberAsString, defaultValue, nfe);
-            }
-        }
-        return result;
+    public int getTriggerThreadPoolSize() {
+        return triggerThreadPoolSize;
+    }
+
+    public int getTriggerQueueCapacity() {
+        return triggerQueueCapacity;
     }
 
     @Override
@@ -18,11 +18,19 @@
 
 package org.jboss.pnc.environment.openshift;
 
+import com.openshift.restclient.ClientFactory;
+import com.openshift.restclient.IClient;
+import com.openshift.restclient.NoopSSLCertificateCallback;
+import com.openshift.restclient.OpenShiftException;
+import com.openshift.restclient.authorization.ResourceForbiddenException;
+import com.openshift.restclient.authorization.TokenAuthorizationStrategy;
 import org.jboss.pnc.common.Configuration;
 import org.jboss.pnc.common.json.ConfigurationParseException;
 import org.jboss.pnc.common.json.moduleconfig.OpenshiftEnvironmentDriverModuleConfig;
 import org.jboss.pnc.common.json.moduleprovider.PncConfigProvider;
 import org.jboss.pnc.common.monitor.PullingMonitor;
+import org.jboss.pnc.common.monitor.TimerWheel;
+import org.jboss.pnc.common.util.StringUtils;
 import org.jboss.pnc.model.SystemImageType;
 import org.jboss.pnc.spi.environment.EnvironmentDriver;
 import org.jboss.pnc.spi.environment.StartedEnvironment;
@@ -36,9 +44,13 @@ import javax.enterprise.context.ApplicationScoped;
 import javax.inject.Inject;
 
 import java.util.Arrays;
+import java.util.EnumMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Properties;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 
 /**
  * @author <a href="mailto:matejonnet@gmail.com">Matej Lazar</a>
@@ -54,6 +66,10 @@ public class OpenshiftEnvironmentDriver implements EnvironmentDriver {
 
     private OpenshiftEnvironmentDriverModuleConfig config;
     private PullingMonitor pullingMonitor;
+    private TimerWheel timerWheel;
+    private ReadinessTracker readinessTracker;
+    private Map<Configurations, ResourcePrototype> prototypes;
+    private IClient client;
 
     @Deprecated //CDI workaround
     public OpenshiftEnvironmentDriver() {
@@ -65,6 +81,16 @@ public class OpenshiftEnvironmentDriver implements EnvironmentDriver {
         config = configuration.getModuleConfig(new PncConfigProvider<>(OpenshiftEnvironmentDriverModuleConfig.class));
 
         logger.info("Is OpenShift environment driver disabled: {}", config.isDisabled());
+        if (!config.isDisabled()) {
+            timerWheel = new TimerWheel(1, TimeUnit.SECONDS, 64, "openshift-readiness-timeout");
+            readinessTracker = new ReadinessTracker(
+                    config.getRestEndpointUrl(),
+                    config.getRestAuthToken(),
+                    config.getPncNamespace(),
+                    timerWheel,
+                    executor);
+            readinessTracker.start();
+        }
     }
 
     @Override
@@ -73,7 +99,59 @@ public class OpenshiftEnvironmentDriver implements EnvironmentDriver {
             throw new UnsupportedOperationException("OpenshiftEnvironmentDriver currently provides support only for the following system image types:" + compatibleImageTypes);
 
         //TODO: Need to pass the systemImageId and repoUrl to the new environment instead of using system wide environment config
-        return new OpenshiftStartedEnvironment(executor, config, pullingMonitor, repositorySession);
+        return new OpenshiftStartedEnvironment(executor, config, getClient(), getPrototypes(), pullingMonitor, readinessTracker, repositorySession);
+    }
+
+    /**
+     * Client is shared by all the environments, so the connection is checked once instead of for every environment.
+     * A client which failed the check is not kept, the next environment creates a new one.
+     */
+    private synchronized IClient getClient() throws EnvironmentDriverException {
+        if (client == null) {
+            IClient newClient = new ClientFactory().create(config.getRestEndpointUrl(), new NoopSSLCertificateCallback());
+            newClient.setAuthorizationStrategy(new TokenAuthorizationStrategy(config.getRestAuthToken()));
+            try {
+                newClient.getCurrentUser(); //make sure client is connected
+            } catch (ResourceForbiddenException e) {
+                //the server accepted the token, only the system user is not allowed to read itself
+                logger.debug("OpenShift user is not allowed to read itself, the client is connected.", e);
+            } catch (OpenShiftException e) {
+                throw new EnvironmentDriverException("Cannot connect to OpenShift at " + config.getRestEndpointUrl() + ".", e);
+            }
+            client = newClient;
+        }
+        return client;
+    }
+
+    /**
+     * Resource definitions are parsed once, environments only fill in their own names and repository session.
+     */
+    private synchronized Map<Configurations, ResourcePrototype> getPrototypes() {
+        if (prototypes == null) {
+            prototypes = createPrototypes();
+        }
+        return prototypes;
+    }
+
+    private Map<Configurations, ResourcePrototype> createPrototypes() {
+        Boolean proxyActive = !StringUtils.isEmpty(config.getProxyServer())
+                && !StringUtils.isEmpty(config.getProxyPort());
+
+        Properties properties = new Properties();
+        properties.put("image", config.getImageId());
+        properties.put("containerPort", config.getContainerPort());
+        properties.put("firewallAllowedDestinations", config.getFirewallAllowedDestinations());
+        properties.put("isHttpActive", proxyActive.toString().toLowerCase());
+        properties.put("proxyServer", config.getProxyServer());
+        properties.put("proxyPort", config.getProxyPort());
+        properties.put("nonProxyHosts", config.getNonProxyHosts());
+        properties.put("build-agent-host", config.getBuildAgentHost());
+
+        Map<Configurations, ResourcePrototype> parsed = new EnumMap<>(Configurations.class);
+        for (Configurations configuration : Configurations.values()) {
+            parsed.put(configuration, new ResourcePrototype(configuration.getContentAsString(), properties));
+        }
+        return parsed;
     }
 
     @Override
@@ -88,5 +166,9 @@ public class OpenshiftEnvironmentDriver implements EnvironmentDriver {
     @PreDestroy
     public void destroy() {
         executor.shutdownNow();
+        if (readinessTracker != null) {
+            readinessTracker.stop();
+            timerWheel.stop();
+        }
     }
 }
@@ -21,20 +21,15 @@ import com.openshift.internal.restclient.model.Pod;
 import com.openshift.internal.restclient.model.Route;
 import com.openshift.internal.restclient.model.Service;
 import com.openshift.internal.restclient.model.properties.ResourcePropertiesRegistry;
-import com.openshift.restclient.ClientFactory;
 import com.openshift.restclient.IClient;
-import com.openshift.restclient.NoopSSLCertificateCallback;
 import com.openshift.restclient.ResourceKind;
-import com.openshift.restclient.authorization.TokenAuthorizationStrategy;
 import org.jboss.dmr.ModelNode;
 import org.jboss.pnc.common.json.moduleconfig.OpenshiftEnvironmentDriverModuleConfig;
 import org.jboss.pnc.common.monitor.PullingMonitor;
 import org.jboss.pnc.common.util.RandomUtils;
-import org.jboss.pnc.common.util.StringUtils;
 import org.jboss.pnc.spi.environment.RunningEnvironment;
 import org.jboss.pnc.spi.environment.StartedEnvironment;
 import org.jboss.pnc.spi.repositorymanager.model.RepositorySession;
-import org.jboss.util.StringPropertyReplacer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -43,12 +38,12 @@ import java.net.HttpURLConnection;
 import java.net.URL;
 import java.nio.file.Paths;
 import java.util.Arrays;
-import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
 import java.util.Properties;
 import java.util.Set;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Consumer;
 
 /**
@@ -57,15 +52,17 @@ import java.util.function.Consumer;
 public class OpenshiftStartedEnvironment implements StartedEnvironment {
 
     private static final Logger logger = LoggerFactory.getLogger(OpenshiftStartedEnvironment.class);
-    private boolean serviceCreated = false;
-    private boolean podCreated = false;
     private boolean routeCreated = false;
 
+    /** Time how long to wait for the pod and service to get ready (in seconds) */
+    private static final int READINESS_TIMEOUT = 30;
+
     private static final String OSE_API_VERSION = "v1";
     private final IClient client;
     private final RepositorySession repositorySession;
     private final OpenshiftEnvironmentDriverModuleConfig environmentConfiguration;
     private final PullingMonitor pullingMonitor;
+    private final ReadinessTracker readinessTracker;
     private Pod pod;
     private Service service;
     private Route route;
@@ -78,56 +75,53 @@ public class OpenshiftStartedEnvironment implements StartedEnvironment {
     public OpenshiftStartedEnvironment(
             ExecutorService executor,
             OpenshiftEnvironmentDriverModuleConfig environmentConfiguration,
+            IClient client,
+            Map<Configurations, ResourcePrototype> prototypes,
             PullingMonitor pullingMonitor,
+            ReadinessTracker readinessTracker,
             RepositorySession repositorySession) {
 
         logger.info("Creating new build environment using image id: " + environmentConfiguration.getImageId());
 
         this.environmentConfiguration = environmentConfiguration;
+        this.client = client;
         this.pullingMonitor = pullingMonitor;
+        this.readinessTracker = readinessTracker;
         this.repositorySession = repositorySession;
 
         createRoute = environmentConfiguration.getExposeBuildAgentOnPublicUrl();
 
-        client = new ClientFactory().create(environmentConfiguration.getRestEndpointUrl(), new NoopSSLCertificateCallback());
-        client.setAuthorizationStrategy(new TokenAuthorizationStrategy(environmentConfiguration.getRestAuthToken()));
-        //TODO use something else as system uer don't have permissions and causes 403 - Unauthorized exception
-        client.getCurrentUser(); //make sure client is connected
-
-        Map<String, String> runtimeProperties = new HashMap<>();
         String randString = RandomUtils.randString(6);//note the 24 char limit
         buildAgentContextPath = "pnc-ba-" + randString;
 
-        final String buildAgentHost = environmentConfiguration.getBuildAgentHost();
-
-        runtimeProperties.put("build-agent-host", buildAgentHost);
+        Properties runtimeProperties = new Properties();
         runtimeProperties.put("pod-name", "pnc-ba-pod-" + randString);
         runtimeProperties.put("service-name", "pnc-ba-service-" + randString);
         runtimeProperties.put("route-name", "pnc-ba-route-" + randString);
         runtimeProperties.put("route-path", "/" + buildAgentContextPath);
         runtimeProperties.put("buildAgentContextPath", "/" + buildAgentContextPath);
-        runtimeProperties.put("containerPort", environmentConfiguration.getContainerPort());
+        runtimeProperties.put("proxyUsername", repositorySession.getBuildRepositoryId());
+        runtimeProperties.put("AProxDependencyUrl", repositorySession.getConnectionInfo().getDependencyUrl());
+        runtimeProperties.put("AProxDeployUrl", repositorySession.getConnectionInfo().getDeployUrl());
 
-        ModelNode podConfigurationNode = createModelNode(Configurations.V1_PNC_BUILDER_POD.getContentAsString(), runtimeProperties);
+        ModelNode podConfigurationNode = createModelNode(prototypes.get(Configurations.V1_PNC_BUILDER_POD), runtimeProperties);
         pod = new Pod(podConfigurationNode, client, ResourcePropertiesRegistry.getInstance().get(OSE_API_VERSION, ResourceKind.POD));
         pod.setNamespace(environmentConfiguration.getPncNamespace());
         Runnable createPod = () -> {
             try {
                 client.create(pod, pod.getNamespace());
-                podCreated = true;
             } catch (Throwable e) {
                 logger.error("Cannot create pod.", e);
             }
         };
         executor.submit(createPod);
 
-        ModelNode serviceConfigurationNode = createModelNode(Configurations.V1_PNC_BUILDER_SERVICE.getContentAsString(), runtimeProperties);
+        ModelNode serviceConfigurationNode = createModelNode(prototypes.get(Configurations.V1_PNC_BUILDER_SERVICE), runtimeProperties);
         service = new Service(serviceConfigurationNode, client, ResourcePropertiesRegistry.getInstance().get(OSE_API_VERSION, ResourceKind.SERVICE));
         service.setNamespace(environmentConfiguration.getPncNamespace());
         Runnable createService = () -> {
             try {
                 client.create(service, service.getNamespace());
-                serviceCreated = true;
             } catch (Throwable e) {
                 logger.error("Cannot create service.", e);
             }
@@ -135,7 +129,7 @@ public class OpenshiftStartedEnvironment implements StartedEnvironment {
         executor.submit(createService);
 
         if (createRoute) {
-            ModelNode routeConfigurationNode = createModelNode(Configurations.V1_PNC_BUILDER_ROUTE.getContentAsString(), runtimeProperties);
+            ModelNode routeConfigurationNode = createModelNode(prototypes.get(Configurations.V1_PNC_BUILDER_ROUTE), runtimeProperties);
             route = new Route(routeConfigurationNode, client, ResourcePropertiesRegistry.getInstance().get(OSE_API_VERSION, ResourceKind.ROUTE));
             route.setNamespace(environmentConfiguration.getPncNamespace());
             Runnable createRoute = () -> {
@@ -150,10 +144,12 @@ public class OpenshiftStartedEnvironment implements StartedEnvironment {
         }
     }
 
-    private ModelNode createModelNode(String resourceDefinition, Map<String, String> runtimeProperties) {
-        String definition = replaceConfigurationVariables(resourceDefinition, runtimeProperties);
-        logger.info("Node definition: " + definition);
-        return ModelNode.fromJSONString(definition);
+    private ModelNode createModelNode(ResourcePrototype prototype, Properties runtimeProperties) {
+        ModelNode node = prototype.create(runtimeProperties);
+        if (logger.isDebugEnabled()) {
+            logger.debug("Node definition: " + node.toJSONString(true));
+        }
+        return node;
     }
 
     @Override
@@ -174,8 +170,18 @@ public class OpenshiftStartedEnvironment implements StartedEnvironment {
             }
         };
 
-        pullingMonitor.monitor(onEnvironmentInitComplete(onCompleteInternal, Selector.POD), onError, () -> isPodRunning());
-        pullingMonitor.monitor(onEnvironmentInitComplete(onCompleteInternal, Selector.SERVICE), onError, () -> isServiceRunning());
+        readinessTracker.onPodRunning(
+                pod.getName(),
+                onEnvironmentInitComplete(onCompleteInternal, Selector.POD),
+                onError,
+                READINESS_TIMEOUT,
+                TimeUnit.SECONDS);
+        readinessTracker.onServiceReady(
+                service.getName(),
+                onServiceReady(onEnvironmentInitComplete(onCompleteInternal, Selector.SERVICE), onError),
+                onError,
+                READINESS_TIMEOUT,
+                TimeUnit.SECONDS);
 
         logger.info("Waiting to initialize environment. Pod [{}]; Service [{}].", pod.getName(), service.getName());
 
@@ -241,30 +247,20 @@ public class OpenshiftStartedEnvironment implements StartedEnvironment {
         return "http://" + service.getPortalIP() + "/" + buildAgentContextPath + "/" + environmentConfiguration.getBuildAgentBindPath();
     }
 
-    private boolean isPodRunning() {
-        if (!podCreated) { //avoid Caused by: java.io.FileNotFoundException: https://<host>:8443/api/v1/namespaces/project-ncl/services/pnc-ba-pod-552c
-            return false;
-        }
-        pod = client.get(pod.getKind(), pod.getName(), environmentConfiguration.getPncNamespace());
-        boolean isRunning = "Running".equals(pod.getStatus());
-        if (isRunning) {
-            logger.debug("Pod {} running.", pod.getName());
-            return true;
-        }
-        return false;
-    }
-
-    private boolean isServiceRunning() {
-        if (!serviceCreated) { //avoid Caused by: java.io.FileNotFoundException: https://<host>:8443/api/v1/namespaces/project-ncl/services/pnc-ba-service-552c
-            return false;
-        }
-        service = client.get(service.getKind(), service.getName(), environmentConfiguration.getPncNamespace());
-        boolean isRunning = service.getPods().size() > 0;
-        if (isRunning) {
+    /**
+     * Loads the created service once it is ready, the internal endpoint url needs its assigned portal IP.
+     */
+    private Runnable onServiceReady(Runnable onServiceLoaded, Consumer<Exception> onError) {
+        return () -> {
+            try {
+                service = client.get(service.getKind(), service.getName(), environmentConfiguration.getPncNamespace());
+            } catch (Exception e) {
+                onError.accept(e);
+                return;
+            }
             logger.debug("Service {} running.", service.getName());
-            return true;
-        }
-        return false;
+            onServiceLoaded.run();
+        };
     }
 
     private boolean isRouteRunning() {
@@ -301,28 +297,6 @@ public class OpenshiftStartedEnvironment implements StartedEnvironment {
         }
     }
 
-    private String replaceConfigurationVariables(String podConfiguration, Map runtimeProperties) {
-        Boolean proxyActive = !StringUtils.isEmpty(environmentConfiguration.getProxyServer())
-                && !StringUtils.isEmpty(environmentConfiguration.getProxyPort());
-
-        Properties properties = new Properties();
-        properties.put("image", environmentConfiguration.getImageId());
-        properties.put("containerPort", environmentConfiguration.getContainerPort());
-        properties.put("firewallAllowedDestinations", environmentConfiguration.getFirewallAllowedDestinations());
-        properties.put("isHttpActive", proxyActive.toString().toLowerCase());
-        properties.put("proxyServer", environmentConfiguration.getProxyServer());
-        properties.put("proxyPort", environmentConfiguration.getProxyPort());
-        properties.put("proxyUsername", repositorySession.getBuildRepositoryId());
-        properties.put("nonProxyHosts", environmentConfiguration.getNonProxyHosts());
-
-        properties.put("AProxDependencyUrl", repositorySession.getConnectionInfo().getDependencyUrl());
-        properties.put("AProxDeployUrl", repositorySession.getConnectionInfo().getDeployUrl());
-
-        properties.putAll(runtimeProperties);
-
-        return StringPropertyReplacer.replaceProperties(podConfiguration, properties);
-    }
-
     private enum Selector {
         POD,
         SERVICE,
@@ -0,0 +1,406 @@
+/**
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.pnc.environment.openshift;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.jboss.pnc.common.monitor.MonitorException;
+import org.jboss.pnc.common.monitor.TimerWheel;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.net.ssl.HostnameVerifier;
+import javax.net.ssl.HttpsURLConnection;
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.SSLSocketFactory;
+import javax.net.ssl.TrustManager;
+import javax.net.ssl.X509TrustManager;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.net.URLEncoder;
+import java.security.GeneralSecurityException;
+import java.security.cert.X509Certificate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * Tracks readiness of the pods and services of one namespace, so started environments do not have to poll
+ * the OpenShift API each. One list and watch connection per resource kind feeds all the waiting environments.
+ *
+ * When a watch connection fails or is closed by the server, the resources are listed again before watching
+ * from the listed version. The reconnection attempts back off exponentially until a watch delivers an event.
+ * Readiness and timeout callbacks are handed to the callback executor, so they can block without stalling
+ * the watches or the timer.
+ */
+public class ReadinessTracker {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReadinessTracker.class);
+
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+
+    private static final int CONNECT_TIMEOUT_MILLIS = 5000;
+    private static final int WATCH_TIMEOUT_SECONDS = 300;
+    private static final long INITIAL_BACKOFF_MILLIS = 500;
+    private static final long MAX_BACKOFF_MILLIS = 30_000;
+
+    private final String apiUrl;
+    private final String authToken;
+    private final String namespace;
+    private final TimerWheel timerWheel;
+    private final Executor callbackExecutor;
+
+    private final ResourceWatch pods = new ResourceWatch("pods", ReadinessTracker::isPodRunning);
+    private final ResourceWatch endpoints = new ResourceWatch("endpoints", ReadinessTracker::hasReadyAddress);
+
+    private volatile boolean running;
+
+    /**
+     * @param apiUrl OpenShift master url
+     * @param authToken token used as bearer authorization, may be null
+     * @param timerWheel used to time out waiting for readiness
+     * @param callbackExecutor runs the readiness and timeout callbacks
+     */
+    public ReadinessTracker(String apiUrl, String authToken, String namespace, TimerWheel timerWheel, Executor callbackExecutor) {
+        this.apiUrl = apiUrl.endsWith("/") ? apiUrl.substring(0, apiUrl.length() - 1) : apiUrl;
+        this.authToken = authToken;
+        this.namespace = namespace;
+        this.timerWheel = timerWheel;
+        this.callbackExecutor = callbackExecutor;
+    }
+
+    public synchronized void start() {
+        if (running) {
+            return;
+        }
+        running = true;
+        pods.start();
+        endpoints.start();
+    }
+
+    public synchronized void stop() {
+        running = false;
+        pods.stop();
+        endpoints.stop();
+    }
+
+    /**
+     * Calls onReady once the pod is running or onError if it is not running before the timeout.
+     */
+    public void onPodRunning(String podName, Runnable onReady, Consumer<Exception> onError, long timeout, TimeUnit unit) {
+        pods.await(podName, onReady, onError, timeout, unit);
+    }
+
+    /**
+     * Calls onReady once the service has at least one ready pod behind it
+     * or onError if it has none before the timeout.
+     */
+    public void onServiceReady(String serviceName, Runnable onReady, Consumer<Exception> onError, long timeout, TimeUnit unit) {
+        endpoints.await(serviceName, onReady, onError, timeout, unit);
+    }
+
+    private static boolean isPodRunning(JsonNode pod) {
+        return "Running".equals(pod.path("status").path("phase").asText());
+    }
+
+    private static boolean hasReadyAddress(JsonNode endpoints) {
+        for (JsonNode subset : endpoints.path("subsets")) {
+            if (subset.path("addresses").size() > 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private class ResourceWatch implements Runnable {
+
+        private final String resource;
+        private final Predicate<JsonNode> isReady;
+
+        private final Set<String> ready = ConcurrentHashMap.newKeySet();
+        private final ConcurrentMap<String, List<Waiter>> waiters = new ConcurrentHashMap<>();
+
+        private Thread thread;
+        private volatile HttpURLConnection connection;
+
+        private ResourceWatch(String resource, Predicate<JsonNode> isReady) {
+            this.resource = resource;
+            this.isReady = isReady;
+        }
+
+        private void start() {
+            thread = new Thread(this, "openshift-watch-" + namespace + "-" + resource);
+            thread.setDaemon(true);
+            thread.start();
+        }
+
+        private void stop() {
+            if (thread != null) {
+                thread.interrupt();
+            }
+            HttpURLConnection current = connection;
+            if (current != null) {
+                current.disconnect();
+            }
+        }
+
+        private void await(String name, Runnable onReady, Consumer<Exception> onError, long timeout, TimeUnit unit) {
+            Waiter waiter = new Waiter(onReady);
+            waiters.compute(name, (n, list) -> {
+                List<Waiter> updated = list == null ? new ArrayList<>() : new ArrayList<>(list);
+                updated.add(waiter);
+                return updated;
+            });
+            waiter.timeout = timerWheel.newTimeout(() -> {
+                if (waiter.complete()) {
+                    removeWaiter(name, waiter);
+                    MonitorException exception = new MonitorException(resource + " " + name + " was not ready in: " + timeout + " " + unit);
+                    runCallback(resource + " " + name + " timeout", () -> onError.accept(exception));
+                }
+            }, timeout, unit);
+            if (waiter.completed.get()) { //got ready while the timeout was being scheduled
+                waiter.cancelTimeout();
+            }
+            if (ready.contains(name)) { //it got ready before the waiter was registered
+                notifyReady(name);
+            }
+        }
+
+        private void removeWaiter(String name, Waiter waiter) {
+            waiters.computeIfPresent(name, (n, list) -> {
+                List<Waiter> updated = new ArrayList<>(list);
+                updated.remove(waiter);
+                return updated.isEmpty() ? null : updated;
+            });
+        }
+
+        private void notifyReady(String name) {
+            List<Waiter> notified = waiters.remove(name);
+            if (notified == null) {
+                return;
+            }
+            for (Waiter waiter : notified) {
+                if (waiter.complete()) {
+                    waiter.cancelTimeout();
+                    runCallback("readiness of " + resource + " " + name, waiter.onReady);
+                }
+            }
+        }
+
+        private void runCallback(String description, Runnable callback) {
+            try {
+                callbackExecutor.execute(() -> {
+                    try {
+                        callback.run();
+                    } catch (RuntimeException e) {
+                        logger.error("Error notifying " + description + ".", e);
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                logger.warn("Cannot notify {}, the callback executor is shut down.", description);
+            }
+        }
+
+        @Override
+        public void run() {
+            long backoff = INITIAL_BACKOFF_MILLIS;
+            while (running) {
+                try {
+                    String resourceVersion = list();
+                    long watchStarted = System.currentTimeMillis();
+                    if (watch(resourceVersion)) {
+                        backoff = INITIAL_BACKOFF_MILLIS;
+                        continue;
+                    }
+                    if (System.currentTimeMillis() - watchStarted >= TimeUnit.SECONDS.toMillis(WATCH_TIMEOUT_SECONDS)) {
+                        continue; //nothing changed until the server closed the watch on timeout
+                    }
+                    logger.debug("Watch of {} in namespace {} ended without events, listing again in {} ms.", resource, namespace, backoff);
+                } catch (IOException | RuntimeException e) {
+                    if (!running) {
+                        break;
+                    }
+                    logger.warn("Watching {} in namespace {} failed, reconnecting in {} ms. {}", resource, namespace, backoff, e.toString());
+                }
+                try {
+                    Thread.sleep(backoff);
+                } catch (InterruptedException ie) {
+                    break;
+                }
+                backoff = Math.min(backoff * 2, MAX_BACKOFF_MILLIS);
+            }
+            logger.debug("Stopped watching {} in namespace {}.", resource, namespace);
+        }
+
+        /**
+         * Replaces the known state with the listed resources.
+         *
+         * @return resource version to start watching from
+         */
+        private String list() throws IOException {
+            HttpURLConnection listConnection = open("");
+            try (InputStream stream = getInputStream(listConnection)) {
+                JsonNode list = objectMapper.readTree(stream);
+                Set<String> listedReady = new HashSet<>();
+                for (JsonNode item : list.path("items")) {
+                    if (isReady.test(item)) {
+                        listedReady.add(item.path("metadata").path("name").asText());
+                    }
+                }
+                ready.retainAll(listedReady);
+                ready.addAll(listedReady);
+                listedReady.forEach(this::notifyReady);
+                return list.path("metadata").path("resourceVersion").asText();
+            } finally {
+                listConnection.disconnect();
+            }
+        }
+
+        /**
+         * @return true if the watch delivered at least one event
+         */
+        private boolean watch(String resourceVersion) throws IOException {
+            HttpURLConnection watchConnection = open("?watch=true&timeoutSeconds=" + WATCH_TIMEOUT_SECONDS
+                    + "&resourceVersion=" + URLEncoder.encode(resourceVersion, "UTF-8"));
+            connection = watchConnection;
+            try (InputStream stream = getInputStream(watchConnection)) {
+                JsonParser parser = objectMapper.getFactory().createParser(stream);
+                MappingIterator<JsonNode> events = objectMapper.readValues(parser, JsonNode.class);
+                boolean delivered = false;
+                while (running && events.hasNextValue()) {
+                    JsonNode event = events.nextValue();
+                    String type = event.path("type").asText();
+                    if ("ERROR".equals(type)) { //usually the resource version is too old, list again
+                        logger.debug("Watch of {} returned an error: {}.", resource, event);
+                        return delivered;
+                    }
+                    onEvent(type, event.path("object"));
+                    delivered = true;
+                }
+                return delivered;
+            } finally {
+                connection = null;
+                watchConnection.disconnect();
+            }
+        }
+
+        private void onEvent(String type, JsonNode object) {
+            String name = object.path("metadata").path("name").asText();
+            if (!"DELETED".equals(type) && isReady.test(object)) {
+                if (ready.add(name)) {
+                    logger.debug("{} {} is ready.", resource, name);
+                }
+                notifyReady(name);
+            } else {
+                ready.remove(name);
+            }
+        }
+
+        private HttpURLConnection open(String query) throws IOException {
+            URL url = new URL(apiUrl + "/api/v1/namespaces/" + namespace + "/" + resource + query);
+            HttpURLConnection urlConnection = (HttpURLConnection) url.openConnection();
+            if (urlConnection instanceof HttpsURLConnection) {
+                HttpsURLConnection httpsConnection = (HttpsURLConnection) urlConnection;
+                httpsConnection.setSSLSocketFactory(TrustAll.SOCKET_FACTORY);
+                httpsConnection.setHostnameVerifier(TrustAll.HOSTNAME_VERIFIER);
+            }
+            if (authToken != null) {
+                urlConnection.setRequestProperty("Authorization", "Bearer " + authToken);
+            }
+            urlConnection.setRequestProperty("Accept", "application/json");
+            urlConnection.setConnectTimeout(CONNECT_TIMEOUT_MILLIS);
+            urlConnection.setReadTimeout((int) TimeUnit.SECONDS.toMillis(WATCH_TIMEOUT_SECONDS + 30));
+            return urlConnection;
+        }
+
+        private InputStream getInputStream(HttpURLConnection urlConnection) throws IOException {
+            int responseCode = urlConnection.getResponseCode();
+            if (responseCode != 200) {
+                urlConnection.disconnect();
+                throw new IOException("Unexpected response " + responseCode + " from " + urlConnection.getURL());
+            }
+            return urlConnection.getInputStream();
+        }
+    }
+
+    private static class Waiter {
+        private final Runnable onReady;
+        private final AtomicBoolean completed = new AtomicBoolean();
+        private volatile TimerWheel.Timeout timeout;
+
+        private Waiter(Runnable onReady) {
+            this.onReady = onReady;
+        }
+
+        private boolean complete() {
+            return completed.compareAndSet(false, true);
+        }
+
+        private void cancelTimeout() {
+            TimerWheel.Timeout scheduled = timeout;
+            if (scheduled != null) {
+                scheduled.cancel();
+            }
+        }
+    }
+
+    /**
+     * Certificates are not verified, same as by the rest client of the environment (NoopSSLCertificateCallback).
+     */
+    private static class TrustAll {
+        private static final HostnameVerifier HOSTNAME_VERIFIER = (hostname, session) -> true;
+        private static final SSLSocketFactory SOCKET_FACTORY = createSocketFactory();
+
+        private static SSLSocketFactory createSocketFactory() {
+            TrustManager trustAll = new X509TrustManager() {
+                @Override
+                public void checkClientTrusted(X509Certificate[] chain, String authType) {
+                }
+
+                @Override
+                public void checkServerTrusted(X509Certificate[] chain, String authType) {
+                }
+
+                @Override
+                public X509Certificate[] getAcceptedIssuers() {
+                    return new X509Certificate[0];
+                }
+            };
+            try {
+                SSLContext sslContext = SSLContext.getInstance("TLS");
+                sslContext.init(null, new TrustManager[] {trustAll}, null);
+                return sslContext.getSocketFactory();
+            } catch (GeneralSecurityException e) {
+                throw new IllegalStateException("Cannot create SSL context.", e);
+            }
+        }
+    }
+}
@@ -0,0 +1,134 @@
+/**
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.pnc.environment.openshift;
+
+import org.jboss.dmr.ModelNode;
+import org.jboss.dmr.ModelType;
+import org.jboss.util.StringPropertyReplacer;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Properties;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Resource definition with the driver wide variables replaced and parsed once.
+ * New resources are cloned from the prototype, only the string values referencing per build variables
+ * are replaced in the clone.
+ * <p>
+ * Only the ${name} and ${name:default} placeholders of variables set in the driver properties are replaced in the
+ * prototype. All the other placeholders, including defaults of per build variables, are resolved when a resource is
+ * created, with the build properties taking precedence over the driver properties.
+ */
+class ResourcePrototype {
+
+    private static final Pattern PLACEHOLDER = Pattern.compile("\\$\\{([^}]+)\\}");
+
+    private final ModelNode prototype;
+    private final List<Placeholder> placeholders;
+    private final Properties driverProperties;
+
+    /**
+     * @param definition JSON resource definition with ${variable} placeholders
+     * @param driverProperties variables which are the same for all the environments
+     */
+    ResourcePrototype(String definition, Properties driverProperties) {
+        this.driverProperties = new Properties();
+        this.driverProperties.putAll(driverProperties);
+        prototype = ModelNode.fromJSONString(replaceDriverProperties(definition, this.driverProperties));
+        List<Placeholder> found = new ArrayList<>();
+        findPlaceholders(prototype, new ArrayList<>(), found);
+        placeholders = Collections.unmodifiableList(found);
+    }
+
+    /**
+     * @param buildProperties variables specific to the environment
+     * @return new resource node, the prototype is not modified
+     */
+    ModelNode create(Properties buildProperties) {
+        Properties properties = new Properties(driverProperties);
+        properties.putAll(buildProperties);
+        ModelNode node = prototype.clone();
+        for (Placeholder placeholder : placeholders) {
+            placeholder.resolve(node).set(StringPropertyReplacer.replaceProperties(placeholder.value, properties));
+        }
+        return node;
+    }
+
+    /**
+     * Replaces placeholders of the variables set in the properties, other placeholders are kept as they are.
+     * Replacing them by {@link StringPropertyReplacer} would resolve ${name:default} of per build variables to the
+     * default.
+     */
+    private static String replaceDriverProperties(String definition, Properties driverProperties) {
+        Matcher matcher = PLACEHOLDER.matcher(definition);
+        StringBuffer replaced = new StringBuffer();
+        while (matcher.find()) {
+            String variable = matcher.group(1);
+            int defaultSeparator = variable.indexOf(':');
+            String name = defaultSeparator < 0 ? variable : variable.substring(0, defaultSeparator);
+            String value = driverProperties.getProperty(name);
+            matcher.appendReplacement(replaced, Matcher.quoteReplacement(value != null ? value : matcher.group()));
+        }
+        matcher.appendTail(replaced);
+        return replaced.toString();
+    }
+
+    private static void findPlaceholders(ModelNode node, List<Object> path, List<Placeholder> found) {
+        ModelType type = node.getType();
+        if (type == ModelType.OBJECT) {
+            for (String key : node.keys()) {
+                path.add(key);
+                findPlaceholders(node.get(key), path, found);
+                path.remove(path.size() - 1);
+            }
+        } else if (type == ModelType.LIST) {
+            List<ModelNode> items = node.asList();
+            for (int i = 0; i < items.size(); i++) {
+                path.add(i);
+                findPlaceholders(items.get(i), path, found);
+                path.remove(path.size() - 1);
+            }
+        } else if (type == ModelType.STRING && node.asString().contains("${")) {
+            found.add(new Placeholder(path.toArray(), node.asString()));
+        }
+    }
+
+    /**
+     * String value with unresolved variables and the path to it from the resource root.
+     */
+    private static class Placeholder {
+        private final Object[] path;
+        private final String value;
+
+        private Placeholder(Object[] path, String value) {
+            this.path = path;
+            this.value = value;
+        }
+
+        private ModelNode resolve(ModelNode root) {
+            ModelNode node = root;
+            for (Object segment : path) {
+                node = segment instanceof Integer ? node.get((Integer) segment) : node.get((String) segment);
+            }
+            return node;
+        }
+    }
+}
@@ -0,0 +1,247 @@
+/**
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.pnc.environment.openshift;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.jboss.pnc.common.monitor.MonitorException;
+import org.jboss.pnc.common.monitor.TimerWheel;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+public class ReadinessTrackerTest {
+
+    private static final String NAMESPACE = "pnc-test";
+
+    private HttpServer server;
+    private TimerWheel timerWheel;
+    private ExecutorService callbackExecutor;
+    private ReadinessTracker readinessTracker;
+
+    /** Items returned when listing given resource kind */
+    private final Map<String, String> listedItems = new ConcurrentHashMap<>();
+    /** Events streamed to the watch of given resource kind */
+    private final Map<String, BlockingQueue<String>> watchEvents = new ConcurrentHashMap<>();
+    private final AtomicInteger listRequests = new AtomicInteger();
+    /** Error reported to a callback, asserted in the test thread as the callbacks run on the executor */
+    private final AtomicReference<Exception> callbackError = new AtomicReference<>();
+
+    @Before
+    public void init() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/api/v1/namespaces/" + NAMESPACE + "/", this::handle);
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.start();
+
+        timerWheel = new TimerWheel(10, TimeUnit.MILLISECONDS, 64, "readiness-tracker-test");
+        String apiUrl = "http://localhost:" + server.getAddress().getPort();
+        callbackExecutor = Executors.newSingleThreadExecutor(r -> new Thread(r, "readiness-callback"));
+        readinessTracker = new ReadinessTracker(apiUrl, "token", NAMESPACE, timerWheel, callbackExecutor);
+    }
+
+    @After
+    public void destroy() {
+        readinessTracker.stop();
+        timerWheel.stop();
+        callbackExecutor.shutdownNow();
+        server.stop(0);
+    }
+
+    @Test
+    public void shouldNotifyPodListedAsRunning() throws InterruptedException {
+        listedItems.put("pods", pod("pod-1", "Running"));
+        readinessTracker.start();
+
+        CountDownLatch ready = new CountDownLatch(1);
+        readinessTracker.onPodRunning("pod-1", ready::countDown, callbackError::set, 5, TimeUnit.SECONDS);
+
+        Assert.assertTrue("Pod was not reported as running.", ready.await(5, TimeUnit.SECONDS));
+        Assert.assertNull(callbackError.get());
+    }
+
+    @Test
+    public void shouldNotifyPodOnWatchEvent() throws InterruptedException {
+        listedItems.put("pods", pod("pod-1", "Pending"));
+        readinessTracker.start();
+
+        CountDownLatch ready = new CountDownLatch(1);
+        readinessTracker.onPodRunning("pod-1", ready::countDown, callbackError::set, 5, TimeUnit.SECONDS);
+        Assert.assertFalse(ready.await(100, TimeUnit.MILLISECONDS));
+
+        events("pods").add(event("MODIFIED", pod("pod-1", "Running")));
+
+        Assert.assertTrue("Pod was not reported as running.", ready.await(5, TimeUnit.SECONDS));
+        Assert.assertNull(callbackError.get());
+    }
+
+    @Test
+    public void shouldNotifyServiceWithReadyAddress() throws InterruptedException {
+        listedItems.put("endpoints", endpoints("service-1", false));
+        readinessTracker.start();
+
+        CountDownLatch ready = new CountDownLatch(1);
+        readinessTracker.onServiceReady("service-1", ready::countDown, callbackError::set, 5, TimeUnit.SECONDS);
+        Assert.assertFalse(ready.await(100, TimeUnit.MILLISECONDS));
+
+        events("endpoints").add(event("MODIFIED", endpoints("service-1", true)));
+
+        Assert.assertTrue("Service was not reported as ready.", ready.await(5, TimeUnit.SECONDS));
+        Assert.assertNull(callbackError.get());
+    }
+
+    @Test
+    public void shouldTimeOutWhenPodIsNotRunning() throws InterruptedException {
+        listedItems.put("pods", pod("pod-1", "Pending"));
+        readinessTracker.start();
+
+        CountDownLatch done = new CountDownLatch(1);
+        AtomicReference<Exception> error = new AtomicReference<>();
+        AtomicInteger readyCalls = new AtomicInteger();
+        readinessTracker.onPodRunning("pod-1", readyCalls::incrementAndGet, e -> {
+            error.set(e);
+            done.countDown();
+        }, 200, TimeUnit.MILLISECONDS);
+
+        Assert.assertTrue("Waiting was not timed out.", done.await(5, TimeUnit.SECONDS));
+        Assert.assertTrue(error.get() instanceof MonitorException);
+
+        //late readiness must not notify the timed out waiter
+        events("pods").add(event("MODIFIED", pod("pod-1", "Running")));
+        Thread.sleep(300);
+        Assert.assertEquals(0, readyCalls.get());
+    }
+
+    @Test
+    public void shouldListAgainWhenWatchFails() throws InterruptedException {
+        listedItems.put("pods", pod("pod-1", "Pending"));
+        readinessTracker.start();
+
+        CountDownLatch ready = new CountDownLatch(1);
+        readinessTracker.onPodRunning("pod-1", ready::countDown, callbackError::set, 5, TimeUnit.SECONDS);
+        Assert.assertFalse(ready.await(100, TimeUnit.MILLISECONDS));
+        int listed = listRequests.get();
+
+        //events missed while disconnected are picked up by listing again
+        listedItems.put("pods", pod("pod-1", "Running"));
+        events("pods").add(event("ERROR", "{\"code\":410,\"message\":\"too old resource version\"}"));
+
+        Assert.assertTrue("Pod was not reported as running.", ready.await(5, TimeUnit.SECONDS));
+        Assert.assertNull(callbackError.get());
+        Assert.assertTrue(listRequests.get() > listed);
+    }
+
+    @Test
+    public void shouldRunCallbacksOnCallbackExecutor() throws InterruptedException {
+        listedItems.put("pods", pod("pod-1", "Running"));
+        readinessTracker.start();
+
+        CountDownLatch done = new CountDownLatch(2);
+        AtomicReference<String> readyThread = new AtomicReference<>();
+        AtomicReference<String> timeoutThread = new AtomicReference<>();
+        readinessTracker.onPodRunning("pod-1", () -> {
+            readyThread.set(Thread.currentThread().getName());
+            done.countDown();
+        }, callbackError::set, 5, TimeUnit.SECONDS);
+        readinessTracker.onPodRunning("pod-2", () -> callbackError.set(new IllegalStateException("pod-2 is not running")), e -> {
+            timeoutThread.set(Thread.currentThread().getName());
+            done.countDown();
+        }, 100, TimeUnit.MILLISECONDS);
+
+        Assert.assertTrue("Callbacks were not called.", done.await(5, TimeUnit.SECONDS));
+        Assert.assertEquals("readiness-callback", readyThread.get());
+        Assert.assertEquals("readiness-callback", timeoutThread.get());
+        Assert.assertNull(callbackError.get());
+    }
+
+    @Test
+    public void shouldBackOffWhenWatchKeepsFailing() throws InterruptedException {
+        for (int i = 0; i < 100; i++) {
+            events("pods").add(event("ERROR", "{\"code\":410,\"message\":\"too old resource version\"}"));
+        }
+        readinessTracker.start();
+
+        //pods and endpoints are listed twice each in this time with the backoff,
+        //without it each of the errors would be followed by a list
+        Thread.sleep(1200);
+        Assert.assertTrue("Listed " + listRequests.get() + " times.", listRequests.get() <= 6);
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        String path = exchange.getRequestURI().getPath();
+        String resource = path.substring(path.lastIndexOf('/') + 1);
+        String query = exchange.getRequestURI().getQuery();
+        try (OutputStream out = exchange.getResponseBody()) {
+            if (query != null && query.contains("watch=true")) {
+                exchange.sendResponseHeaders(200, 0);
+                //stream the events for a while, then close the watch as the server does on timeout
+                long closeAt = System.currentTimeMillis() + 500;
+                while (System.currentTimeMillis() < closeAt) {
+                    String event = events(resource).poll(50, TimeUnit.MILLISECONDS);
+                    if (event != null) {
+                        out.write((event + "\n").getBytes(StandardCharsets.UTF_8));
+                        out.flush();
+                    }
+                }
+            } else {
+                listRequests.incrementAndGet();
+                String items = listedItems.getOrDefault(resource, "");
+                byte[] body = ("{\"kind\":\"List\",\"metadata\":{\"resourceVersion\":\"" + listRequests.get() + "\"},"
+                        + "\"items\":[" + items + "]}").getBytes(StandardCharsets.UTF_8);
+                exchange.sendResponseHeaders(200, body.length);
+                out.write(body);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private BlockingQueue<String> events(String resource) {
+        return watchEvents.computeIfAbsent(resource, r -> new LinkedBlockingQueue<>());
+    }
+
+    private static String event(String type, String object) {
+        return "{\"type\":\"" + type + "\",\"object\":" + object + "}";
+    }
+
+    private static String pod(String name, String phase) {
+        return "{\"kind\":\"Pod\",\"metadata\":{\"name\":\"" + name + "\"},\"status\":{\"phase\":\"" + phase + "\"}}";
+    }
+
+    private static String endpoints(String name, boolean ready) {
+        String addresses = ready ? "[{\"ip\":\"10.1.0.2\"}]" : "[]";
+        return "{\"kind\":\"Endpoints\",\"metadata\":{\"name\":\"" + name + "\"},"
+                + "\"subsets\":[{\"addresses\":" + addresses + ",\"ports\":[{\"port\":8080}]}]}";
+    }
+}
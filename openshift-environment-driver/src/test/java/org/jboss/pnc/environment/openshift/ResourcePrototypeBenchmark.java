@@ -0,0 +1,100 @@
+/**
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.pnc.environment.openshift;
+
+import org.jboss.dmr.ModelNode;
+import org.jboss.util.StringPropertyReplacer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures time and allocation of creating the resource definitions of one environment, by reading and parsing
+ * the whole definitions (as before) and by cloning the pre-parsed prototypes.
+ *
+ * <p>
+ *     Run with <code>mvn test-compile exec:java -Dexec.classpathScope=test
+ *     -Dexec.mainClass=org.jboss.pnc.environment.openshift.ResourcePrototypeBenchmark</code> from the
+ *     openshift-environment-driver module, allocation is reported by the gc profiler as gc.alloc.rate.norm.
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class ResourcePrototypeBenchmark {
+
+    private Properties driverProperties;
+    private Properties buildProperties;
+    private ResourcePrototype[] prototypes;
+
+    @Setup
+    public void setUp() {
+        driverProperties = ResourcePrototypeTest.driverProperties();
+        buildProperties = ResourcePrototypeTest.buildProperties("abc123");
+        prototypes = new ResourcePrototype[Configurations.values().length];
+        for (Configurations configuration : Configurations.values()) {
+            prototypes[configuration.ordinal()] = new ResourcePrototype(configuration.getContentAsString(), driverProperties);
+        }
+    }
+
+    @Benchmark
+    public ModelNode[] parseDefinitions() {
+        Properties properties = new Properties();
+        properties.putAll(driverProperties);
+        properties.putAll(buildProperties);
+        ModelNode[] nodes = new ModelNode[prototypes.length];
+        for (Configurations configuration : Configurations.values()) {
+            String definition = StringPropertyReplacer.replaceProperties(configuration.getContentAsString(), properties);
+            nodes[configuration.ordinal()] = ModelNode.fromJSONString(definition);
+        }
+        return nodes;
+    }
+
+    @Benchmark
+    public ModelNode[] cloneFromPrototypes() {
+        ModelNode[] nodes = new ModelNode[prototypes.length];
+        for (int i = 0; i < prototypes.length; i++) {
+            nodes[i] = prototypes[i].create(buildProperties);
+        }
+        return nodes;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(ResourcePrototypeBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+    }
+}
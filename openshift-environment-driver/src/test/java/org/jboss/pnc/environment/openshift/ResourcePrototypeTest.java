@@ -0,0 +1,98 @@
+/**
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.pnc.environment.openshift;
+
+import org.jboss.dmr.ModelNode;
+import org.jboss.util.StringPropertyReplacer;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Properties;
+
+public class ResourcePrototypeTest {
+
+    @Test
+    public void shouldCreateSameResourcesAsParsingTheWholeDefinition() {
+        Properties driverProperties = driverProperties();
+        Properties buildProperties = buildProperties("abc123");
+
+        for (Configurations configuration : Configurations.values()) {
+            String definition = configuration.getContentAsString();
+            ResourcePrototype prototype = new ResourcePrototype(definition, driverProperties);
+
+            Properties allProperties = new Properties();
+            allProperties.putAll(driverProperties);
+            allProperties.putAll(buildProperties);
+            ModelNode expected = ModelNode.fromJSONString(StringPropertyReplacer.replaceProperties(definition, allProperties));
+
+            Assert.assertEquals(configuration.name(), expected, prototype.create(buildProperties));
+        }
+    }
+
+    @Test
+    public void shouldNotShareStateBetweenCreatedResources() {
+        ResourcePrototype prototype = new ResourcePrototype(Configurations.V1_PNC_BUILDER_POD.getContentAsString(), driverProperties());
+
+        ModelNode first = prototype.create(buildProperties("first"));
+        ModelNode second = prototype.create(buildProperties("second"));
+
+        Assert.assertEquals("pnc-ba-pod-first", first.get("metadata", "name").asString());
+        Assert.assertEquals("pnc-ba-pod-second", second.get("metadata", "name").asString());
+        Assert.assertEquals("docker-registry/pnc-builder:latest", first.get("spec", "containers").get(0).get("image").asString());
+        Assert.assertEquals(8080, second.get("spec", "containers").get(0).get("ports").get(0).get("containerPort").asInt());
+    }
+
+    @Test
+    public void shouldResolveDefaultsOfBuildVariablesForEachResource() {
+        String definition = "{\"name\" : \"${pod-name:default-pod}\", \"image\" : \"${image:default-image}\", "
+                + "\"path\" : \"${route-path}${missing:/default}\"}";
+        ResourcePrototype prototype = new ResourcePrototype(definition, driverProperties());
+
+        ModelNode node = prototype.create(buildProperties("abc123"));
+
+        Assert.assertEquals("pnc-ba-pod-abc123", node.get("name").asString());
+        Assert.assertEquals("docker-registry/pnc-builder:latest", node.get("image").asString());
+        Assert.assertEquals("/pnc-ba-abc123/default", node.get("path").asString());
+    }
+
+    static Properties driverProperties() {
+        Properties properties = new Properties();
+        properties.put("image", "docker-registry/pnc-builder:latest");
+        properties.put("containerPort", "8080");
+        properties.put("firewallAllowedDestinations", "10.0.0.1:443");
+        properties.put("isHttpActive", "true");
+        properties.put("proxyServer", "proxy.example.com");
+        properties.put("proxyPort", "3128");
+        properties.put("nonProxyHosts", "localhost");
+        properties.put("build-agent-host", "build-agent.example.com");
+        return properties;
+    }
+
+    static Properties buildProperties(String id) {
+        Properties properties = new Properties();
+        properties.put("pod-name", "pnc-ba-pod-" + id);
+        properties.put("service-name", "pnc-ba-service-" + id);
+        properties.put("route-name", "pnc-ba-route-" + id);
+        properties.put("route-path", "/pnc-ba-" + id);
+        properties.put("buildAgentContextPath", "/pnc-ba-" + id);
+        properties.put("proxyUsername", "build-" + id);
+        properties.put("AProxDependencyUrl", "http://aprox.example.com/api/group/build-" + id);
+        properties.put("AProxDeployUrl", "http://aprox.example.com/api/hosted/build-" + id);
+        return properties;
+    }
+}
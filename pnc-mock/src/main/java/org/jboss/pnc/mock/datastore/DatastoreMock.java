@@ -122,6 +122,23 @@ public class DatastoreMock implements Datastore {
         return buildConfigAudited;
     }
 
+    /**
+     * Each call of {@link #getLatestBuildConfigurationAudited(Integer)} creates a new revision, so the next one is
+     * always the latest.
+     */
+    @Override
+    public Integer getLatestBuildConfigurationAuditedRevision(Integer buildConfigId) {
+        return buildConfigAuditedRevSequence.get() + 1;
+    }
+
+    /**
+     * Entities of the mock aren't versioned.
+     */
+    @Override
+    public String getBuildConfigurationAuditedAssociationsVersion() {
+        return null;
+    }
+
     @Override
     public BuildConfigSetRecord getBuildConfigSetRecordById(Integer buildConfigSetRecordId) {
         return buildConfigSetRecords.stream().filter(bcsr -> bcsr.getId().equals(buildConfigSetRecordId)).findFirst().orElse(null);
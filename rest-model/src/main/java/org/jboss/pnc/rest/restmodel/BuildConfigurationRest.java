@@ -84,6 +84,14 @@ public class BuildConfigurationRest implements GenericRestEntity<Integer> {
     }
 
     public BuildConfigurationRest(BuildConfiguration buildConfiguration) {
+        this(buildConfiguration, nullableStreamOf(buildConfiguration.getDependencies())
+                .map(dependencyConfig -> dependencyConfig.getId()).collect(Collectors.toSet()));
+    }
+
+    /**
+     * Creates the configuration without touching its dependencies, whose ids are loaded separately.
+     */
+    public BuildConfigurationRest(BuildConfiguration buildConfiguration, Set<Integer> dependencyIds) {
         this.id = buildConfiguration.getId();
         this.name = buildConfiguration.getName();
         this.description = buildConfiguration.getDescription();
@@ -100,8 +108,7 @@ public class BuildConfigurationRest implements GenericRestEntity<Integer> {
                 () -> this.project = new ProjectRest(buildConfiguration.getProject()));
         performIfNotNull(buildConfiguration.getBuildEnvironment(),
                 () -> this.environment = new BuildEnvironmentRest(buildConfiguration.getBuildEnvironment()));
-        this.dependencyIds = nullableStreamOf(buildConfiguration.getDependencies())
-                .map(dependencyConfig -> dependencyConfig.getId()).collect(Collectors.toSet());
+        this.dependencyIds = dependencyIds;
         performIfNotNull(buildConfiguration.getProductVersion(),
                 () -> this.productVersionId = buildConfiguration.getProductVersion().getId());
     }
@@ -0,0 +1,151 @@
+/**
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.pnc.rest.restmodel;
+
+import org.jboss.pnc.spi.BuildTriggerStatus;
+
+import javax.xml.bind.annotation.XmlRootElement;
+import java.util.Date;
+
+/**
+ * State of an asynchronously triggered build. Exactly one of buildConfigurationId and buildConfigurationSetId is set,
+ * buildId holds the id of the triggered build task (or build set task) once the trigger status is TRIGGERED.
+ * The id is a UUID, it is not an entity id.
+ */
+@XmlRootElement(name = "BuildTrigger")
+public class BuildTriggerRest {
+
+    private String id;
+
+    private BuildTriggerStatus status;
+
+    private Integer buildConfigurationId;
+
+    private Integer buildConfigurationSetId;
+
+    private Integer buildId;
+
+    private Integer userId;
+
+    private Date submitTime;
+
+    private Date completionTime;
+
+    private String errorMessage;
+
+    public BuildTriggerRest() {
+    }
+
+    public BuildTriggerRest(BuildTriggerRest other) {
+        this.id = other.id;
+        this.status = other.status;
+        this.buildConfigurationId = other.buildConfigurationId;
+        this.buildConfigurationSetId = other.buildConfigurationSetId;
+        this.buildId = other.buildId;
+        this.userId = other.userId;
+        this.submitTime = other.submitTime;
+        this.completionTime = other.completionTime;
+        this.errorMessage = other.errorMessage;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public BuildTriggerStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(BuildTriggerStatus status) {
+        this.status = status;
+    }
+
+    public Integer getBuildConfigurationId() {
+        return buildConfigurationId;
+    }
+
+    public void setBuildConfigurationId(Integer buildConfigurationId) {
+        this.buildConfigurationId = buildConfigurationId;
+    }
+
+    public Integer getBuildConfigurationSetId() {
+        return buildConfigurationSetId;
+    }
+
+    public void setBuildConfigurationSetId(Integer buildConfigurationSetId) {
+        this.buildConfigurationSetId = buildConfigurationSetId;
+    }
+
+    public Integer getBuildId() {
+        return buildId;
+    }
+
+    public void setBuildId(Integer buildId) {
+        this.buildId = buildId;
+    }
+
+    public Integer getUserId() {
+        return userId;
+    }
+
+    public void setUserId(Integer userId) {
+        this.userId = userId;
+    }
+
+    public Date getSubmitTime() {
+        return submitTime;
+    }
+
+    public void setSubmitTime(Date submitTime) {
+        this.submitTime = submitTime;
+    }
+
+    /**
+     * @return Time the trigger got TRIGGERED or FAILED, null while it is not completed
+     */
+    public Date getCompletionTime() {
+        return completionTime;
+    }
+
+    public void setCompletionTime(Date completionTime) {
+        this.completionTime = completionTime;
+    }
+
+    public String getErrorMessage() {
+        return errorMessage;
+    }
+
+    public void setErrorMessage(String errorMessage) {
+        this.errorMessage = errorMessage;
+    }
+
+    @Override
+    public String toString() {
+        return "BuildTriggerRest{" +
+                "id=" + id +
+                ", status=" + status +
+                ", buildConfigurationId=" + buildConfigurationId +
+                ", buildConfigurationSetId=" + buildConfigurationSetId +
+                ", buildId=" + buildId +
+                '}';
+    }
+}
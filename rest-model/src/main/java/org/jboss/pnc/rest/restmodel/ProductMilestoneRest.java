@@ -71,6 +71,19 @@ public class ProductMilestoneRest implements GenericRestEntity<Integer> {
     }
 
     public ProductMilestoneRest(ProductMilestone productMilestone) {
+        this(productMilestone,
+                nullableStreamOf(productMilestone.getPerformedBuilds())
+                        .map(buildRecord -> buildRecord.getId()).collect(Collectors.toSet()),
+                nullableStreamOf(productMilestone.getDistributedArtifacts())
+                        .map(artifact -> artifact.getId()).collect(Collectors.toSet()));
+    }
+
+    /**
+     * Creates the milestone without touching its performed builds and distributed artifacts, whose ids are loaded
+     * separately.
+     */
+    public ProductMilestoneRest(ProductMilestone productMilestone, Set<Integer> performedBuildIds,
+            Set<Integer> distributedArtifactIds) {
         this.id = productMilestone.getId();
         this.version = productMilestone.getVersion();
         this.endDate = productMilestone.getEndDate();
@@ -79,10 +92,8 @@ public class ProductMilestoneRest implements GenericRestEntity<Integer> {
         this.downloadUrl = productMilestone.getDownloadUrl();
         this.issueTrackerUrl = productMilestone.getIssueTrackerUrl();
         this.productVersionId = productMilestone.getProductVersion().getId();
-        this.performedBuilds = nullableStreamOf(productMilestone.getPerformedBuilds())
-                .map(buildRecord -> buildRecord.getId()).collect(Collectors.toSet());
-        this.distributedArtifactIds = nullableStreamOf(productMilestone.getDistributedArtifacts())
-                .map(artifact -> artifact.getId()).collect(Collectors.toSet());
+        this.performedBuilds = performedBuildIds;
+        this.distributedArtifactIds = distributedArtifactIds;
         if (productMilestone.getProductRelease() != null) {
             this.productReleaseId = productMilestone.getProductRelease().getId();
         }
@@ -22,6 +22,8 @@ import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
 import com.fasterxml.jackson.datatype.jdk7.Jdk7Module;
 import org.jboss.logging.Logger;
 import org.jboss.pnc.model.Artifact;
@@ -56,6 +58,13 @@ public class JsonOutputConverterMapper {
         return "{}";
     }
 
+    /**
+     * @return Writer configured as the converter, which does not flush after each written value
+     */
+    public static ObjectWriter getStreamingWriter() {
+        return mapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+    }
+
     public static <T> T readValue(String serialized, Class<T> clazz) throws IOException {
         return mapper.readValue(serialized, clazz);
     }
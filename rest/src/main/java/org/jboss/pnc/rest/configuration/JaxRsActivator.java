@@ -26,7 +26,9 @@ import org.jboss.pnc.rest.endpoint.BuildEndpoint;
 import org.jboss.pnc.rest.endpoint.BuildEnvironmentEndpoint;
 import org.jboss.pnc.rest.endpoint.BuildRecordEndpoint;
 import org.jboss.pnc.rest.endpoint.BuildTaskEndpoint;
+import org.jboss.pnc.rest.endpoint.BuildTriggerEndpoint;
 import org.jboss.pnc.rest.endpoint.LicenseEndpoint;
+import org.jboss.pnc.rest.endpoint.MetricsEndpoint;
 import org.jboss.pnc.rest.endpoint.ProductEndpoint;
 import org.jboss.pnc.rest.endpoint.ProductMilestoneEndpoint;
 import org.jboss.pnc.rest.endpoint.ProductReleaseEndpoint;
@@ -90,6 +92,8 @@ public class JaxRsActivator extends Application {
         resources.add(TestEndpoint.class);
         resources.add(BuildTaskEndpoint.class);
         resources.add(BuildEndpoint.class);
+        resources.add(BuildTriggerEndpoint.class);
+        resources.add(MetricsEndpoint.class);
     }
 
     private void addExceptionMappers(Set<Class<?>> resources) {
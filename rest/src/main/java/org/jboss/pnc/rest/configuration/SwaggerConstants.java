@@ -31,6 +31,9 @@ public interface SwaggerConstants {
     public static final String SUCCESS_DESCRIPTION = "Success with results";
     public static final int SUCCESS_CODE = 200;
 
+    public static final String ACCEPTED_DESCRIPTION = "Request accepted, processing continues asynchronously";
+    public static final int ACCEPTED_CODE = 202;
+
     public static final String NO_CONTENT_DESCRIPTION = "Success but no content provided";
     public static final int NO_CONTENT_CODE = 204;
 
@@ -43,6 +46,9 @@ public interface SwaggerConstants {
     public static final String SERVER_ERROR_DESCRIPTION = "Server error";
     public static final int SERVER_ERROR_CODE = 500;
 
+    public static final String SERVICE_UNAVAILABLE_DESCRIPTION = "Server is too busy, retry later";
+    public static final int SERVICE_UNAVAILABLE_CODE = 503;
+
     public static final String FORBIDDEN_DESCRIPTION = "User must be logged in.";
     public static final int FORBIDDEN_CODE = 403;
 
@@ -57,6 +63,17 @@ public interface SwaggerConstants {
     public static final String PAGE_SIZE_QUERY_PARAM = "pageSize";
     public static final String PAGE_SIZE_DEFAULT_VALUE = "50";
 
+    public static final String AFTER_ID_DESCRIPTION = "Id of the last entity of the previous page. " +
+            "When set, keyset pagination is used and page index is ignored";
+    public static final String AFTER_ID_QUERY_PARAM = "afterId";
+
+    public static final String FIELDS_DESCRIPTION = "Comma separated fields to return. When set, only the fields " +
+            "are read from the database and returned";
+    public static final String FIELDS_QUERY_PARAM = "fields";
+
+    public static final String STREAM_NOTES = "All results are streamed as newline delimited JSON (" +
+            "application/x-ndjson) or as a JSON array when application/json is preferred. No count query is executed";
+
     public static final String SORTING_DESCRIPTION = "Sorting RSQL";
     public static final String SORTING_QUERY_PARAM = "sort";
 
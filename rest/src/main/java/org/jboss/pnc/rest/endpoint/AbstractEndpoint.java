@@ -24,11 +24,23 @@ import org.jboss.pnc.rest.provider.collection.CollectionInfo;
 import org.jboss.pnc.rest.restmodel.GenericRestEntity;
 import org.jboss.pnc.rest.restmodel.response.Page;
 import org.jboss.pnc.rest.restmodel.response.Singleton;
+import org.jboss.pnc.rest.restmodel.response.error.ErrorResponseRest;
+import org.jboss.pnc.rest.utils.JsonStreamingOutput;
+import org.jboss.pnc.rest.validation.exceptions.EmptyEntityException;
+import org.jboss.pnc.rest.validation.exceptions.InvalidEntityException;
 import org.jboss.pnc.rest.validation.exceptions.ValidationException;
+import org.jboss.pnc.spi.datastore.repositories.api.Predicate;
 
+import javax.ws.rs.core.EntityTag;
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Request;
 import javax.ws.rs.core.Response;
 import javax.ws.rs.core.UriBuilder;
 import javax.ws.rs.core.UriInfo;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 
 /**
  * Abstract endpoint class providing common functionality
@@ -37,6 +49,11 @@ import javax.ws.rs.core.UriInfo;
  */
 public class AbstractEndpoint<DBEntity extends GenericEntity<Integer>, RESTEntity extends GenericRestEntity<Integer>> {
 
+    /**
+     * Maximal number of ids accepted by {@link #getBatch(List)}.
+     */
+    public static final int MAX_BATCH_SIZE = 1000;
+
     protected AbstractProvider<DBEntity, RESTEntity> basicProvider;
 
     @Deprecated
@@ -51,10 +68,113 @@ public class AbstractEndpoint<DBEntity extends GenericEntity<Integer>, RESTEntit
         return fromCollection(basicProvider.getAll(pageIndex, pageSize, sortingRsql, rsql));
     }
 
+    /**
+     * Gets all entities. When <code>afterId</code> is set, keyset pagination is used and <code>pageIndex</code> is ignored.
+     */
+    public Response getAll(int pageIndex, int pageSize, String sortingRsql, String rsql, Integer afterId) {
+        if (afterId != null) {
+            return fromCollectionAfter(afterId, () -> basicProvider.getAllAfter(afterId, pageSize, sortingRsql, rsql));
+        }
+        return getAll(pageIndex, pageSize, sortingRsql, rsql);
+    }
+
+    /**
+     * Conditional variant of {@link #getAll(int, int, String, String, Integer)}, see
+     * {@link #fromConditional(Request, String, Supplier)}.
+     */
+    public Response getAll(int pageIndex, int pageSize, String sortingRsql, String rsql, Integer afterId, Request request) {
+        return fromConditional(request, basicProvider.getCollectionVersion(),
+                () -> getAll(pageIndex, pageSize, sortingRsql, rsql, afterId));
+    }
+
+    /**
+     * Variant of {@link #getAll(int, int, String, String, Integer, Request)} returning only the selected fields, which
+     * are read from the database by a projection query. All fields are returned when <code>fields</code> is null.
+     *
+     * @param predicates Restrict the listed entities together with the RSQL query
+     */
+    public Response getAll(int pageIndex, int pageSize, String sortingRsql, String rsql, Integer afterId, String fields,
+            Request request, Predicate<DBEntity>... predicates) throws ValidationException {
+        if (fields == null) {
+            return fromConditional(request, basicProvider.getCollectionVersion(), () -> {
+                if (afterId != null) {
+                    return fromCollectionAfter(afterId,
+                            () -> basicProvider.queryForCollectionAfter(afterId, pageSize, sortingRsql, rsql, predicates));
+                }
+                return fromCollection(basicProvider.queryForCollection(pageIndex, pageSize, sortingRsql, rsql, predicates));
+            });
+        }
+        List<String> fieldNames = basicProvider.parseProjectedFields(fields);
+        return fromConditional(request, basicProvider.getCollectionVersion(), () -> {
+            if (afterId != null) {
+                return fromCollectionAfter(afterId, () -> basicProvider.queryForProjectionAfter(afterId, pageSize,
+                        sortingRsql, rsql, fieldNames, predicates));
+            }
+            return fromCollection(basicProvider.queryForProjection(pageIndex, pageSize, sortingRsql, rsql, fieldNames,
+                    predicates));
+        });
+    }
+
+    /**
+     * Streams all entities matching the query, see {@link #fromStream(HttpHeaders, Consumer)}.
+     */
+    public Response export(HttpHeaders headers, String sortingRsql, String rsql) {
+        return fromStream(headers, consumer -> basicProvider.streamForCollection(sortingRsql, rsql, consumer));
+    }
+
     public Response getSpecific(Integer id) {
         return fromSingleton(basicProvider.getSpecific(id));
     }
 
+    /**
+     * Returns the keyset page, or 400 when the entity to page after does not exist, as an empty page would look
+     * like the end of the collection.
+     */
+    protected Response fromCollectionAfter(Integer afterId, Supplier<CollectionInfo<?>> page) {
+        if (!basicProvider.exists(afterId)) {
+            InvalidEntityException exception = new InvalidEntityException("There is no entity with id " + afterId
+                    + " to page after.");
+            return Response.status(Response.Status.BAD_REQUEST).entity(new ErrorResponseRest(exception)).build();
+        }
+        return fromCollection(page.get());
+    }
+
+    /**
+     * Conditional variant of {@link #getSpecific(Integer)}, see {@link #fromConditional(Request, String, Supplier)}.
+     */
+    public Response getSpecific(Integer id, Request request) {
+        return fromConditional(request, basicProvider.getEntityVersion(id), () -> getSpecific(id));
+    }
+
+    /**
+     * Variant of {@link #getSpecific(Integer, Request)} returning only the selected fields, see
+     * {@link #getAll(int, int, String, String, Integer, String, Request)}.
+     */
+    public Response getSpecific(Integer id, String fields, Request request) throws ValidationException {
+        if (fields == null) {
+            return getSpecific(id, request);
+        }
+        List<String> fieldNames = basicProvider.parseProjectedFields(fields);
+        return fromConditional(request, basicProvider.getEntityVersion(id),
+                () -> fromSingleton(basicProvider.getSpecificProjection(id, fieldNames)));
+    }
+
+    /**
+     * Gets entities with the given ids in a single page, in the order of the ids. Missing entities are skipped.
+     *
+     * @throws InvalidEntityException when more than {@link #MAX_BATCH_SIZE} ids are requested
+     */
+    public Response getBatch(List<Integer> ids) throws ValidationException {
+        if (ids == null) {
+            throw new EmptyEntityException("No ids included in the request");
+        }
+        if (ids.size() > MAX_BATCH_SIZE) {
+            throw new InvalidEntityException("At most " + MAX_BATCH_SIZE + " ids can be requested at once, got " + ids.size());
+        }
+        List<RESTEntity> entities = basicProvider.getSpecific(ids);
+        return fromCollection(new CollectionInfo<>(0, entities.size(), 1, entities));
+    }
+
     public Response createNew(RESTEntity restEntity, UriInfo uriInfo) throws ValidationException {
         int id = basicProvider.store(restEntity);
         UriBuilder uriBuilder = UriBuilder.fromUri(uriInfo.getRequestUri()).path("{id}");
@@ -79,6 +199,52 @@ public class AbstractEndpoint<DBEntity extends GenericEntity<Integer>, RESTEntit
         return Response.ok().entity(pageForResponse).build();
     }
 
+    /**
+     * Streams all entities passed by the exporter. Newline delimited JSON is written unless the client prefers
+     * {@link MediaType#APPLICATION_JSON}, which gets a JSON array.
+     */
+    protected <T> Response fromStream(HttpHeaders headers, Consumer<Consumer<? super T>> exporter) {
+        MediaType mediaType = getStreamMediaType(headers);
+        boolean array = MediaType.APPLICATION_JSON_TYPE.equals(mediaType);
+        return Response.ok(new JsonStreamingOutput<>(exporter, array), mediaType).build();
+    }
+
+    private MediaType getStreamMediaType(HttpHeaders headers) {
+        MediaType ndjson = MediaType.valueOf(JsonStreamingOutput.APPLICATION_NDJSON);
+        for (MediaType acceptable : headers.getAcceptableMediaTypes()) {
+            if (acceptable.isCompatible(ndjson)) {
+                return ndjson;
+            }
+            if (acceptable.isCompatible(MediaType.APPLICATION_JSON_TYPE)) {
+                return MediaType.APPLICATION_JSON_TYPE;
+            }
+        }
+        return ndjson;
+    }
+
+    /**
+     * Tags the response with a weak ETag computed from the version. When the client already has the version
+     * (<code>If-None-Match</code>), 304 is returned without creating the response.
+     *
+     * @param version Version of the requested data or null to always create the response
+     */
+    protected Response fromConditional(Request request, String version, Supplier<Response> responseSupplier) {
+        if (version == null) {
+            return responseSupplier.get();
+        }
+        EntityTag entityTag = new EntityTag(version, true);
+        Response.ResponseBuilder notModified = request.evaluatePreconditions(entityTag);
+        if (notModified != null) {
+            return notModified.build();
+        }
+        Response response = responseSupplier.get();
+        if (response.getStatus() != Response.Status.OK.getStatusCode()
+                && response.getStatus() != Response.Status.NO_CONTENT.getStatusCode()) {
+            return response;
+        }
+        return Response.fromResponse(response).tag(entityTag).build();
+    }
+
     protected <T> Response fromSingleton(T singleton) {
         if(singleton == null) {
             return Response.status(Response.Status.NOT_FOUND).entity(new Singleton(null)).build();
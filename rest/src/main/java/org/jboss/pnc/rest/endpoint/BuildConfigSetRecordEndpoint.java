@@ -42,6 +42,8 @@ import javax.ws.rs.QueryParam;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
 
+import static org.jboss.pnc.rest.configuration.SwaggerConstants.AFTER_ID_DESCRIPTION;
+import static org.jboss.pnc.rest.configuration.SwaggerConstants.AFTER_ID_QUERY_PARAM;
 import static org.jboss.pnc.rest.configuration.SwaggerConstants.INVALID_DESCRIPTION;
 import static org.jboss.pnc.rest.configuration.SwaggerConstants.INVALID_CODE;
 import static org.jboss.pnc.rest.configuration.SwaggerConstants.NOT_FOUND_CODE;
@@ -93,8 +95,9 @@ public class BuildConfigSetRecordEndpoint extends AbstractEndpoint<BuildConfigSe
             @ApiParam(value = PAGE_INDEX_DESCRIPTION) @QueryParam(PAGE_INDEX_QUERY_PARAM) @DefaultValue(PAGE_INDEX_DEFAULT_VALUE) int pageIndex,
             @ApiParam(value = PAGE_SIZE_DESCRIPTION) @QueryParam(PAGE_SIZE_QUERY_PARAM) @DefaultValue(PAGE_SIZE_DEFAULT_VALUE) int pageSize,
             @ApiParam(value = SORTING_DESCRIPTION) @QueryParam(SORTING_QUERY_PARAM) String sort,
-            @ApiParam(value = QUERY_DESCRIPTION, required = false) @QueryParam(QUERY_QUERY_PARAM) String q) {
-        return super.getAll(pageIndex, pageSize, sort, q);
+            @ApiParam(value = QUERY_DESCRIPTION, required = false) @QueryParam(QUERY_QUERY_PARAM) String q,
+            @ApiParam(value = AFTER_ID_DESCRIPTION) @QueryParam(AFTER_ID_QUERY_PARAM) Integer afterId) {
+        return super.getAll(pageIndex, pageSize, sort, q, afterId);
     }
 
     @ApiOperation(value = "Gets specific build config set execution record")
@@ -22,7 +22,6 @@ import io.swagger.annotations.ApiOperation;
 import io.swagger.annotations.ApiParam;
 import io.swagger.annotations.ApiResponse;
 import io.swagger.annotations.ApiResponses;
-import org.apache.commons.lang3.StringUtils;
 import org.jboss.pnc.auth.AuthenticationProvider;
 import org.jboss.pnc.model.BuildConfiguration;
 import org.jboss.pnc.model.User;
@@ -31,6 +30,7 @@ import org.jboss.pnc.rest.provider.BuildConfigurationSetProvider;
 import org.jboss.pnc.rest.provider.BuildRecordProvider;
 import org.jboss.pnc.rest.provider.ProductVersionProvider;
 import org.jboss.pnc.rest.restmodel.BuildConfigurationRest;
+import org.jboss.pnc.rest.restmodel.BuildTriggerRest;
 import org.jboss.pnc.rest.restmodel.ProductVersionRest;
 import org.jboss.pnc.rest.restmodel.response.Singleton;
 import org.jboss.pnc.rest.restmodel.response.error.ErrorResponseRest;
@@ -41,11 +41,13 @@ import org.jboss.pnc.rest.swagger.response.BuildConfigurationSetPage;
 import org.jboss.pnc.rest.swagger.response.BuildConfigurationSingleton;
 import org.jboss.pnc.rest.swagger.response.BuildRecordPage;
 import org.jboss.pnc.rest.swagger.response.BuildRecordSingleton;
+import org.jboss.pnc.rest.swagger.response.BuildTriggerSingleton;
 import org.jboss.pnc.rest.swagger.response.ProductVersionPage;
+import org.jboss.pnc.rest.trigger.AsyncBuildTriggerer;
 import org.jboss.pnc.rest.trigger.BuildTriggerer;
+import org.jboss.pnc.rest.utils.AuthenticatedUserCache;
 import org.jboss.pnc.rest.validation.exceptions.InvalidEntityException;
 import org.jboss.pnc.rest.validation.exceptions.ValidationException;
-import org.jboss.pnc.spi.datastore.Datastore;
 import org.jboss.pnc.spi.exception.BuildConflictException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -64,6 +66,7 @@ import javax.ws.rs.Produces;
 import javax.ws.rs.QueryParam;
 import javax.ws.rs.core.Context;
 import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Request;
 import javax.ws.rs.core.Response;
 import javax.ws.rs.core.UriBuilder;
 import javax.ws.rs.core.UriInfo;
@@ -71,9 +74,17 @@ import java.lang.invoke.MethodHandles;
 import java.net.MalformedURLException;
 import java.net.URI;
 import java.net.URL;
+import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
 
+import static org.jboss.pnc.rest.configuration.SwaggerConstants.ACCEPTED_CODE;
+import static org.jboss.pnc.rest.configuration.SwaggerConstants.ACCEPTED_DESCRIPTION;
+import static org.jboss.pnc.rest.configuration.SwaggerConstants.AFTER_ID_DESCRIPTION;
+import static org.jboss.pnc.rest.configuration.SwaggerConstants.AFTER_ID_QUERY_PARAM;
 import static org.jboss.pnc.rest.configuration.SwaggerConstants.CONFLICTED_CODE;
 import static org.jboss.pnc.rest.configuration.SwaggerConstants.CONFLICTED_DESCRIPTION;
+import static org.jboss.pnc.rest.configuration.SwaggerConstants.FIELDS_DESCRIPTION;
+import static org.jboss.pnc.rest.configuration.SwaggerConstants.FIELDS_QUERY_PARAM;
 import static org.jboss.pnc.rest.configuration.SwaggerConstants.INVALID_CODE;
 import static org.jboss.pnc.rest.configuration.SwaggerConstants.INVALID_DESCRIPTION;
 import static org.jboss.pnc.rest.configuration.SwaggerConstants.NOT_FOUND_CODE;
@@ -90,10 +101,13 @@ import static org.jboss.pnc.rest.configuration.SwaggerConstants.QUERY_DESCRIPTIO
 import static org.jboss.pnc.rest.configuration.SwaggerConstants.QUERY_QUERY_PARAM;
 import static org.jboss.pnc.rest.configuration.SwaggerConstants.SERVER_ERROR_CODE;
 import static org.jboss.pnc.rest.configuration.SwaggerConstants.SERVER_ERROR_DESCRIPTION;
+import static org.jboss.pnc.rest.configuration.SwaggerConstants.SERVICE_UNAVAILABLE_CODE;
+import static org.jboss.pnc.rest.configuration.SwaggerConstants.SERVICE_UNAVAILABLE_DESCRIPTION;
 import static org.jboss.pnc.rest.configuration.SwaggerConstants.SORTING_DESCRIPTION;
 import static org.jboss.pnc.rest.configuration.SwaggerConstants.SORTING_QUERY_PARAM;
 import static org.jboss.pnc.rest.configuration.SwaggerConstants.SUCCESS_CODE;
 import static org.jboss.pnc.rest.configuration.SwaggerConstants.SUCCESS_DESCRIPTION;
+import static org.jboss.pnc.spi.datastore.predicates.BuildConfigurationPredicates.isNotArchived;
 
 @Api(value = "/build-configurations", description = "Build configuration entities")
 @Path("/build-configurations")
@@ -106,9 +120,10 @@ public class BuildConfigurationEndpoint extends AbstractEndpoint<BuildConfigurat
     private BuildConfigurationProvider buildConfigurationProvider;
     private BuildConfigurationSetProvider buildConfigurationSetProvider;
     private BuildTriggerer buildTriggerer;
+    private AsyncBuildTriggerer asyncBuildTriggerer;
     private BuildRecordProvider buildRecordProvider;
     private ProductVersionProvider productVersionProvider;
-    private Datastore datastore;
+    private AuthenticatedUserCache authenticatedUserCache;
 
     @Context
     private HttpServletRequest httpServletRequest;
@@ -122,17 +137,19 @@ public class BuildConfigurationEndpoint extends AbstractEndpoint<BuildConfigurat
             BuildConfigurationProvider buildConfigurationProvider,
             BuildConfigurationSetProvider buildConfigurationSetProvider,
             BuildTriggerer buildTriggerer,
+            AsyncBuildTriggerer asyncBuildTriggerer,
             BuildRecordProvider buildRecordProvider,
             ProductVersionProvider productVersionProvider,
-            Datastore datastore) {
+            AuthenticatedUserCache authenticatedUserCache) {
 
         super(buildConfigurationProvider);
         this.buildConfigurationProvider = buildConfigurationProvider;
         this.buildConfigurationSetProvider = buildConfigurationSetProvider;
         this.buildTriggerer = buildTriggerer;
+        this.asyncBuildTriggerer = asyncBuildTriggerer;
         this.buildRecordProvider = buildRecordProvider;
         this.productVersionProvider = productVersionProvider;
-        this.datastore = datastore;
+        this.authenticatedUserCache = authenticatedUserCache;
     }
 
     @ApiOperation(value = "Gets all Build Configurations")
@@ -146,8 +163,11 @@ public class BuildConfigurationEndpoint extends AbstractEndpoint<BuildConfigurat
     public Response getAll(@ApiParam(value = PAGE_INDEX_DESCRIPTION) @QueryParam(PAGE_INDEX_QUERY_PARAM) @DefaultValue(PAGE_INDEX_DEFAULT_VALUE) int pageIndex,
             @ApiParam(value = PAGE_SIZE_DESCRIPTION) @QueryParam(PAGE_SIZE_QUERY_PARAM) @DefaultValue(PAGE_SIZE_DEFAULT_VALUE) int pageSize,
             @ApiParam(value = SORTING_DESCRIPTION) @QueryParam(SORTING_QUERY_PARAM) String sort,
-            @ApiParam(value = QUERY_DESCRIPTION, required = false) @QueryParam(QUERY_QUERY_PARAM) String q) {
-        return fromCollection(buildConfigurationProvider.getAllNonArchived(pageIndex, pageSize, sort, q));
+            @ApiParam(value = QUERY_DESCRIPTION, required = false) @QueryParam(QUERY_QUERY_PARAM) String q,
+            @ApiParam(value = FIELDS_DESCRIPTION) @QueryParam(FIELDS_QUERY_PARAM) String fields,
+            @ApiParam(value = AFTER_ID_DESCRIPTION) @QueryParam(AFTER_ID_QUERY_PARAM) Integer afterId,
+            @Context Request request) throws ValidationException {
+        return super.getAll(pageIndex, pageSize, sort, q, afterId, fields, request, isNotArchived());
     }
 
     @ApiOperation(value = "Creates a new Build Configuration")
@@ -173,8 +193,23 @@ public class BuildConfigurationEndpoint extends AbstractEndpoint<BuildConfigurat
     @GET
     @Path("/{id}")
     public Response getSpecific(
-            @ApiParam(value = "Build Configuration id", required = true) @PathParam("id") Integer id) {
-        return super.getSpecific(id);
+            @ApiParam(value = "Build Configuration id", required = true) @PathParam("id") Integer id,
+            @ApiParam(value = FIELDS_DESCRIPTION) @QueryParam(FIELDS_QUERY_PARAM) String fields,
+            @Context Request request) throws ValidationException {
+        return super.getSpecific(id, fields, request);
+    }
+
+    @ApiOperation(value = "Gets Build Configurations by their ids", notes = "Results are returned in the order of the ids, missing ids are skipped")
+    @ApiResponses(value = {
+            @ApiResponse(code = SUCCESS_CODE, message = SUCCESS_DESCRIPTION, response = BuildConfigurationPage.class),
+            @ApiResponse(code = NO_CONTENT_CODE, message = NO_CONTENT_DESCRIPTION, response = BuildConfigurationPage.class),
+            @ApiResponse(code = INVALID_CODE, message = INVALID_DESCRIPTION, response = ErrorResponseRest.class),
+            @ApiResponse(code = SERVER_ERROR_CODE, message = SERVER_ERROR_DESCRIPTION, response = ErrorResponseRest.class)
+    })
+    @POST
+    @Path("/batch-get")
+    public Response getBatch(@ApiParam(value = "Build Configuration ids", required = true) List<Integer> ids) throws ValidationException {
+        return super.getBatch(ids);
     }
 
     @ApiOperation(value = "Updates an existing Build Configuration")
@@ -239,19 +274,7 @@ public class BuildConfigurationEndpoint extends AbstractEndpoint<BuildConfigurat
 
         logger.debug("Endpoint /build requested for buildConfigurationId [{}], by [{}]", id, request.getRemoteAddr());
 
-        AuthenticationProvider authProvider = new AuthenticationProvider(httpServletRequest);
-        String loggedUser = authProvider.getUserName();
-        User currentUser = null;
-        if(StringUtils.isNotEmpty(loggedUser)) {
-            currentUser = datastore.retrieveUserByUsername(loggedUser);
-        }
-        if(currentUser != null) {
-            currentUser.setLoginToken(authProvider.getTokenString());
-        }
-        else{
-            throw new InvalidEntityException("No such user exists to trigger builds. Before triggering builds"
-                    + " user must be initialized through /users/getLoggedUser");
-        }
+        User currentUser = getCurrentUser();
 
         Integer runningBuildId = null;
         // if callbackUrl is provided trigger build accordingly
@@ -268,6 +291,44 @@ public class BuildConfigurationEndpoint extends AbstractEndpoint<BuildConfigurat
         return Response.ok(uri).header("location", uri).entity(new Singleton<>(buildRecordProvider.getSpecificRunning(runningBuildId))).build();
     }
 
+    @ApiOperation(value = "Triggers the build of a specific Build Configuration without waiting for the build to be initialized",
+            notes = "The trigger status can be followed at /build-triggers/{id} or through the web socket notifications")
+    @ApiResponses(value = {
+            @ApiResponse(code = ACCEPTED_CODE, message = ACCEPTED_DESCRIPTION, response = BuildTriggerSingleton.class),
+            @ApiResponse(code = INVALID_CODE, message = INVALID_DESCRIPTION, response = ErrorResponseRest.class),
+            @ApiResponse(code = SERVICE_UNAVAILABLE_CODE, message = SERVICE_UNAVAILABLE_DESCRIPTION, response = ErrorResponseRest.class),
+            @ApiResponse(code = SERVER_ERROR_CODE, message = SERVER_ERROR_DESCRIPTION, response = ErrorResponseRest.class)
+    })
+    @POST
+    @Path("/{id}/build-async")
+    public Response triggerAsync(@ApiParam(value = "Build Configuration id", required = true) @PathParam("id") Integer id,
+            @ApiParam(value = "Rebuild all dependencies") @QueryParam("rebuildAll") @DefaultValue("false") boolean rebuildAll,
+            @ApiParam(value = "Keep pod alive when the build fails") @QueryParam("keepPodAliveOnFailure") @DefaultValue("false") boolean keepPodAliveOnFailure,
+            @Context UriInfo uriInfo) throws InvalidEntityException {
+
+        logger.debug("Endpoint /build-async requested for buildConfigurationId [{}]", id);
+
+        User currentUser = getCurrentUser();
+        BuildTriggerRest trigger;
+        try {
+            trigger = asyncBuildTriggerer.triggerBuild(id, currentUser, keepPodAliveOnFailure, rebuildAll);
+        } catch (RejectedExecutionException e) {
+            return Response.status(Response.Status.SERVICE_UNAVAILABLE).entity(new ErrorResponseRest(e)).build();
+        }
+
+        URI uri = UriBuilder.fromUri(uriInfo.getBaseUri()).path("/build-triggers/{id}").build(trigger.getId());
+        return Response.status(Response.Status.ACCEPTED).header("location", uri).entity(new Singleton<>(trigger)).build();
+    }
+
+    private User getCurrentUser() throws InvalidEntityException {
+        User currentUser = authenticatedUserCache.getLoggedUser(new AuthenticationProvider(httpServletRequest));
+        if(currentUser == null) {
+            throw new InvalidEntityException("No such user exists to trigger builds. Before triggering builds"
+                    + " user must be initialized through /users/getLoggedUser");
+        }
+        return currentUser;
+    }
+
     private Response validateRequiredField(String parameter, String parameterName) {
         if (parameter == null || parameter.equals("")) {
             String msg = "Missing required " + parameterName + " parameter.";
@@ -534,7 +595,7 @@ public class BuildConfigurationEndpoint extends AbstractEndpoint<BuildConfigurat
             @ApiParam(value = SORTING_DESCRIPTION) @QueryParam(SORTING_QUERY_PARAM) String sort,
             @ApiParam(value = QUERY_DESCRIPTION, required = false) @QueryParam(QUERY_QUERY_PARAM) String q,
             @ApiParam(value = "Build configuration id", required = true) @PathParam("id") Integer id) {
-        return fromCollection(buildRecordProvider.getRunningAndArchivedBuildRecordsOfBuildConfiguration(pageIndex, pageSize, sort, q, id));
+        return fromCollection(buildRecordProvider.getRunningAndArchivedBuildRecordsOfBuildConfiguration(pageIndex, pageSize, q, sort, id));
     }
 
 }
@@ -22,7 +22,6 @@ import io.swagger.annotations.ApiOperation;
 import io.swagger.annotations.ApiParam;
 import io.swagger.annotations.ApiResponse;
 import io.swagger.annotations.ApiResponses;
-import org.apache.commons.lang3.StringUtils;
 import org.jboss.pnc.auth.AuthenticationProvider;
 import org.jboss.pnc.model.BuildConfigurationSet;
 import org.jboss.pnc.model.User;
@@ -34,15 +33,21 @@ import org.jboss.pnc.rest.provider.collection.CollectionInfo;
 import org.jboss.pnc.rest.restmodel.BuildConfigurationRest;
 import org.jboss.pnc.rest.restmodel.BuildConfigurationSetRest;
 import org.jboss.pnc.rest.restmodel.BuildRecordRest;
+import org.jboss.pnc.rest.restmodel.BuildTriggerRest;
 import org.jboss.pnc.rest.restmodel.response.Page;
+import org.jboss.pnc.rest.restmodel.response.Singleton;
 import org.jboss.pnc.rest.restmodel.response.error.ErrorResponseRest;
 import org.jboss.pnc.rest.swagger.response.BuildConfigurationPage;
 import org.jboss.pnc.rest.swagger.response.BuildConfigurationSetPage;
 import org.jboss.pnc.rest.swagger.response.BuildConfigurationSetRecordPage;
 import org.jboss.pnc.rest.swagger.response.BuildConfigurationSetSingleton;
 import org.jboss.pnc.rest.swagger.response.BuildRecordPage;
+import org.jboss.pnc.rest.swagger.response.BuildTriggerSingleton;
+import org.jboss.pnc.rest.trigger.AsyncBuildTriggerer;
 import org.jboss.pnc.rest.trigger.BuildTriggerer;
+import org.jboss.pnc.rest.utils.AuthenticatedUserCache;
 import org.jboss.pnc.rest.validation.exceptions.EmptyEntityException;
+import org.jboss.pnc.rest.validation.exceptions.InvalidEntityException;
 import org.jboss.pnc.rest.validation.exceptions.ValidationException;
 import org.jboss.pnc.spi.builddriver.exception.BuildDriverException;
 import org.jboss.pnc.spi.datastore.Datastore;
@@ -76,8 +81,13 @@ import java.net.MalformedURLException;
 import java.net.URI;
 import java.net.URL;
 import java.util.Objects;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.stream.Collectors;
 
+import static org.jboss.pnc.rest.configuration.SwaggerConstants.ACCEPTED_CODE;
+import static org.jboss.pnc.rest.configuration.SwaggerConstants.ACCEPTED_DESCRIPTION;
+import static org.jboss.pnc.rest.configuration.SwaggerConstants.AFTER_ID_DESCRIPTION;
+import static org.jboss.pnc.rest.configuration.SwaggerConstants.AFTER_ID_QUERY_PARAM;
 import static org.jboss.pnc.rest.configuration.SwaggerConstants.CONFLICTED_CODE;
 import static org.jboss.pnc.rest.configuration.SwaggerConstants.CONFLICTED_DESCRIPTION;
 import static org.jboss.pnc.rest.configuration.SwaggerConstants.INVALID_CODE;
@@ -96,6 +106,8 @@ import static org.jboss.pnc.rest.configuration.SwaggerConstants.QUERY_DESCRIPTIO
 import static org.jboss.pnc.rest.configuration.SwaggerConstants.QUERY_QUERY_PARAM;
 import static org.jboss.pnc.rest.configuration.SwaggerConstants.SERVER_ERROR_CODE;
 import static org.jboss.pnc.rest.configuration.SwaggerConstants.SERVER_ERROR_DESCRIPTION;
+import static org.jboss.pnc.rest.configuration.SwaggerConstants.SERVICE_UNAVAILABLE_CODE;
+import static org.jboss.pnc.rest.configuration.SwaggerConstants.SERVICE_UNAVAILABLE_DESCRIPTION;
 import static org.jboss.pnc.rest.configuration.SwaggerConstants.SORTING_DESCRIPTION;
 import static org.jboss.pnc.rest.configuration.SwaggerConstants.SORTING_QUERY_PARAM;
 import static org.jboss.pnc.rest.configuration.SwaggerConstants.SUCCESS_CODE;
@@ -117,6 +129,12 @@ public class BuildConfigurationSetEndpoint extends AbstractEndpoint<BuildConfigu
     @Inject
     private Datastore datastore;
 
+    @Inject
+    private AsyncBuildTriggerer asyncBuildTriggerer;
+
+    @Inject
+    private AuthenticatedUserCache authenticatedUserCache;
+
     private BuildConfigurationSetProvider buildConfigurationSetProvider;
     private BuildConfigurationProvider buildConfigurationProvider;
     private BuildRecordProvider buildRecordProvider;
@@ -149,8 +167,9 @@ public class BuildConfigurationSetEndpoint extends AbstractEndpoint<BuildConfigu
     public Response getAll(@ApiParam(value = PAGE_INDEX_DESCRIPTION) @QueryParam(PAGE_INDEX_QUERY_PARAM) @DefaultValue(PAGE_INDEX_DEFAULT_VALUE) int pageIndex,
             @ApiParam(value = PAGE_SIZE_DESCRIPTION) @QueryParam(PAGE_SIZE_QUERY_PARAM) @DefaultValue(PAGE_SIZE_DEFAULT_VALUE) int pageSize,
             @ApiParam(value = SORTING_DESCRIPTION) @QueryParam(SORTING_QUERY_PARAM) String sort,
-            @ApiParam(value = QUERY_DESCRIPTION, required = false) @QueryParam(QUERY_QUERY_PARAM) String q) {
-        return super.getAll(pageIndex, pageSize, sort, q);
+            @ApiParam(value = QUERY_DESCRIPTION, required = false) @QueryParam(QUERY_QUERY_PARAM) String q,
+            @ApiParam(value = AFTER_ID_DESCRIPTION) @QueryParam(AFTER_ID_QUERY_PARAM) Integer afterId) {
+        return super.getAll(pageIndex, pageSize, sort, q, afterId);
     }
 
     @ApiOperation(value = "Creates a new Build Configuration Set")
@@ -294,23 +313,7 @@ public class BuildConfigurationSetEndpoint extends AbstractEndpoint<BuildConfigu
             MalformedURLException {
         logger.info("Executing build configuration set id: " + id );
 
-        AuthenticationProvider authProvider = new AuthenticationProvider(httpServletRequest);
-        String loggedUser = authProvider.getUserName();
-        User currentUser = null;
-        if(StringUtils.isNotEmpty(loggedUser)) {
-            currentUser = datastore.retrieveUserByUsername(loggedUser);
-            if(currentUser != null) {
-                currentUser.setLoginToken(authProvider.getTokenString());
-            }
-        }
-        if(currentUser == null) { //TODO remove user creation
-            currentUser = User.Builder.newBuilder()
-                    .username(loggedUser)
-                    .firstName(authProvider.getFirstName())
-                    .lastName(authProvider.getLastName())
-                    .email(authProvider.getEmail()).build();
-            datastore.createNewUser(currentUser);
-        }
+        User currentUser = getCurrentUser();
 
         BuildTriggerer.BuildConfigurationSetTriggerResult result;
         // if callbackUrl is provided trigger build accordingly
@@ -334,6 +337,49 @@ public class BuildConfigurationSetEndpoint extends AbstractEndpoint<BuildConfigu
         return Response.ok(uri).header("location", uri).entity(resultsToBeReturned).build();
     }
 
+    @ApiOperation(value = "Builds the Configurations for the Specified Set without waiting for the builds to be initialized",
+            notes = "The trigger status can be followed at /build-triggers/{id} or through the web socket notifications")
+    @ApiResponses(value = {
+            @ApiResponse(code = ACCEPTED_CODE, message = ACCEPTED_DESCRIPTION, response = BuildTriggerSingleton.class),
+            @ApiResponse(code = INVALID_CODE, message = INVALID_DESCRIPTION, response = ErrorResponseRest.class),
+            @ApiResponse(code = SERVICE_UNAVAILABLE_CODE, message = SERVICE_UNAVAILABLE_DESCRIPTION, response = ErrorResponseRest.class),
+            @ApiResponse(code = SERVER_ERROR_CODE, message = SERVER_ERROR_DESCRIPTION, response = ErrorResponseRest.class)
+    })
+    @POST
+    @Path("/{id}/build-async")
+    @Consumes(MediaType.APPLICATION_JSON)
+    public Response buildAsync(
+            @ApiParam(value = "Build Configuration Set id", required = true) @PathParam("id") Integer id,
+            @ApiParam(value = "Rebuild all dependencies") @QueryParam("rebuildAll") @DefaultValue("false") boolean rebuildAll,
+            @Context UriInfo uriInfo) throws InvalidEntityException {
+        logger.info("Accepting asynchronous build of build configuration set id: " + id );
+
+        User currentUser = getCurrentUser();
+        BuildTriggerRest trigger;
+        try {
+            trigger = asyncBuildTriggerer.triggerBuildConfigurationSet(id, currentUser, false, rebuildAll);
+        } catch (RejectedExecutionException e) {
+            return Response.status(Response.Status.SERVICE_UNAVAILABLE).entity(new ErrorResponseRest(e)).build();
+        }
+
+        URI uri = UriBuilder.fromUri(uriInfo.getBaseUri()).path("/build-triggers/{id}").build(trigger.getId());
+        return Response.status(Response.Status.ACCEPTED).header("location", uri).entity(new Singleton<>(trigger)).build();
+    }
+
+    private User getCurrentUser() {
+        AuthenticationProvider authProvider = new AuthenticationProvider(httpServletRequest);
+        User currentUser = authenticatedUserCache.getLoggedUser(authProvider);
+        if(currentUser == null) { //TODO remove user creation
+            currentUser = User.Builder.newBuilder()
+                    .username(authProvider.getUserName())
+                    .firstName(authProvider.getFirstName())
+                    .lastName(authProvider.getLastName())
+                    .email(authProvider.getEmail()).build();
+            datastore.createNewUser(currentUser);
+        }
+        return currentUser;
+    }
+
     @ApiOperation(value = "Get all build config set execution records associated with this build config set, returns empty list if none are found")
     @ApiResponses(value = {
             @ApiResponse(code = SUCCESS_CODE, message = SUCCESS_DESCRIPTION, response = BuildConfigurationSetRecordPage.class),
@@ -0,0 +1,90 @@
+/**
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.pnc.rest.endpoint;
+
+import io.swagger.annotations.Api;
+import io.swagger.annotations.ApiOperation;
+import io.swagger.annotations.ApiResponse;
+import io.swagger.annotations.ApiResponses;
+import org.jboss.pnc.common.monitor.PullingMonitor;
+import org.jboss.pnc.rest.restmodel.response.Singleton;
+import org.jboss.pnc.rest.restmodel.response.error.ErrorResponseRest;
+import org.jboss.pnc.rest.utils.BpmNotifier;
+
+import javax.inject.Inject;
+import javax.ws.rs.Consumes;
+import javax.ws.rs.GET;
+import javax.ws.rs.Path;
+import javax.ws.rs.Produces;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Response;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.jboss.pnc.rest.configuration.SwaggerConstants.SERVER_ERROR_CODE;
+import static org.jboss.pnc.rest.configuration.SwaggerConstants.SERVER_ERROR_DESCRIPTION;
+import static org.jboss.pnc.rest.configuration.SwaggerConstants.SUCCESS_CODE;
+import static org.jboss.pnc.rest.configuration.SwaggerConstants.SUCCESS_DESCRIPTION;
+
+@Api(value = "/metrics", description = "Runtime statistics of the server")
+@Path("/metrics")
+@Produces(MediaType.APPLICATION_JSON)
+@Consumes(MediaType.APPLICATION_JSON)
+public class MetricsEndpoint {
+
+    private BpmNotifier bpmNotifier;
+
+    private PullingMonitor pullingMonitor;
+
+    @Deprecated
+    public MetricsEndpoint() {
+    }
+
+    @Inject
+    public MetricsEndpoint(BpmNotifier bpmNotifier, PullingMonitor pullingMonitor) {
+        this.bpmNotifier = bpmNotifier;
+        this.pullingMonitor = pullingMonitor;
+    }
+
+    @ApiOperation(value = "Gets the delivery statistics of the outbound callbacks per callback type")
+    @ApiResponses(value = {
+            @ApiResponse(code = SUCCESS_CODE, message = SUCCESS_DESCRIPTION, response = Singleton.class),
+            @ApiResponse(code = SERVER_ERROR_CODE, message = SERVER_ERROR_DESCRIPTION, response = ErrorResponseRest.class)
+    })
+    @GET
+    @Path("/callbacks")
+    public Response getCallbackMetrics() {
+        return Response.ok().entity(new Singleton<>(bpmNotifier.getCallbackMetrics().getAll())).build();
+    }
+
+    @ApiOperation(value = "Gets the statistics of the monitors waiting for the build environments to get ready")
+    @ApiResponses(value = {
+            @ApiResponse(code = SUCCESS_CODE, message = SUCCESS_DESCRIPTION, response = Singleton.class),
+            @ApiResponse(code = SERVER_ERROR_CODE, message = SERVER_ERROR_DESCRIPTION, response = ErrorResponseRest.class)
+    })
+    @GET
+    @Path("/pulling-monitor")
+    public Response getPullingMonitorMetrics() {
+        Map<String, Number> metrics = new LinkedHashMap<>();
+        metrics.put("activeMonitors", pullingMonitor.getActiveMonitorsCount());
+        metrics.put("checks", pullingMonitor.getChecksCount());
+        metrics.put("averageCheckDelayMillis", pullingMonitor.getAverageCheckDelayMillis());
+        metrics.put("maxCheckDelayMillis", pullingMonitor.getMaxCheckDelayMillis());
+        return Response.ok().entity(new Singleton<>(metrics)).build();
+    }
+}
@@ -46,9 +46,12 @@ import javax.ws.rs.Produces;
 import javax.ws.rs.QueryParam;
 import javax.ws.rs.core.Context;
 import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Request;
 import javax.ws.rs.core.Response;
 import javax.ws.rs.core.UriInfo;
 
+import static org.jboss.pnc.rest.configuration.SwaggerConstants.AFTER_ID_DESCRIPTION;
+import static org.jboss.pnc.rest.configuration.SwaggerConstants.AFTER_ID_QUERY_PARAM;
 import static org.jboss.pnc.rest.configuration.SwaggerConstants.CONFLICTED_CODE;
 import static org.jboss.pnc.rest.configuration.SwaggerConstants.CONFLICTED_DESCRIPTION;
 import static org.jboss.pnc.rest.configuration.SwaggerConstants.INVALID_DESCRIPTION;
@@ -100,8 +103,10 @@ public class ProductEndpoint extends AbstractEndpoint<Product, ProductRest> {
     public Response getAll(@ApiParam(value = PAGE_INDEX_DESCRIPTION) @QueryParam(PAGE_INDEX_QUERY_PARAM) @DefaultValue(PAGE_INDEX_DEFAULT_VALUE) int pageIndex,
             @ApiParam(value = PAGE_SIZE_DESCRIPTION) @QueryParam(PAGE_SIZE_QUERY_PARAM) @DefaultValue(PAGE_SIZE_DEFAULT_VALUE) int pageSize,
             @ApiParam(value = SORTING_DESCRIPTION) @QueryParam(SORTING_QUERY_PARAM) String sort,
-            @ApiParam(value = QUERY_DESCRIPTION, required = false) @QueryParam(QUERY_QUERY_PARAM) String q) {
-        return super.getAll(pageIndex, pageSize, sort, q);
+            @ApiParam(value = QUERY_DESCRIPTION, required = false) @QueryParam(QUERY_QUERY_PARAM) String q,
+            @ApiParam(value = AFTER_ID_DESCRIPTION) @QueryParam(AFTER_ID_QUERY_PARAM) Integer afterId,
+            @Context Request request) {
+        return super.getAll(pageIndex, pageSize, sort, q, afterId, request);
     }
 
     @ApiOperation(value = "Get specific Product")
@@ -113,8 +118,9 @@ public class ProductEndpoint extends AbstractEndpoint<Product, ProductRest> {
     })
     @GET
     @Path("/{id}")
-    public Response getSpecific(@ApiParam(value = "Product id", required = true) @PathParam("id") Integer id) {
-        return super.getSpecific(id);
+    public Response getSpecific(@ApiParam(value = "Product id", required = true) @PathParam("id") Integer id,
+            @Context Request request) {
+        return super.getSpecific(id, request);
     }
 
     @ApiOperation(value = "Creates a new Product")
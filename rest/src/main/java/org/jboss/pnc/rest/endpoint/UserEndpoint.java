@@ -32,8 +32,8 @@ import org.jboss.pnc.rest.restmodel.response.error.ErrorResponseRest;
 import org.jboss.pnc.rest.swagger.response.BuildRecordPage;
 import org.jboss.pnc.rest.swagger.response.UserPage;
 import org.jboss.pnc.rest.swagger.response.UserSingleton;
+import org.jboss.pnc.rest.utils.AuthenticatedUserCache;
 import org.jboss.pnc.rest.validation.exceptions.ValidationException;
-import org.jboss.pnc.spi.datastore.Datastore;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -54,6 +54,8 @@ import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
 import javax.ws.rs.core.UriInfo;
 
+import static org.jboss.pnc.rest.configuration.SwaggerConstants.AFTER_ID_DESCRIPTION;
+import static org.jboss.pnc.rest.configuration.SwaggerConstants.AFTER_ID_QUERY_PARAM;
 import static org.jboss.pnc.rest.configuration.SwaggerConstants.CONFLICTED_CODE;
 import static org.jboss.pnc.rest.configuration.SwaggerConstants.CONFLICTED_DESCRIPTION;
 import static org.jboss.pnc.rest.configuration.SwaggerConstants.INVALID_DESCRIPTION;
@@ -91,16 +93,16 @@ public class UserEndpoint extends AbstractEndpoint<User, UserRest> {
 
     @Context
     private HttpServletRequest httpServletRequest;
-    private Datastore datastore;
+    private AuthenticatedUserCache authenticatedUserCache;
     
     public UserEndpoint() {
     }
 
     @Inject
-    public UserEndpoint(UserProvider userProvider, BuildRecordProvider buildRecordProvider, Datastore datastore) {
+    public UserEndpoint(UserProvider userProvider, BuildRecordProvider buildRecordProvider, AuthenticatedUserCache authenticatedUserCache) {
         super(userProvider);
         this.buildRecordProvider = buildRecordProvider;
-        this.datastore = datastore;
+        this.authenticatedUserCache = authenticatedUserCache;
     }
 
     @ApiOperation(value = "Gets all Users")
@@ -114,8 +116,9 @@ public class UserEndpoint extends AbstractEndpoint<User, UserRest> {
     public Response getAll(@ApiParam(value = PAGE_INDEX_DESCRIPTION) @QueryParam(PAGE_INDEX_QUERY_PARAM) @DefaultValue(PAGE_INDEX_DEFAULT_VALUE) int pageIndex,
             @ApiParam(value = PAGE_SIZE_DESCRIPTION) @QueryParam(PAGE_SIZE_QUERY_PARAM) @DefaultValue(PAGE_SIZE_DEFAULT_VALUE) int pageSize,
             @ApiParam(value = SORTING_DESCRIPTION) @QueryParam(SORTING_QUERY_PARAM) String sort,
-            @ApiParam(value = QUERY_DESCRIPTION, required = false) @QueryParam(QUERY_QUERY_PARAM) String q) {
-        return super.getAll(pageIndex, pageSize, sort, q);
+            @ApiParam(value = QUERY_DESCRIPTION, required = false) @QueryParam(QUERY_QUERY_PARAM) String q,
+            @ApiParam(value = AFTER_ID_DESCRIPTION) @QueryParam(AFTER_ID_QUERY_PARAM) Integer afterId) {
+        return super.getAll(pageIndex, pageSize, sort, q, afterId);
     }
 
     @ApiOperation(value = "Gets specific User")
@@ -158,7 +161,7 @@ public class UserEndpoint extends AbstractEndpoint<User, UserRest> {
             String loggedUser = authProvider.getUserName();
             User currentUser = null;
             if(loggedUser != null && loggedUser != "") {
-                currentUser = datastore.retrieveUserByUsername(loggedUser);
+                currentUser = authenticatedUserCache.getUser(loggedUser);
             }
             if(currentUser != null) {
                 return super.getSpecific(currentUser.getId());
@@ -190,7 +193,9 @@ public class UserEndpoint extends AbstractEndpoint<User, UserRest> {
     @Path("/{id}")
     public Response update(@ApiParam(value = "User id", required = true) @PathParam("id") Integer id,
             UserRest userRest) throws ValidationException {
-       return super.update(id, userRest);
+       Response response = super.update(id, userRest);
+       authenticatedUserCache.invalidate(id);
+       return response;
     }
 
     // TODO To be removed after testing, will be available via pnc-rest/rest/builds?q=(user.id==1)
@@ -209,7 +214,7 @@ public class UserEndpoint extends AbstractEndpoint<User, UserRest> {
             @ApiParam(value = SORTING_DESCRIPTION) @QueryParam(SORTING_QUERY_PARAM) String sort,
             @ApiParam(value = QUERY_DESCRIPTION, required = false) @QueryParam(QUERY_QUERY_PARAM) String q,
             @ApiParam(value = "User id", required = true) @PathParam("id") Integer id) {
-        return fromCollection(buildRecordProvider.getRunningAndArchivedBuildRecordsOfUser(pageIndex, pageSize, sort, q, id));
+        return fromCollection(buildRecordProvider.getRunningAndArchivedBuildRecordsOfUser(pageIndex, pageSize, q, sort, id));
     }
 
 }
@@ -0,0 +1,121 @@
+/**
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.pnc.rest.notifications;
+
+import org.jboss.pnc.spi.notifications.model.Notification;
+
+import javax.enterprise.context.ApplicationScoped;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.function.LongConsumer;
+
+/**
+ * Bounded in-memory journal of the sent notifications. Every journaled notification gets a sequence number, so a
+ * reconnecting client can ask for the notifications it missed instead of reloading all its data.
+ *
+ * The sequence is seeded from the clock when the journal is created, so the positions known by the clients before
+ * a server restart are older than anything in the new journal and they are answered with a resync.
+ *
+ * Notifications are handed to the senders while holding the journal lock, so the clients receive them in sequence
+ * order and a replay can't interleave with newer notifications.
+ */
+@ApplicationScoped
+public class NotificationJournal {
+
+    static final int DEFAULT_CAPACITY = 10_000;
+
+    private final Notification[] entries;
+
+    private final long initialSequence;
+
+    /**
+     * Guarded by this
+     */
+    private long lastSequence;
+
+    public NotificationJournal() {
+        this(DEFAULT_CAPACITY, System.currentTimeMillis() * 1000);
+    }
+
+    NotificationJournal(int capacity, long initialSequence) {
+        this.entries = new Notification[capacity];
+        this.initialSequence = initialSequence;
+        this.lastSequence = initialSequence;
+    }
+
+    /**
+     * @return The notification with the assigned sequence, which should be sent to the clients
+     */
+    public synchronized Notification append(Notification notification) {
+        lastSequence++;
+        Notification journaled = notification.withSequence(lastSequence);
+        entries[index(lastSequence)] = journaled;
+        return journaled;
+    }
+
+    /**
+     * Journals the notification and passes it with the assigned sequence to the sender.
+     *
+     * @param sender Should only queue the notification for sending, it's called while holding the journal lock
+     */
+    public synchronized void publish(Notification notification, Consumer<Notification> sender) {
+        sender.accept(append(notification));
+    }
+
+    /**
+     * Passes the notifications missed by the client to the replayer, or the last sequence to the resync callback when
+     * some of them are no longer in the journal. The callbacks are called while holding the journal lock.
+     *
+     * @param lastSeenSequence Sequence of the last notification received by the client
+     */
+    public synchronized void resume(long lastSeenSequence, Consumer<List<Notification>> replayer,
+            LongConsumer resync) {
+        Optional<List<Notification>> missed = since(lastSeenSequence);
+        if (missed.isPresent()) {
+            replayer.accept(missed.get());
+        } else {
+            resync.accept(lastSequence);
+        }
+    }
+
+    /**
+     * @param lastSeenSequence Sequence of the last notification received by the client
+     * @return Notifications following the given sequence or empty when some of them are no longer in the journal
+     */
+    public synchronized Optional<List<Notification>> since(long lastSeenSequence) {
+        long oldestSequence = Math.max(initialSequence + 1, lastSequence - entries.length + 1);
+        if (lastSeenSequence > lastSequence || lastSeenSequence < oldestSequence - 1) {
+            return Optional.empty();
+        }
+        List<Notification> missed = new ArrayList<>((int) (lastSequence - lastSeenSequence));
+        for (long sequence = lastSeenSequence + 1; sequence <= lastSequence; sequence++) {
+            missed.add(entries[index(sequence)]);
+        }
+        return Optional.of(missed);
+    }
+
+    public synchronized long getLastSequence() {
+        return lastSequence;
+    }
+
+    private int index(long sequence) {
+        return (int) (sequence % entries.length);
+    }
+}
@@ -20,30 +20,55 @@ package org.jboss.pnc.rest.notifications.websockets;
 import org.jboss.pnc.spi.notifications.AttachedClient;
 import org.jboss.pnc.spi.notifications.MessageCallback;
 import org.jboss.pnc.spi.notifications.Notifier;
+import org.jboss.pnc.spi.notifications.OutputConverter;
+import org.jboss.pnc.spi.notifications.Subscription;
+import org.jboss.pnc.spi.notifications.model.Notification;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import javax.annotation.PostConstruct;
 import javax.enterprise.context.ApplicationScoped;
+import javax.inject.Inject;
 import java.lang.invoke.MethodHandles;
-import java.util.Collections;
-import java.util.ConcurrentModificationException;
 import java.util.HashSet;
-import java.util.Iterator;
+import java.util.List;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
 
 /**
  * Notification mechanism for Web Sockets. All implementation details should be placed in AttachedClient.
+ *
+ * Clients without subscriptions receive every message. Subscribed clients are indexed by their subscriptions,
+ * so a notification is routed only to the clients subscribed to one of its keys. A message is encoded once and the
+ * encoded message is shared by all the clients receiving it.
  */
 @ApplicationScoped
 public class DefaultNotifier implements Notifier {
 
     private static final Logger logger = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
 
-    private Set<AttachedClient> attachedClients = Collections.synchronizedSet(new HashSet<>());
+    /**
+     * Lock-free registry, messages are sent without blocking attaching and detaching clients. Changes of the
+     * registry and the subscription index are synchronized on the notifier.
+     *
+     * Clients are mapped to the attached instance, so requests made with an equal client (eg. created for the same
+     * session) are served by the instance that holds the client state.
+     */
+    private final ConcurrentMap<AttachedClient, AttachedClient> attachedClients = new ConcurrentHashMap<>();
+
+    /**
+     * Attached clients which didn't subscribe to anything
+     */
+    private final Set<AttachedClient> unfilteredClients = ConcurrentHashMap.newKeySet();
+
+    private final ConcurrentMap<AttachedClient, Set<Subscription>> clientSubscriptions = new ConcurrentHashMap<>();
+
+    private final ConcurrentMap<Subscription, Set<AttachedClient>> subscribers = new ConcurrentHashMap<>();
 
     private final ScheduledExecutorService scheduler = Executors.newScheduledThreadPool(1);
 
@@ -61,22 +86,73 @@ public class DefaultNotifier implements Notifier {
         }
     };
 
+    private OutputConverter outputConverter;
+
+    /**
+     * @deprecated Created for CDI.
+     */
+    @Deprecated
+    public DefaultNotifier() {
+    }
+
+    @Inject
+    public DefaultNotifier(OutputConverter outputConverter) {
+        this.outputConverter = outputConverter;
+    }
+
     @PostConstruct
     public void init() {
         scheduler.scheduleAtFixedRate(this::cleanUp, 1, 1, TimeUnit.HOURS);
     }
 
     @Override
-    public void attachClient(AttachedClient attachedClient) {
-        attachedClients.add(attachedClient);
+    public synchronized void attachClient(AttachedClient attachedClient) {
+        attachedClients.putIfAbsent(attachedClient, attachedClient);
+        if (!clientSubscriptions.containsKey(attachedClient)) {
+            unfilteredClients.add(attachedClient);
+        }
     }
 
     @Override
-    public void detachClient(AttachedClient attachedClient) {
-        try {
-            attachedClients.remove(attachedClient);
-        } catch (ConcurrentModificationException cme) {
-            logger.error("Error while removing attached client: ", cme);
+    public synchronized void detachClient(AttachedClient attachedClient) {
+        attachedClients.remove(attachedClient);
+        unfilteredClients.remove(attachedClient);
+        Set<Subscription> subscriptions = clientSubscriptions.remove(attachedClient);
+        if (subscriptions != null) {
+            subscriptions.forEach(subscription -> removeSubscriber(subscription, attachedClient));
+        }
+    }
+
+    @Override
+    public synchronized void subscribe(AttachedClient attachedClient, Subscription subscription) {
+        AttachedClient attached = attachedClients.get(attachedClient);
+        if (attached == null) {
+            logger.warn("Ignoring subscription {} of a client which is not attached.", subscription);
+            return;
+        }
+        unfilteredClients.remove(attached);
+        clientSubscriptions.computeIfAbsent(attached, client -> ConcurrentHashMap.newKeySet()).add(subscription);
+        subscribers.computeIfAbsent(subscription, key -> ConcurrentHashMap.newKeySet()).add(attached);
+    }
+
+    /**
+     * The client stays filtered after removing its last subscription, so it doesn't start receiving all the messages.
+     */
+    @Override
+    public synchronized void unsubscribe(AttachedClient attachedClient, Subscription subscription) {
+        Set<Subscription> subscriptions = clientSubscriptions.get(attachedClient);
+        if (subscriptions != null && subscriptions.remove(subscription)) {
+            removeSubscriber(subscription, attachedClient);
+        }
+    }
+
+    private void removeSubscriber(Subscription subscription, AttachedClient attachedClient) {
+        Set<AttachedClient> clients = subscribers.get(subscription);
+        if (clients != null) {
+            clients.remove(attachedClient);
+            if (clients.isEmpty()) {
+                subscribers.remove(subscription);
+            }
         }
     }
 
@@ -92,34 +168,69 @@ public class DefaultNotifier implements Notifier {
 
     @Override
     public void sendMessage(Object message) {
-        try {
-            for (Iterator<AttachedClient> attachedClientIterator = attachedClients.iterator(); attachedClientIterator
-                    .hasNext();) {
-                AttachedClient client = attachedClientIterator.next();
-                if (client.isEnabled()) {
-                    try {
-                        client.sendMessage(message, messageCallback);
-                    } catch (Exception e) {
-                        logger.error("Unable to send message, detaching client.", e);
-                        detachClient(client);
-                    }
+        String encodedMessage = outputConverter.apply(message);
+        unfilteredClients.forEach(client -> send(client, message, encodedMessage));
+        if (message instanceof Notification && !subscribers.isEmpty()) {
+            Set<AttachedClient> subscribedClients = new HashSet<>();
+            for (Subscription key : Subscription.matching((Notification) message)) {
+                Set<AttachedClient> clients = subscribers.get(key);
+                if (clients != null) {
+                    subscribedClients.addAll(clients);
                 }
             }
-        } catch (ConcurrentModificationException cme) {
-            logger.error("Error while removing attached client: ", cme);
+            subscribedClients.forEach(client -> send(client, message, encodedMessage));
         }
     }
 
-    public void cleanUp() {
-        synchronized (attachedClients) {
-            for (Iterator<AttachedClient> attachedClientIterator = attachedClients.iterator(); attachedClientIterator
-                    .hasNext();) {
-                AttachedClient client = attachedClientIterator.next();
-                if (!client.isEnabled()) {
-                    attachedClientIterator.remove();
-                }
+    @Override
+    public void sendMessage(AttachedClient attachedClient, Object message) {
+        AttachedClient attached = attachedClients.get(attachedClient);
+        if (attached != null) {
+            send(attached, message, outputConverter.apply(message));
+        }
+    }
+
+    @Override
+    public void replay(AttachedClient attachedClient, List<?> messages) {
+        AttachedClient attached = attachedClients.get(attachedClient);
+        if (attached == null) {
+            return;
+        }
+        Set<Subscription> subscriptions = clientSubscriptions.get(attached);
+        List<Object> matching = messages.stream()
+                .filter(message -> subscriptions == null || isSubscribed(subscriptions, message))
+                .collect(Collectors.toList());
+        if (attached.isEnabled() && !matching.isEmpty()) {
+            try {
+                attached.replay(matching, messageCallback);
+            } catch (Exception e) {
+                logger.error("Unable to replay messages, detaching client.", e);
+                detachClient(attached);
             }
         }
     }
 
+    private boolean isSubscribed(Set<Subscription> subscriptions, Object message) {
+        return message instanceof Notification
+                && Subscription.matching((Notification) message).stream().anyMatch(subscriptions::contains);
+    }
+
+    private void send(AttachedClient client, Object message, String encodedMessage) {
+        if (client.isEnabled()) {
+            try {
+                client.sendMessage(message, encodedMessage, messageCallback);
+            } catch (Exception e) {
+                logger.error("Unable to send message, detaching client.", e);
+                detachClient(client);
+            }
+        }
+    }
+
+    public synchronized void cleanUp() {
+        attachedClients.keySet().stream()
+                .filter(client -> !client.isEnabled())
+                .collect(Collectors.toList())
+                .forEach(this::detachClient);
+    }
+
 }
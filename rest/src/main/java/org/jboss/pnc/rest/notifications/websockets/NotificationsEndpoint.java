@@ -17,10 +17,15 @@
  */
 package org.jboss.pnc.rest.notifications.websockets;
 
+import org.jboss.pnc.rest.notifications.NotificationJournal;
+import org.jboss.pnc.rest.utils.JsonOutputConverterMapper;
 import org.jboss.pnc.spi.events.BuildCoordinationStatusChangedEvent;
 import org.jboss.pnc.spi.events.BuildSetStatusChangedEvent;
 import org.jboss.pnc.spi.notifications.Notifier;
 import org.jboss.pnc.spi.notifications.OutputConverter;
+import org.jboss.pnc.spi.notifications.Subscription;
+import org.jboss.pnc.spi.notifications.model.EventType;
+import org.jboss.pnc.spi.notifications.model.Notification;
 import org.jboss.pnc.spi.notifications.model.NotificationFactory;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -30,10 +35,14 @@ import javax.enterprise.event.Observes;
 import javax.inject.Inject;
 import javax.websocket.OnClose;
 import javax.websocket.OnError;
+import javax.websocket.OnMessage;
 import javax.websocket.OnOpen;
 import javax.websocket.Session;
 import javax.websocket.server.ServerEndpoint;
+import java.io.IOException;
 import java.lang.invoke.MethodHandles;
+import java.util.List;
+import java.util.Locale;
 
 /**
  * Web Sockets notification implementation.
@@ -46,6 +55,8 @@ public class NotificationsEndpoint {
 
     public static final String ENDPOINT_PATH = "/ws/build-records/notifications";
 
+    public static final String LAST_SEQUENCE_PARAM = "lastSeq";
+
     @Inject
     private OutputConverter outputConverter;
 
@@ -55,9 +66,24 @@ public class NotificationsEndpoint {
     @Inject
     private NotificationFactory notificationFactory;
 
+    @Inject
+    private NotificationJournal notificationJournal;
+
+    /**
+     * A reconnecting client can pass the sequence of the last received notification as the lastSeq query parameter
+     * to receive the notifications it missed.
+     */
     @OnOpen
     public void attach(Session attachedSession) {
         notifier.attachClient(new SessionBasedAttachedClient(attachedSession, outputConverter));
+        List<String> lastSeq = attachedSession.getRequestParameterMap().get(LAST_SEQUENCE_PARAM);
+        if (lastSeq != null && !lastSeq.isEmpty()) {
+            try {
+                resume(attachedSession, Long.parseLong(lastSeq.get(0)));
+            } catch (NumberFormatException e) {
+                logger.warn("Ignoring invalid {} {} of client {}.", LAST_SEQUENCE_PARAM, lastSeq.get(0), attachedSession.getId());
+            }
+        }
     }
 
     @OnClose
@@ -65,6 +91,48 @@ public class NotificationsEndpoint {
         notifier.detachClient(new SessionBasedAttachedClient(detachedSession, outputConverter));
     }
 
+    /**
+     * Handles {@link SubscriptionMessage}s. Once a client subscribes, it receives only the matching notifications.
+     * A resume message replays the missed notifications matching the client subscriptions.
+     */
+    @OnMessage
+    public void onMessage(String message, Session session) {
+        SubscriptionMessage subscriptionMessage;
+        SubscriptionMessage.Action action;
+        try {
+            subscriptionMessage = JsonOutputConverterMapper.readValue(message, SubscriptionMessage.class);
+            action = SubscriptionMessage.Action.valueOf(subscriptionMessage.getAction().toUpperCase(Locale.ENGLISH));
+            logger.debug("Client {} requested {}.", session.getId(), subscriptionMessage);
+            if (action == SubscriptionMessage.Action.RESUME) {
+                resume(session, Long.parseLong(subscriptionMessage.getId()));
+                return;
+            }
+            Subscription subscription = new Subscription(
+                    Subscription.Topic.valueOf(subscriptionMessage.getTopic().toUpperCase(Locale.ENGLISH)),
+                    subscriptionMessage.getId());
+            SessionBasedAttachedClient client = new SessionBasedAttachedClient(session, outputConverter);
+            if (action == SubscriptionMessage.Action.SUBSCRIBE) {
+                notifier.subscribe(client, subscription);
+            } else {
+                notifier.unsubscribe(client, subscription);
+            }
+        } catch (IOException | RuntimeException e) {
+            logger.warn("Ignoring invalid subscription message {} from client {}.", message, session.getId(), e);
+        }
+    }
+
+    private void resume(Session session, long lastSeenSequence) {
+        SessionBasedAttachedClient client = new SessionBasedAttachedClient(session, outputConverter);
+        notificationJournal.resume(lastSeenSequence, missed -> {
+            logger.debug("Replaying {} notifications to client {}.", missed.size(), session.getId());
+            notifier.replay(client, missed);
+        }, lastSequence -> {
+            logger.debug("Notifications after {} are no longer available, client {} has to resync.", lastSeenSequence,
+                    session.getId());
+            notifier.sendMessage(client, new Notification(EventType.RESYNC_REQUIRED, null, null, lastSequence));
+        });
+    }
+
     @OnError
     public void onError(Session session, Throwable t) {
         logger.warn("An error occurred in client: " + session + ". Removing it", t);
@@ -73,11 +141,11 @@ public class NotificationsEndpoint {
 
     public void collectBuildStatusChangedEvent(@Observes BuildCoordinationStatusChangedEvent buildStatusChangedEvent) {
         logger.debug("Observed new status changed event {}.", buildStatusChangedEvent);
-        notifier.sendMessage(notificationFactory.createNotification(buildStatusChangedEvent));
+        notificationJournal.publish(notificationFactory.createNotification(buildStatusChangedEvent), notifier::sendMessage);
         logger.debug("Status changed event processed {}.", buildStatusChangedEvent);
     }
 
     public void collectBuildSetStatusChangedEvent(@Observes BuildSetStatusChangedEvent buildSetStatusChangedEvent) {
-        notifier.sendMessage(notificationFactory.createNotification(buildSetStatusChangedEvent));
+        notificationJournal.publish(notificationFactory.createNotification(buildSetStatusChangedEvent), notifier::sendMessage);
     }
 }
@@ -24,12 +24,41 @@ import javax.websocket.Session;
 import org.jboss.pnc.spi.notifications.AttachedClient;
 import org.jboss.pnc.spi.notifications.MessageCallback;
 import org.jboss.pnc.spi.notifications.OutputConverter;
+import org.jboss.pnc.spi.notifications.model.EventType;
+import org.jboss.pnc.spi.notifications.model.Notification;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
+import java.lang.invoke.MethodHandles;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * Sends the messages to the session one at a time. Messages produced while a send is in progress wait in a bounded
+ * queue; a newer notification about the same entity replaces the waiting one and the oldest message is dropped when
+ * a slow client lets the queue fill up. Journaled notifications are never dropped silently: they are not replaced by
+ * newer notifications, so the client sees every sequence, and when they don't fit into the queue they are replaced by
+ * a {@link EventType#RESYNC_REQUIRED} notification.
+ */
 public class SessionBasedAttachedClient implements AttachedClient {
 
+    private static final Logger logger = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
+
+    static final int MAX_PENDING_MESSAGES = 100;
+
     private final Session session;
     private final OutputConverter outputConverter;
 
+    /**
+     * Guards pending and sending
+     */
+    private final Object sendLock = new Object();
+    private final Deque<PendingMessage> pending = new ArrayDeque<>();
+    private boolean sending;
+
     public SessionBasedAttachedClient(Session session, OutputConverter outputConverter) {
         this.session = session;
         this.outputConverter = outputConverter;
@@ -41,20 +70,175 @@ public class SessionBasedAttachedClient implements AttachedClient {
     }
 
     @Override
-    public void sendMessage(Object messageBody, MessageCallback callback) {
+    public void sendMessage(Object messageBody, String encodedMessage, MessageCallback callback) {
+        PendingMessage message = new PendingMessage(coalescingKey(messageBody), sequenceOf(messageBody), encodedMessage,
+                callback);
+        PendingMessage first;
+        synchronized (sendLock) {
+            enqueue(message);
+            first = startSending();
+        }
+        sendFirst(first);
+    }
+
+    /**
+     * Replayed messages are not coalesced, the client asked for every one of them.
+     */
+    @Override
+    public void replay(List<?> messages, MessageCallback callback) {
+        List<PendingMessage> replayed = new ArrayList<>(messages.size());
+        for (Object messageBody : messages) {
+            replayed.add(new PendingMessage(null, sequenceOf(messageBody), outputConverter.apply(messageBody), callback));
+        }
+        PendingMessage first;
+        synchronized (sendLock) {
+            if (pending.size() + replayed.size() > MAX_PENDING_MESSAGES) {
+                replaceWithResync(replayed, callback);
+            } else {
+                pending.addAll(replayed);
+            }
+            first = startSending();
+        }
+        sendFirst(first);
+    }
+
+    /**
+     * Guarded by sendLock
+     *
+     * @return The message to send or null when a send is already in progress
+     */
+    private PendingMessage startSending() {
+        if (sending || pending.isEmpty()) {
+            return null;
+        }
+        sending = true;
+        return pending.pollFirst();
+    }
+
+    private void sendFirst(PendingMessage first) {
+        if (first == null) {
+            return;
+        }
+        try {
+            send(first);
+        } catch (RuntimeException e) {
+            synchronized (sendLock) {
+                pending.clear();
+                sending = false;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Guarded by sendLock
+     */
+    private void enqueue(PendingMessage message) {
+        if (message.key != null) {
+            pending.removeIf(waiting -> waiting.sequence == null && message.key.equals(waiting.key));
+        }
+        if (pending.size() >= MAX_PENDING_MESSAGES) {
+            if (message.sequence != null || pending.stream().anyMatch(waiting -> waiting.sequence != null)) {
+                replaceWithResync(Collections.singletonList(message), message.callback);
+                if (message.sequence == null) {
+                    pending.addLast(message);
+                }
+                return;
+            }
+            pending.pollFirst();
+            logger.debug("Client {} is too slow, dropping the oldest pending message.", session.getId());
+        }
+        pending.addLast(message);
+    }
+
+    /**
+     * Drops the pending messages and asks the client to resync to the last dropped journaled notification.
+     *
+     * Guarded by sendLock
+     */
+    private void replaceWithResync(List<PendingMessage> dropped, MessageCallback callback) {
+        long lastSequence = Long.MIN_VALUE;
+        for (PendingMessage message : pending) {
+            if (message.sequence != null) {
+                lastSequence = Math.max(lastSequence, message.sequence);
+            }
+        }
+        for (PendingMessage message : dropped) {
+            if (message.sequence != null) {
+                lastSequence = Math.max(lastSequence, message.sequence);
+            }
+        }
+        pending.clear();
+        Notification resync = new Notification(EventType.RESYNC_REQUIRED, null, null, lastSequence);
+        pending.addLast(new PendingMessage(null, lastSequence, outputConverter.apply(resync), callback));
+        logger.debug("Client {} is too slow, it has to resync after {}.", session.getId(), lastSequence);
+    }
 
-        session.getAsyncRemote().sendText(outputConverter.apply(messageBody), new SendHandler() {
+    private void send(PendingMessage message) {
+        session.getAsyncRemote().sendText(message.text, new SendHandler() {
             @Override
             public void onResult(SendResult sendResult) {
                 if (!sendResult.isOK()) {
-                    callback.failed(SessionBasedAttachedClient.this, sendResult.getException());
+                    synchronized (sendLock) {
+                        pending.clear();
+                        sending = false;
+                    }
+                    message.callback.failed(SessionBasedAttachedClient.this, sendResult.getException());
                 } else {
-                    callback.successful(SessionBasedAttachedClient.this);
+                    message.callback.successful(SessionBasedAttachedClient.this);
+                    sendNext();
                 }
             }
         });
     }
 
+    private void sendNext() {
+        PendingMessage next;
+        synchronized (sendLock) {
+            next = pending.pollFirst();
+            if (next == null) {
+                sending = false;
+                return;
+            }
+        }
+        try {
+            send(next);
+        } catch (RuntimeException e) {
+            synchronized (sendLock) {
+                pending.clear();
+                sending = false;
+            }
+            next.callback.failed(this, e);
+        }
+    }
+
+    /**
+     * Notifications about the same entity and event type supersede each other, unless the superseded one is
+     * journaled.
+     */
+    private static Object coalescingKey(Object messageBody) {
+        if (messageBody instanceof Notification) {
+            Notification notification = (Notification) messageBody;
+            if (notification.getPayload() != null && notification.getPayload().getId() != null) {
+                return notification.getEventType() + ":" + notification.getPayload().getId();
+            }
+        }
+        return null;
+    }
+
+    private static Long sequenceOf(Object messageBody) {
+        if (messageBody instanceof Notification) {
+            return ((Notification) messageBody).getSequence();
+        }
+        return null;
+    }
+
+    int getPendingCount() {
+        synchronized (sendLock) {
+            return pending.size();
+        }
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o)
@@ -78,4 +262,18 @@ public class SessionBasedAttachedClient implements AttachedClient {
         result = 31 * result + (outputConverter != null ? outputConverter.hashCode() : 0);
         return result;
     }
+
+    private static final class PendingMessage {
+        private final Object key;
+        private final Long sequence;
+        private final String text;
+        private final MessageCallback callback;
+
+        private PendingMessage(Object key, Long sequence, String text, MessageCallback callback) {
+            this.key = key;
+            this.sequence = sequence;
+            this.text = text;
+            this.callback = callback;
+        }
+    }
 }
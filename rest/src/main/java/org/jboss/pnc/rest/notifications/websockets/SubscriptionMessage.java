@@ -0,0 +1,66 @@
+/**
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.pnc.rest.notifications.websockets;
+
+/**
+ * Message sent by a web socket client to change its subscriptions, eg.
+ * <code>{"action": "subscribe", "topic": "BUILD_CONFIGURATION", "id": "12"}</code>,
+ * or to resume after reconnecting, with the sequence of the last received notification as the id, eg.
+ * <code>{"action": "resume", "id": "1462870000000042"}</code>.
+ */
+public class SubscriptionMessage {
+
+    public enum Action {
+        SUBSCRIBE, UNSUBSCRIBE, RESUME
+    }
+
+    private String action;
+
+    private String topic;
+
+    private String id;
+
+    public String getAction() {
+        return action;
+    }
+
+    public void setAction(String action) {
+        this.action = action;
+    }
+
+    public String getTopic() {
+        return topic;
+    }
+
+    public void setTopic(String topic) {
+        this.topic = topic;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    @Override
+    public String toString() {
+        return "SubscriptionMessage{action=" + action + ", topic=" + topic + ", id=" + id + '}';
+    }
+}
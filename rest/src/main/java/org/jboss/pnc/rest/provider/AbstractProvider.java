@@ -23,22 +23,38 @@ import org.jboss.pnc.model.GenericEntity;
 import org.jboss.pnc.rest.provider.collection.CollectionInfo;
 import org.jboss.pnc.rest.provider.collection.CollectionInfoCollector;
 import org.jboss.pnc.rest.restmodel.GenericRestEntity;
+import org.jboss.pnc.rest.utils.StreamChunkLoader;
 import org.jboss.pnc.rest.validation.ValidationBuilder;
+import org.jboss.pnc.rest.validation.exceptions.InvalidEntityException;
 import org.jboss.pnc.rest.validation.exceptions.ValidationException;
 import org.jboss.pnc.rest.validation.groups.WhenCreatingNew;
 import org.jboss.pnc.rest.validation.groups.WhenDeleting;
 import org.jboss.pnc.rest.validation.groups.WhenUpdating;
+import org.jboss.pnc.spi.datastore.EntityChangeCounters;
 import org.jboss.pnc.spi.datastore.repositories.PageInfoProducer;
 import org.jboss.pnc.spi.datastore.repositories.SortInfoProducer;
+import org.jboss.pnc.spi.datastore.repositories.api.FetchPlan;
 import org.jboss.pnc.spi.datastore.repositories.api.PageInfo;
 import org.jboss.pnc.spi.datastore.repositories.api.Predicate;
 import org.jboss.pnc.spi.datastore.repositories.api.RSQLPredicateProducer;
 import org.jboss.pnc.spi.datastore.repositories.api.Repository;
 import org.jboss.pnc.spi.datastore.repositories.api.SortInfo;
 
+import javax.ejb.TransactionAttribute;
+import javax.ejb.TransactionAttributeType;
+import javax.inject.Inject;
 import java.lang.reflect.ParameterizedType;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
 import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
 
 import static org.jboss.pnc.rest.utils.StreamHelper.nullableStreamOf;
 
@@ -49,6 +65,16 @@ import static org.jboss.pnc.rest.utils.StreamHelper.nullableStreamOf;
  */
 public abstract class AbstractProvider<DBEntity extends GenericEntity<Integer>, RESTEntity extends GenericRestEntity<Integer>> {
 
+    /**
+     * Total pages reported for keyset based pages, which are not counted.
+     */
+    public static final int UNKNOWN_TOTAL_PAGES = -1;
+
+    /**
+     * Entities loaded by one keyset query, in one transaction, when streaming entities.
+     */
+    public static final int STREAM_CHUNK_SIZE = 500;
+
     protected RSQLPredicateProducer rsqlPredicateProducer;
 
     protected SortInfoProducer sortInfoProducer;
@@ -57,6 +83,12 @@ public abstract class AbstractProvider<DBEntity extends GenericEntity<Integer>,
 
     protected Repository<DBEntity, Integer> repository;
 
+    @Inject
+    protected EntityChangeCounters entityChangeCounters;
+
+    @Inject
+    protected StreamChunkLoader streamChunkLoader;
+
     @Deprecated
     public AbstractProvider() {
     }
@@ -79,29 +111,255 @@ public abstract class AbstractProvider<DBEntity extends GenericEntity<Integer>,
         PageInfo pageInfo = pageInfoProducer.getPageInfo(pageIndex, pageSize);
         SortInfo sortInfo = sortInfoProducer.getSortInfo(sortingRsql);
 
+        FetchPlan<DBEntity> fetchPlan = getFetchPlan();
+
         List<DBEntity> collection;
         int totalPages;
         if(predicates == null) {
-            collection = repository.queryWithPredicates(pageInfo, sortInfo, rsqlPredicate);
+            collection = repository.queryWithPredicates(pageInfo, sortInfo, fetchPlan, rsqlPredicate);
             totalPages = (repository.count(rsqlPredicate) + pageSize - 1) / pageSize;
         } else {
-            collection = repository.queryWithPredicates(pageInfo, sortInfo, ObjectArrays.concat(rsqlPredicate, predicates));
+            collection = repository.queryWithPredicates(pageInfo, sortInfo, fetchPlan, ObjectArrays.concat(rsqlPredicate, predicates));
             totalPages = (repository.count(ObjectArrays.concat(rsqlPredicate, predicates)) + pageSize - 1) / pageSize;
         }
 
         return nullableStreamOf(collection)
-                .map(toRESTModel())
+                .map(toRESTModel(collection))
+                .collect(new CollectionInfoCollector<>(pageIndex, pageSize, totalPages));
+    }
+
+    public boolean exists(Integer id) {
+        return repository.queryById(id) != null;
+    }
+
+    public CollectionInfo<RESTEntity> getAllAfter(Integer afterId, int pageSize, String sortingRsql, String query) {
+        return queryForCollectionAfter(afterId, pageSize, sortingRsql, query, null);
+    }
+
+    /**
+     * Keyset ("seek after") variant of {@link #queryForCollection(int, int, String, String, Predicate[])}. Selects
+     * the page of entities sorted right after the entity with the given id, so the cost doesn't depend on how deep
+     * the page is. Since no count query is executed, total pages are reported as {@link #UNKNOWN_TOTAL_PAGES}.
+     */
+    public CollectionInfo<RESTEntity> queryForCollectionAfter(Integer afterId, int pageSize, String sortingRsql, String query,
+            Predicate<DBEntity>... predicates) {
+        Predicate<DBEntity> rsqlPredicate = rsqlPredicateProducer.getPredicate(getDBEntityClass(), query);
+        SortInfo sortInfo = sortInfoProducer.getSortInfo(sortingRsql);
+        FetchPlan<DBEntity> fetchPlan = getFetchPlan();
+
+        List<DBEntity> collection;
+        if(predicates == null) {
+            collection = repository.queryWithPredicatesAfter(afterId, pageSize, sortInfo, fetchPlan, rsqlPredicate);
+        } else {
+            collection = repository.queryWithPredicatesAfter(afterId, pageSize, sortInfo, fetchPlan, ObjectArrays.concat(rsqlPredicate, predicates));
+        }
+
+        return nullableStreamOf(collection)
+                .map(toRESTModel(collection))
+                .collect(new CollectionInfoCollector<>(0, pageSize, UNKNOWN_TOTAL_PAGES));
+    }
+
+    /**
+     * Streaming variant of {@link #queryForCollection(int, int, String, String, Predicate[])}. Passes all matching
+     * entities to the consumer, so bulk exports don't need to page through the collection and memory use doesn't
+     * depend on its size.
+     *
+     * <p>
+     *     Entities are loaded by keyset queries of {@link #STREAM_CHUNK_SIZE} entities, each chunk in its own short
+     *     transaction. No transaction, cursor or connection is held while the consumer writes the chunk to a client,
+     *     however slow it is. Entities created or deleted during the export are included or skipped according to
+     *     their position, as with keyset pages.
+     * </p>
+     *
+     * @throws IllegalStateException when all entities of the previous chunk were deleted, so the position is lost
+     */
+    @TransactionAttribute(TransactionAttributeType.NOT_SUPPORTED)
+    public void streamForCollection(String sortingRsql, String query, Consumer<? super RESTEntity> consumer,
+            Predicate<DBEntity>... predicates) {
+        Predicate<DBEntity>[] allPredicates = withRsqlPredicate(query, predicates);
+        SortInfo sortInfo = sortInfoProducer.getSortInfo(sortingRsql);
+        FetchPlan<DBEntity> fetchPlan = getFetchPlan();
+
+        List<Integer> streamedIds = Collections.emptyList();
+        List<RESTEntity> chunk;
+        do {
+            List<Integer> previousIds = streamedIds;
+            chunk = loadStreamChunk(() -> {
+                List<DBEntity> entities = queryStreamChunk(previousIds, sortInfo, fetchPlan, allPredicates);
+                return entities.stream()
+                        .map(toRESTModel(entities))
+                        .collect(Collectors.toList());
+            });
+            chunk.forEach(consumer);
+            streamedIds = chunk.stream()
+                    .map(RESTEntity::getId)
+                    .collect(Collectors.toList());
+        } while (chunk.size() >= STREAM_CHUNK_SIZE);
+    }
+
+    private List<RESTEntity> loadStreamChunk(Supplier<List<RESTEntity>> chunk) {
+        if (streamChunkLoader == null) {
+            return chunk.get();
+        }
+        return streamChunkLoader.load(chunk);
+    }
+
+    /**
+     * Selects the chunk following the previously streamed entities. When the last streamed entity was deleted
+     * meanwhile, the chunk is selected after the last one which still exists, skipping the already streamed ones.
+     */
+    private List<DBEntity> queryStreamChunk(List<Integer> streamedIds, SortInfo sortInfo, FetchPlan<DBEntity> fetchPlan,
+            Predicate<DBEntity>[] predicates) {
+        if (streamedIds.isEmpty()) {
+            return repository.queryWithPredicatesAfter(null, STREAM_CHUNK_SIZE, sortInfo, fetchPlan, predicates);
+        }
+        Set<Integer> streamed = new HashSet<>(streamedIds);
+        for (int last = streamedIds.size() - 1; last >= 0; last--) {
+            Integer afterId = streamedIds.get(last);
+            int followingStreamed = streamedIds.size() - 1 - last;
+            List<DBEntity> entities = repository.queryWithPredicatesAfter(afterId, STREAM_CHUNK_SIZE + followingStreamed,
+                    sortInfo, fetchPlan, predicates);
+            if (!entities.isEmpty() || repository.queryById(afterId) != null) {
+                return entities.stream()
+                        .filter(entity -> !streamed.contains(entity.getId()))
+                        .collect(Collectors.toList());
+            }
+        }
+        throw new IllegalStateException("All " + getDBEntityClass().getSimpleName()
+                + " entities of the previously streamed chunk were deleted, the stream can't be continued.");
+    }
+
+    /**
+     * Batch variant of {@link #getSpecific(Integer)}. The entities are loaded together with the associations of the
+     * REST view by a few queries instead of one query per id.
+     *
+     * @return Found entities in the order of their first occurrence in the ids, missing ids are skipped.
+     */
+    public List<RESTEntity> getSpecific(List<Integer> ids) {
+        List<DBEntity> entities = repository.queryByIds(ids, getFetchPlan());
+        Function<? super DBEntity, ? extends RESTEntity> mapper = toRESTModel(entities);
+        Map<Integer, DBEntity> entitiesById = entities.stream()
+                .collect(Collectors.toMap(DBEntity::getId, Function.identity(), (first, second) -> first));
+        return ids.stream()
+                .distinct()
+                .map(entitiesById::get)
+                .filter(entity -> entity != null)
+                .map(mapper)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Parses comma separated names of REST fields, which can be used by the projection queries.
+     *
+     * @throws InvalidEntityException when a field can't be selected by a {@link #getProjectedFields() projection}
+     */
+    public List<String> parseProjectedFields(String fields) throws ValidationException {
+        Map<String, ProjectedField> projectedFields = getProjectedFields();
+        List<String> fieldNames = new ArrayList<>();
+        for (String field : fields.split(",")) {
+            String fieldName = field.trim();
+            if (fieldName.isEmpty() || fieldNames.contains(fieldName)) {
+                continue;
+            }
+            if (!projectedFields.containsKey(fieldName)) {
+                throw new InvalidEntityException("Field '" + fieldName + "' can't be selected, supported fields: "
+                        + projectedFields.keySet());
+            }
+            fieldNames.add(fieldName);
+        }
+        if (fieldNames.isEmpty()) {
+            throw new InvalidEntityException("No fields selected");
+        }
+        return fieldNames;
+    }
+
+    /**
+     * Projection variant of {@link #queryForCollection(int, int, String, String, Predicate[])}. Only the selected
+     * fields are read from the database, without loading the entities or their associations.
+     *
+     * @param fieldNames Fields returned by {@link #parseProjectedFields(String)}
+     */
+    public CollectionInfo<Map<String, Object>> queryForProjection(int pageIndex, int pageSize, String sortingRsql,
+            String query, List<String> fieldNames, Predicate<DBEntity>... predicates) {
+        Predicate<DBEntity>[] allPredicates = withRsqlPredicate(query, predicates);
+        PageInfo pageInfo = pageInfoProducer.getPageInfo(pageIndex, pageSize);
+        SortInfo sortInfo = sortInfoProducer.getSortInfo(sortingRsql);
+
+        List<Object[]> rows = repository.queryProjectionFrom(pageInfo.getPageOffset() * pageInfo.getPageSize(),
+                pageInfo.getPageSize(), sortInfo, getAttributePaths(fieldNames), allPredicates);
+        int totalPages = (repository.count(allPredicates) + pageSize - 1) / pageSize;
+
+        return rows.stream()
+                .map(row -> toProjection(fieldNames, row))
                 .collect(new CollectionInfoCollector<>(pageIndex, pageSize, totalPages));
     }
 
+    /**
+     * Keyset variant of {@link #queryForProjection(int, int, String, String, List, Predicate[])}.
+     */
+    public CollectionInfo<Map<String, Object>> queryForProjectionAfter(Integer afterId, int pageSize, String sortingRsql,
+            String query, List<String> fieldNames, Predicate<DBEntity>... predicates) {
+        SortInfo sortInfo = sortInfoProducer.getSortInfo(sortingRsql);
+
+        List<Object[]> rows = repository.queryProjectionAfter(afterId, pageSize, sortInfo, getAttributePaths(fieldNames),
+                withRsqlPredicate(query, predicates));
+
+        return rows.stream()
+                .map(row -> toProjection(fieldNames, row))
+                .collect(new CollectionInfoCollector<>(0, pageSize, UNKNOWN_TOTAL_PAGES));
+    }
+
+    /**
+     * Projection variant of {@link #getSpecific(Integer)}.
+     *
+     * @return Selected fields of the entity or null if it doesn't exist.
+     */
+    public Map<String, Object> getSpecificProjection(Integer id, List<String> fieldNames) {
+        Predicate<DBEntity> withId = (root, query, cb) -> cb.equal(root.get("id"), id);
+        List<Object[]> rows = repository.queryProjectionFrom(0, 1, sortInfoProducer.getSortInfo(null),
+                getAttributePaths(fieldNames), withId);
+        return rows.isEmpty() ? null : toProjection(fieldNames, rows.get(0));
+    }
+
     public RESTEntity getSpecific(Integer id) {
         DBEntity dbEntity = repository.queryById(id);
         if (dbEntity != null) {
-            return toRESTModel().apply(dbEntity);
+            return toRESTModel(Collections.singletonList(dbEntity)).apply(dbEntity);
         }
         return null;
     }
 
+    /**
+     * Gets a validator of the entity's REST view, which can be computed without loading the entity. By default all
+     * entities of the {@link #getRESTViewTypes() view types} share the version of the collection.
+     *
+     * @return Version of the entity or null if it isn't known.
+     */
+    public String getEntityVersion(Integer id) {
+        return getCollectionVersion();
+    }
+
+    /**
+     * Gets a validator of collections of the REST views. It changes whenever any entity of the
+     * {@link #getRESTViewTypes() view types} is changed.
+     *
+     * @return Version of the collection or null if it isn't known.
+     */
+    public String getCollectionVersion() {
+        if (entityChangeCounters == null) {
+            return null;
+        }
+        return entityChangeCounters.getVersion(getRESTViewTypes());
+    }
+
+    /**
+     * Entity types the REST view is mapped from. Providers mapping associations to the REST view need to list the
+     * types of the associations too.
+     */
+    protected Class<?>[] getRESTViewTypes() {
+        return new Class<?>[] { getDBEntityClass() };
+    }
+
     public Integer store(RESTEntity restEntity) throws ValidationException {
         validateBeforeSaving(restEntity);
         return repository.save(toDBModel().apply(restEntity)).getId();
@@ -138,6 +396,58 @@ public abstract class AbstractProvider<DBEntity extends GenericEntity<Integer>,
 
     protected abstract Function<? super DBEntity, ? extends RESTEntity> toRESTModel();
 
+    /**
+     * Mapping of a page of entities to the REST model. Providers can override it to load data of the whole page with
+     * a few queries instead of initializing associations of every entity.
+     *
+     * @param entities Entities of the page, which are going to be mapped
+     */
+    protected Function<? super DBEntity, ? extends RESTEntity> toRESTModel(List<DBEntity> entities) {
+        return toRESTModel();
+    }
+
+    /**
+     * Fields of the REST view, which can be selected by the projection queries, by their names.
+     */
+    protected Map<String, ProjectedField> getProjectedFields() {
+        return Collections.emptyMap();
+    }
+
+    private List<String> getAttributePaths(List<String> fieldNames) {
+        Map<String, ProjectedField> projectedFields = getProjectedFields();
+        return fieldNames.stream()
+                .map(fieldName -> projectedFields.get(fieldName).getAttributePath())
+                .collect(Collectors.toList());
+    }
+
+    private Map<String, Object> toProjection(List<String> fieldNames, Object[] row) {
+        Map<String, ProjectedField> projectedFields = getProjectedFields();
+        Map<String, Object> projection = new LinkedHashMap<>();
+        for (int i = 0; i < fieldNames.size(); i++) {
+            String fieldName = fieldNames.get(i);
+            projection.put(fieldName, projectedFields.get(fieldName).toRESTValue(row[i]));
+        }
+        return projection;
+    }
+
+    @SuppressWarnings("unchecked")
+    private Predicate<DBEntity>[] withRsqlPredicate(String query, Predicate<DBEntity>[] predicates) {
+        Predicate<DBEntity> rsqlPredicate = rsqlPredicateProducer.getPredicate(getDBEntityClass(), query);
+        if (predicates == null) {
+            return new Predicate[] { rsqlPredicate };
+        }
+        return ObjectArrays.concat(rsqlPredicate, predicates);
+    }
+
+    /**
+     * Associations used by {@link #toRESTModel()}, which are fetched together with the listed entities.
+     *
+     * @return Fetch plan of the REST view or null to load the associations lazily.
+     */
+    protected FetchPlan<DBEntity> getFetchPlan() {
+        return null;
+    }
+
     protected abstract Function<? super RESTEntity, ? extends DBEntity> toDBModel();
 
     public Class<DBEntity> getDBEntityClass() {
@@ -30,10 +30,13 @@ import org.jboss.pnc.spi.datastore.repositories.api.RSQLPredicateProducer;
 import org.jboss.pnc.spi.datastore.repositories.api.SortInfo;
 
 import javax.ejb.Stateless;
+import javax.ejb.TransactionAttribute;
+import javax.ejb.TransactionAttributeType;
 import javax.inject.Inject;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
@@ -101,6 +104,12 @@ public class ArtifactProvider extends AbstractProvider<Artifact, ArtifactRest> {
         return queryForCollection(pageIndex, pageSize, sortingRsql, query, withDependantBuildRecordId(buildRecordId));
     }
 
+    @TransactionAttribute(TransactionAttributeType.NOT_SUPPORTED)
+    public void streamDependencyArtifactsForBuildRecord(String sortingRsql, String query, int buildRecordId,
+            Consumer<? super ArtifactRest> consumer) {
+        streamForCollection(sortingRsql, query, consumer, withDependantBuildRecordId(buildRecordId));
+    }
+
     @Override
     protected Function<? super Artifact, ? extends ArtifactRest> toRESTModel() {
         return ArtifactRest::new;
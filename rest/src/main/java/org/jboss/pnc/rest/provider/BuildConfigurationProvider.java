@@ -17,10 +17,13 @@
  */
 package org.jboss.pnc.rest.provider;
 
+import com.google.common.collect.ImmutableMap;
 import org.jboss.pnc.model.BuildConfiguration;
 import org.jboss.pnc.model.BuildConfigurationAudited;
+import org.jboss.pnc.model.BuildEnvironment;
 import org.jboss.pnc.model.IdRev;
 import org.jboss.pnc.model.ProductVersion;
+import org.jboss.pnc.model.Project;
 import org.jboss.pnc.rest.provider.collection.CollectionInfo;
 import org.jboss.pnc.rest.provider.collection.CollectionInfoCollector;
 import org.jboss.pnc.rest.restmodel.BuildConfigurationAuditedRest;
@@ -37,14 +40,20 @@ import org.jboss.pnc.spi.datastore.repositories.BuildConfigurationRepository;
 import org.jboss.pnc.spi.datastore.repositories.PageInfoProducer;
 import org.jboss.pnc.spi.datastore.repositories.ProductVersionRepository;
 import org.jboss.pnc.spi.datastore.repositories.SortInfoProducer;
+import org.jboss.pnc.spi.datastore.repositories.api.FetchPlan;
 import org.jboss.pnc.spi.datastore.repositories.api.RSQLPredicateProducer;
+import org.jboss.pnc.spi.datastore.repositories.api.impl.DefaultFetchPlan;
 
 import javax.ejb.Stateless;
 import javax.inject.Inject;
 
+import java.util.Collections;
+import java.util.Date;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.function.Function;
+import java.util.stream.Collectors;
 
 import static org.jboss.pnc.rest.utils.StreamHelper.nullableStreamOf;
 import static org.jboss.pnc.spi.datastore.predicates.BuildConfigurationPredicates.withBuildConfigurationSetId;
@@ -58,6 +67,34 @@ import static org.jboss.pnc.spi.datastore.predicates.BuildConfigurationPredicate
 @Stateless
 public class BuildConfigurationProvider extends AbstractProvider<BuildConfiguration, BuildConfigurationRest> {
 
+    /**
+     * Associations read by {@link BuildConfigurationRest#BuildConfigurationRest(BuildConfiguration)}.
+     */
+    private static final FetchPlan<BuildConfiguration> BUILD_CONFIGURATION_REST_VIEW = new DefaultFetchPlan<>(
+            "BuildConfigurationRest", "project.license", "buildEnvironment", "productVersion");
+
+    /**
+     * Scalar fields of {@link BuildConfigurationRest}, which can be selected without loading the configurations.
+     */
+    private static final Map<String, ProjectedField> BUILD_CONFIGURATION_REST_FIELDS =
+            ImmutableMap.<String, ProjectedField>builder()
+            .put("id", ProjectedField.of("id"))
+            .put("name", ProjectedField.of("name"))
+            .put("description", ProjectedField.of("description"))
+            .put("buildScript", ProjectedField.of("buildScript"))
+            .put("scmRepoURL", ProjectedField.of("scmRepoURL"))
+            .put("scmRevision", ProjectedField.of("scmRevision"))
+            .put("scmMirrorRepoURL", ProjectedField.of("scmMirrorRepoURL"))
+            .put("scmMirrorRevision", ProjectedField.of("scmMirrorRevision"))
+            .put("creationTime", ProjectedField.of("creationTime"))
+            .put("lastModificationTime", ProjectedField.of("lastModificationTime"))
+            .put("archived", ProjectedField.of("archived"))
+            .put("repositories", ProjectedField.of("repositories"))
+            .put("productVersionId", ProjectedField.of("productVersion.id"))
+            .build();
+
+    private BuildConfigurationRepository buildConfigurationRepository;
+
     private BuildConfigurationAuditedRepository buildConfigurationAuditedRepository;
 
     private ProductVersionRepository productVersionRepository;
@@ -68,6 +105,7 @@ public class BuildConfigurationProvider extends AbstractProvider<BuildConfigurat
             RSQLPredicateProducer rsqlPredicateProducer, SortInfoProducer sortInfoProducer, PageInfoProducer pageInfoProducer,
             ProductVersionRepository productVersionRepository) {
         super(buildConfigurationRepository, rsqlPredicateProducer, sortInfoProducer, pageInfoProducer);
+        this.buildConfigurationRepository = buildConfigurationRepository;
         this.buildConfigurationAuditedRepository = buildConfigurationAuditedRepository;
         this.productVersionRepository = productVersionRepository;
     }
@@ -154,6 +192,51 @@ public class BuildConfigurationProvider extends AbstractProvider<BuildConfigurat
         return buildConfiguration -> new BuildConfigurationRest(buildConfiguration);
     }
 
+    /**
+     * Loads only ids of the dependencies of the whole page instead of the dependent configurations themselves.
+     */
+    @Override
+    protected Function<? super BuildConfiguration, ? extends BuildConfigurationRest> toRESTModel(List<BuildConfiguration> buildConfigurations) {
+        Map<Integer, Set<Integer>> dependencyIds = buildConfigurationRepository.queryDependencyIds(
+                nullableStreamOf(buildConfigurations).map(BuildConfiguration::getId).collect(Collectors.toList()));
+        return buildConfiguration -> new BuildConfigurationRest(buildConfiguration,
+                dependencyIds.getOrDefault(buildConfiguration.getId(), Collections.emptySet()));
+    }
+
+    @Override
+    protected FetchPlan<BuildConfiguration> getFetchPlan() {
+        return BUILD_CONFIGURATION_REST_VIEW;
+    }
+
+    @Override
+    protected Map<String, ProjectedField> getProjectedFields() {
+        return BUILD_CONFIGURATION_REST_FIELDS;
+    }
+
+    /**
+     * Every change of a build configuration, including its product version and dependencies, updates its optimistic
+     * lock version. The embedded project lists the ids of its configurations, which change when a sibling
+     * configuration is created or deleted, so the version of all the {@link #getRESTViewTypes() view types} is needed
+     * too.
+     */
+    @Override
+    public String getEntityVersion(Integer id) {
+        if (entityChangeCounters == null) {
+            return null;
+        }
+        Date lastModificationTime = buildConfigurationRepository.getLastModificationTime(id);
+        String associationsVersion = entityChangeCounters.getVersion(getRESTViewTypes());
+        if (lastModificationTime == null || associationsVersion == null) {
+            return null;
+        }
+        return lastModificationTime.getTime() + "." + associationsVersion;
+    }
+
+    @Override
+    protected Class<?>[] getRESTViewTypes() {
+        return new Class<?>[] { BuildConfiguration.class, Project.class, BuildEnvironment.class };
+    }
+
     @Override
     protected Function<? super BuildConfigurationRest, ? extends BuildConfiguration> toDBModel() {
         return buildConfigRest -> {
@@ -17,20 +17,30 @@
  */
 package org.jboss.pnc.rest.provider;
 
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ObjectArrays;
+import org.jboss.pnc.model.BuildEnvironment;
 import org.jboss.pnc.model.BuildRecord;
+import org.jboss.pnc.model.Project;
+import org.jboss.pnc.model.User;
 import org.jboss.pnc.rest.provider.collection.CollectionInfo;
 import org.jboss.pnc.rest.provider.collection.CollectionInfoCollector;
 import org.jboss.pnc.rest.restmodel.BuildConfigurationAuditedRest;
 import org.jboss.pnc.rest.restmodel.BuildRecordRest;
 import org.jboss.pnc.rest.restmodel.UserRest;
+import org.jboss.pnc.spi.BuildCoordinationStatus;
 import org.jboss.pnc.spi.coordinator.BuildCoordinator;
 import org.jboss.pnc.spi.coordinator.BuildTask;
 import org.jboss.pnc.spi.datastore.repositories.BuildRecordRepository;
 import org.jboss.pnc.spi.datastore.repositories.PageInfoProducer;
 import org.jboss.pnc.spi.datastore.repositories.SortInfoProducer;
+import org.jboss.pnc.spi.datastore.repositories.api.FetchPlan;
 import org.jboss.pnc.spi.datastore.repositories.api.PageInfo;
+import org.jboss.pnc.spi.datastore.repositories.api.Predicate;
 import org.jboss.pnc.spi.datastore.repositories.api.RSQLPredicateProducer;
 import org.jboss.pnc.spi.datastore.repositories.api.SortInfo;
+import org.jboss.pnc.spi.datastore.repositories.api.impl.DefaultFetchPlan;
+import org.jboss.pnc.spi.datastore.repositories.api.impl.PropertyComparator;
 import org.jboss.pnc.spi.executor.BuildExecutionSession;
 import org.jboss.pnc.spi.executor.BuildExecutor;
 import org.slf4j.Logger;
@@ -45,7 +55,9 @@ import java.io.Writer;
 import java.lang.invoke.MethodHandles;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 
@@ -60,6 +72,40 @@ import static org.jboss.pnc.spi.datastore.predicates.BuildRecordPredicates.withU
 public class BuildRecordProvider extends AbstractProvider<BuildRecord, BuildRecordRest> {
 
     private static final Logger logger = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
+
+    /**
+     * Associations read by {@link BuildRecordRest#BuildRecordRest(BuildRecord)}, and the eager ones of the latest
+     * build configuration.
+     */
+    private static final FetchPlan<BuildRecord> BUILD_RECORD_REST_VIEW = new DefaultFetchPlan<>("BuildRecordRest",
+            "buildConfigurationAudited.project.license", "buildConfigurationAudited.buildEnvironment",
+            "latestBuildConfiguration.project", "latestBuildConfiguration.buildEnvironment",
+            "latestBuildConfiguration.productVersion", "user", "buildEnvironment", "buildConfigSetRecord",
+            "productMilestone");
+
+    /**
+     * Scalar fields of {@link BuildRecordRest}, which can be selected without loading the build records.
+     */
+    private static final Map<String, ProjectedField> BUILD_RECORD_REST_FIELDS = ImmutableMap.<String, ProjectedField>builder()
+            .put("id", ProjectedField.of("id"))
+            .put("submitTime", ProjectedField.of("submitTime"))
+            .put("startTime", ProjectedField.of("startTime"))
+            .put("endTime", ProjectedField.of("endTime"))
+            .put("scmRepoURL", ProjectedField.of("scmRepoURL"))
+            .put("scmRevision", ProjectedField.of("scmRevision"))
+            .put("externalArchiveId", ProjectedField.of("externalArchiveId"))
+            .put("buildConfigurationId", ProjectedField.of("buildConfigurationAudited.id"))
+            .put("buildConfigurationName", ProjectedField.of("buildConfigurationAudited.name"))
+            .put("buildConfigurationRev", ProjectedField.of("buildConfigurationAudited.rev"))
+            .put("userId", ProjectedField.of("user.id"))
+            .put("username", ProjectedField.of("user.username"))
+            .put("buildEnvironmentId", ProjectedField.of("buildEnvironment.id"))
+            .put("status", ProjectedField.of("status", BuildCoordinationStatus::fromBuildStatus))
+            .put("buildConfigSetRecordId", ProjectedField.of("buildConfigSetRecord.id"))
+            .put("buildContentId", ProjectedField.of("buildContentId"))
+            .put("productMilestoneId", ProjectedField.of("productMilestone.id"))
+            .build();
+
     private BuildExecutor buildExecutor;
     private BuildCoordinator buildCoordinator;
 
@@ -197,6 +243,34 @@ public class BuildRecordProvider extends AbstractProvider<BuildRecord, BuildReco
         return buildRecord -> new BuildRecordRest(buildRecord);
     }
 
+    @Override
+    protected FetchPlan<BuildRecord> getFetchPlan() {
+        return BUILD_RECORD_REST_VIEW;
+    }
+
+    @Override
+    protected Map<String, ProjectedField> getProjectedFields() {
+        return BUILD_RECORD_REST_FIELDS;
+    }
+
+    /**
+     * Build records don't have an optimistic lock version, the id together with the versions of the build records
+     * and of the embedded associations identifies the REST view.
+     */
+    @Override
+    public String getEntityVersion(Integer id) {
+        if (entityChangeCounters == null) {
+            return null;
+        }
+        String version = entityChangeCounters.getVersion(getRESTViewTypes());
+        return version == null ? null : id + "." + version;
+    }
+
+    @Override
+    protected Class<?>[] getRESTViewTypes() {
+        return new Class<?>[] { BuildRecord.class, User.class, Project.class, BuildEnvironment.class };
+    }
+
     @Override
     protected Function<? super BuildRecordRest, ? extends BuildRecord> toDBModel() {
         throw new UnsupportedOperationException("Not supported by BuildRecordProvider");
@@ -261,68 +335,66 @@ public class BuildRecordProvider extends AbstractProvider<BuildRecord, BuildReco
     }
 
     public CollectionInfo<BuildRecordRest> getRunningAndArchivedBuildRecords(Integer pageIndex, Integer pageSize, String search, String sort) {
-        CollectionInfo<BuildRecordRest> buildRecords = getAll(pageIndex, pageSize, sort, search);
-        CollectionInfo<BuildRecordRest> allRunning = getAllRunning(pageIndex, pageSize, search, sort);
-
-        List<BuildRecordRest> allBuildRecords = new ArrayList<>();
-        allBuildRecords.addAll(buildRecords.getContent());
-        allBuildRecords.addAll(allRunning.getContent());
-
-        //We don't need to skip the results... it has been done in the previous steps.
-        //However we need to limit them
-        allBuildRecords = allBuildRecords.stream()
-                .filter(rsqlPredicateProducer.getStreamPredicate(BuildRecordRest.class, search))
-                .sorted(sortInfoProducer.getSortInfo(sort).getComparator())
-                .limit(pageSize)
-                .collect(Collectors.toList());
-
-        int totalPages = (int) Math.ceil((double) allBuildRecords.size() / pageSize);
-        CollectionInfo<BuildRecordRest> allBuildRecordsWithMetadata = new CollectionInfo<>(pageIndex, pageSize, totalPages, allBuildRecords);
-
-        return allBuildRecordsWithMetadata;
+        return getRunningAndArchived(pageIndex, pageSize, search, sort, task -> true);
     }
 
     public CollectionInfo<BuildRecordRest> getRunningAndArchivedBuildRecordsOfBuildConfiguration (Integer pageIndex, Integer pageSize, String search, String sort, Integer configurationId) {
-        CollectionInfo<BuildRecordRest> archivedBuildRecords = getAllForBuildConfiguration(pageIndex, pageSize, sort, search, configurationId);
-        CollectionInfo<BuildRecordRest> runningBuildRecords  = getAllRunningForBuildConfiguration(pageIndex, pageSize, search, sort, configurationId);
-
-        List<BuildRecordRest> allBuildRecords = new ArrayList<>();
-        allBuildRecords.addAll(archivedBuildRecords.getContent());
-        allBuildRecords.addAll(runningBuildRecords.getContent());
-
-        //We don't need to skip the results... it has been done in the previous steps.
-        //However we need to limit them
-        allBuildRecords = allBuildRecords.stream()
-                .filter(rsqlPredicateProducer.getStreamPredicate(BuildRecordRest.class, search))
-                .sorted(sortInfoProducer.getSortInfo(sort).getComparator())
-                .limit(pageSize)
-                .collect(Collectors.toList());
-
-        int totalPages = (int) Math.ceil((double) allBuildRecords.size() / pageSize);
-        CollectionInfo<BuildRecordRest> allBuildRecordsWithMetadata = new CollectionInfo<>(pageIndex, pageSize, totalPages, allBuildRecords);
-
-        return allBuildRecordsWithMetadata;
+        return getRunningAndArchived(pageIndex, pageSize, search, sort,
+                task -> task.getBuildConfigurationAudited() != null
+                        && configurationId.equals(task.getBuildConfigurationAudited().getId().getId()),
+                withBuildConfigurationId(configurationId));
     }
 
     public CollectionInfo<BuildRecordRest> getRunningAndArchivedBuildRecordsOfUser (Integer pageIndex, Integer pageSize, String search, String sort, Integer userId) {
-        CollectionInfo<BuildRecordRest> archivedBuildRecords = getAllOfUser(pageIndex, pageSize, sort, search, userId);
-        CollectionInfo<BuildRecordRest> runningBuildRecords  = getAllRunningOfUser(pageIndex, pageSize, search, sort, userId);
+        return getRunningAndArchived(pageIndex, pageSize, search, sort,
+                task -> task.getUser() != null && userId.equals(task.getUser().getId()),
+                withUserId(userId));
+    }
 
-        List<BuildRecordRest> allBuildRecords = new ArrayList<>();
-        allBuildRecords.addAll(archivedBuildRecords.getContent());
-        allBuildRecords.addAll(runningBuildRecords.getContent());
+    /**
+     * Merges sorted running builds with the sorted archived ones. Running builds are filtered and sorted in memory,
+     * archived ones are selected by a single window query (see {@link MergedPage}), so the page and total pages are
+     * exact.
+     */
+    private CollectionInfo<BuildRecordRest> getRunningAndArchived(int pageIndex, int pageSize, String search, String sort,
+            java.util.function.Predicate<BuildTask> runningFilter, Predicate<BuildRecord>... archivedPredicates) {
+        SortInfo sortInfo = sortInfoProducer.getSortInfo(sort);
+        Comparator<BuildRecordRest> comparator = getMergeComparator(sortInfo);
+
+        List<BuildRecordRest> running = nullableStreamOf(buildCoordinator.getSubmittedBuildTasks())
+                .filter(task -> task != null)
+                .filter(runningFilter)
+                .filter(rsqlPredicateProducer.getStreamPredicate(BuildTask.class, search))
+                .map(this::createNewBuildRecordRest)
+                .sorted(comparator)
+                .collect(Collectors.toList());
 
-        //We don't need to skip the results... it has been done in the previous steps.
-        //However we need to limit them
-        allBuildRecords = allBuildRecords.stream()
-                .filter(rsqlPredicateProducer.getStreamPredicate(BuildRecordRest.class, search))
-                .sorted(sortInfoProducer.getSortInfo(sort).getComparator())
-                .limit(pageSize)
+        Predicate<BuildRecord>[] predicates = ObjectArrays.concat(
+                rsqlPredicateProducer.getPredicate(BuildRecord.class, search), archivedPredicates);
+        int archivedCount = repository.count(predicates);
+
+        int offset = pageIndex * pageSize;
+        List<BuildRecordRest> window = nullableStreamOf(repository.queryWithPredicatesFrom(
+                MergedPage.getWindowOffset(offset, running.size()),
+                MergedPage.getWindowSize(offset, pageSize, running.size()),
+                sortInfo, getFetchPlan(), predicates))
+                .map(toRESTModel())
                 .collect(Collectors.toList());
 
-        int totalPages = (int) Math.ceil((double) allBuildRecords.size() / pageSize);
-        CollectionInfo<BuildRecordRest> allBuildRecordsWithMetadata = new CollectionInfo<>(pageIndex, pageSize, totalPages, allBuildRecords);
+        int totalPages = (archivedCount + running.size() + pageSize - 1) / pageSize;
+        return new CollectionInfo<>(pageIndex, pageSize, totalPages,
+                MergedPage.merge(offset, pageSize, window, running, comparator));
+    }
 
-        return allBuildRecordsWithMetadata;
+    /**
+     * Same order as the one of database queries, where the id breaks ties and null values (e.g. the end time of
+     * running builds) are sorted last in ascending and first in descending order.
+     */
+    private Comparator<BuildRecordRest> getMergeComparator(SortInfo sortInfo) {
+        List<String> fields = new ArrayList<>(sortInfo.getFields());
+        if (!fields.contains("id")) {
+            fields.add("id");
+        }
+        return new PropertyComparator<>(fields, sortInfo.getDirection());
     }
 }
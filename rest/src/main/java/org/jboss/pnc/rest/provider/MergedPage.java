@@ -0,0 +1,108 @@
+/**
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.pnc.rest.provider;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Computes an exact page of two merged sorted sequences, where the first one is stored in the database and the second
+ * one is held in memory.
+ *
+ * <p>
+ *     For a page starting at <code>offset</code>, at most <code>m = min(offset, inMemory.size())</code> in-memory
+ *     elements can precede it, so the page is contained in the window of stored elements starting at row
+ *     <code>offset - m</code> with <code>pageSize + m</code> rows. The position of the window within the merged
+ *     sequence is found by a binary search of its first element in the in-memory elements.
+ * </p>
+ */
+class MergedPage {
+
+    private MergedPage() {
+    }
+
+    /**
+     * @return Row of the first stored element, which has to be selected for the page
+     */
+    static int getWindowOffset(int offset, int inMemoryCount) {
+        return offset - Math.min(offset, inMemoryCount);
+    }
+
+    /**
+     * @return Number of stored elements, which have to be selected for the page
+     */
+    static int getWindowSize(int offset, int pageSize, int inMemoryCount) {
+        return pageSize + Math.min(offset, inMemoryCount);
+    }
+
+    /**
+     * @param offset Position of the first element of the page in the merged sequence
+     * @param pageSize Maximum number of elements of the page
+     * @param window Stored elements selected from {@link #getWindowOffset(int, int)}, in order of the comparator
+     * @param inMemory All in-memory elements, in order of the comparator
+     * @param comparator Total order of both sequences
+     */
+    static <T> List<T> merge(int offset, int pageSize, List<T> window, List<T> inMemory, Comparator<? super T> comparator) {
+        int windowOffset = getWindowOffset(offset, inMemory.size());
+        int mergedStart;
+        List<T> inMemoryFromWindow;
+        if (windowOffset == 0) {
+            mergedStart = 0;
+            inMemoryFromWindow = inMemory;
+        } else if (window.isEmpty()) {
+            // all the stored elements and at most offset in-memory ones precede the page
+            return Collections.emptyList();
+        } else {
+            int precedingInMemory = countPreceding(inMemory, window.get(0), comparator);
+            mergedStart = windowOffset + precedingInMemory;
+            inMemoryFromWindow = inMemory.subList(precedingInMemory, inMemory.size());
+        }
+
+        List<T> merged = new ArrayList<>(window.size() + inMemoryFromWindow.size());
+        int i = 0;
+        int j = 0;
+        while (i < window.size() || j < inMemoryFromWindow.size()) {
+            if (j == inMemoryFromWindow.size()
+                    || (i < window.size() && comparator.compare(window.get(i), inMemoryFromWindow.get(j)) <= 0)) {
+                merged.add(window.get(i++));
+            } else {
+                merged.add(inMemoryFromWindow.get(j++));
+            }
+        }
+
+        int from = Math.min(offset - mergedStart, merged.size());
+        int to = Math.min(from + pageSize, merged.size());
+        return merged.subList(from, to);
+    }
+
+    private static <T> int countPreceding(List<T> sorted, T element, Comparator<? super T> comparator) {
+        int low = 0;
+        int high = sorted.size();
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (comparator.compare(sorted.get(middle), element) < 0) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+}
@@ -34,8 +34,14 @@ import org.jboss.pnc.spi.datastore.repositories.api.RSQLPredicateProducer;
 
 import javax.ejb.Stateless;
 import javax.inject.Inject;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.function.Function;
+import java.util.stream.Collectors;
 
+import static org.jboss.pnc.rest.utils.StreamHelper.nullableStreamOf;
 import static org.jboss.pnc.spi.datastore.predicates.ProductMilestonePredicates.withProductVersionId;
 
 @Stateless
@@ -43,6 +49,8 @@ public class ProductMilestoneProvider extends AbstractProvider<ProductMilestone,
 
     ArtifactRepository artifactRepository;
 
+    ProductMilestoneRepository productMilestoneRepository;
+
     @Inject
     public ProductMilestoneProvider(ProductMilestoneRepository productMilestoneRepository,
             ArtifactRepository artifactRepository,
@@ -50,6 +58,7 @@ public class ProductMilestoneProvider extends AbstractProvider<ProductMilestone,
             SortInfoProducer sortInfoProducer, PageInfoProducer pageInfoProducer) {
         super(productMilestoneRepository, rsqlPredicateProducer, sortInfoProducer, pageInfoProducer);
         this.artifactRepository = artifactRepository;
+        this.productMilestoneRepository = productMilestoneRepository;
     }
 
     // needed for EJB/CDI
@@ -66,6 +75,20 @@ public class ProductMilestoneProvider extends AbstractProvider<ProductMilestone,
         return productMilestone -> new ProductMilestoneRest(productMilestone);
     }
 
+    /**
+     * Loads only ids of performed builds and distributed artifacts of the whole page, since milestones can contain
+     * a huge number of them.
+     */
+    @Override
+    protected Function<? super ProductMilestone, ? extends ProductMilestoneRest> toRESTModel(List<ProductMilestone> productMilestones) {
+        List<Integer> milestoneIds = nullableStreamOf(productMilestones).map(ProductMilestone::getId).collect(Collectors.toList());
+        Map<Integer, Set<Integer>> performedBuildIds = productMilestoneRepository.queryPerformedBuildIds(milestoneIds);
+        Map<Integer, Set<Integer>> distributedArtifactIds = productMilestoneRepository.queryDistributedArtifactIds(milestoneIds);
+        return productMilestone -> new ProductMilestoneRest(productMilestone,
+                performedBuildIds.getOrDefault(productMilestone.getId(), Collections.emptySet()),
+                distributedArtifactIds.getOrDefault(productMilestone.getId(), Collections.emptySet()));
+    }
+
     @Override
     protected Function<? super ProductMilestoneRest, ? extends ProductMilestone> toDBModel() {
         return productMilestoneRest -> productMilestoneRest.toDBEntityBuilder().build();
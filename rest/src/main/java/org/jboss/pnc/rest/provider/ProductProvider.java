@@ -17,7 +17,15 @@
  */
 package org.jboss.pnc.rest.provider;
 
+import org.jboss.pnc.model.BuildConfiguration;
+import org.jboss.pnc.model.BuildConfigurationSet;
+import org.jboss.pnc.model.BuildEnvironment;
+import org.jboss.pnc.model.BuildRecord;
 import org.jboss.pnc.model.Product;
+import org.jboss.pnc.model.ProductMilestone;
+import org.jboss.pnc.model.ProductRelease;
+import org.jboss.pnc.model.ProductVersion;
+import org.jboss.pnc.model.Project;
 import org.jboss.pnc.rest.restmodel.ProductRest;
 import org.jboss.pnc.spi.datastore.repositories.PageInfoProducer;
 import org.jboss.pnc.spi.datastore.repositories.ProductRepository;
@@ -50,4 +58,11 @@ public class ProductProvider extends AbstractProvider<Product, ProductRest> {
         return product -> product.toDBEntityBuilder().build();
     }
 
+    @Override
+    protected Class<?>[] getRESTViewTypes() {
+        return new Class<?>[] { Product.class, ProductVersion.class, ProductMilestone.class, ProductRelease.class,
+                BuildConfiguration.class, BuildConfigurationSet.class, BuildRecord.class, Project.class,
+                BuildEnvironment.class };
+    }
+
 }
@@ -17,6 +17,7 @@
  */
 package org.jboss.pnc.rest.provider;
 
+import org.jboss.pnc.model.BuildConfiguration;
 import org.jboss.pnc.model.Project;
 import org.jboss.pnc.rest.restmodel.ProjectRest;
 import org.jboss.pnc.rest.validation.exceptions.ConflictedEntryException;
@@ -53,6 +54,14 @@ public class ProjectProvider extends AbstractProvider<Project, ProjectRest> {
         }
     }
 
+    /**
+     * The REST view lists the ids of the project's configurations.
+     */
+    @Override
+    protected Class<?>[] getRESTViewTypes() {
+        return new Class<?>[] { Project.class, BuildConfiguration.class };
+    }
+
     @Override
     protected Function<? super Project, ? extends ProjectRest> toRESTModel() {
         return project -> new ProjectRest(project);
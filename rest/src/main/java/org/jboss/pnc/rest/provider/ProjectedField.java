@@ -0,0 +1,61 @@
+/**
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.pnc.rest.provider;
+
+import java.util.function.Function;
+
+/**
+ * Field of a REST view, which is selected directly from an entity attribute, so the entity doesn't have to be
+ * loaded to get it.
+ */
+public class ProjectedField {
+
+    private final String attributePath;
+
+    private final Function<Object, Object> converter;
+
+    private ProjectedField(String attributePath, Function<Object, Object> converter) {
+        this.attributePath = attributePath;
+        this.converter = converter;
+    }
+
+    /**
+     * @param attributePath Attribute of the entity, dot separated paths traverse associations (e.g. "user.username")
+     */
+    public static ProjectedField of(String attributePath) {
+        return new ProjectedField(attributePath, Function.identity());
+    }
+
+    /**
+     * @param attributePath Attribute of the entity, dot separated paths traverse associations (e.g. "user.username")
+     * @param converter Conversion of non null attribute values to the REST model
+     */
+    @SuppressWarnings("unchecked")
+    public static <A> ProjectedField of(String attributePath, Function<A, ?> converter) {
+        Function<A, Object> nullSafeConverter = value -> value == null ? null : converter.apply(value);
+        return new ProjectedField(attributePath, (Function<Object, Object>) nullSafeConverter);
+    }
+
+    public String getAttributePath() {
+        return attributePath;
+    }
+
+    public Object toRESTValue(Object attributeValue) {
+        return converter.apply(attributeValue);
+    }
+}
@@ -0,0 +1,247 @@
+/**
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.pnc.rest.trigger;
+
+import org.jboss.pnc.common.Configuration;
+import org.jboss.pnc.common.json.ConfigurationParseException;
+import org.jboss.pnc.common.json.moduleconfig.SystemConfig;
+import org.jboss.pnc.common.json.moduleprovider.PncConfigProvider;
+import org.jboss.pnc.model.User;
+import org.jboss.pnc.rest.notifications.NotificationJournal;
+import org.jboss.pnc.rest.restmodel.BuildTriggerRest;
+import org.jboss.pnc.rest.validation.exceptions.InvalidEntityException;
+import org.jboss.pnc.spi.BuildTriggerStatus;
+import org.jboss.pnc.spi.datastore.repositories.BuildConfigurationRepository;
+import org.jboss.pnc.spi.datastore.repositories.BuildConfigurationSetRepository;
+import org.jboss.pnc.spi.notifications.Notifier;
+import org.jboss.pnc.spi.notifications.model.BuildTriggerChangedPayload;
+import org.jboss.pnc.spi.notifications.model.EventType;
+import org.jboss.pnc.spi.notifications.model.Notification;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.PreDestroy;
+import javax.enterprise.context.ApplicationScoped;
+import javax.inject.Inject;
+import java.lang.invoke.MethodHandles;
+import java.util.Date;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.LongSupplier;
+
+/**
+ * Accepts build triggers without waiting for the build to be initialized. A trigger is validated, registered and
+ * handed over to a bounded pool of workers which call {@link BuildTriggerer}. Every change of the trigger status is
+ * sent to the web socket clients, the current status can be retrieved by the trigger id.
+ *
+ * Triggers are identified by random UUIDs, so ids issued by different nodes or after a restart do not collide.
+ * They are kept in memory only, completed triggers are forgotten {@link #COMPLETED_TRIGGER_RETENTION_MILLIS}
+ * after their completion.
+ */
+@ApplicationScoped
+public class AsyncBuildTriggerer {
+
+    private static final Logger logger = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
+
+    static final long COMPLETED_TRIGGER_RETENTION_MILLIS = TimeUnit.HOURS.toMillis(1);
+
+    private BuildTriggerer buildTriggerer;
+    private BuildConfigurationRepository buildConfigurationRepository;
+    private BuildConfigurationSetRepository buildConfigurationSetRepository;
+    private Notifier notifier;
+    private NotificationJournal notificationJournal;
+
+    private ExecutorService executor;
+    private LongSupplier clock;
+
+    private final Map<String, BuildTriggerRest> triggers = new ConcurrentHashMap<>();
+
+    @Deprecated //not meant for usage its only to make CDI happy
+    public AsyncBuildTriggerer() {
+    }
+
+    @Inject
+    public AsyncBuildTriggerer(BuildTriggerer buildTriggerer,
+                               BuildConfigurationRepository buildConfigurationRepository,
+                               BuildConfigurationSetRepository buildConfigurationSetRepository,
+                               Notifier notifier,
+                               NotificationJournal notificationJournal,
+                               Configuration configuration) {
+        this(buildTriggerer, buildConfigurationRepository, buildConfigurationSetRepository, notifier, notificationJournal,
+                configuration, System::currentTimeMillis);
+    }
+
+    AsyncBuildTriggerer(BuildTriggerer buildTriggerer,
+                        BuildConfigurationRepository buildConfigurationRepository,
+                        BuildConfigurationSetRepository buildConfigurationSetRepository,
+                        Notifier notifier,
+                        NotificationJournal notificationJournal,
+                        Configuration configuration,
+                        LongSupplier clock) {
+        this.buildTriggerer = buildTriggerer;
+        this.buildConfigurationRepository = buildConfigurationRepository;
+        this.buildConfigurationSetRepository = buildConfigurationSetRepository;
+        this.notifier = notifier;
+        this.notificationJournal = notificationJournal;
+        this.clock = clock;
+
+        int threadPoolSize = 4;
+        int queueCapacity = 100;
+        try {
+            SystemConfig systemConfig = configuration.getModuleConfig(new PncConfigProvider<>(SystemConfig.class));
+            threadPoolSize = systemConfig.getTriggerThreadPoolSize();
+            queueCapacity = systemConfig.getTriggerQueueCapacity();
+        } catch (ConfigurationParseException e) {
+            logger.error("Error parsing configuration. Will use trigger thread pool size {} and queue capacity {}.",
+                    threadPoolSize, queueCapacity, e);
+        }
+        this.executor = new ThreadPoolExecutor(threadPoolSize, threadPoolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity));
+    }
+
+    @PreDestroy
+    public void destroy() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * @throws InvalidEntityException when there is no build configuration with the given id
+     * @throws RejectedExecutionException when the trigger queue is full
+     */
+    public BuildTriggerRest triggerBuild(Integer buildConfigurationId, User currentUser, boolean keepPodAliveAfterFailure,
+            boolean rebuildAll) throws InvalidEntityException {
+        if (buildConfigurationRepository.queryById(buildConfigurationId) == null) {
+            throw new InvalidEntityException("Can't find build configuration with given id=" + buildConfigurationId);
+        }
+        BuildTriggerRest trigger = newTrigger(currentUser);
+        trigger.setBuildConfigurationId(buildConfigurationId);
+
+        return submit(trigger, () ->
+                buildTriggerer.triggerBuild(buildConfigurationId, currentUser, keepPodAliveAfterFailure, rebuildAll));
+    }
+
+    /**
+     * @throws InvalidEntityException when there is no build configuration set with the given id
+     * @throws RejectedExecutionException when the trigger queue is full
+     */
+    public BuildTriggerRest triggerBuildConfigurationSet(Integer buildConfigurationSetId, User currentUser,
+            boolean keepPodAliveAfterFailure, boolean rebuildAll) throws InvalidEntityException {
+        if (buildConfigurationSetRepository.queryById(buildConfigurationSetId) == null) {
+            throw new InvalidEntityException("Can't find build configuration set with given id=" + buildConfigurationSetId);
+        }
+        BuildTriggerRest trigger = newTrigger(currentUser);
+        trigger.setBuildConfigurationSetId(buildConfigurationSetId);
+
+        return submit(trigger, () -> buildTriggerer.triggerBuildConfigurationSet(buildConfigurationSetId, currentUser,
+                keepPodAliveAfterFailure, rebuildAll).getBuildRecordSetId());
+    }
+
+    public Optional<BuildTriggerRest> getTrigger(String id) {
+        return Optional.ofNullable(triggers.get(id));
+    }
+
+    private BuildTriggerRest newTrigger(User currentUser) {
+        BuildTriggerRest trigger = new BuildTriggerRest();
+        trigger.setId(UUID.randomUUID().toString());
+        trigger.setStatus(BuildTriggerStatus.ACCEPTED);
+        trigger.setSubmitTime(new Date(clock.getAsLong()));
+        if (currentUser != null) {
+            trigger.setUserId(currentUser.getId());
+        }
+        return trigger;
+    }
+
+    private BuildTriggerRest submit(BuildTriggerRest trigger, BuildInitialization initialization) {
+        evictCompletedTriggers();
+        triggers.put(trigger.getId(), trigger);
+        notifyStatusChanged(trigger);
+        try {
+            executor.execute(() -> initialize(trigger.getId(), initialization));
+        } catch (RejectedExecutionException e) {
+            logger.warn("Build trigger queue is full, rejecting trigger {}.", trigger);
+            update(trigger.getId(), rejected -> {
+                rejected.setStatus(BuildTriggerStatus.FAILED);
+                rejected.setCompletionTime(new Date(clock.getAsLong()));
+                rejected.setErrorMessage("Build trigger queue is full.");
+            });
+            throw e;
+        }
+        return trigger;
+    }
+
+    private void initialize(String triggerId, BuildInitialization initialization) {
+        update(triggerId, trigger -> trigger.setStatus(BuildTriggerStatus.INITIALIZING));
+        try {
+            int buildId = initialization.run();
+            update(triggerId, trigger -> {
+                trigger.setStatus(BuildTriggerStatus.TRIGGERED);
+                trigger.setCompletionTime(new Date(clock.getAsLong()));
+                trigger.setBuildId(buildId);
+            });
+        } catch (Exception e) {
+            logger.warn("Initialization of build trigger {} failed.", triggerId, e);
+            update(triggerId, trigger -> {
+                trigger.setStatus(BuildTriggerStatus.FAILED);
+                trigger.setCompletionTime(new Date(clock.getAsLong()));
+                trigger.setErrorMessage(e.getMessage());
+            });
+        }
+    }
+
+    /**
+     * Triggers are replaced rather than modified so readers never observe a half updated trigger.
+     */
+    private void update(String triggerId, Consumer<BuildTriggerRest> change) {
+        BuildTriggerRest updated = triggers.computeIfPresent(triggerId, (id, current) -> {
+            BuildTriggerRest copy = new BuildTriggerRest(current);
+            change.accept(copy);
+            return copy;
+        });
+        if (updated != null) {
+            notifyStatusChanged(updated);
+        }
+    }
+
+    private void notifyStatusChanged(BuildTriggerRest trigger) {
+        BuildTriggerChangedPayload payload = new BuildTriggerChangedPayload(trigger.getId(), trigger.getStatus(),
+                trigger.getBuildConfigurationId(), trigger.getBuildConfigurationSetId(), trigger.getBuildId(),
+                trigger.getUserId());
+        notificationJournal.publish(
+                new Notification(EventType.BUILD_TRIGGER_STATUS_CHANGED, trigger.getErrorMessage(), payload),
+                notifier::sendMessage);
+    }
+
+    private void evictCompletedTriggers() {
+        long oldestRetained = clock.getAsLong() - COMPLETED_TRIGGER_RETENTION_MILLIS;
+        triggers.values().removeIf(trigger -> trigger.getStatus().isCompleted()
+                && trigger.getCompletionTime().getTime() < oldestRetained);
+    }
+
+    @FunctionalInterface
+    private interface BuildInitialization {
+        int run() throws Exception;
+    }
+}
@@ -0,0 +1,152 @@
+/**
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.pnc.rest.utils;
+
+import org.apache.commons.lang3.StringUtils;
+import org.jboss.pnc.auth.AuthenticationProvider;
+import org.jboss.pnc.model.User;
+import org.jboss.pnc.spi.datastore.Datastore;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.enterprise.context.ApplicationScoped;
+import javax.inject.Inject;
+import java.lang.invoke.MethodHandles;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Caches users resolved from the user name of the authenticated request, so requests of the same user
+ * do not query the datastore each time. Entries expire after {@link #DEFAULT_TTL_MILLIS} and are invalidated
+ * when the user is updated through the REST API.
+ *
+ * Missing users are not cached as they are usually created right after the lookup.
+ * Each lookup returns a new copy, so the login token set by the caller is never shared between requests.
+ */
+@ApplicationScoped
+public class AuthenticatedUserCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
+
+    static final long DEFAULT_TTL_MILLIS = TimeUnit.MINUTES.toMillis(5);
+    static final int MAX_SIZE = 1000;
+
+    private final ConcurrentMap<String, CachedUser> users = new ConcurrentHashMap<>();
+
+    private Datastore datastore;
+    private long ttlMillis;
+    private LongSupplier clock;
+
+    @Deprecated
+    public AuthenticatedUserCache() { //CDI workaround
+    }
+
+    @Inject
+    public AuthenticatedUserCache(Datastore datastore) {
+        this(datastore, DEFAULT_TTL_MILLIS, System::currentTimeMillis);
+    }
+
+    AuthenticatedUserCache(Datastore datastore, long ttlMillis, LongSupplier clock) {
+        this.datastore = datastore;
+        this.ttlMillis = ttlMillis;
+        this.clock = clock;
+    }
+
+    /**
+     * @return Copy of the user with given user name or null if there is no such user
+     */
+    public User getUser(String username) {
+        long now = clock.getAsLong();
+        CachedUser cached = users.get(username);
+        if (cached != null && cached.expires > now) {
+            return copy(cached.user);
+        }
+
+        User user = datastore.retrieveUserByUsername(username);
+        if (user == null) {
+            users.remove(username);
+            return null;
+        }
+        if (users.size() >= MAX_SIZE) {
+            evict(now);
+        }
+        users.put(username, new CachedUser(copy(user), now + ttlMillis));
+        return copy(user);
+    }
+
+    /**
+     * @return Copy of the user authenticated by given provider with the login token set,
+     * or null if the request is not authenticated or there is no such user
+     */
+    public User getLoggedUser(AuthenticationProvider authProvider) {
+        String loggedUser = authProvider.getUserName();
+        if (StringUtils.isEmpty(loggedUser)) {
+            return null;
+        }
+        User user = getUser(loggedUser);
+        if (user != null) {
+            user.setLoginToken(authProvider.getTokenString());
+        }
+        return user;
+    }
+
+    public void invalidate(String username) {
+        users.remove(username);
+    }
+
+    /**
+     * Invalidates the user with given id, used when only the id of an updated user is known.
+     */
+    public void invalidate(Integer userId) {
+        users.values().removeIf(cached -> cached.user.getId().equals(userId));
+    }
+
+    private void evict(long now) {
+        users.values().removeIf(cached -> cached.expires <= now);
+        if (users.size() >= MAX_SIZE) {
+            logger.debug("Authenticated user cache is full, clearing {} entries.", users.size());
+            users.clear();
+        }
+    }
+
+    int size() {
+        return users.size();
+    }
+
+    private static User copy(User user) {
+        return User.Builder.newBuilder()
+                .id(user.getId())
+                .username(user.getUsername())
+                .email(user.getEmail())
+                .firstName(user.getFirstName())
+                .lastName(user.getLastName())
+                .build();
+    }
+
+    private static class CachedUser {
+        private final User user;
+        private final long expires;
+
+        private CachedUser(User user, long expires) {
+            this.user = user;
+            this.expires = expires;
+        }
+    }
+}
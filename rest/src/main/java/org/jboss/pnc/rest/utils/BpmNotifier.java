@@ -19,12 +19,9 @@
 package org.jboss.pnc.rest.utils; //TODO move out of utils
 
 import org.apache.commons.codec.binary.Base64;
-import org.apache.commons.io.IOUtils;
 import org.apache.http.NameValuePair;
 import org.apache.http.client.entity.UrlEncodedFormEntity;
-import org.apache.http.client.methods.CloseableHttpResponse;
 import org.apache.http.client.methods.HttpPost;
-import org.apache.http.impl.client.CloseableHttpClient;
 import org.apache.http.message.BasicNameValuePair;
 import org.jboss.logging.Logger;
 import org.jboss.pnc.common.Configuration;
@@ -34,26 +31,29 @@ import org.jboss.pnc.common.json.moduleprovider.PncConfigProvider;
 import org.jboss.pnc.common.util.HttpUtils;
 import org.jboss.pnc.rest.restmodel.BuildResultRest;
 import org.jboss.pnc.spi.BuildResult;
-import org.jboss.pnc.spi.builddriver.exception.BuildDriverException;
 import org.jboss.pnc.spi.executor.BuildExecutionConfiguration;
 
+import javax.annotation.PreDestroy;
 import javax.enterprise.context.ApplicationScoped;
 import javax.inject.Inject;
-import java.io.IOException;
-import java.io.InputStream;
-import java.io.StringWriter;
 import java.io.UnsupportedEncodingException;
 import java.util.ArrayList;
 import java.util.List;
 
 /**
+ * Callbacks are queued and delivered asynchronously, see {@link CallbackQueue}.
+ *
  * @author <a href="mailto:matejonnet@gmail.com">Matej Lazar</a>
  */
 @ApplicationScoped
 public class BpmNotifier { //TODO rename: remove bpm for name
 
+    public static final String BUILD_EXECUTION_COMPLETED_CALLBACK = "build-execution-completed";
+    public static final String SIMPLE_CALLBACK = "simple";
+
     private final Logger log = Logger.getLogger(BpmNotifier.class);
     private BpmModuleConfig bpmConfig;
+    private CallbackQueue callbackQueue;
 
     @Deprecated
     public BpmNotifier() { //CDI workaround
@@ -62,6 +62,15 @@ public class BpmNotifier { //TODO rename: remove bpm for name
     @Inject
     public BpmNotifier(Configuration configuration) throws ConfigurationParseException {
         bpmConfig = configuration.getModuleConfig(new PncConfigProvider<BpmModuleConfig>(BpmModuleConfig.class));
+        callbackQueue = new CallbackQueue(
+                HttpUtils.getPermissivePoolingHttpClient(bpmConfig.getCallbackThreadPoolSize(), CallbackQueue.DEFAULT_TIMEOUT_MILLIS),
+                bpmConfig.getCallbackThreadPoolSize(),
+                bpmConfig.getCallbackMaxAttempts());
+    }
+
+    BpmNotifier(BpmModuleConfig bpmConfig, CallbackQueue callbackQueue) {
+        this.bpmConfig = bpmConfig;
+        this.callbackQueue = callbackQueue;
     }
 
     public void sendBuildExecutionCompleted(String uri, BuildResult buildResult) {
@@ -76,18 +85,15 @@ public class BpmNotifier { //TODO rename: remove bpm for name
             errMessage = "Cannot construct rest result: " + e.getMessage();
         }
 
-        HttpPost request = new HttpPost(uri);
-
         List<NameValuePair> parameters = new ArrayList<>();
         parameters.add(new BasicNameValuePair("event", buildResultRest != null ? buildResultRest.toString() : "{\"error\", \"" + errMessage + "\"}"));
-
+        UrlEncodedFormEntity entity = null;
         try {
-            request.setEntity(new UrlEncodedFormEntity(parameters));
+            entity = new UrlEncodedFormEntity(parameters);
         } catch (UnsupportedEncodingException e) {
             log.error("Error occurred preparing callback request.", e);
         }
-
-        request.addHeader("Authorization", getAuthHeader());
+        UrlEncodedFormEntity requestEntity = entity;
 
         //get id for logging
         String buildExecutionConfigurationId;
@@ -98,25 +104,12 @@ public class BpmNotifier { //TODO rename: remove bpm for name
             buildExecutionConfigurationId = "NO BuildExecutionConfiguration.";
         }
 
-        log.info("Sending buildResult of buildExecutionConfiguration.id " + buildExecutionConfigurationId + ": " + request.getRequestLine());
-
-        try (CloseableHttpClient httpClient = HttpUtils.getPermissiveHttpClient()) {
-            try (CloseableHttpResponse response = httpClient.execute(request)) {
-                log.info(response.getStatusLine());
-                try {
-                    if (response.getStatusLine().getStatusCode() != 200) {
-                        InputStream content = response.getEntity().getContent();
-                        StringWriter writer = new StringWriter();
-                        IOUtils.copy(content, writer);
-                        log.debug("Received message: " + writer.toString());
-                    }
-                } catch (Exception e) {
-                    log.warn("Cannot write http response message to log.", e);
-                }
-            }
-        } catch (IOException e) {
-            log.error("Error occurred executing the callback.", e);
-        }
+        log.info("Queuing buildResult of buildExecutionConfiguration.id " + buildExecutionConfigurationId + " for " + uri);
+        callbackQueue.submit(BUILD_EXECUTION_COMPLETED_CALLBACK, () -> {
+            HttpPost request = createRequest(uri);
+            request.setEntity(requestEntity);
+            return request;
+        });
     }
 
     private String getAuthHeader() {
@@ -125,16 +118,24 @@ public class BpmNotifier { //TODO rename: remove bpm for name
     }
 
     public void simpleHttpPostCallback(String uri) {
+        log.info("Queuing callback " + uri);
+        callbackQueue.submit(SIMPLE_CALLBACK, () -> createRequest(uri));
+    }
+
+    private HttpPost createRequest(String uri) {
         HttpPost request = new HttpPost(uri);
         request.addHeader("Authorization", getAuthHeader());
-        log.info("Executing request " + request.getRequestLine());
-
-        try (CloseableHttpClient httpClient = HttpUtils.getPermissiveHttpClient()) {
-            try (CloseableHttpResponse response = httpClient.execute(request)) {
-                log.info(response.getStatusLine());
-            }
-        } catch (IOException e) {
-            log.error("Error occurred executing the callback.", e);
+        return request;
+    }
+
+    public CallbackMetrics getCallbackMetrics() {
+        return callbackQueue.getMetrics();
+    }
+
+    @PreDestroy
+    public void destroy() {
+        if (callbackQueue != null) {
+            callbackQueue.shutdown();
         }
     }
 }
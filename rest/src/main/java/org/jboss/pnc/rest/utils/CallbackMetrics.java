@@ -0,0 +1,141 @@
+/**
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.pnc.rest.utils;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Delivery statistics of outbound callbacks, collected per callback type.
+ * The callback urls contain ids, so they are not used as keys to keep the number of entries bounded.
+ */
+public class CallbackMetrics {
+
+    private final ConcurrentMap<String, CallbackStats> callbackTypes = new ConcurrentHashMap<>();
+
+    void recordSuccess(String callbackType, long latencyNanos) {
+        getOrCreate(callbackType).recordSuccess(latencyNanos);
+    }
+
+    void recordFailure(String callbackType, long latencyNanos) {
+        getOrCreate(callbackType).recordFailure(latencyNanos);
+    }
+
+    void recordRetry(String callbackType) {
+        getOrCreate(callbackType).retries.increment();
+    }
+
+    void recordDropped(String callbackType) {
+        getOrCreate(callbackType).dropped.increment();
+    }
+
+    public CallbackStats getStats(String callbackType) {
+        return callbackTypes.get(callbackType);
+    }
+
+    /**
+     * @return Statistics of all callback types, sorted by type
+     */
+    public Map<String, CallbackStats> getAll() {
+        return Collections.unmodifiableMap(new TreeMap<>(callbackTypes));
+    }
+
+    private CallbackStats getOrCreate(String callbackType) {
+        return callbackTypes.computeIfAbsent(callbackType, t -> new CallbackStats());
+    }
+
+    public static class CallbackStats {
+
+        private final LongAdder successes = new LongAdder();
+        private final LongAdder failures = new LongAdder();
+        private final LongAdder retries = new LongAdder();
+        private final LongAdder dropped = new LongAdder();
+        private final LongAdder totalLatencyNanos = new LongAdder();
+        private final LongAccumulator maxLatencyNanos = new LongAccumulator(Math::max, 0);
+
+        private void recordSuccess(long latencyNanos) {
+            successes.increment();
+            recordLatency(latencyNanos);
+        }
+
+        private void recordFailure(long latencyNanos) {
+            failures.increment();
+            recordLatency(latencyNanos);
+        }
+
+        private void recordLatency(long latencyNanos) {
+            totalLatencyNanos.add(latencyNanos);
+            maxLatencyNanos.accumulate(latencyNanos);
+        }
+
+        /**
+         * @return Number of attempts answered with a successful (2xx) response
+         */
+        public long getSuccesses() {
+            return successes.sum();
+        }
+
+        /**
+         * @return Number of failed attempts, including the ones which were retried later
+         */
+        public long getFailures() {
+            return failures.sum();
+        }
+
+        public long getRetries() {
+            return retries.sum();
+        }
+
+        /**
+         * @return Number of callbacks given up after the last failed attempt or rejected because the queue was full
+         */
+        public long getDropped() {
+            return dropped.sum();
+        }
+
+        public long getAverageLatencyMillis() {
+            long attempts = successes.sum() + failures.sum();
+            if (attempts == 0) {
+                return 0;
+            }
+            return TimeUnit.NANOSECONDS.toMillis(totalLatencyNanos.sum() / attempts);
+        }
+
+        public long getMaxLatencyMillis() {
+            return TimeUnit.NANOSECONDS.toMillis(maxLatencyNanos.get());
+        }
+
+        @Override
+        public String toString() {
+            return "CallbackStats{" +
+                    "successes=" + getSuccesses() +
+                    ", failures=" + getFailures() +
+                    ", retries=" + getRetries() +
+                    ", dropped=" + getDropped() +
+                    ", averageLatencyMillis=" + getAverageLatencyMillis() +
+                    ", maxLatencyMillis=" + getMaxLatencyMillis() +
+                    '}';
+        }
+    }
+}
@@ -0,0 +1,190 @@
+/**
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.pnc.rest.utils;
+
+import org.apache.commons.io.IOUtils;
+import org.apache.http.HttpEntity;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.client.methods.HttpUriRequest;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.util.EntityUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Delivers outbound HTTP callbacks asynchronously on a bounded number of threads sharing one pooled http client.
+ * Callbacks failing with an IO error or a 5xx response are retried with exponential backoff,
+ * callbacks rejected with other non 2xx responses are not retried.
+ *
+ * Pending callbacks are held in memory only, callbacks still waiting for delivery are lost on shutdown.
+ */
+public class CallbackQueue {
+
+    private static final Logger log = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
+
+    static final int DEFAULT_QUEUE_CAPACITY = 10_000;
+    static final long DEFAULT_INITIAL_BACKOFF_MILLIS = 1000;
+    static final long MAX_BACKOFF_MILLIS = TimeUnit.MINUTES.toMillis(5);
+    static final int DEFAULT_TIMEOUT_MILLIS = (int) TimeUnit.SECONDS.toMillis(30);
+    private static final long SHUTDOWN_TIMEOUT_SECONDS = 10;
+
+    private final CloseableHttpClient httpClient;
+    private final ScheduledThreadPoolExecutor executor;
+    private final int maxAttempts;
+    private final long initialBackoffMillis;
+    private final int queueCapacity;
+    private final AtomicInteger pending = new AtomicInteger();
+    private final CallbackMetrics metrics = new CallbackMetrics();
+
+    public CallbackQueue(CloseableHttpClient httpClient, int threadPoolSize, int maxAttempts) {
+        this(httpClient, threadPoolSize, maxAttempts, DEFAULT_INITIAL_BACKOFF_MILLIS, DEFAULT_QUEUE_CAPACITY);
+    }
+
+    CallbackQueue(CloseableHttpClient httpClient, int threadPoolSize, int maxAttempts, long initialBackoffMillis, int queueCapacity) {
+        this.httpClient = httpClient;
+        this.maxAttempts = maxAttempts;
+        this.initialBackoffMillis = initialBackoffMillis;
+        this.queueCapacity = queueCapacity;
+        AtomicInteger threadCount = new AtomicInteger();
+        executor = new ScheduledThreadPoolExecutor(threadPoolSize, r -> {
+            Thread thread = new Thread(r, "callback-sender-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.setRemoveOnCancelPolicy(true);
+    }
+
+    /**
+     * Queues the callback for delivery and returns immediately.
+     *
+     * @param callbackType the kind of the callback, delivery statistics are collected per type
+     * @param requestSupplier creates the request, it is invoked for each attempt as a request can be executed only once
+     * @return false if the callback was rejected because the queue is full or shut down
+     */
+    public boolean submit(String callbackType, Supplier<HttpUriRequest> requestSupplier) {
+        HttpUriRequest request = requestSupplier.get();
+        if (executor.isShutdown()) {
+            log.warn("Callback queue is shut down, dropping callback {}.", request.getRequestLine());
+            metrics.recordDropped(callbackType);
+            return false;
+        }
+        if (pending.incrementAndGet() > queueCapacity) {
+            pending.decrementAndGet();
+            log.error("Callback queue is full ({} pending callbacks), dropping callback {}.", queueCapacity, request.getRequestLine());
+            metrics.recordDropped(callbackType);
+            return false;
+        }
+        executor.execute(() -> attempt(requestSupplier, request, callbackType, 1));
+        return true;
+    }
+
+    private void attempt(Supplier<HttpUriRequest> requestSupplier, HttpUriRequest request, String callbackType, int attempt) {
+        log.info("Executing callback {} (attempt {} of {}).", request.getRequestLine(), attempt, maxAttempts);
+        boolean retry;
+        long start = System.nanoTime();
+        try (CloseableHttpResponse response = httpClient.execute(request)) {
+            int statusCode = response.getStatusLine().getStatusCode();
+            log.info("Callback {} responded with {}.", request.getRequestLine(), response.getStatusLine());
+            if (statusCode >= 200 && statusCode < 300) {
+                EntityUtils.consume(response.getEntity()); //the connection is returned to the pool only once the response is consumed
+                metrics.recordSuccess(callbackType, System.nanoTime() - start);
+                pending.decrementAndGet();
+                return;
+            }
+            metrics.recordFailure(callbackType, System.nanoTime() - start);
+            logResponseMessage(response.getEntity());
+            retry = statusCode >= 500;
+        } catch (IOException e) {
+            metrics.recordFailure(callbackType, System.nanoTime() - start);
+            log.warn("Error occurred executing the callback " + request.getRequestLine() + ".", e);
+            retry = true;
+        } catch (RuntimeException e) {
+            metrics.recordFailure(callbackType, System.nanoTime() - start);
+            log.error("Unexpected error executing the callback " + request.getRequestLine() + ".", e);
+            retry = false;
+        }
+
+        if (retry && attempt < maxAttempts && !executor.isShutdown()) {
+            long backoff = getBackoffMillis(attempt);
+            log.debug("Retrying callback {} in {}ms.", request.getRequestLine(), backoff);
+            metrics.recordRetry(callbackType);
+            HttpUriRequest nextRequest = requestSupplier.get();
+            executor.schedule(() -> attempt(requestSupplier, nextRequest, callbackType, attempt + 1), backoff, TimeUnit.MILLISECONDS);
+        } else {
+            log.error("Giving up callback {} after {} attempt(s).", request.getRequestLine(), attempt);
+            metrics.recordDropped(callbackType);
+            pending.decrementAndGet();
+        }
+    }
+
+    long getBackoffMillis(int attempt) {
+        long backoff = initialBackoffMillis << Math.min(attempt - 1, 30);
+        return Math.min(backoff, MAX_BACKOFF_MILLIS);
+    }
+
+    private void logResponseMessage(HttpEntity entity) {
+        if (entity == null) {
+            return;
+        }
+        try {
+            log.debug("Received message: {}", IOUtils.toString(entity.getContent()));
+        } catch (Exception e) {
+            log.warn("Cannot write http response message to log.", e);
+        }
+    }
+
+    public CallbackMetrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * @return Number of callbacks accepted but not yet delivered or dropped
+     */
+    public int getPendingCount() {
+        return pending.get();
+    }
+
+    /**
+     * Stops accepting callbacks, waits for the running deliveries to finish and closes the http client.
+     * Queued callbacks and scheduled retries are discarded.
+     */
+    public void shutdown() {
+        executor.shutdown();
+        executor.getQueue().clear();
+        try {
+            if (!executor.awaitTermination(SHUTDOWN_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                executor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+        try {
+            httpClient.close();
+        } catch (IOException e) {
+            log.warn("Cannot close callback http client.", e);
+        }
+    }
+}
@@ -0,0 +1,88 @@
+/**
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.pnc.rest.utils;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+import javax.ws.rs.core.StreamingOutput;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.function.Consumer;
+
+/**
+ * Writes entities passed by an exporter to the response as soon as they are produced, either as newline delimited
+ * JSON or as a JSON array. Nothing but the current entity is kept in memory.
+ * Entities are serialized the same way as by {@link JsonOutputConverterMapper}.
+ */
+public class JsonStreamingOutput<T> implements StreamingOutput {
+
+    public static final String APPLICATION_NDJSON = "application/x-ndjson";
+
+    /**
+     * Number of entities written between flushes of the response.
+     */
+    public static final int FLUSH_SIZE = 100;
+
+    private static final ObjectWriter writer = JsonOutputConverterMapper.getStreamingWriter();
+
+    private final Consumer<Consumer<? super T>> exporter;
+
+    private final boolean array;
+
+    /**
+     * @param exporter Passes all exported entities to the given consumer
+     * @param array Write a JSON array instead of newline delimited JSON
+     */
+    public JsonStreamingOutput(Consumer<Consumer<? super T>> exporter, boolean array) {
+        this.exporter = exporter;
+        this.array = array;
+    }
+
+    @Override
+    public void write(OutputStream outputStream) throws IOException {
+        JsonGenerator generator = writer.getFactory().createGenerator(outputStream);
+        generator.setRootValueSeparator(null);
+        if (array) {
+            generator.writeStartArray();
+        }
+        try {
+            int[] written = {0};
+            exporter.accept(entity -> {
+                try {
+                    writer.writeValue(generator, entity);
+                    if (!array) {
+                        generator.writeRaw('\n');
+                    }
+                    if (++written[0] % FLUSH_SIZE == 0) {
+                        generator.flush();
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        if (array) {
+            generator.writeEndArray();
+        }
+        generator.flush();
+    }
+}
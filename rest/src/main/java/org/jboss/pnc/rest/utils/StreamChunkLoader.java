@@ -0,0 +1,37 @@
+/**
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.pnc.rest.utils;
+
+import javax.ejb.Stateless;
+import javax.ejb.TransactionAttribute;
+import javax.ejb.TransactionAttributeType;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Loads chunks of streamed collections, each in its own transaction. The transaction and the database connection are
+ * released before the chunk is written to the client, so a slow client doesn't hold them.
+ */
+@Stateless
+public class StreamChunkLoader {
+
+    @TransactionAttribute(TransactionAttributeType.REQUIRES_NEW)
+    public <T> List<T> load(Supplier<List<T>> chunk) {
+        return chunk.get();
+    }
+}
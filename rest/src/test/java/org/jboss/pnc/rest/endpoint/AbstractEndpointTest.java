@@ -19,16 +19,36 @@
 package org.jboss.pnc.rest.endpoint;
 
 import org.jboss.pnc.model.BuildConfiguration;
+import org.jboss.pnc.rest.provider.AbstractProvider;
 import org.jboss.pnc.rest.provider.collection.CollectionInfo;
 import org.jboss.pnc.rest.restmodel.BuildConfigurationRest;
+import org.jboss.pnc.rest.utils.JsonStreamingOutput;
+import org.jboss.pnc.rest.validation.exceptions.InvalidEntityException;
+import org.jboss.pnc.spi.datastore.repositories.api.Predicate;
 import org.junit.Test;
 
+import javax.ws.rs.core.EntityTag;
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Request;
 import javax.ws.rs.core.Response;
+import javax.ws.rs.core.StreamingOutput;
 
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.List;
+import java.util.function.Consumer;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Matchers.anyInt;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyZeroInteractions;
+import static org.mockito.Mockito.when;
 
 public class AbstractEndpointTest extends AbstractEndpoint<BuildConfiguration, BuildConfigurationRest> {
 
@@ -68,4 +88,170 @@ public class AbstractEndpointTest extends AbstractEndpoint<BuildConfiguration, B
         assertThat(response.getStatus()).isEqualTo(200);
     }
 
-}
\ No newline at end of file
+    @Test
+    public void shouldReturn400WhenPagingAfterUnknownEntity() throws Exception {
+        //given
+        basicProvider = mock(AbstractProvider.class);
+        when(basicProvider.exists(5000)).thenReturn(false);
+
+        //when
+        Response response = getAll(0, 10, null, null, 5000);
+
+        //then
+        assertThat(response.getStatus()).isEqualTo(400);
+        verify(basicProvider, never()).getAllAfter(anyInt(), anyInt(), anyString(), anyString());
+    }
+
+    @Test
+    public void shouldReturnPageAfterExistingEntity() throws Exception {
+        //given
+        basicProvider = mock(AbstractProvider.class);
+        when(basicProvider.exists(5000)).thenReturn(true);
+        when(basicProvider.getAllAfter(5000, 10, null, null))
+                .thenReturn(new CollectionInfo<>(0, 10, -1, Arrays.asList(new BuildConfigurationRest())));
+
+        //when
+        Response response = getAll(0, 10, null, null, 5000);
+
+        //then
+        assertThat(response.getStatus()).isEqualTo(200);
+    }
+
+    @Test
+    public void shouldListOnlyEntitiesMatchingPredicates() throws Exception {
+        //given
+        basicProvider = mock(AbstractProvider.class);
+        Predicate<BuildConfiguration> predicate = mock(Predicate.class);
+        when(basicProvider.queryForCollection(0, 10, null, null, predicate))
+                .thenReturn(new CollectionInfo<>(0, 10, 1, Arrays.asList(new BuildConfigurationRest())));
+
+        //when
+        Response response = getAll(0, 10, null, null, null, null, mock(Request.class), predicate);
+
+        //then
+        assertThat(response.getStatus()).isEqualTo(200);
+        verify(basicProvider, never()).getAll(anyInt(), anyInt(), anyString(), anyString());
+    }
+
+    @Test(expected = InvalidEntityException.class)
+    public void shouldRejectBatchOverMaximalSize() throws Exception {
+        //given
+        basicProvider = mock(AbstractProvider.class);
+        List<Integer> ids = new ArrayList<>();
+        for (int id = 0; id <= MAX_BATCH_SIZE; id++) {
+            ids.add(id);
+        }
+
+        //when
+        try {
+            getBatch(ids);
+        } finally {
+            verifyZeroInteractions(basicProvider);
+        }
+    }
+
+    @Test
+    public void shouldStreamNewlineDelimitedJsonByDefault() throws Exception {
+        //when
+        Response response = fromStream(headersAccepting(MediaType.WILDCARD_TYPE), this::exportProjects);
+
+        //then
+        assertThat(response.getMediaType().toString()).isEqualTo(JsonStreamingOutput.APPLICATION_NDJSON);
+        assertThat(write(response)).isEqualTo("{\"id\":1}\n{\"id\":2}\n");
+    }
+
+    @Test
+    public void shouldStreamJsonArrayWhenJsonIsPreferred() throws Exception {
+        //when
+        Response response = fromStream(headersAccepting(MediaType.APPLICATION_JSON_TYPE), this::exportProjects);
+
+        //then
+        assertThat(response.getMediaType()).isEqualTo(MediaType.APPLICATION_JSON_TYPE);
+        assertThat(write(response)).isEqualTo("[{\"id\":1},{\"id\":2}]");
+    }
+
+    @Test
+    public void shouldReturn304WithoutCreatingResponseWhenVersionMatches() throws Exception {
+        //given
+        Request request = mock(Request.class);
+        when(request.evaluatePreconditions(new EntityTag("1.2", true))).thenReturn(Response.notModified());
+
+        //when
+        Response response = fromConditional(request, "1.2", () -> {
+            throw new AssertionError("The response should not be created");
+        });
+
+        //then
+        assertThat(response.getStatus()).isEqualTo(304);
+    }
+
+    @Test
+    public void shouldTagResponseWhenVersionDiffers() throws Exception {
+        //given
+        Request request = mock(Request.class);
+
+        //when
+        Response response = fromConditional(request, "1.3", () -> fromSingleton(new Object()));
+
+        //then
+        assertThat(response.getStatus()).isEqualTo(200);
+        assertThat(response.getMetadata().getFirst(HttpHeaders.ETAG)).isEqualTo(new EntityTag("1.3", true));
+    }
+
+    @Test
+    public void shouldNotTagMissingEntity() throws Exception {
+        //given
+        Request request = mock(Request.class);
+
+        //when
+        Response response = fromConditional(request, "1.3", () -> fromSingleton(null));
+
+        //then
+        assertThat(response.getStatus()).isEqualTo(404);
+        assertThat(response.getMetadata().getFirst(HttpHeaders.ETAG)).isNull();
+    }
+
+    @Test
+    public void shouldNotEvaluatePreconditionsWithoutVersion() throws Exception {
+        //given
+        Request request = mock(Request.class);
+
+        //when
+        Response response = fromConditional(request, null, () -> fromSingleton(new Object()));
+
+        //then
+        assertThat(response.getStatus()).isEqualTo(200);
+        verifyZeroInteractions(request);
+    }
+
+    private void exportProjects(Consumer<? super Identified> consumer) {
+        consumer.accept(new Identified(1));
+        consumer.accept(new Identified(2));
+    }
+
+    private HttpHeaders headersAccepting(MediaType mediaType) {
+        HttpHeaders headers = mock(HttpHeaders.class);
+        List<MediaType> acceptableMediaTypes = Collections.singletonList(mediaType);
+        when(headers.getAcceptableMediaTypes()).thenReturn(acceptableMediaTypes);
+        return headers;
+    }
+
+    private String write(Response response) throws Exception {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        ((StreamingOutput) response.getEntity()).write(outputStream);
+        return outputStream.toString("UTF-8");
+    }
+
+    public static class Identified {
+
+        private final int id;
+
+        public Identified(int id) {
+            this.id = id;
+        }
+
+        public int getId() {
+            return id;
+        }
+    }
+}
@@ -0,0 +1,144 @@
+/**
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.pnc.rest.notifications;
+
+import org.jboss.pnc.spi.notifications.model.EventType;
+import org.jboss.pnc.spi.notifications.model.Notification;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class NotificationJournalTest {
+
+    @Test
+    public void shouldAssignIncreasingSequences() {
+        // given
+        NotificationJournal journal = new NotificationJournal(10, 100);
+
+        // when
+        Notification first = journal.append(notification("first"));
+        Notification second = journal.append(notification("second"));
+
+        // then
+        assertThat(first.getSequence()).isEqualTo(101L);
+        assertThat(second.getSequence()).isEqualTo(102L);
+        assertThat(second.getExceptionMessage()).isEqualTo("second");
+        assertThat(journal.getLastSequence()).isEqualTo(102L);
+    }
+
+    @Test
+    public void shouldReturnMissedNotifications() {
+        // given
+        NotificationJournal journal = new NotificationJournal(10, 100);
+        for (int i = 1; i <= 5; i++) {
+            journal.append(notification("n" + i));
+        }
+
+        // when
+        Optional<List<Notification>> missed = journal.since(102);
+        Optional<List<Notification>> upToDate = journal.since(105);
+        Optional<List<Notification>> everything = journal.since(100);
+
+        // then
+        assertThat(messages(missed.get())).containsExactly("n3", "n4", "n5");
+        assertThat(upToDate.get()).isEmpty();
+        assertThat(everything.get()).hasSize(5);
+    }
+
+    @Test
+    public void shouldRequireResyncWhenPositionExpired() {
+        // given
+        NotificationJournal journal = new NotificationJournal(3, 100);
+        for (int i = 1; i <= 5; i++) {
+            journal.append(notification("n" + i));
+        }
+
+        // when then
+        assertThat(journal.since(101)).isEmpty();
+        assertThat(messages(journal.since(102).get())).containsExactly("n3", "n4", "n5");
+        assertThat(journal.since(99)).isEmpty();
+    }
+
+    @Test
+    public void shouldRequireResyncForPositionFromPreviousRun() {
+        // given
+        NotificationJournal journal = new NotificationJournal(10, 100);
+        journal.append(notification("n1"));
+
+        // when then
+        assertThat(journal.since(500)).isEmpty();
+        assertThat(journal.since(50)).isEmpty();
+    }
+
+    @Test
+    public void shouldSendConcurrentlyPublishedNotificationsInSequenceOrder() throws Exception {
+        // given
+        NotificationJournal journal = new NotificationJournal(10, 100);
+        List<Long> sent = new ArrayList<>();
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+
+        // when
+        for (int i = 0; i < 1000; i++) {
+            executor.submit(() -> journal.publish(notification("n"), notification -> sent.add(notification.getSequence())));
+        }
+        executor.shutdown();
+        assertThat(executor.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+
+        // then
+        assertThat(sent).hasSize(1000);
+        for (int i = 0; i < sent.size(); i++) {
+            assertThat(sent.get(i)).isEqualTo(101L + i);
+        }
+    }
+
+    @Test
+    public void shouldResumeWithReplayOrResync() {
+        // given
+        NotificationJournal journal = new NotificationJournal(3, 100);
+        for (int i = 1; i <= 5; i++) {
+            journal.append(notification("n" + i));
+        }
+        List<Notification> replayed = new ArrayList<>();
+        AtomicLong resyncedTo = new AtomicLong();
+
+        // when
+        journal.resume(103, replayed::addAll, resyncedTo::set);
+        journal.resume(101, replayed::addAll, resyncedTo::set);
+
+        // then
+        assertThat(messages(replayed)).containsExactly("n4", "n5");
+        assertThat(resyncedTo.get()).isEqualTo(105L);
+    }
+
+    private Notification notification(String message) {
+        return new Notification(EventType.BUILD_STATUS_CHANGED, message, null);
+    }
+
+    private List<String> messages(List<Notification> notifications) {
+        return notifications.stream().map(Notification::getExceptionMessage).collect(Collectors.toList());
+    }
+}
@@ -20,23 +20,37 @@ package org.jboss.pnc.rest.notifications.websockets;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Matchers.anyObject;
 import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyString;
 import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 
+import org.jboss.pnc.spi.BuildCoordinationStatus;
+import org.jboss.pnc.spi.BuildSetStatus;
 import org.jboss.pnc.spi.notifications.AttachedClient;
 import org.jboss.pnc.spi.notifications.MessageCallback;
 import org.jboss.pnc.spi.notifications.Notifier;
+import org.jboss.pnc.spi.notifications.Subscription;
+import org.jboss.pnc.spi.notifications.model.BuildChangedPayload;
+import org.jboss.pnc.spi.notifications.model.BuildSetChangedPayload;
+import org.jboss.pnc.spi.notifications.model.EventType;
+import org.jboss.pnc.spi.notifications.model.Notification;
 import org.junit.Test;
 import org.mockito.ArgumentCaptor;
 import org.mockito.internal.verification.Times;
 
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.atomic.AtomicInteger;
+
 public class DefaultNotifierTest {
 
     @Test
     public void shouldAddNotifier() throws Exception {
         // given
-        Notifier notifier = new DefaultNotifier();
+        Notifier notifier = new DefaultNotifier(String::valueOf);
         AttachedClient attachedClient = mock(AttachedClient.class);
 
         // when
@@ -49,7 +63,7 @@ public class DefaultNotifierTest {
     @Test
     public void shouldCleanItself() throws Exception {
         // given
-        DefaultNotifier notifier = new DefaultNotifier();
+        DefaultNotifier notifier = new DefaultNotifier(String::valueOf);
         AttachedClient attachedClient = mock(AttachedClient.class);
         doReturn(false).when(attachedClient).isEnabled();
 
@@ -67,7 +81,7 @@ public class DefaultNotifierTest {
         // given
         Object messageBody = new Object();
 
-        Notifier notifier = new DefaultNotifier();
+        Notifier notifier = new DefaultNotifier(String::valueOf);
         AttachedClient attachedClient = mock(AttachedClient.class);
         doReturn(true).when(attachedClient).isEnabled();
         notifier.attachClient(attachedClient);
@@ -76,17 +90,35 @@ public class DefaultNotifierTest {
         notifier.sendMessage(messageBody);
 
         // then
-        verify(attachedClient).sendMessage(messageBody, notifier.getCallback());
+        verify(attachedClient).sendMessage(messageBody, String.valueOf(messageBody), notifier.getCallback());
         assertThat(notifier.getAttachedClientsCount()).isEqualTo(1);
     }
 
+    @Test
+    public void shouldEncodeMessageOnceForAllClients() throws Exception {
+        // given
+        AtomicInteger conversions = new AtomicInteger();
+        Notifier notifier = new DefaultNotifier(message -> "encoded-" + conversions.incrementAndGet());
+        AttachedClient firstClient = enabledClient(notifier);
+        AttachedClient secondClient = enabledClient(notifier);
+        Object messageBody = new Object();
+
+        // when
+        notifier.sendMessage(messageBody);
+
+        // then
+        assertThat(conversions.get()).isEqualTo(1);
+        verify(firstClient).sendMessage(messageBody, "encoded-1", notifier.getCallback());
+        verify(secondClient).sendMessage(messageBody, "encoded-1", notifier.getCallback());
+    }
+
     @Test
     public void shouldSendAsynchAMessage() throws Exception {
 
         ArgumentCaptor<MessageCallback> messageCallback = ArgumentCaptor.forClass(MessageCallback.class);
 
         // given
-        Notifier notifier = new DefaultNotifier();
+        Notifier notifier = new DefaultNotifier(String::valueOf);
 
         AttachedClient attachedClient = mock(AttachedClient.class);
         doReturn(true).when(attachedClient).isEnabled();
@@ -97,7 +129,7 @@ public class DefaultNotifierTest {
         notifier.sendMessage(new Object());
 
         // then
-        verify(attachedClient).sendMessage(anyObject(), messageCallback.capture());
+        verify(attachedClient).sendMessage(anyObject(), anyString(), messageCallback.capture());
 
         messageCallback.getValue().successful(attachedClient);
         assertThat(notifier.getAttachedClientsCount()).isEqualTo(1);
@@ -108,7 +140,7 @@ public class DefaultNotifierTest {
         // given
         Object messageBody = new Object();
 
-        Notifier notifier = new DefaultNotifier();
+        Notifier notifier = new DefaultNotifier(String::valueOf);
         AttachedClient attachedClient = mock(AttachedClient.class);
         doReturn(false).when(attachedClient).isEnabled();
         notifier.attachClient(attachedClient);
@@ -117,7 +149,7 @@ public class DefaultNotifierTest {
         notifier.sendMessage(messageBody);
 
         // then
-        verify(attachedClient, new Times(0)).sendMessage(messageBody, notifier.getCallback());
+        verify(attachedClient, new Times(0)).sendMessage(messageBody, String.valueOf(messageBody), notifier.getCallback());
         assertThat(notifier.getAttachedClientsCount()).isEqualTo(1);
     }
 
@@ -127,7 +159,7 @@ public class DefaultNotifierTest {
         ArgumentCaptor<MessageCallback> messageCallback = ArgumentCaptor.forClass(MessageCallback.class);
 
         // given
-        Notifier notifier = new DefaultNotifier();
+        Notifier notifier = new DefaultNotifier(String::valueOf);
 
         AttachedClient attachedClient = mock(AttachedClient.class);
         doReturn(true).when(attachedClient).isEnabled();
@@ -138,10 +170,84 @@ public class DefaultNotifierTest {
         notifier.sendMessage(new Object());
 
         // then
-        verify(attachedClient).sendMessage(anyObject(), messageCallback.capture());
+        verify(attachedClient).sendMessage(anyObject(), anyString(), messageCallback.capture());
 
         messageCallback.getValue().failed(attachedClient, new Throwable());
         assertThat(notifier.getAttachedClientsCount()).isEqualTo(0);
     }
 
-}
\ No newline at end of file
+    @Test
+    public void shouldSendNotificationsOnlyToMatchingSubscribers() throws Exception {
+        // given
+        Notifier notifier = new DefaultNotifier(String::valueOf);
+        AttachedClient unfilteredClient = enabledClient(notifier);
+        AttachedClient buildSubscriber = enabledClient(notifier);
+        AttachedClient configurationSubscriber = enabledClient(notifier);
+        AttachedClient otherBuildSubscriber = enabledClient(notifier);
+        notifier.subscribe(buildSubscriber, new Subscription(Subscription.Topic.BUILD, 1));
+        notifier.subscribe(configurationSubscriber, new Subscription(Subscription.Topic.BUILD_CONFIGURATION, 10));
+        notifier.subscribe(configurationSubscriber, new Subscription(Subscription.Topic.BUILD, 1));
+        notifier.subscribe(otherBuildSubscriber, new Subscription(Subscription.Topic.BUILD, 2));
+
+        Notification notification = new Notification(EventType.BUILD_STATUS_CHANGED, null,
+                new BuildChangedPayload(1, BuildCoordinationStatus.BUILDING, 10, "config", null, null, 5));
+
+        // when
+        notifier.sendMessage(notification);
+
+        // then
+        verify(unfilteredClient).sendMessage(notification, String.valueOf(notification), notifier.getCallback());
+        verify(buildSubscriber).sendMessage(notification, String.valueOf(notification), notifier.getCallback());
+        verify(configurationSubscriber, times(1)).sendMessage(notification, String.valueOf(notification), notifier.getCallback());
+        verify(otherBuildSubscriber, never()).sendMessage(any(), anyString(), any(MessageCallback.class));
+    }
+
+    @Test
+    public void shouldStopRoutingAfterUnsubscribeAndDetach() throws Exception {
+        // given
+        Notifier notifier = new DefaultNotifier(String::valueOf);
+        AttachedClient unsubscribedClient = enabledClient(notifier);
+        AttachedClient detachedClient = enabledClient(notifier);
+        Subscription subscription = new Subscription(Subscription.Topic.EVENT_TYPE, EventType.BUILD_SET_STATUS_CHANGED.name());
+        notifier.subscribe(unsubscribedClient, subscription);
+        notifier.subscribe(detachedClient, subscription);
+
+        // when
+        notifier.unsubscribe(unsubscribedClient, subscription);
+        notifier.detachClient(detachedClient);
+        notifier.sendMessage(new Notification(EventType.BUILD_SET_STATUS_CHANGED, null,
+                new BuildSetChangedPayload(3, BuildSetStatus.NEW, 4, "set", null, null, 5)));
+
+        // then
+        verify(unsubscribedClient, never()).sendMessage(any(), anyString(), any(MessageCallback.class));
+        verify(detachedClient, never()).sendMessage(any(), anyString(), any(MessageCallback.class));
+        assertThat(notifier.getAttachedClientsCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void shouldReplayOnlySubscribedNotifications() throws Exception {
+        // given
+        Notifier notifier = new DefaultNotifier(String::valueOf);
+        AttachedClient client = enabledClient(notifier);
+        notifier.subscribe(client, new Subscription(Subscription.Topic.BUILD, 1));
+        Notification subscribed = new Notification(EventType.BUILD_STATUS_CHANGED, null,
+                new BuildChangedPayload(1, BuildCoordinationStatus.DONE, 10, "config", null, null, 5), 7L);
+        Notification other = new Notification(EventType.BUILD_STATUS_CHANGED, null,
+                new BuildChangedPayload(2, BuildCoordinationStatus.DONE, 10, "config", null, null, 5), 8L);
+
+        // when
+        notifier.replay(client, Arrays.asList(subscribed, other));
+
+        // then
+        verify(client).replay(Collections.singletonList(subscribed), notifier.getCallback());
+        verify(client, never()).sendMessage(any(), anyString(), any(MessageCallback.class));
+    }
+
+    private AttachedClient enabledClient(Notifier notifier) {
+        AttachedClient attachedClient = mock(AttachedClient.class);
+        doReturn(true).when(attachedClient).isEnabled();
+        notifier.attachClient(attachedClient);
+        return attachedClient;
+    }
+
+}
@@ -0,0 +1,139 @@
+/**
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.pnc.rest.notifications.websockets;
+
+import org.jboss.pnc.spi.BuildCoordinationStatus;
+import org.jboss.pnc.spi.notifications.model.BuildChangedPayload;
+import org.jboss.pnc.spi.notifications.model.EventType;
+import org.jboss.pnc.spi.notifications.model.Notification;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import javax.websocket.RemoteEndpoint;
+import javax.websocket.SendHandler;
+import javax.websocket.SendResult;
+import javax.websocket.Session;
+import java.lang.reflect.Proxy;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the notification fan-out to 1000 simulated sessions, where the notifier serializes each notification
+ * once, and compares it with serializing the notification for every session, as the clients did before.
+ *
+ * <p>
+ *     Run with <code>mvn test-compile exec:java -Dexec.classpathScope=test
+ *     -Dexec.mainClass=org.jboss.pnc.rest.notifications.websockets.NotificationFanOutBenchmark</code> from the rest
+ *     module.
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class NotificationFanOutBenchmark {
+
+    private static final int SESSIONS = 1000;
+
+    private DefaultNotifier notifier;
+
+    private JSonOutputConverter converter;
+
+    private int buildId;
+
+    @Setup
+    public void setUp() {
+        converter = new JSonOutputConverter();
+        notifier = new DefaultNotifier(converter);
+        for (int i = 0; i < SESSIONS; i++) {
+            notifier.attachClient(new SessionBasedAttachedClient(simulatedSession(i), converter));
+        }
+    }
+
+    @Benchmark
+    public void fanOut(Blackhole blackhole) {
+        Notification notification = nextNotification();
+        notifier.sendMessage(notification);
+        blackhole.consume(notification);
+    }
+
+    @Benchmark
+    public void serializationPerSession(Blackhole blackhole) {
+        Notification notification = nextNotification();
+        for (int i = 0; i < SESSIONS; i++) {
+            blackhole.consume(converter.apply(notification));
+        }
+    }
+
+    private Notification nextNotification() {
+        buildId++;
+        return new Notification(EventType.BUILD_STATUS_CHANGED, null, new BuildChangedPayload(buildId,
+                BuildCoordinationStatus.BUILDING, buildId % 100, "configuration-" + buildId % 100, new Date(), null, 1));
+    }
+
+    /**
+     * Session which completes every asynchronous send immediately.
+     */
+    private static Session simulatedSession(int id) {
+        SendResult ok = new SendResult();
+        RemoteEndpoint.Async remote = (RemoteEndpoint.Async) Proxy.newProxyInstance(
+                NotificationFanOutBenchmark.class.getClassLoader(), new Class<?>[] { RemoteEndpoint.Async.class },
+                (proxy, method, args) -> {
+                    if (method.getName().equals("sendText") && args.length == 2) {
+                        ((SendHandler) args[1]).onResult(ok);
+                    }
+                    return null;
+                });
+        String sessionId = "session-" + id;
+        return (Session) Proxy.newProxyInstance(NotificationFanOutBenchmark.class.getClassLoader(),
+                new Class<?>[] { Session.class }, (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "isOpen":
+                            return true;
+                        case "getAsyncRemote":
+                            return remote;
+                        case "getId":
+                            return sessionId;
+                        case "hashCode":
+                            return sessionId.hashCode();
+                        case "equals":
+                            return proxy == args[0];
+                        default:
+                            return null;
+                    }
+                });
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(NotificationFanOutBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -17,13 +17,31 @@
  */
 package org.jboss.pnc.rest.notifications.websockets;
 
+import org.jboss.pnc.spi.BuildCoordinationStatus;
+import org.jboss.pnc.spi.notifications.MessageCallback;
 import org.jboss.pnc.spi.notifications.OutputConverter;
+import org.jboss.pnc.spi.notifications.model.BuildChangedPayload;
+import org.jboss.pnc.spi.notifications.model.EventType;
+import org.jboss.pnc.spi.notifications.model.Notification;
 import org.junit.Test;
+import org.mockito.ArgumentCaptor;
 
+import javax.websocket.RemoteEndpoint;
+import javax.websocket.SendHandler;
+import javax.websocket.SendResult;
 import javax.websocket.Session;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 
 import static org.junit.Assert.assertEquals;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 
 public class SessionBasedAttachedClientTest {
 
@@ -40,4 +58,171 @@ public class SessionBasedAttachedClientTest {
         assertEquals(client1, client2);
     }
 
-}
\ No newline at end of file
+    @Test
+    public void shouldQueueAndCoalesceMessagesWhileSending() throws Exception {
+        //given
+        Session session = mock(Session.class);
+        RemoteEndpoint.Async remote = mock(RemoteEndpoint.Async.class);
+        doReturn(remote).when(session).getAsyncRemote();
+        OutputConverter converter = message -> ((Notification) message).getExceptionMessage();
+        SessionBasedAttachedClient client = new SessionBasedAttachedClient(session, converter);
+        MessageCallback callback = mock(MessageCallback.class);
+
+        //when
+        client.sendMessage(buildNotification(1, "first"), "first", callback);
+        client.sendMessage(buildNotification(2, "other build"), "other build", callback);
+        client.sendMessage(buildNotification(1, "superseded"), "superseded", callback);
+        client.sendMessage(buildNotification(1, "latest"), "latest", callback);
+
+        //then
+        ArgumentCaptor<SendHandler> handler = ArgumentCaptor.forClass(SendHandler.class);
+        verify(remote).sendText(eq("first"), handler.capture());
+        assertEquals(2, client.getPendingCount());
+
+        handler.getValue().onResult(new SendResult());
+        verify(remote).sendText(eq("other build"), handler.capture());
+        handler.getValue().onResult(new SendResult());
+        verify(remote).sendText(eq("latest"), handler.capture());
+        verify(remote, never()).sendText(eq("superseded"), any(SendHandler.class));
+        verify(callback, times(2)).successful(client);
+    }
+
+    @Test
+    public void shouldNotCoalesceJournaledNotifications() throws Exception {
+        //given
+        Session session = mock(Session.class);
+        RemoteEndpoint.Async remote = mock(RemoteEndpoint.Async.class);
+        doReturn(remote).when(session).getAsyncRemote();
+        OutputConverter converter = message -> ((Notification) message).getExceptionMessage();
+        SessionBasedAttachedClient client = new SessionBasedAttachedClient(session, converter);
+        MessageCallback callback = mock(MessageCallback.class);
+
+        //when
+        client.sendMessage(buildNotification(1, "first", 1), "first", callback);
+        client.sendMessage(buildNotification(1, "unjournaled"), "unjournaled", callback);
+        client.sendMessage(buildNotification(1, "second", 2), "second", callback);
+        client.sendMessage(buildNotification(1, "third", 3), "third", callback);
+
+        //then
+        ArgumentCaptor<SendHandler> handler = ArgumentCaptor.forClass(SendHandler.class);
+        verify(remote).sendText(eq("first"), handler.capture());
+        assertEquals(2, client.getPendingCount());
+
+        handler.getValue().onResult(new SendResult());
+        verify(remote).sendText(eq("second"), handler.capture());
+        handler.getValue().onResult(new SendResult());
+        verify(remote).sendText(eq("third"), any(SendHandler.class));
+        verify(remote, never()).sendText(eq("unjournaled"), any(SendHandler.class));
+    }
+
+    @Test
+    public void shouldDropOldestMessageWhenQueueIsFull() throws Exception {
+        //given
+        Session session = mock(Session.class);
+        RemoteEndpoint.Async remote = mock(RemoteEndpoint.Async.class);
+        doReturn(remote).when(session).getAsyncRemote();
+        SessionBasedAttachedClient client = new SessionBasedAttachedClient(session, String::valueOf);
+        MessageCallback callback = mock(MessageCallback.class);
+
+        //when
+        for (int i = 0; i <= SessionBasedAttachedClient.MAX_PENDING_MESSAGES + 1; i++) {
+            client.sendMessage("message-" + i, "message-" + i, callback);
+        }
+
+        //then
+        assertEquals(SessionBasedAttachedClient.MAX_PENDING_MESSAGES, client.getPendingCount());
+        ArgumentCaptor<SendHandler> handler = ArgumentCaptor.forClass(SendHandler.class);
+        verify(remote).sendText(eq("message-0"), handler.capture());
+        handler.getValue().onResult(new SendResult());
+        verify(remote).sendText(eq("message-2"), any(SendHandler.class));
+        verify(remote, never()).sendText(eq("message-1"), any(SendHandler.class));
+    }
+
+    @Test
+    public void shouldReplayMessagesWithoutCoalescing() throws Exception {
+        //given
+        Session session = mock(Session.class);
+        RemoteEndpoint.Async remote = mock(RemoteEndpoint.Async.class);
+        doReturn(remote).when(session).getAsyncRemote();
+        OutputConverter converter = message -> ((Notification) message).getExceptionMessage();
+        SessionBasedAttachedClient client = new SessionBasedAttachedClient(session, converter);
+        MessageCallback callback = mock(MessageCallback.class);
+
+        //when
+        client.replay(Arrays.asList(buildNotification(1, "first", 1), buildNotification(1, "second", 2),
+                buildNotification(1, "third", 3)), callback);
+        client.sendMessage(buildNotification(1, "live", 4), "live", callback);
+
+        //then
+        ArgumentCaptor<SendHandler> handler = ArgumentCaptor.forClass(SendHandler.class);
+        verify(remote).sendText(eq("first"), handler.capture());
+        assertEquals(3, client.getPendingCount());
+        handler.getValue().onResult(new SendResult());
+        verify(remote).sendText(eq("second"), handler.capture());
+        handler.getValue().onResult(new SendResult());
+        verify(remote).sendText(eq("third"), handler.capture());
+        handler.getValue().onResult(new SendResult());
+        verify(remote).sendText(eq("live"), any(SendHandler.class));
+    }
+
+    @Test
+    public void shouldRequireResyncWhenReplayDoesNotFitIntoQueue() throws Exception {
+        //given
+        Session session = mock(Session.class);
+        RemoteEndpoint.Async remote = mock(RemoteEndpoint.Async.class);
+        doReturn(remote).when(session).getAsyncRemote();
+        SessionBasedAttachedClient client = new SessionBasedAttachedClient(session, SessionBasedAttachedClientTest::describe);
+        MessageCallback callback = mock(MessageCallback.class);
+        List<Notification> missed = new ArrayList<>();
+        for (int i = 1; i <= SessionBasedAttachedClient.MAX_PENDING_MESSAGES + 1; i++) {
+            missed.add(buildNotification(i, "missed", i));
+        }
+
+        //when
+        client.replay(missed, callback);
+
+        //then
+        verify(remote).sendText(eq("RESYNC_REQUIRED:" + missed.size()), any(SendHandler.class));
+        verify(remote, times(1)).sendText(any(String.class), any(SendHandler.class));
+        assertEquals(0, client.getPendingCount());
+    }
+
+    @Test
+    public void shouldRequireResyncInsteadOfDroppingJournaledNotifications() throws Exception {
+        //given
+        Session session = mock(Session.class);
+        RemoteEndpoint.Async remote = mock(RemoteEndpoint.Async.class);
+        doReturn(remote).when(session).getAsyncRemote();
+        SessionBasedAttachedClient client = new SessionBasedAttachedClient(session, SessionBasedAttachedClientTest::describe);
+        MessageCallback callback = mock(MessageCallback.class);
+
+        //when
+        for (int i = 0; i <= SessionBasedAttachedClient.MAX_PENDING_MESSAGES + 1; i++) {
+            Notification notification = buildNotification(i, "live", i);
+            client.sendMessage(notification, describe(notification), callback);
+        }
+
+        //then
+        ArgumentCaptor<SendHandler> handler = ArgumentCaptor.forClass(SendHandler.class);
+        verify(remote).sendText(eq("BUILD_STATUS_CHANGED:0"), handler.capture());
+        assertEquals(1, client.getPendingCount());
+        handler.getValue().onResult(new SendResult());
+        verify(remote).sendText(eq("RESYNC_REQUIRED:" + (SessionBasedAttachedClient.MAX_PENDING_MESSAGES + 1)),
+                any(SendHandler.class));
+    }
+
+    private static String describe(Object message) {
+        Notification notification = (Notification) message;
+        return notification.getEventType() + ":" + notification.getSequence();
+    }
+
+    private Notification buildNotification(int buildId, String text, long sequence) {
+        return buildNotification(buildId, text).withSequence(sequence);
+    }
+
+    private Notification buildNotification(int buildId, String text) {
+        return new Notification(EventType.BUILD_STATUS_CHANGED, text,
+                new BuildChangedPayload(buildId, BuildCoordinationStatus.BUILDING, 1, "config", null, null, 1));
+    }
+
+}
@@ -18,24 +18,38 @@
 
 package org.jboss.pnc.rest.provider;
 
+import com.google.common.collect.ImmutableMap;
 import org.jboss.pnc.model.BuildConfiguration;
 import org.jboss.pnc.rest.provider.collection.CollectionInfo;
 import org.jboss.pnc.rest.restmodel.BuildConfigurationRest;
+import org.jboss.pnc.rest.utils.StreamChunkLoader;
+import org.jboss.pnc.rest.validation.exceptions.InvalidEntityException;
 import org.jboss.pnc.rest.validation.exceptions.ValidationException;
 import org.jboss.pnc.spi.datastore.repositories.PageInfoProducer;
 import org.jboss.pnc.spi.datastore.repositories.SortInfoProducer;
+import org.jboss.pnc.spi.datastore.repositories.api.PageInfo;
 import org.jboss.pnc.spi.datastore.repositories.api.RSQLPredicateProducer;
 import org.jboss.pnc.spi.datastore.repositories.api.Repository;
 import org.junit.Before;
 import org.junit.Test;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
 import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.eq;
 import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 
 public class AbstractProviderTest {
 
@@ -55,6 +69,12 @@ public class AbstractProviderTest {
             return buildConfigurationRest -> BuildConfiguration.Builder.newBuilder().id(buildConfigurationRest.getId()).build();
         }
 
+        @Override
+        protected Map<String, ProjectedField> getProjectedFields() {
+            return ImmutableMap.of("id", ProjectedField.of("id"),
+                    "projectName", ProjectedField.of("project.name", (String name) -> name.toUpperCase()));
+        }
+
     }
 
     private RSQLPredicateProducer rsqlPredicateProducer;
@@ -76,7 +96,7 @@ public class AbstractProviderTest {
         BuildConfiguration exampleConfiguration = new BuildConfiguration();
 
         TestedAbstractProvider testedAbstractProvider = new TestedAbstractProvider();
-        doReturn(Arrays.asList(exampleConfiguration)).when(repository).queryWithPredicates(any(), any(), any());
+        doReturn(Arrays.asList(exampleConfiguration)).when(repository).queryWithPredicates(any(), any(), any(), any());
         doReturn(100).when(repository).count(any());
 
         //when
@@ -89,6 +109,55 @@ public class AbstractProviderTest {
         assertThat(returnedCollection.getContent().size()).isEqualTo(1);
     }
 
+    @Test
+    public void shouldReturnKeysetPageWithoutCounting() throws Exception {
+        //given
+        BuildConfiguration exampleConfiguration = new BuildConfiguration();
+
+        TestedAbstractProvider testedAbstractProvider = new TestedAbstractProvider();
+        doReturn(Arrays.asList(exampleConfiguration)).when(repository).queryWithPredicatesAfter(eq(5000), eq(10), any(), any(), any());
+
+        //when
+        CollectionInfo<BuildConfigurationRest> returnedCollection = testedAbstractProvider.getAllAfter(5000, 10, "sort", "query");
+
+        //when
+        assertThat(returnedCollection.getPageSize()).isEqualTo(10);
+        assertThat(returnedCollection.getTotalPages()).isEqualTo(AbstractProvider.UNKNOWN_TOTAL_PAGES);
+        assertThat(returnedCollection.getContent().size()).isEqualTo(1);
+        verify(repository, never()).count(any());
+    }
+
+    @Test
+    public void shouldReturnProjectedFields() throws Exception {
+        //given
+        TestedAbstractProvider testedAbstractProvider = new TestedAbstractProvider();
+        doReturn(Arrays.asList(new Object[] { "pnc", 1 }, new Object[] { null, 2 })).when(repository)
+                .queryProjectionFrom(eq(0), eq(10), any(), eq(Arrays.asList("project.name", "id")), any());
+        doReturn(15).when(repository).count(any());
+        doReturn(pageInfo(0, 10)).when(pageInfoProducer).getPageInfo(0, 10);
+
+        //when
+        List<String> fieldNames = testedAbstractProvider.parseProjectedFields("projectName, id,projectName");
+        CollectionInfo<Map<String, Object>> returnedCollection = testedAbstractProvider.queryForProjection(0, 10, "sort",
+                "query", fieldNames);
+
+        //then
+        assertThat(fieldNames).containsExactly("projectName", "id");
+        assertThat(returnedCollection.getTotalPages()).isEqualTo(2);
+        assertThat(returnedCollection.getContent()).hasSize(2);
+        assertThat(returnedCollection.getContent().iterator().next()).containsEntry("projectName", "PNC").containsEntry("id", 1);
+        verify(repository, never()).queryWithPredicates(any(), any(), any(), any());
+    }
+
+    @Test(expected = InvalidEntityException.class)
+    public void shouldRejectFieldsWithoutProjection() throws Exception {
+        //given
+        TestedAbstractProvider testedAbstractProvider = new TestedAbstractProvider();
+
+        //when
+        testedAbstractProvider.parseProjectedFields("id,buildScript");
+    }
+
     @Test
     public void shouldReturnSingleton() throws Exception {
         //given
@@ -105,6 +174,96 @@ public class AbstractProviderTest {
         assertThat(returnedSingleton.getId()).isEqualTo(1);
     }
 
+    @Test
+    public void shouldReturnBatchInOrderOfIds() throws Exception {
+        //given
+        BuildConfiguration first = BuildConfiguration.Builder.newBuilder().id(1).build();
+        BuildConfiguration second = BuildConfiguration.Builder.newBuilder().id(2).build();
+
+        TestedAbstractProvider testedAbstractProvider = new TestedAbstractProvider();
+        doReturn(Arrays.asList(first, second)).when(repository).queryByIds(eq(Arrays.asList(2, 3, 1, 2)), any());
+
+        //when
+        List<BuildConfigurationRest> returnedEntities = testedAbstractProvider.getSpecific(Arrays.asList(2, 3, 1, 2));
+
+        //then
+        assertThat(returnedEntities).extracting("id").containsExactly(2, 1);
+    }
+
+    @Test
+    public void shouldNotHoldTransactionWhileSlowConsumerWritesChunk() throws Exception {
+        //given
+        boolean[] inTransaction = {false};
+        TestedAbstractProvider testedAbstractProvider = new TestedAbstractProvider();
+        testedAbstractProvider.streamChunkLoader = new StreamChunkLoader() {
+            @Override
+            public <T> List<T> load(Supplier<List<T>> chunk) {
+                inTransaction[0] = true;
+                try {
+                    return chunk.get();
+                } finally {
+                    inTransaction[0] = false;
+                }
+            }
+        };
+        doReturn(configurations(1, AbstractProvider.STREAM_CHUNK_SIZE)).when(repository)
+                .queryWithPredicatesAfter(eq((Integer) null), eq(AbstractProvider.STREAM_CHUNK_SIZE), any(), any(), any());
+        doReturn(configurations(AbstractProvider.STREAM_CHUNK_SIZE + 1, 1)).when(repository)
+                .queryWithPredicatesAfter(eq(AbstractProvider.STREAM_CHUNK_SIZE), eq(AbstractProvider.STREAM_CHUNK_SIZE), any(), any(), any());
+
+        //when
+        List<Integer> streamedIds = new ArrayList<>();
+        testedAbstractProvider.streamForCollection("sort", "query", configuration -> {
+            assertThat(inTransaction[0]).isFalse();
+            streamedIds.add(configuration.getId());
+        });
+
+        //then
+        assertThat(streamedIds).hasSize(AbstractProvider.STREAM_CHUNK_SIZE + 1);
+        assertThat(streamedIds.get(AbstractProvider.STREAM_CHUNK_SIZE)).isEqualTo(AbstractProvider.STREAM_CHUNK_SIZE + 1);
+    }
+
+    @Test
+    public void shouldContinueStreamWhenLastStreamedEntityWasDeleted() throws Exception {
+        //given
+        int chunkSize = AbstractProvider.STREAM_CHUNK_SIZE;
+        TestedAbstractProvider testedAbstractProvider = new TestedAbstractProvider();
+        doReturn(configurations(1, chunkSize)).when(repository)
+                .queryWithPredicatesAfter(eq((Integer) null), eq(chunkSize), any(), any(), any());
+        doReturn(Collections.emptyList()).when(repository)
+                .queryWithPredicatesAfter(eq(chunkSize), eq(chunkSize), any(), any(), any());
+        //the last entity of the chunk was deleted, so the next one is selected after the entity before it
+        doReturn(configuration(chunkSize - 1)).when(repository).queryById(chunkSize - 1);
+        doReturn(configurations(chunkSize + 1, 1)).when(repository)
+                .queryWithPredicatesAfter(eq(chunkSize - 1), eq(chunkSize + 1), any(), any(), any());
+
+        //when
+        List<Integer> streamedIds = new ArrayList<>();
+        testedAbstractProvider.streamForCollection("sort", "query", configuration -> streamedIds.add(configuration.getId()));
+
+        //then
+        assertThat(streamedIds).hasSize(chunkSize + 1);
+        assertThat(streamedIds).doesNotHaveDuplicates();
+        assertThat(streamedIds.get(chunkSize)).isEqualTo(chunkSize + 1);
+    }
+
+    private List<BuildConfiguration> configurations(int firstId, int count) {
+        return IntStream.range(firstId, firstId + count)
+                .mapToObj(this::configuration)
+                .collect(Collectors.toList());
+    }
+
+    private BuildConfiguration configuration(int id) {
+        return BuildConfiguration.Builder.newBuilder().id(id).build();
+    }
+
+    private PageInfo pageInfo(int pageIndex, int pageSize) {
+        PageInfo pageInfo = mock(PageInfo.class);
+        doReturn(pageIndex).when(pageInfo).getPageOffset();
+        doReturn(pageSize).when(pageInfo).getPageSize();
+        return pageInfo;
+    }
+
     @Test
     public void shouldCallStore() throws Exception {
         //given
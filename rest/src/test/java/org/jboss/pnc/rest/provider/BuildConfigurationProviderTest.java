@@ -18,11 +18,16 @@
 package org.jboss.pnc.rest.provider;
 
 import org.jboss.pnc.model.BuildConfiguration;
+import org.jboss.pnc.model.BuildEnvironment;
+import org.jboss.pnc.model.BuildRecord;
+import org.jboss.pnc.model.Project;
 import org.jboss.pnc.rest.restmodel.BuildConfigurationRest;
 import org.jboss.pnc.rest.restmodel.BuildEnvironmentRest;
 import org.jboss.pnc.rest.restmodel.ProjectRest;
 import org.jboss.pnc.rest.validation.exceptions.InvalidEntityException;
 import org.jboss.pnc.rest.validation.exceptions.ValidationException;
+import org.jboss.pnc.spi.datastore.EntityChangeCounters;
+import org.jboss.pnc.spi.datastore.repositories.BuildConfigurationRepository;
 import org.jboss.pnc.spi.datastore.repositories.api.Repository;
 import org.junit.Before;
 import org.junit.Test;
@@ -31,6 +36,13 @@ import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.MockitoAnnotations;
 
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Matchers.anyVararg;
+
 /**
  * Author: Michal Szynkiewicz, michal.l.szynkiewicz@gmail.com
  * Date: 3/14/16
@@ -45,6 +57,14 @@ public class BuildConfigurationProviderTest {
     @Mock
     protected Repository<BuildConfiguration, Integer> repository;
 
+    @Mock
+    private BuildConfigurationRepository buildConfigurationRepository;
+
+    @Mock
+    private EntityChangeCounters entityChangeCounters;
+
+    private final Map<Class<?>, Long> changes = new HashMap<>();
+
     @InjectMocks
     private BuildConfigurationProvider provider = new BuildConfigurationProvider();
 
@@ -52,6 +72,53 @@ public class BuildConfigurationProviderTest {
     public void setUp() {
         MockitoAnnotations.initMocks(this);
         Mockito.when(repository.queryById(EXISTING_ID)).thenReturn(new BuildConfiguration());
+        Mockito.when(buildConfigurationRepository.getLastModificationTime(EXISTING_ID)).thenReturn(new Date(1000));
+        Mockito.when(entityChangeCounters.getVersion(anyVararg())).thenAnswer(invocation -> {
+            long version = 0;
+            for (Object entityClass : invocation.getArguments()) {
+                version += changes.getOrDefault(entityClass, 0L);
+            }
+            return Long.toString(version);
+        });
+    }
+
+    @Test
+    public void shouldChangeEntityVersionWhenSiblingConfigurationIsCreated() {
+        //given
+        String version = provider.getEntityVersion(EXISTING_ID);
+
+        //when
+        changes.put(BuildConfiguration.class, 1L);
+
+        //then
+        assertThat(provider.getEntityVersion(EXISTING_ID)).isNotEqualTo(version);
+    }
+
+    @Test
+    public void shouldChangeEntityVersionWhenEmbeddedAssociationsChange() {
+        //given
+        String version = provider.getEntityVersion(EXISTING_ID);
+
+        //when
+        changes.put(Project.class, 1L);
+        String projectChangedVersion = provider.getEntityVersion(EXISTING_ID);
+        changes.put(BuildEnvironment.class, 1L);
+
+        //then
+        assertThat(projectChangedVersion).isNotEqualTo(version);
+        assertThat(provider.getEntityVersion(EXISTING_ID)).isNotEqualTo(projectChangedVersion);
+    }
+
+    @Test
+    public void shouldKeepEntityVersionWhenUnrelatedEntitiesChange() {
+        //given
+        String version = provider.getEntityVersion(EXISTING_ID);
+
+        //when
+        changes.put(BuildRecord.class, 1L);
+
+        //then
+        assertThat(provider.getEntityVersion(EXISTING_ID)).isEqualTo(version);
     }
 
     @Test(expected = InvalidEntityException.class)
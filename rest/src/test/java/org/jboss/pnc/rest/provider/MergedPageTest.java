@@ -0,0 +1,154 @@
+/**
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.pnc.rest.provider;
+
+import org.jboss.pnc.rest.restmodel.BuildRecordRest;
+import org.jboss.pnc.spi.datastore.repositories.api.SortInfo;
+import org.jboss.pnc.spi.datastore.repositories.api.impl.PropertyComparator;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class MergedPageTest {
+
+    private static final List<Integer> STORED = Arrays.asList(0, 2, 4, 6, 8, 10, 12, 14, 16, 18);
+
+    private static final List<Integer> IN_MEMORY = Arrays.asList(3, 5, 17, 21);
+
+    @Test
+    public void shouldMergeEveryPageExactly() {
+        //given
+        List<Integer> expected = new ArrayList<>(STORED);
+        expected.addAll(IN_MEMORY);
+        Collections.sort(expected);
+        int pageSize = 3;
+
+        //when
+        List<Integer> merged = new ArrayList<>();
+        for (int pageIndex = 0; pageIndex * pageSize < expected.size(); pageIndex++) {
+            merged.addAll(getPage(pageIndex * pageSize, pageSize, IN_MEMORY));
+        }
+
+        //then
+        assertThat(merged).isEqualTo(expected);
+    }
+
+    @Test
+    public void shouldSelectOnlyBoundedWindowOfStoredElements() {
+        //when
+        int windowOffset = MergedPage.getWindowOffset(6, IN_MEMORY.size());
+        int windowSize = MergedPage.getWindowSize(6, 3, IN_MEMORY.size());
+
+        //then
+        assertThat(windowOffset).isEqualTo(2);
+        assertThat(windowSize).isEqualTo(7);
+    }
+
+    @Test
+    public void shouldReturnInMemoryElementsWhenNothingIsStored() {
+        //when
+        List<Integer> page = MergedPage.merge(2, 3, Collections.emptyList(), IN_MEMORY, Comparator.naturalOrder());
+
+        //then
+        assertThat(page).containsExactly(17, 21);
+    }
+
+    @Test
+    public void shouldReturnEmptyPageAfterLastElement() {
+        //when
+        List<Integer> page = getPage(15, 3, IN_MEMORY);
+
+        //then
+        assertThat(page).isEmpty();
+    }
+
+    @Test
+    public void shouldMergeNullEndTimesInAscendingDatabaseOrder() {
+        shouldMergeNullEndTimesInDatabaseOrder(SortInfo.SortingDirection.ASC);
+    }
+
+    @Test
+    public void shouldMergeNullEndTimesInDescendingDatabaseOrder() {
+        shouldMergeNullEndTimesInDatabaseOrder(SortInfo.SortingDirection.DESC);
+    }
+
+    private void shouldMergeNullEndTimesInDatabaseOrder(SortInfo.SortingDirection direction) {
+        //given
+        Comparator<BuildRecordRest> databaseOrder = getDatabaseOrder(direction);
+        List<BuildRecordRest> stored = Arrays.asList(record(1, 10L), record(2, null), record(3, 30L), record(4, null),
+                record(5, 20L), record(6, 40L));
+        stored.sort(databaseOrder);
+        Comparator<BuildRecordRest> comparator = new PropertyComparator<>(Arrays.asList("endTime", "id"), direction);
+        List<BuildRecordRest> inMemory = Arrays.asList(record(7, null), record(8, 25L), record(9, null));
+        inMemory.sort(comparator);
+
+        List<BuildRecordRest> expected = new ArrayList<>(stored);
+        expected.addAll(inMemory);
+        expected.sort(databaseOrder);
+        int pageSize = 2;
+
+        //when
+        List<BuildRecordRest> merged = new ArrayList<>();
+        for (int offset = 0; offset < expected.size(); offset += pageSize) {
+            int windowOffset = Math.min(MergedPage.getWindowOffset(offset, inMemory.size()), stored.size());
+            int windowEnd = Math.min(windowOffset + MergedPage.getWindowSize(offset, pageSize, inMemory.size()),
+                    stored.size());
+            merged.addAll(MergedPage.merge(offset, pageSize, stored.subList(windowOffset, windowEnd), inMemory,
+                    comparator));
+        }
+
+        //then
+        assertThat(ids(merged)).isEqualTo(ids(expected));
+    }
+
+    /**
+     * Order by the null flag, the end time and the id, all in the same direction, as the keyset ordered queries do.
+     */
+    private static Comparator<BuildRecordRest> getDatabaseOrder(SortInfo.SortingDirection direction) {
+        Comparator<BuildRecordRest> order = Comparator
+                .comparing((BuildRecordRest record) -> record.getEndTime() == null ? 1 : 0)
+                .thenComparing(record -> record.getEndTime() == null ? 0L : record.getEndTime().getTime())
+                .thenComparing(BuildRecordRest::getId);
+        return direction == SortInfo.SortingDirection.ASC ? order : order.reversed();
+    }
+
+    private static BuildRecordRest record(int id, Long endTime) {
+        BuildRecordRest record = new BuildRecordRest();
+        record.setId(id);
+        record.setEndTime(endTime == null ? null : new Date(endTime));
+        return record;
+    }
+
+    private static List<Integer> ids(List<BuildRecordRest> records) {
+        return records.stream().map(BuildRecordRest::getId).collect(Collectors.toList());
+    }
+
+    private List<Integer> getPage(int offset, int pageSize, List<Integer> inMemory) {
+        int windowOffset = Math.min(MergedPage.getWindowOffset(offset, inMemory.size()), STORED.size());
+        int windowEnd = Math.min(windowOffset + MergedPage.getWindowSize(offset, pageSize, inMemory.size()), STORED.size());
+        return MergedPage.merge(offset, pageSize, STORED.subList(windowOffset, windowEnd), inMemory, Comparator.naturalOrder());
+    }
+}
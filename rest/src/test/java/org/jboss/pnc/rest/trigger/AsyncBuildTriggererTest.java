@@ -0,0 +1,213 @@
+/**
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.pnc.rest.trigger;
+
+import org.jboss.pnc.common.Configuration;
+import org.jboss.pnc.common.json.moduleconfig.SystemConfig;
+import org.jboss.pnc.model.BuildConfiguration;
+import org.jboss.pnc.model.User;
+import org.jboss.pnc.rest.notifications.NotificationJournal;
+import org.jboss.pnc.rest.restmodel.BuildTriggerRest;
+import org.jboss.pnc.rest.validation.exceptions.InvalidEntityException;
+import org.jboss.pnc.spi.BuildTriggerStatus;
+import org.jboss.pnc.spi.datastore.repositories.BuildConfigurationRepository;
+import org.jboss.pnc.spi.datastore.repositories.BuildConfigurationSetRepository;
+import org.jboss.pnc.spi.exception.BuildConflictException;
+import org.jboss.pnc.spi.notifications.Notifier;
+import org.jboss.pnc.spi.notifications.model.BuildTriggerChangedPayload;
+import org.jboss.pnc.spi.notifications.model.EventType;
+import org.jboss.pnc.spi.notifications.model.Notification;
+import org.junit.After;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyBoolean;
+import static org.mockito.Matchers.anyInt;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+
+public class AsyncBuildTriggererTest {
+
+    private final BuildTriggerer buildTriggerer = mock(BuildTriggerer.class);
+    private final BuildConfigurationRepository buildConfigurationRepository = mock(BuildConfigurationRepository.class);
+    private final Notifier notifier = mock(Notifier.class);
+    private final User user = User.Builder.newBuilder().id(7).username("demo").build();
+    private final AtomicLong now = new AtomicLong(TimeUnit.DAYS.toMillis(1));
+
+    private AsyncBuildTriggerer asyncBuildTriggerer;
+
+    @After
+    public void tearDown() {
+        if (asyncBuildTriggerer != null) {
+            asyncBuildTriggerer.destroy();
+        }
+    }
+
+    @Test
+    public void shouldAcceptAndTriggerBuild() throws Exception {
+        // given
+        asyncBuildTriggerer = createTriggerer("1", "10");
+        doReturn(BuildConfiguration.Builder.newBuilder().id(1).build()).when(buildConfigurationRepository).queryById(1);
+        doReturn(42).when(buildTriggerer).triggerBuild(1, user, false, true);
+
+        // when
+        BuildTriggerRest accepted = asyncBuildTriggerer.triggerBuild(1, user, false, true);
+
+        // then
+        assertThat(accepted.getStatus()).isEqualTo(BuildTriggerStatus.ACCEPTED);
+        assertThat(accepted.getUserId()).isEqualTo(7);
+        assertThat(UUID.fromString(accepted.getId()).toString()).isEqualTo(accepted.getId());
+        BuildTriggerRest completed = waitForCompletion(accepted.getId());
+        assertThat(completed.getStatus()).isEqualTo(BuildTriggerStatus.TRIGGERED);
+        assertThat(completed.getBuildId()).isEqualTo(42);
+        assertThat(notifiedStatuses(3)).containsExactly(BuildTriggerStatus.ACCEPTED, BuildTriggerStatus.INITIALIZING,
+                BuildTriggerStatus.TRIGGERED);
+    }
+
+    @Test
+    public void shouldReportFailedInitialization() throws Exception {
+        // given
+        asyncBuildTriggerer = createTriggerer("1", "10");
+        doReturn(BuildConfiguration.Builder.newBuilder().id(1).build()).when(buildConfigurationRepository).queryById(1);
+        doThrow(new BuildConflictException("Already running")).when(buildTriggerer).triggerBuild(1, user, false, false);
+
+        // when
+        BuildTriggerRest accepted = asyncBuildTriggerer.triggerBuild(1, user, false, false);
+
+        // then
+        BuildTriggerRest completed = waitForCompletion(accepted.getId());
+        assertThat(completed.getStatus()).isEqualTo(BuildTriggerStatus.FAILED);
+        assertThat(completed.getErrorMessage()).isEqualTo("Already running");
+    }
+
+    @Test(expected = InvalidEntityException.class)
+    public void shouldRejectUnknownBuildConfiguration() throws Exception {
+        asyncBuildTriggerer = createTriggerer("1", "10");
+
+        asyncBuildTriggerer.triggerBuild(1, user, false, false);
+    }
+
+    @Test
+    public void shouldRejectTriggersWhenQueueIsFull() throws Exception {
+        // given
+        asyncBuildTriggerer = createTriggerer("1", "1");
+        doReturn(BuildConfiguration.Builder.newBuilder().id(1).build()).when(buildConfigurationRepository).queryById(1);
+        CountDownLatch initializationStarted = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            initializationStarted.countDown();
+            release.await();
+            return 1;
+        }).when(buildTriggerer).triggerBuild(anyInt(), any(User.class), anyBoolean(), anyBoolean());
+
+        BuildTriggerRest running = asyncBuildTriggerer.triggerBuild(1, user, false, false);
+        assertThat(initializationStarted.await(5, TimeUnit.SECONDS)).isTrue();
+        BuildTriggerRest queued = asyncBuildTriggerer.triggerBuild(1, user, false, false);
+
+        // when
+        try {
+            asyncBuildTriggerer.triggerBuild(1, user, false, false);
+            throw new AssertionError("Expected the trigger to be rejected.");
+        } catch (RejectedExecutionException e) {
+            // expected
+        } finally {
+            release.countDown();
+        }
+
+        // then
+        assertThat(waitForCompletion(running.getId()).getStatus()).isEqualTo(BuildTriggerStatus.TRIGGERED);
+        assertThat(waitForCompletion(queued.getId()).getStatus()).isEqualTo(BuildTriggerStatus.TRIGGERED);
+    }
+
+    @Test
+    public void shouldEvictCompletedTriggersByCompletionTime() throws Exception {
+        // given
+        asyncBuildTriggerer = createTriggerer("1", "10");
+        doReturn(BuildConfiguration.Builder.newBuilder().id(1).build()).when(buildConfigurationRepository).queryById(1);
+        CountDownLatch initializationStarted = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            initializationStarted.countDown();
+            release.await();
+            return 1;
+        }).doReturn(2).when(buildTriggerer).triggerBuild(anyInt(), any(User.class), anyBoolean(), anyBoolean());
+
+        BuildTriggerRest slow = asyncBuildTriggerer.triggerBuild(1, user, false, false);
+        assertThat(initializationStarted.await(5, TimeUnit.SECONDS)).isTrue();
+        now.addAndGet(2 * AsyncBuildTriggerer.COMPLETED_TRIGGER_RETENTION_MILLIS);
+        release.countDown();
+        assertThat(waitForCompletion(slow.getId()).getCompletionTime().getTime()).isEqualTo(now.get());
+
+        // when
+        now.addAndGet(AsyncBuildTriggerer.COMPLETED_TRIGGER_RETENTION_MILLIS / 2);
+        asyncBuildTriggerer.triggerBuild(1, user, false, false);
+
+        // then
+        assertThat(asyncBuildTriggerer.getTrigger(slow.getId()).isPresent()).isTrue();
+
+        // when
+        now.addAndGet(AsyncBuildTriggerer.COMPLETED_TRIGGER_RETENTION_MILLIS);
+        asyncBuildTriggerer.triggerBuild(1, user, false, false);
+
+        // then
+        assertThat(asyncBuildTriggerer.getTrigger(slow.getId()).isPresent()).isFalse();
+    }
+
+    private AsyncBuildTriggerer createTriggerer(String threadPoolSize, String queueCapacity) throws Exception {
+        Configuration configuration = mock(Configuration.class);
+        doReturn(new SystemConfig(null, null, null, null, null, null, threadPoolSize, queueCapacity))
+                .when(configuration).getModuleConfig(any());
+        return new AsyncBuildTriggerer(buildTriggerer, buildConfigurationRepository,
+                mock(BuildConfigurationSetRepository.class), notifier, new NotificationJournal(), configuration, now::get);
+    }
+
+    private BuildTriggerRest waitForCompletion(String triggerId) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(5);
+        while (System.currentTimeMillis() < deadline) {
+            BuildTriggerRest trigger = asyncBuildTriggerer.getTrigger(triggerId).get();
+            if (trigger.getStatus().isCompleted()) {
+                return trigger;
+            }
+            Thread.sleep(10);
+        }
+        throw new AssertionError("Build trigger " + triggerId + " didn't complete in time.");
+    }
+
+    private List<BuildTriggerStatus> notifiedStatuses(int expectedCount) {
+        ArgumentCaptor<Notification> captor = ArgumentCaptor.forClass(Notification.class);
+        verify(notifier, timeout(1000).times(expectedCount)).sendMessage(captor.capture());
+        return captor.getAllValues().stream()
+                .filter(notification -> notification.getEventType() == EventType.BUILD_TRIGGER_STATUS_CHANGED)
+                .map(notification -> ((BuildTriggerChangedPayload) notification.getPayload()).getTriggerStatus())
+                .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,115 @@
+/**
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.pnc.rest.utils;
+
+import org.jboss.pnc.model.User;
+import org.jboss.pnc.spi.datastore.Datastore;
+import org.junit.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+public class AuthenticatedUserCacheTest {
+
+    private final Datastore datastore = mock(Datastore.class);
+    private final AtomicLong now = new AtomicLong(0);
+    private final AuthenticatedUserCache cache = new AuthenticatedUserCache(datastore, 1000, now::get);
+
+    @Test
+    public void shouldQueryDatastoreOnceWithinTtl() {
+        doReturn(user(1, "demo")).when(datastore).retrieveUserByUsername("demo");
+
+        User first = cache.getUser("demo");
+        now.set(999);
+        User second = cache.getUser("demo");
+
+        assertThat(first.getId()).isEqualTo(1);
+        assertThat(second.getUsername()).isEqualTo("demo");
+        verify(datastore, times(1)).retrieveUserByUsername("demo");
+    }
+
+    @Test
+    public void shouldReloadExpiredUser() {
+        doReturn(user(1, "demo")).when(datastore).retrieveUserByUsername("demo");
+
+        cache.getUser("demo");
+        now.set(1000);
+        cache.getUser("demo");
+
+        verify(datastore, times(2)).retrieveUserByUsername("demo");
+    }
+
+    @Test
+    public void shouldReturnCopiesSoLoginTokensAreNotShared() {
+        doReturn(user(1, "demo")).when(datastore).retrieveUserByUsername("demo");
+
+        User first = cache.getUser("demo");
+        first.setLoginToken("token-1");
+        User second = cache.getUser("demo");
+
+        assertThat(second).isNotSameAs(first);
+        assertThat(second.getLoginToken()).isNull();
+    }
+
+    @Test
+    public void shouldNotCacheMissingUser() {
+        cache.getUser("new-user");
+        doReturn(user(2, "new-user")).when(datastore).retrieveUserByUsername("new-user");
+
+        assertThat(cache.getUser("new-user").getId()).isEqualTo(2);
+    }
+
+    @Test
+    public void shouldReloadInvalidatedUser() {
+        doReturn(user(1, "demo")).when(datastore).retrieveUserByUsername("demo");
+        doReturn(user(2, "other")).when(datastore).retrieveUserByUsername("other");
+        cache.getUser("demo");
+        cache.getUser("other");
+
+        doReturn(user(1, "demo", "updated@example.com")).when(datastore).retrieveUserByUsername("demo");
+        cache.invalidate(1);
+
+        assertThat(cache.getUser("demo").getEmail()).isEqualTo("updated@example.com");
+        cache.getUser("other");
+        verify(datastore, times(1)).retrieveUserByUsername("other");
+    }
+
+    @Test
+    public void shouldStayBounded() {
+        for (int i = 0; i < AuthenticatedUserCache.MAX_SIZE * 2; i++) {
+            String username = "user-" + i;
+            doReturn(user(i, username)).when(datastore).retrieveUserByUsername(username);
+            cache.getUser(username);
+        }
+
+        assertThat(cache.size()).isLessThanOrEqualTo(AuthenticatedUserCache.MAX_SIZE);
+    }
+
+    private User user(int id, String username) {
+        return user(id, username, username + "@example.com");
+    }
+
+    private User user(int id, String username, String email) {
+        return User.Builder.newBuilder().id(id).username(username).email(email).build();
+    }
+}
@@ -0,0 +1,216 @@
+/**
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.pnc.rest.utils;
+
+import com.sun.net.httpserver.HttpServer;
+import org.apache.http.client.methods.HttpPost;
+import org.jboss.pnc.common.util.HttpUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class CallbackQueueTest {
+
+    private static final String CALLBACK_TYPE = "test";
+
+    private HttpServer server;
+    private ExecutorService serverExecutor;
+    private String endpoint;
+    private final Queue<Integer> responseCodes = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger requests = new AtomicInteger();
+    private final AtomicInteger concurrentRequests = new AtomicInteger();
+    private final AtomicInteger maxConcurrentRequests = new AtomicInteger();
+    private CountDownLatch requestLatch = new CountDownLatch(1);
+    private volatile long responseDelayMillis;
+    private CallbackQueue callbackQueue;
+
+    @Before
+    public void startServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/callback", exchange -> {
+            int running = concurrentRequests.incrementAndGet();
+            maxConcurrentRequests.accumulateAndGet(running, Math::max);
+            try {
+                Thread.sleep(responseDelayMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            Integer code = responseCodes.poll();
+            byte[] body = "ok".getBytes();
+            exchange.sendResponseHeaders(code != null ? code : 200, body.length);
+            exchange.getResponseBody().write(body);
+            exchange.close();
+            concurrentRequests.decrementAndGet();
+            requests.incrementAndGet();
+            requestLatch.countDown();
+        });
+        serverExecutor = Executors.newCachedThreadPool();
+        server.setExecutor(serverExecutor);
+        server.start();
+        endpoint = "http://localhost:" + server.getAddress().getPort() + "/callback";
+    }
+
+    @After
+    public void stopServer() {
+        if (callbackQueue != null) {
+            callbackQueue.shutdown();
+        }
+        server.stop(0);
+        serverExecutor.shutdownNow();
+    }
+
+    @Test
+    public void shouldRetryFailedCallbackWithBackoff() throws Exception {
+        responseCodes.add(500);
+        responseCodes.add(503);
+        requestLatch = new CountDownLatch(3);
+        callbackQueue = new CallbackQueue(HttpUtils.getPermissivePoolingHttpClient(2, CallbackQueue.DEFAULT_TIMEOUT_MILLIS), 2, 5, 10, 100);
+
+        assertThat(callbackQueue.submit(CALLBACK_TYPE, () -> new HttpPost(endpoint + "?event=DONE"))).isTrue();
+
+        assertThat(requestLatch.await(10, TimeUnit.SECONDS)).isTrue();
+        waitForPendingCallbacks();
+        CallbackMetrics.CallbackStats stats = callbackQueue.getMetrics().getStats(CALLBACK_TYPE);
+        assertThat(stats.getSuccesses()).isEqualTo(1);
+        assertThat(stats.getFailures()).isEqualTo(2);
+        assertThat(stats.getRetries()).isEqualTo(2);
+        assertThat(stats.getDropped()).isEqualTo(0);
+    }
+
+    @Test
+    public void shouldNotRetryRejectedCallback() throws Exception {
+        responseCodes.add(400);
+        callbackQueue = new CallbackQueue(HttpUtils.getPermissivePoolingHttpClient(2, CallbackQueue.DEFAULT_TIMEOUT_MILLIS), 2, 5, 10, 100);
+
+        callbackQueue.submit(CALLBACK_TYPE, () -> new HttpPost(endpoint));
+
+        assertThat(requestLatch.await(10, TimeUnit.SECONDS)).isTrue();
+        waitForPendingCallbacks();
+        CallbackMetrics.CallbackStats stats = callbackQueue.getMetrics().getStats(CALLBACK_TYPE);
+        assertThat(requests.get()).isEqualTo(1);
+        assertThat(stats.getFailures()).isEqualTo(1);
+        assertThat(stats.getRetries()).isEqualTo(0);
+        assertThat(stats.getDropped()).isEqualTo(1);
+    }
+
+    @Test
+    public void shouldDropCallbackAfterMaxAttempts() throws Exception {
+        for (int i = 0; i < 3; i++) {
+            responseCodes.add(500);
+        }
+        requestLatch = new CountDownLatch(3);
+        callbackQueue = new CallbackQueue(HttpUtils.getPermissivePoolingHttpClient(2, CallbackQueue.DEFAULT_TIMEOUT_MILLIS), 2, 3, 10, 100);
+
+        callbackQueue.submit(CALLBACK_TYPE, () -> new HttpPost(endpoint));
+
+        assertThat(requestLatch.await(10, TimeUnit.SECONDS)).isTrue();
+        waitForPendingCallbacks();
+        CallbackMetrics.CallbackStats stats = callbackQueue.getMetrics().getStats(CALLBACK_TYPE);
+        assertThat(stats.getFailures()).isEqualTo(3);
+        assertThat(stats.getRetries()).isEqualTo(2);
+        assertThat(stats.getDropped()).isEqualTo(1);
+    }
+
+    @Test
+    public void shouldLimitConcurrentCallbacks() throws Exception {
+        int callbacks = 20;
+        responseDelayMillis = 50;
+        requestLatch = new CountDownLatch(callbacks);
+        callbackQueue = new CallbackQueue(HttpUtils.getPermissivePoolingHttpClient(3, CallbackQueue.DEFAULT_TIMEOUT_MILLIS), 3, 1, 10, 100);
+
+        for (int i = 0; i < callbacks; i++) {
+            assertThat(callbackQueue.submit(CALLBACK_TYPE, () -> new HttpPost(endpoint))).isTrue();
+        }
+
+        assertThat(requestLatch.await(10, TimeUnit.SECONDS)).isTrue();
+        waitForPendingCallbacks();
+        assertThat(maxConcurrentRequests.get()).isLessThanOrEqualTo(3);
+        assertThat(callbackQueue.getMetrics().getStats(CALLBACK_TYPE).getSuccesses()).isEqualTo(callbacks);
+    }
+
+    @Test
+    public void shouldRejectCallbacksWhenQueueIsFull() throws Exception {
+        responseDelayMillis = 200;
+        callbackQueue = new CallbackQueue(HttpUtils.getPermissivePoolingHttpClient(1, CallbackQueue.DEFAULT_TIMEOUT_MILLIS), 1, 1, 10, 2);
+
+        assertThat(callbackQueue.submit(CALLBACK_TYPE, () -> new HttpPost(endpoint))).isTrue();
+        assertThat(callbackQueue.submit(CALLBACK_TYPE, () -> new HttpPost(endpoint))).isTrue();
+        assertThat(callbackQueue.submit(CALLBACK_TYPE, () -> new HttpPost(endpoint))).isFalse();
+
+        assertThat(callbackQueue.getMetrics().getStats(CALLBACK_TYPE).getDropped()).isEqualTo(1);
+    }
+
+    @Test
+    public void shouldCollectMetricsPerCallbackType() throws Exception {
+        requestLatch = new CountDownLatch(3);
+        callbackQueue = new CallbackQueue(HttpUtils.getPermissivePoolingHttpClient(2, CallbackQueue.DEFAULT_TIMEOUT_MILLIS), 2, 1, 10, 100);
+
+        for (int i = 0; i < 3; i++) {
+            String url = endpoint + "/" + i;
+            callbackQueue.submit(CALLBACK_TYPE, () -> new HttpPost(url));
+        }
+
+        assertThat(requestLatch.await(10, TimeUnit.SECONDS)).isTrue();
+        waitForPendingCallbacks();
+        assertThat(callbackQueue.getMetrics().getAll()).containsOnlyKeys(CALLBACK_TYPE);
+        assertThat(callbackQueue.getMetrics().getStats(CALLBACK_TYPE).getSuccesses()).isEqualTo(3);
+    }
+
+    @Test
+    public void shouldFailCallbackWhenResponseTimesOut() throws Exception {
+        responseDelayMillis = 500;
+        callbackQueue = new CallbackQueue(HttpUtils.getPermissivePoolingHttpClient(1, 100), 1, 1, 10, 100);
+
+        callbackQueue.submit(CALLBACK_TYPE, () -> new HttpPost(endpoint));
+
+        waitForPendingCallbacks();
+        CallbackMetrics.CallbackStats stats = callbackQueue.getMetrics().getStats(CALLBACK_TYPE);
+        assertThat(stats.getFailures()).isEqualTo(1);
+        assertThat(stats.getDropped()).isEqualTo(1);
+    }
+
+    @Test
+    public void shouldCapBackoff() {
+        callbackQueue = new CallbackQueue(HttpUtils.getPermissivePoolingHttpClient(1, CallbackQueue.DEFAULT_TIMEOUT_MILLIS), 1, 100, 1000, 100);
+
+        assertThat(callbackQueue.getBackoffMillis(1)).isEqualTo(1000);
+        assertThat(callbackQueue.getBackoffMillis(2)).isEqualTo(2000);
+        assertThat(callbackQueue.getBackoffMillis(4)).isEqualTo(8000);
+        assertThat(callbackQueue.getBackoffMillis(60)).isEqualTo(CallbackQueue.MAX_BACKOFF_MILLIS);
+    }
+
+    private void waitForPendingCallbacks() throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (callbackQueue.getPendingCount() > 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(callbackQueue.getPendingCount()).isEqualTo(0);
+    }
+}
@@ -0,0 +1,54 @@
+/**
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.pnc.spi;
+
+/**
+ * Status of an asynchronously triggered build of a build configuration or a build configuration set.
+ */
+public enum BuildTriggerStatus {
+    /**
+     * The trigger is validated and waits for a free worker.
+     */
+    ACCEPTED,
+    /**
+     * The build is being initialized.
+     */
+    INITIALIZING,
+    /**
+     * The build is submitted to the build coordinator.
+     */
+    TRIGGERED(true),
+    /**
+     * The build couldn't be initialized.
+     */
+    FAILED(true);
+
+    private final boolean isFinal;
+
+    BuildTriggerStatus() {
+        isFinal = false;
+    }
+
+    BuildTriggerStatus(boolean isFinal) {
+        this.isFinal = isFinal;
+    }
+
+    public boolean isCompleted() {
+        return isFinal;
+    }
+}
@@ -92,6 +92,22 @@ public interface Datastore {
      */
     BuildConfigurationAudited getLatestBuildConfigurationAudited(Integer buildConfigId);
 
+    /**
+     * Get the number of the latest audited revision of the given build configuration.
+     *
+     * @param buildConfigId The id of the config to check
+     * @return The latest revision number or null if the build configuration has no revision
+     */
+    Integer getLatestBuildConfigurationAuditedRevision(Integer buildConfigId);
+
+    /**
+     * Get a version of the entities referenced by the audited build configurations (projects with their build
+     * configurations and licenses, and build environments), which are not versioned by the audit revisions.
+     *
+     * @return Version, which changes whenever any of the referenced entities is changed, or null if it isn't known
+     */
+    String getBuildConfigurationAuditedAssociationsVersion();
+
     BuildConfigSetRecord getBuildConfigSetRecordById(Integer buildConfigSetRecordId);
     
     /**
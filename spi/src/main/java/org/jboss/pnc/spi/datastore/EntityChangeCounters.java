@@ -0,0 +1,35 @@
+/**
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.pnc.spi.datastore;
+
+/**
+ * Counts committed changes of entities. Used to build cheap validators (e.g. HTTP ETags) of data derived from the
+ * entities without querying them.
+ */
+public interface EntityChangeCounters {
+
+    /**
+     * Gets an opaque version of the given entity types. The version changes whenever a transaction changing any of
+     * the entities (or their collections) is committed on any node.
+     *
+     * @param entityClasses Entity types the version is computed from
+     * @return Version, which is never equal to the version returned before a change, or null when some of the
+     *         entity types aren't counted.
+     */
+    String getVersion(Class<?>... entityClasses);
+}
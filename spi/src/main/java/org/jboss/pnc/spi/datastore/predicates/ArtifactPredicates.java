@@ -26,6 +26,7 @@ import org.jboss.pnc.model.ProductMilestone_;
 import org.jboss.pnc.spi.datastore.repositories.api.Predicate;
 
 import javax.persistence.criteria.Join;
+import java.util.Collection;
 
 /**
  * Predicates for {@link org.jboss.pnc.model.Artifact} entity.
@@ -62,4 +63,8 @@ public class ArtifactPredicates {
         return (root, query, cb) -> cb.equal(root.get(Artifact_.originUrl), originUrl);
     }
 
+    public static Predicate<Artifact> withOriginUrlIn(Collection<String> originUrls) {
+        return (root, query, cb) -> root.get(Artifact_.originUrl).in(originUrls);
+    }
+
 }
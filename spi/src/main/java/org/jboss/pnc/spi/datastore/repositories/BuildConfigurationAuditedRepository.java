@@ -28,4 +28,20 @@ import java.util.List;
  */
 public interface BuildConfigurationAuditedRepository extends Repository<BuildConfigurationAudited, IdRev> {
     List<BuildConfigurationAudited> findAllByIdOrderByRevDesc(Integer id);
+
+    /**
+     * Gets the latest revision of a build configuration without loading the older ones.
+     *
+     * @param id of the build configuration
+     * @return The latest revision or null if there is none.
+     */
+    BuildConfigurationAudited findLatestById(Integer id);
+
+    /**
+     * Gets the latest revision number of a build configuration without loading the revision.
+     *
+     * @param id of the build configuration
+     * @return The latest revision number or null if there is none.
+     */
+    Integer getLatestRevision(Integer id);
 }
@@ -20,8 +20,30 @@ package org.jboss.pnc.spi.datastore.repositories;
 import org.jboss.pnc.model.BuildConfiguration;
 import org.jboss.pnc.spi.datastore.repositories.api.Repository;
 
+import java.util.Collection;
+import java.util.Date;
+import java.util.Map;
+import java.util.Set;
+
 /**
  * Interface for manipulating {@link org.jboss.pnc.model.BuildConfiguration} entity.
  */
 public interface BuildConfigurationRepository extends Repository<BuildConfiguration, Integer> {
+
+    /**
+     * Gets ids of the dependencies of the given build configurations without loading the dependencies.
+     *
+     * @param buildConfigurationIds ids of the build configurations
+     * @return Dependency ids by build configuration id. Configurations without dependencies are not included.
+     */
+    Map<Integer, Set<Integer>> queryDependencyIds(Collection<Integer> buildConfigurationIds);
+
+    /**
+     * Gets the optimistic lock version of a build configuration without loading it. The version changes with every
+     * update of the configuration, including changes of its product version and dependencies.
+     *
+     * @param id of the build configuration
+     * @return The last modification time or null if there is no such configuration.
+     */
+    Date getLastModificationTime(Integer id);
 }
@@ -20,8 +20,28 @@ package org.jboss.pnc.spi.datastore.repositories;
 import org.jboss.pnc.model.ProductMilestone;
 import org.jboss.pnc.spi.datastore.repositories.api.Repository;
 
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
+
 /**
  * Interface for manipulating {@link org.jboss.pnc.model.ProductMilestone} entity.
  */
 public interface ProductMilestoneRepository extends Repository<ProductMilestone, Integer> {
+
+    /**
+     * Gets ids of the builds performed in the given milestones without loading the build records.
+     *
+     * @param milestoneIds ids of the milestones
+     * @return Build record ids by milestone id. Milestones without performed builds are not included.
+     */
+    Map<Integer, Set<Integer>> queryPerformedBuildIds(Collection<Integer> milestoneIds);
+
+    /**
+     * Gets ids of the artifacts distributed in the given milestones without loading the artifacts.
+     *
+     * @param milestoneIds ids of the milestones
+     * @return Artifact ids by milestone id. Milestones without distributed artifacts are not included.
+     */
+    Map<Integer, Set<Integer>> queryDistributedArtifactIds(Collection<Integer> milestoneIds);
 }
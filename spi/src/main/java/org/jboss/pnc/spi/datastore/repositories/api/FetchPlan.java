@@ -0,0 +1,37 @@
+/**
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.pnc.spi.datastore.repositories.api;
+
+import java.util.List;
+
+/**
+ * Named set of associations which are fetched together with the queried entities (in the same query), so mapping the
+ * entities into a view doesn't load the associations one by one.
+ *
+ * @param <T> Type of the queried entity.
+ */
+public interface FetchPlan<T> {
+
+    String getName();
+
+    /**
+     * @return Paths of the fetched associations relative to the queried entity, nested paths are separated by dots
+     *         (i.e. <code>buildConfigurationAudited.project</code>).
+     */
+    List<String> getAttributePaths();
+}
@@ -20,14 +20,48 @@ package org.jboss.pnc.spi.datastore.repositories.api;
 import org.jboss.pnc.model.GenericEntity;
 
 import java.io.Serializable;
+import java.util.Collection;
 import java.util.List;
 
 public interface ReadOnlyRepository<T extends GenericEntity<ID>, ID extends Serializable> {
     List<T> queryAll();
     List<T> queryAll(PageInfo pageInfo, SortInfo sortInfo);
     T queryById(ID id);
+
+    /**
+     * Selects entities with the given ids by a few <code>IN</code> queries, each of them restricted to a chunk of
+     * the ids. Ids without an entity are skipped, the order of the returned entities is not defined.
+     */
+    List<T> queryByIds(Collection<ID> ids, FetchPlan<T> fetchPlan);
     T queryByPredicates(Predicate<T>... predicates);
     int count(Predicate<T>... predicates);
     List<T> queryWithPredicates(Predicate<T>... predicates);
     List<T> queryWithPredicates(PageInfo pageInfo, SortInfo sortInfo, Predicate<T>... predicates);
+    List<T> queryWithPredicates(PageInfo pageInfo, SortInfo sortInfo, FetchPlan<T> fetchPlan, Predicate<T>... predicates);
+    List<T> queryWithPredicatesAfter(ID lastId, int pageSize, SortInfo sortInfo, Predicate<T>... predicates);
+    List<T> queryWithPredicatesAfter(ID lastId, int pageSize, SortInfo sortInfo, FetchPlan<T> fetchPlan, Predicate<T>... predicates);
+
+    /**
+     * Selects <code>maxResults</code> entities starting at row <code>firstResult</code>, which doesn't have to be
+     * aligned to pages. Entities are sorted by the sort fields and then by id, so the order is stable.
+     */
+    List<T> queryWithPredicatesFrom(int firstResult, int maxResults, SortInfo sortInfo, FetchPlan<T> fetchPlan,
+            Predicate<T>... predicates);
+
+    /**
+     * Projection variant of {@link #queryWithPredicatesFrom(int, int, SortInfo, FetchPlan, Predicate[])}. Selects
+     * only the given attributes instead of whole entities, so no entity or association is loaded.
+     *
+     * @param attributePaths Attributes to select, dot separated paths traverse associations (e.g. "user.username")
+     * @return Rows with the values of the attributes in the order of the paths
+     */
+    List<Object[]> queryProjectionFrom(int firstResult, int maxResults, SortInfo sortInfo, List<String> attributePaths,
+            Predicate<T>... predicates);
+
+    /**
+     * Keyset variant of {@link #queryProjectionFrom(int, int, SortInfo, List, Predicate[])}, selecting rows sorted
+     * right after the entity with the given id.
+     */
+    List<Object[]> queryProjectionAfter(ID lastId, int maxResults, SortInfo sortInfo, List<String> attributePaths,
+            Predicate<T>... predicates);
 }
@@ -0,0 +1,52 @@
+/**
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.pnc.spi.datastore.repositories.api.impl;
+
+import com.google.common.base.Preconditions;
+import org.jboss.pnc.spi.datastore.repositories.api.FetchPlan;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+public class DefaultFetchPlan<T> implements FetchPlan<T> {
+
+    protected final String name;
+    protected final List<String> attributePaths;
+
+    public DefaultFetchPlan(String name, String... attributePaths) {
+        Preconditions.checkArgument(name != null, "Fetch plan name must not be null");
+        this.name = name;
+        this.attributePaths = Collections.unmodifiableList(Arrays.asList(attributePaths));
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public List<String> getAttributePaths() {
+        return attributePaths;
+    }
+
+    @Override
+    public String toString() {
+        return "FetchPlan " + name + " " + attributePaths;
+    }
+}
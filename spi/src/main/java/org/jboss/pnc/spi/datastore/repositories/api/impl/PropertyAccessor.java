@@ -0,0 +1,144 @@
+/**
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.pnc.spi.datastore.repositories.api.impl;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Reads a (possibly nested, e.g. <code>user.username</code>) bean property without per-call reflection.
+ *
+ * <p>
+ *     Getters are resolved once per class and property path and invoked through method handles afterwards. Accessors
+ *     are cached, so {@link #forProperty(Class, String)} is cheap enough to be called for every compared element.
+ * </p>
+ */
+public final class PropertyAccessor {
+
+    private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+
+    private static final ClassValue<ConcurrentMap<String, PropertyAccessor>> accessors = new ClassValue<ConcurrentMap<String, PropertyAccessor>>() {
+        @Override
+        protected ConcurrentMap<String, PropertyAccessor> computeValue(Class<?> type) {
+            return new ConcurrentHashMap<>();
+        }
+    };
+
+    private final Class<?> declaringType;
+    private final String propertyPath;
+    private final MethodHandle[] getters;
+    private final Class<?> propertyType;
+
+    private PropertyAccessor(Class<?> type, String propertyPath) {
+        String[] properties = propertyPath.split("\\.");
+        this.getters = new MethodHandle[properties.length];
+
+        Class<?> currentType = type;
+        for (int i = 0; i < properties.length; i++) {
+            Method getter = findGetter(currentType, properties[i]);
+            getters[i] = toMethodHandle(getter);
+            currentType = getter.getReturnType();
+        }
+        this.declaringType = type;
+        this.propertyPath = propertyPath;
+        this.propertyType = currentType;
+    }
+
+    /**
+     * Gets accessor of the property.
+     *
+     * @param type Class declaring (or inheriting) the first property of the path.
+     * @param propertyPath Property path, nested properties are separated by dots.
+     * @return Property accessor.
+     * @throws IllegalArgumentException if there is no public getter for some of the properties.
+     */
+    public static PropertyAccessor forProperty(Class<?> type, String propertyPath) {
+        return accessors.get(type).computeIfAbsent(propertyPath, path -> new PropertyAccessor(type, path));
+    }
+
+    /**
+     * Reads the property value.
+     *
+     * @param instance Instance to read the property from.
+     * @return Property value or null if the instance or any of the nested properties is null.
+     */
+    public Object get(Object instance) {
+        Object current = instance;
+        try {
+            for (MethodHandle getter : getters) {
+                if (current == null) {
+                    return null;
+                }
+                current = (Object) getter.invokeExact(current);
+            }
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new IllegalStateException("Unable to read property " + propertyPath, e);
+        }
+        return current;
+    }
+
+    /**
+     * @return Declared type of the (last) property in the path.
+     */
+    public Class<?> getPropertyType() {
+        return propertyType;
+    }
+
+    /**
+     * @return Class the accessor was created for.
+     */
+    public Class<?> getDeclaringType() {
+        return declaringType;
+    }
+
+    public String getPropertyPath() {
+        return propertyPath;
+    }
+
+    private static Method findGetter(Class<?> type, String property) {
+        String capitalized = Character.toUpperCase(property.charAt(0)) + property.substring(1);
+        for (String prefix : new String[] { "get", "is" }) {
+            try {
+                return type.getMethod(prefix + capitalized);
+            } catch (NoSuchMethodException e) {
+                // try the next prefix
+            }
+        }
+        throw new IllegalArgumentException("There is no getter for property " + property + " in " + type.getName());
+    }
+
+    private static MethodHandle toMethodHandle(Method getter) {
+        try {
+            // public getters of non public classes (e.g. anonymous or nested test classes)
+            getter.setAccessible(true);
+        } catch (RuntimeException e) {
+            // try to access the method without suppressing the access checks
+        }
+        try {
+            return MethodHandles.lookup().unreflect(getter).asType(GETTER_TYPE);
+        } catch (IllegalAccessException e) {
+            throw new IllegalArgumentException("Getter " + getter + " is not accessible", e);
+        }
+    }
+}
@@ -0,0 +1,97 @@
+/**
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.pnc.spi.datastore.repositories.api.impl;
+
+import org.jboss.pnc.spi.datastore.repositories.api.SortInfo;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Compares instances by a list of (possibly nested) properties using {@link PropertyAccessor}s.
+ *
+ * <p>
+ *     Accessors of the last compared class are kept, so sorting a homogeneous collection doesn't even hit the accessor
+ *     cache. Null values are greater than any other value, so they are sorted last in ascending and first in descending
+ *     order, the same as in the keyset ordered database queries. Values which are not mutually comparable are compared
+ *     by their string representation.
+ * </p>
+ */
+public class PropertyComparator<T> implements Comparator<T> {
+
+    private final List<String> properties;
+    private final boolean ascending;
+
+    private volatile CompiledAccessors lastAccessors;
+
+    public PropertyComparator(List<String> properties, SortInfo.SortingDirection direction) {
+        this.properties = new ArrayList<>(properties);
+        this.ascending = direction != SortInfo.SortingDirection.DESC;
+    }
+
+    @Override
+    public int compare(T x, T y) {
+        PropertyAccessor[] xAccessors = getAccessors(x.getClass());
+        PropertyAccessor[] yAccessors = x.getClass() == y.getClass() ? xAccessors : getAccessors(y.getClass());
+        for (int i = 0; i < xAccessors.length; i++) {
+            int result = compareValues(xAccessors[i].get(x), yAccessors[i].get(y));
+            if (result != 0) {
+                return result;
+            }
+        }
+        return 0;
+    }
+
+    @SuppressWarnings("unchecked")
+    private int compareValues(Object v1, Object v2) {
+        int result;
+        if (v1 == null || v2 == null) {
+            result = v1 == v2 ? 0 : (v1 == null ? 1 : -1);
+        } else if (v1 instanceof Comparable && v1.getClass().isInstance(v2)) {
+            result = ((Comparable<Object>) v1).compareTo(v2);
+        } else {
+            result = v1.toString().compareTo(v2.toString());
+        }
+        return ascending ? result : -result;
+    }
+
+    private PropertyAccessor[] getAccessors(Class<?> type) {
+        CompiledAccessors compiled = lastAccessors;
+        if (compiled == null || compiled.type != type) {
+            PropertyAccessor[] accessors = new PropertyAccessor[properties.size()];
+            for (int i = 0; i < accessors.length; i++) {
+                accessors[i] = PropertyAccessor.forProperty(type, properties.get(i));
+            }
+            compiled = new CompiledAccessors(type, accessors);
+            lastAccessors = compiled;
+        }
+        return compiled.accessors;
+    }
+
+    private static final class CompiledAccessors {
+
+        private final Class<?> type;
+        private final PropertyAccessor[] accessors;
+
+        private CompiledAccessors(Class<?> type, PropertyAccessor[] accessors) {
+            this.type = type;
+            this.accessors = accessors;
+        }
+    }
+}
@@ -17,6 +17,8 @@
  */
 package org.jboss.pnc.spi.notifications;
 
+import java.util.List;
+
 /**
  * A generic WS client.
  */
@@ -31,7 +33,17 @@ public interface AttachedClient {
      * Sends a message to the client
      *
      * @param messageBody Message body - depends on implementation how to deal with it.
+     * @param encodedMessage Message body encoded by the notifier, shared by all the clients receiving the message
+     * @param callback the callback from the asynch method
+     */
+    void sendMessage(Object messageBody, String encodedMessage, MessageCallback callback);
+
+    /**
+     * Sends the messages to the client in the given order without merging or dropping any of them. Replayed
+     * messages are sent to a single client, so they are encoded by the client.
+     *
+     * @param messages Message bodies - depends on implementation how to deal with them.
      * @param callback the callback from the asynch method
      */
-    void sendMessage(Object messageBody, MessageCallback callback);
+    void replay(List<?> messages, MessageCallback callback);
 }
@@ -17,6 +17,8 @@
  */
 package org.jboss.pnc.spi.notifications;
 
+import java.util.List;
+
 /**
  * Notification mechanism for Web Sockets. All implementation details should be placed in AttachedClient.
  */
@@ -26,9 +28,27 @@ public interface Notifier {
 
     void detachClient(AttachedClient attachedClient);
 
+    /**
+     * Restricts the notifications sent to the client to the ones matching its subscriptions. Clients which never
+     * subscribed receive all the notifications.
+     */
+    void subscribe(AttachedClient attachedClient, Subscription subscription);
+
+    void unsubscribe(AttachedClient attachedClient, Subscription subscription);
+
     int getAttachedClientsCount();
 
     void sendMessage(Object message);
 
+    /**
+     * Sends the message to a single attached client regardless of its subscriptions.
+     */
+    void sendMessage(AttachedClient attachedClient, Object message);
+
+    /**
+     * Sends the messages matching the client subscriptions to a single attached client, in the given order.
+     */
+    void replay(AttachedClient attachedClient, List<?> messages);
+
     MessageCallback getCallback();
 }
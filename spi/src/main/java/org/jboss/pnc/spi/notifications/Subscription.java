@@ -0,0 +1,130 @@
+/**
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.pnc.spi.notifications;
+
+import org.jboss.pnc.spi.notifications.model.BuildChangedPayload;
+import org.jboss.pnc.spi.notifications.model.BuildSetChangedPayload;
+import org.jboss.pnc.spi.notifications.model.BuildTriggerChangedPayload;
+import org.jboss.pnc.spi.notifications.model.Notification;
+import org.jboss.pnc.spi.notifications.model.NotificationPayload;
+
+import java.util.HashSet;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Interest of a client in the notifications about a single entity (or a single event type).
+ * A notification is delivered to a subscribed client when one of its {@link #matching(Notification) keys}
+ * equals to one of the client subscriptions.
+ */
+public final class Subscription {
+
+    public enum Topic {
+        /**
+         * Build task id
+         */
+        BUILD,
+        BUILD_CONFIGURATION,
+        /**
+         * Build set task id, which is also the id of the build config set record
+         */
+        BUILD_SET,
+        BUILD_CONFIGURATION_SET,
+        /**
+         * Build trigger UUID
+         */
+        BUILD_TRIGGER,
+        USER,
+        /**
+         * Name of the {@link org.jboss.pnc.spi.notifications.model.EventType}
+         */
+        EVENT_TYPE
+    }
+
+    private final Topic topic;
+
+    private final String id;
+
+    public Subscription(Topic topic, Object id) {
+        this.topic = Objects.requireNonNull(topic, "Subscription topic must be set.");
+        this.id = String.valueOf(Objects.requireNonNull(id, "Subscription id must be set."));
+    }
+
+    public Topic getTopic() {
+        return topic;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    /**
+     * @return All the subscriptions the notification should be delivered to
+     */
+    public static Set<Subscription> matching(Notification notification) {
+        Set<Subscription> keys = new HashSet<>();
+        if (notification.getEventType() != null) {
+            keys.add(new Subscription(Topic.EVENT_TYPE, notification.getEventType().name()));
+        }
+        NotificationPayload payload = notification.getPayload();
+        if (payload == null) {
+            return keys;
+        }
+        addIfPresent(keys, Topic.USER, payload.getUserId());
+        if (payload instanceof BuildChangedPayload) {
+            addIfPresent(keys, Topic.BUILD, payload.getId());
+            addIfPresent(keys, Topic.BUILD_CONFIGURATION, ((BuildChangedPayload) payload).getBuildConfigurationId());
+        } else if (payload instanceof BuildSetChangedPayload) {
+            addIfPresent(keys, Topic.BUILD_SET, payload.getId());
+            addIfPresent(keys, Topic.BUILD_CONFIGURATION_SET, ((BuildSetChangedPayload) payload).getBuildSetConfigurationId());
+        } else if (payload instanceof BuildTriggerChangedPayload) {
+            BuildTriggerChangedPayload triggerPayload = (BuildTriggerChangedPayload) payload;
+            addIfPresent(keys, Topic.BUILD_TRIGGER, triggerPayload.getTriggerId());
+            addIfPresent(keys, Topic.BUILD_CONFIGURATION, triggerPayload.getBuildConfigurationId());
+            addIfPresent(keys, Topic.BUILD_CONFIGURATION_SET, triggerPayload.getBuildConfigurationSetId());
+        }
+        return keys;
+    }
+
+    private static void addIfPresent(Set<Subscription> keys, Topic topic, Object id) {
+        if (id != null) {
+            keys.add(new Subscription(topic, id));
+        }
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o)
+            return true;
+        if (o == null || getClass() != o.getClass())
+            return false;
+
+        Subscription that = (Subscription) o;
+        return topic == that.topic && id.equals(that.id);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * topic.hashCode() + id.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return "Subscription{" + topic + ":" + id + '}';
+    }
+}
@@ -0,0 +1,78 @@
+/**
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.pnc.spi.notifications.model;
+
+import org.jboss.pnc.spi.BuildTriggerStatus;
+
+public class BuildTriggerChangedPayload implements NotificationPayload {
+
+    private final String triggerId;
+    private final BuildTriggerStatus triggerStatus;
+    private final Integer userId;
+    private final Integer buildConfigurationId;
+    private final Integer buildConfigurationSetId;
+    private final Integer buildId;
+
+    /**
+     * @param triggerId UUID of the build trigger
+     * @param buildId Id of the triggered build task or build set task, null until the build is triggered
+     */
+    public BuildTriggerChangedPayload(String triggerId, BuildTriggerStatus triggerStatus, Integer buildConfigurationId,
+            Integer buildConfigurationSetId, Integer buildId, Integer userId) {
+        this.triggerId = triggerId;
+        this.triggerStatus = triggerStatus;
+        this.userId = userId;
+        this.buildConfigurationId = buildConfigurationId;
+        this.buildConfigurationSetId = buildConfigurationSetId;
+        this.buildId = buildId;
+    }
+
+    public BuildTriggerStatus getTriggerStatus() {
+        return triggerStatus;
+    }
+
+    /**
+     * Build triggers have no numeric id, they are identified by {@link #getTriggerId()}.
+     */
+    @Override
+    public Integer getId() {
+        return null;
+    }
+
+    public String getTriggerId() {
+        return triggerId;
+    }
+
+    @Override
+    public Integer getUserId() {
+        return userId;
+    }
+
+    public Integer getBuildConfigurationId() {
+        return buildConfigurationId;
+    }
+
+    public Integer getBuildConfigurationSetId() {
+        return buildConfigurationSetId;
+    }
+
+    public Integer getBuildId() {
+        return buildId;
+    }
+
+}
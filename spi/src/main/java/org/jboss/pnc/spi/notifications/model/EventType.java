@@ -18,5 +18,9 @@
 package org.jboss.pnc.spi.notifications.model;
 
 public enum EventType {
-    BUILD_STATUS_CHANGED, BUILD_SET_STATUS_CHANGED
+    BUILD_STATUS_CHANGED, BUILD_SET_STATUS_CHANGED, BUILD_TRIGGER_STATUS_CHANGED,
+    /**
+     * The notifications missed by the client are no longer available, the client must reload its data
+     */
+    RESYNC_REQUIRED
 }
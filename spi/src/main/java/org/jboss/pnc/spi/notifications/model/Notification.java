@@ -25,10 +25,24 @@ public class Notification {
 
     private final NotificationPayload payload;
 
+    /**
+     * Position in the notification journal, null until the notification is journaled
+     */
+    private final Long sequence;
+
     public Notification(EventType eventType, String exceptionMessage, NotificationPayload payload) {
+        this(eventType, exceptionMessage, payload, null);
+    }
+
+    public Notification(EventType eventType, String exceptionMessage, NotificationPayload payload, Long sequence) {
         this.exceptionMessage = exceptionMessage;
         this.payload = payload;
         this.eventType = eventType;
+        this.sequence = sequence;
+    }
+
+    public Notification withSequence(long sequence) {
+        return new Notification(eventType, exceptionMessage, payload, sequence);
     }
 
     public String getExceptionMessage() {
@@ -42,4 +56,8 @@ public class Notification {
     public EventType getEventType() {
         return eventType;
     }
+
+    public Long getSequence() {
+        return sequence;
+    }
 }